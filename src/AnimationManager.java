@@ -1,13 +1,15 @@
-import javafx.animation.Timeline;
-import javafx.animation.KeyFrame;
-import javafx.util.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Manages animations for game objects.
  * Provides methods to create different types of animations for player and enemies,
  * and handles cancellation and cleanup of active animations.
+ * Animations are timed with the game clock and advanced by the game engine each tick,
+ * so they pause, speed up and replay together with the simulation.
  * 
  * @author @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
  * @version 1.0
@@ -15,7 +17,19 @@ import java.util.Map;
 
 public class AnimationManager {
     // Map to track all active animations with their associated game objects
-    private static final Map<GameObject, Timeline> activeAnimations = new HashMap<>();
+    private static final Map<GameObject, ClockAnimation> activeAnimations = new HashMap<>();
+    
+    // Clock used to time animation key frames
+    private static GameClock clock = new GameClock();
+    
+    /**
+     * Sets the game clock used to time all animations.
+     * 
+     * @param gameClock The clock advanced by the game engine each tick.
+     */
+    public static void setClock(GameClock gameClock) {
+        clock = gameClock;
+    }
     
     /**
      * Creates a jump animation for the player.
@@ -28,36 +42,15 @@ public class AnimationManager {
         try {
             cancelExistingAnimation(player);
             
-            Timeline timeline = new Timeline(
-                new KeyFrame(Duration.millis(100), e -> {
-                    try {
-                        player.setActive(false);
-                       
-                    } catch (Exception ex) {
-                        System.err.println("Exception" + ex.getMessage());
-                        ex.printStackTrace();
-                    }
-                }),
-                new KeyFrame(Duration.millis(200), e -> {
-                    try {
-                        if (!player.isDying()) { 
-                            player.setActive(true);
-                            
-                        }
-                    } catch (Exception ex) {
-                        System.err.println("Exception" + ex.getMessage());
-                        ex.printStackTrace();
-                    }
-                })
-            );
-            
-            timeline.setCycleCount(1);
-            activeAnimations.put(player, timeline);
-            timeline.play();
-            
-            timeline.setOnFinished(e -> {
-                activeAnimations.remove(player);
+            ClockAnimation animation = new ClockAnimation();
+            animation.addKeyFrame(100, () -> player.setActive(false));
+            animation.addKeyFrame(200, () -> {
+                if (!player.isDying()) {
+                    player.setActive(true);
+                }
             });
+            
+            activeAnimations.put(player, animation);
         } catch (Exception e) {
             System.err.println("Exception" + e.getMessage());
             e.printStackTrace();
@@ -80,16 +73,11 @@ public class AnimationManager {
         try {
             cancelExistingAnimation(enemy);
             
-            Timeline timeline = new Timeline(
-                new KeyFrame(Duration.millis(100), e -> enemy.setActive(false)),
-                new KeyFrame(Duration.millis(200), e -> enemy.setActive(true))
-            );
+            ClockAnimation animation = new ClockAnimation();
+            animation.addKeyFrame(100, () -> enemy.setActive(false));
+            animation.addKeyFrame(200, () -> enemy.setActive(true));
             
-            timeline.setCycleCount(1);
-            activeAnimations.put(enemy, timeline);
-            timeline.play();
-            
-            timeline.setOnFinished(e -> activeAnimations.remove(enemy));
+            activeAnimations.put(enemy, animation);
         } catch (Exception e) {
             System.err.println("Exception" + e.getMessage());
             e.printStackTrace();
@@ -119,17 +107,10 @@ public class AnimationManager {
                     player.startDeathAnimation();
                 } 
             } else {
-                Timeline timeline = new Timeline(
-                    new KeyFrame(Duration.millis(300), e -> {
-                        object.setActive(false);
-                    })
-                );
-                
-                timeline.setCycleCount(1);
-                activeAnimations.put(object, timeline);
-                timeline.play();
+                ClockAnimation animation = new ClockAnimation();
+                animation.addKeyFrame(300, () -> object.setActive(false));
                 
-                timeline.setOnFinished(e -> activeAnimations.remove(object));
+                activeAnimations.put(object, animation);
             }
         } catch (Exception e) {
             System.err.println("Exception" + e.getMessage());
@@ -141,6 +122,27 @@ public class AnimationManager {
         }
     }
     
+    /**
+     * Advances all active animations to the current game clock time.
+     * Runs every key frame that has become due and removes finished animations.
+     * Called by the game engine once per tick after the clock has advanced.
+     */
+    public static void update() {
+        try {
+            Iterator<ClockAnimation> iterator = activeAnimations.values().iterator();
+            while (iterator.hasNext()) {
+                ClockAnimation animation = iterator.next();
+                animation.runDueKeyFrames(clock.getElapsedMillis());
+                if (animation.isFinished()) {
+                    iterator.remove();
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Exception" + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+    
      /**
      * Cancels any existing animation for a game object.
      * 
@@ -148,11 +150,7 @@ public class AnimationManager {
      */
     private static void cancelExistingAnimation(GameObject object) {
         try {
-            Timeline existingAnimation = activeAnimations.get(object);
-            if (existingAnimation != null) {
-                existingAnimation.stop();
-                activeAnimations.remove(object);
-            }
+            activeAnimations.remove(object);
         } catch (Exception e) {
             System.err.println("Exception" + e.getMessage());
             e.printStackTrace();
@@ -164,13 +162,52 @@ public class AnimationManager {
      */
     public static void cleanupAllAnimations() {
         try {
-            for (Timeline timeline : activeAnimations.values()) {
-                timeline.stop();
-            }
             activeAnimations.clear();
         } catch (Exception e) {
             System.err.println("Exception" + e.getMessage());
             e.printStackTrace();
         }
     }
+    
+    /**
+     * A one-shot animation made of key frames timed relative to its start on the game clock.
+     */
+    private static class ClockAnimation {
+        private final long startMillis = clock.getElapsedMillis();
+        private final List<Long> offsets = new ArrayList<>();
+        private final List<Runnable> actions = new ArrayList<>();
+        private int nextFrame = 0;
+        
+        /**
+         * Adds a key frame. Key frames must be added in increasing time order.
+         * 
+         * @param offsetMillis Time after the animation start at which the action runs.
+         * @param action The action to run.
+         */
+        void addKeyFrame(long offsetMillis, Runnable action) {
+            offsets.add(offsetMillis);
+            actions.add(action);
+        }
+        
+        /**
+         * Runs every key frame whose time has been reached.
+         * 
+         * @param nowMillis The current game clock time in milliseconds.
+         */
+        void runDueKeyFrames(long nowMillis) {
+            while (nextFrame < offsets.size() && nowMillis - startMillis >= offsets.get(nextFrame)) {
+                try {
+                    actions.get(nextFrame).run();
+                } catch (Exception ex) {
+                    System.err.println("Exception" + ex.getMessage());
+                    ex.printStackTrace();
+                }
+                nextFrame++;
+            }
+        }
+        
+        boolean isFinished() {
+            return nextFrame >= offsets.size();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,253 @@
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Plays the game's sound effects on a thread of its own.
+ * The mixer reads the gameplay events and starts a voice for each event that
+ * has a sound. It then mixes all playing voices, a small block at a time,
+ * into an audio line that holds only a few blocks, which keeps latency low.
+ * At most MAX_VOICES sounds play at once. When all voices are busy, a new
+ * sound takes over the voice that has been playing longest.
+ * Every buffer is allocated up front, so mixing allocates nothing.
+ * Without a sound device, or when muted, the mixer runs against a null line:
+ * it mixes as usual and throws the result away, keeping the pace of a
+ * real line.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class AudioMixer {
+    /** Most sounds that play at once */
+    public static final int MAX_VOICES = 8;
+    /** Samples mixed at a time, about 6 ms */
+    public static final int BLOCK_FRAMES = 256;
+
+    // Blocks the line holds ahead of what is heard
+    private static final int LINE_BLOCKS = 4;
+    private static final long BLOCK_NANOS =
+        (long) (BLOCK_FRAMES * 1_000_000_000L / SoundBank.FORMAT.getSampleRate());
+
+    private final SoundBank bank;
+    private final SourceDataLine line;
+    private final int[] voiceSound = new int[MAX_VOICES];
+    private final int[] voicePosition = new int[MAX_VOICES];
+    private final float[] voiceGain = new float[MAX_VOICES];
+    private final long[] voiceStarted = new long[MAX_VOICES];
+    private final int[] mix = new int[BLOCK_FRAMES];
+    private final byte[] block = new byte[BLOCK_FRAMES * 2];
+    private long started = 0;
+    private int stolen = 0;
+    private volatile int activeVoices = 0;
+    private volatile float volume = 1.0f;
+
+    private GameEvents.Reader events;
+    private final GameEvents.Handler playEvent = this::playEvent;
+    private Thread thread;
+    private volatile boolean running = false;
+
+    /**
+     * Constructs a mixer that plays into the default sound device.
+     * Falls back to a null line if there is none.
+     *
+     * @param bank The sound effects to play.
+     * @param mute True to run against a null line whatever the device.
+     */
+    public AudioMixer(SoundBank bank, boolean mute) {
+        this.bank = bank;
+        this.line = mute ? null : openLine();
+        java.util.Arrays.fill(voiceSound, -1);
+    }
+
+    private static SourceDataLine openLine() {
+        try {
+            SourceDataLine line = AudioSystem.getSourceDataLine(SoundBank.FORMAT);
+            line.open(SoundBank.FORMAT, BLOCK_FRAMES * 2 * LINE_BLOCKS);
+            return line;
+        } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+            System.err.println("No audio line, playing silently: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Sets the gameplay events the mixer plays sounds for.
+     * Must be called before the mixer is started.
+     *
+     * @param gameEvents The gameplay events.
+     */
+    public void listen(GameEvents gameEvents) {
+        events = gameEvents.newReader();
+    }
+
+    /**
+     * Starts the mixing thread. Later calls do nothing until it is stopped.
+     */
+    public void start() {
+        if (running) return;
+        running = true;
+        if (line != null) line.start();
+        thread = new Thread(this::mixLoop, "Audio mixer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Stops the mixing thread and closes the line.
+     */
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            try {
+                thread.join(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+        if (line != null) {
+            line.stop();
+            line.flush();
+            line.close();
+        }
+    }
+
+    private void mixLoop() {
+        long deadline = System.nanoTime();
+        while (running) {
+            mixBlock();
+            if (line != null) {
+                // Blocks while the line is full, which paces the loop
+                line.write(block, 0, block.length);
+            } else {
+                deadline += BLOCK_NANOS;
+                long wait = deadline - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else if (wait < -BLOCK_NANOS * LINE_BLOCKS) {
+                    deadline = System.nanoTime();
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts the voices for any new gameplay events and mixes the next block.
+     * Called by the mixing thread; may be called directly when the mixer is
+     * not started, for example to check the mixing against a null line.
+     *
+     * @return The mixed block: BLOCK_FRAMES samples in the sound bank's format.
+     *         It is reused by the next call.
+     */
+    public byte[] mixBlock() {
+        if (events != null) {
+            events.drain(playEvent);
+        }
+
+        java.util.Arrays.fill(mix, 0);
+        int active = 0;
+        for (int v = 0; v < MAX_VOICES; v++) {
+            if (voiceSound[v] < 0) continue;
+            short[] samples = bank.get(voiceSound[v]);
+            int position = voicePosition[v];
+            int frames = Math.min(BLOCK_FRAMES, samples.length - position);
+            float gain = voiceGain[v];
+            for (int i = 0; i < frames; i++) {
+                mix[i] += (int) (samples[position + i] * gain);
+            }
+            voicePosition[v] = position + frames;
+            if (voicePosition[v] >= samples.length) {
+                voiceSound[v] = -1;
+            } else {
+                active++;
+            }
+        }
+        activeVoices = active;
+
+        float master = volume;
+        for (int i = 0; i < BLOCK_FRAMES; i++) {
+            int sample = (int) (mix[i] * master);
+            sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, sample));
+            block[i * 2] = (byte) sample;
+            block[i * 2 + 1] = (byte) (sample >> 8);
+        }
+        return block;
+    }
+
+    /**
+     * Plays the sound for a gameplay event, if it has one.
+     */
+    private void playEvent(int type, long tick, float x, float y, float amount) {
+        switch (type) {
+            case GameEvents.PLAYER_JUMPED: play(SoundBank.JUMP, 0.8f); break;
+            case GameEvents.COIN_COLLECTED: play(SoundBank.COIN, amount > 1 ? 1.0f : 0.7f); break;
+            case GameEvents.DAMAGE_TAKEN:
+            case GameEvents.ENEMY_ATTACK: play(SoundBank.HIT, 1.0f); break;
+            case GameEvents.LEVEL_COMPLETED: play(SoundBank.FLAG, 1.0f); break;
+            default: break;
+        }
+    }
+
+    /**
+     * Starts a sound on a free voice, or on the oldest one if none is free.
+     * Must only be called on the mixing thread.
+     *
+     * @param sound One of the sounds in {@link SoundBank}.
+     * @param gain The loudness of the sound, 1 for as recorded.
+     */
+    private void play(int sound, float gain) {
+        int voice = -1;
+        for (int v = 0; v < MAX_VOICES; v++) {
+            if (voiceSound[v] < 0) {
+                voice = v;
+                break;
+            }
+            if (voice < 0 || voiceStarted[v] < voiceStarted[voice]) {
+                voice = v;
+            }
+        }
+        if (voiceSound[voice] >= 0) stolen++;
+        voiceSound[voice] = sound;
+        voicePosition[voice] = 0;
+        voiceGain[voice] = gain;
+        voiceStarted[voice] = started++;
+    }
+
+    /**
+     * Sets the master volume.
+     *
+     * @param volume The volume, from 0 for silent to 1 for full.
+     */
+    public void setVolume(double volume) {
+        this.volume = (float) Math.max(0, Math.min(1, volume));
+    }
+
+    /**
+     * Checks whether the mixer plays into a sound device.
+     *
+     * @return False if it runs against a null line.
+     */
+    public boolean hasLine() {
+        return line != null;
+    }
+
+    /**
+     * Counts the voices playing a sound.
+     * Must only be called on the mixing thread, or while the mixer is not started.
+     *
+     * @param sound One of the sounds in {@link SoundBank}.
+     * @return The number of voices playing it.
+     */
+    public int getVoicesPlaying(int sound) {
+        int count = 0;
+        for (int v = 0; v < MAX_VOICES; v++) {
+            if (voiceSound[v] == sound) count++;
+        }
+        return count;
+    }
+
+    public int getActiveVoices() { return activeVoices; }
+    public int getStolenVoices() { return stolen; }
+}
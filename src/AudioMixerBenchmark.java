@@ -0,0 +1,88 @@
+import java.nio.file.Paths;
+
+/**
+ * Checks and times the sound mixer against a null line.
+ * First fills every voice, the oldest with a jump, and starts one more sound,
+ * which must take over the jump's voice. Then mixes a long stretch of blocks
+ * while gameplay events keep arriving, and checks that mixing allocated
+ * nothing, using the JVM's per-thread allocation counter. Prints the time per
+ * block and exits with status 1 if a check fails.
+ *
+ * Run with: java AudioMixerBenchmark [blocks]
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class AudioMixerBenchmark {
+    private static final int WARM_UP_BLOCKS = 20_000;
+
+    /**
+     * Runs the checks and the benchmark.
+     *
+     * @param args Optional number of blocks to mix.
+     */
+    public static void main(String[] args) {
+        int blocks = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        // No WAV files here, so every effect is synthesized
+        SoundBank bank = new SoundBank(Paths.get("no-sounds"));
+        boolean passed = true;
+
+        // The oldest voice is the one taken over
+        GameEvents events = new GameEvents(64);
+        AudioMixer mixer = new AudioMixer(bank, true);
+        mixer.listen(events);
+        events.publish(GameEvents.PLAYER_JUMPED, 0, 0, 0, 375);
+        for (int i = 1; i < AudioMixer.MAX_VOICES; i++) {
+            events.publish(GameEvents.LEVEL_COMPLETED, i, 0, 0, 1);
+        }
+        events.publish(GameEvents.COIN_COLLECTED, AudioMixer.MAX_VOICES, 0, 0, 1);
+        mixer.mixBlock();
+        boolean oldestStolen = mixer.getStolenVoices() == 1
+            && mixer.getVoicesPlaying(SoundBank.JUMP) == 0
+            && mixer.getVoicesPlaying(SoundBank.FLAG) == AudioMixer.MAX_VOICES - 1
+            && mixer.getVoicesPlaying(SoundBank.COIN) == 1;
+        passed &= report("Oldest voice stolen when all are busy", oldestStolen);
+
+        // Mixing allocates nothing
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        events = new GameEvents(1024);
+        mixer = new AudioMixer(bank, true);
+        mixer.listen(events);
+        // Warm up long enough for the mixing to be compiled, whatever the block count
+        for (int i = 0; i < WARM_UP_BLOCKS; i++) {
+            mixSome(mixer, events, i);
+        }
+        long bytes = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < blocks; i++) {
+            mixSome(mixer, events, i);
+        }
+        long time = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - bytes;
+        passed &= report("No allocation while mixing (" + allocated + " bytes)", allocated == 0);
+
+        System.out.printf("Mixing: %.2f us per %d-sample block, %d voices stolen%n",
+            time / 1e3 / blocks, AudioMixer.BLOCK_FRAMES, mixer.getStolenVoices());
+        if (!passed) System.exit(1);
+    }
+
+    /**
+     * Publishes a burst of events now and then, as a busy level would, and mixes one block.
+     */
+    private static void mixSome(AudioMixer mixer, GameEvents events, int i) {
+        if (i % 5 == 0) {
+            events.publish(i % 3 == 0 ? GameEvents.COIN_COLLECTED : GameEvents.PLAYER_JUMPED, i, 0, 0, 1);
+        }
+        if (i % 40 == 0) {
+            events.publish(GameEvents.ENEMY_ATTACK, i, 0, 0, 1);
+        }
+        mixer.mixBlock();
+    }
+
+    private static boolean report(String check, boolean passed) {
+        System.out.println((passed ? "PASS " : "FAIL ") + check);
+        return passed;
+    }
+}
@@ -17,14 +17,27 @@ public class BedouinMadnessGame extends Application {
     private GameView gameView;
     private UIManager uiManager;
     private InputHandler inputHandler;
+    private HighScoreStore highScoreStore;
+    private GhostRelay ghostRelay;
+    private AudioMixer audioMixer;
+    private TuningWatcher tuningWatcher;
+    private boolean shutDown = false;
+    private final java.nio.file.Path saveFile = java.nio.file.Paths.get(
+        System.getProperty("user.home"), ".bedouin-madness", "run.sav");
     
     @Override
     public void start(Stage stage) {
         // Create canvas with appropriate size
         Canvas canvas = new Canvas(1280, 720);
         
+        // Let the level generator use the extra enemy types when started with --extra-enemies
+        if (getParameters().getRaw().contains("--extra-enemies")) {
+            BehaviourLibrary.addExtraBehaviours();
+        }
+        
         // Initialize core components
-        ScoreManager scoreManager = new ScoreManager();
+        GameClock gameClock = new GameClock();
+        ScoreManager scoreManager = new ScoreManager(gameClock);
         uiManager = new UIManager(scoreManager);
         uiManager.setPrimaryStage(stage);
         uiManager.setApplicationShutdownHandler(() -> shutdownApplication());
@@ -38,6 +51,38 @@ public class BedouinMadnessGame extends Application {
         // Connect GameView to GameEngine
         gameView.setGameEngine(gameEngine);
         
+        // Open the persistent leaderboard (the game still runs without one)
+        try {
+            highScoreStore = new HighScoreStore(java.nio.file.Paths.get(
+                System.getProperty("user.home"), ".bedouin-madness"));
+            gameEngine.setHighScoreStore(highScoreStore);
+            uiManager.setHighScoreStore(highScoreStore);
+        } catch (java.io.IOException e) {
+            System.err.println("Leaderboard unavailable: " + e.getMessage());
+        }
+        
+        
+        // The canvas follows the size of the window, drawn at --render-scale=S times its resolution
+        GameViewport viewport = new GameViewport(canvas, gameView, 1280, 720);
+        viewport.setRenderScale(getRenderScale());
+        uiManager.setRenderScaleHandler(scale -> viewport.setRenderScale(scale), viewport.getRenderScale());
+        
+        // Trade quality for frame rate when frames run long, unless started with --fixed-quality
+        QualityGovernor governor = new QualityGovernor(60);
+        governor.control(gameView, gameEngine.getParticles(), viewport, uiManager);
+        governor.setAdaptive(!getParameters().getRaw().contains("--fixed-quality"));
+        gameEngine.setQualityGovernor(governor);
+        gameView.setGovernor(governor);
+        
+        // Cap the simulation with --sim-rate=N steps per second to save power
+        String simRate = getParameters().getNamed().get("sim-rate");
+        if (simRate != null) {
+            try {
+                gameEngine.setSimulationRateCap(Double.parseDouble(simRate));
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid simulation rate: " + simRate);
+            }
+        }
         
         // Setup layout
         BorderPane root = new BorderPane();
@@ -50,10 +95,16 @@ public class BedouinMadnessGame extends Application {
         Label memoryLabel = new Label("Memory: ");
         memoryLabel.setTextFill(javafx.scene.paint.Color.WHITE);
         
-        // Create VBox for HUD at the top of the center area
+        // Create VBox for HUD at the top of the center area,
+        // or draw the HUD into the canvas when started with --canvas-hud
         VBox centerVBox = new VBox();
-        centerVBox.getChildren().addAll(uiManager.createHUD(1), canvas);
-        VBox.setVgrow(canvas, Priority.ALWAYS);
+        if (getParameters().getRaw().contains("--canvas-hud")) {
+            gameView.setHud(uiManager.createCanvasHud(1280));
+            centerVBox.getChildren().add(viewport);
+        } else {
+            centerVBox.getChildren().addAll(uiManager.createHUD(1), viewport);
+        }
+        VBox.setVgrow(viewport, Priority.ALWAYS);
         
         // Use a StackPane to allow overlay of instructions panel
         StackPane gameAreaStack = new StackPane();
@@ -63,31 +114,70 @@ public class BedouinMadnessGame extends Application {
         // Create the scene
         Scene scene = new Scene(root, 1280, 720);
         
-        // Add input handling - create Player first, then initialize the game
-        gameEngine.initializeGame();
+        // Ghost racing: --seed=N plays fixed levels, --ghost-relay=PORT hosts a relay,
+        // --ghost-race=PORT (or the hosted port) streams the player to it
+        setupGhostRacing();
         
-        // Pause the game initially
+        // Run the simulation on its own thread when started with --render-thread
+        gameEngine.setThreadedSimulation(getParameters().getRaw().contains("--render-thread"));
+        
+        // Tuning and enemy behaviour files are read at startup and reloaded whenever they are saved
+        tuningWatcher = new TuningWatcher(java.nio.file.Paths.get("").toAbsolutePath());
+        tuningWatcher.loadNow();
+        tuningWatcher.applyPending();
+        tuningWatcher.start();
+        gameEngine.setTuningWatcher(tuningWatcher);
+        
+        // Levels saved from the level editor replace the generated ones
+        LevelFactory.setLevelDirectory(java.nio.file.Paths.get("levels"));
+        
+        // Pause the game initially, then create Player and initialize the game
         gameEngine.pauseGame();
+        gameEngine.initializeGame();
+        
+        // Sound effects from the sounds folder, or synthesized; --mute plays them silently
+        audioMixer = new AudioMixer(new SoundBank(java.nio.file.Paths.get("sounds")),
+            getParameters().getRaw().contains("--mute"));
+        audioMixer.listen(gameEngine.getGameEvents());
+        audioMixer.start();
         
         // Create input handler
         inputHandler = new InputHandler(scene, gameEngine.getPlayer());
         gameEngine.setInputHandler(inputHandler);
+        inputHandler.setRewindHandler(() -> gameEngine.requestRewind(3.0));
+        inputHandler.setPerfOverlayHandler(() -> gameView.togglePerfOverlay());
+        
+        // Level editor: F2 pauses and drags objects around, F5 saves to the levels folder
+        LevelEditor levelEditor = new LevelEditor(gameEngine, gameView);
+        levelEditor.attach(canvas);
+        gameView.setEditor(levelEditor);
+        inputHandler.setEditorHandlers(levelEditor::toggle, levelEditor::save);
+        
+        // Show the performance overlay from the start with --perf
+        gameView.setPerfOverlayVisible(getParameters().getRaw().contains("--perf"));
         
         // Configure stage
         stage.setTitle("Bedouin Madness");
         stage.setScene(scene);
-        stage.setResizable(false);
+        stage.setResizable(true);
+        stage.setMinWidth(480);
+        stage.setMinHeight(320);
         stage.show();
         
-        // Handle close request
-        stage.setOnCloseRequest(e -> {
-            if (gameEngine != null) {
-                gameEngine.kill();
-            }
-        });
+        // Handle close request, saving the run before the engine lets go of the level
+        stage.setOnCloseRequest(e -> stop());
         
         // Connect menu actions
         uiManager.setResetGameHandler(e -> gameEngine.resetGame());
+        uiManager.setRunSaveHandlers(() -> gameEngine.saveRun(saveFile), () -> {
+            if (gameEngine.loadRun(saveFile)) gameEngine.resumeGame();
+        });
+        gameEngine.warmUpRunSave();
+        
+        // Save the run whenever the window loses focus, so it can be resumed
+        stage.focusedProperty().addListener((obs, wasFocused, focused) -> {
+            if (!focused) gameEngine.saveRun(saveFile);
+        });
         
         // Create a simple instructions panel (since we may not have the GameInstructions class)
         VBox instructionsPanel = createInstructionsPanel();
@@ -107,6 +197,49 @@ public class BedouinMadnessGame extends Application {
         StackPane.setAlignment(instructionsPanel, Pos.CENTER);
     }
     
+    /**
+     * Reads the render scale from the --render-scale command line parameter.
+     * 
+     * @return The render scale, 1 if the parameter is missing or invalid.
+     */
+    private double getRenderScale() {
+        String value = getParameters().getNamed().get("render-scale");
+        if (value == null) return 1.0;
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid render scale: " + value);
+            return 1.0;
+        }
+    }
+    
+    /**
+     * Sets up ghost racing from the named command line parameters.
+     */
+    private void setupGhostRacing() {
+        java.util.Map<String, String> named = getParameters().getNamed();
+        try {
+            if (named.containsKey("seed")) {
+                gameEngine.setRunSeed(Long.parseLong(named.get("seed")));
+            }
+            
+            String port = named.get("ghost-race");
+            if (named.containsKey("ghost-relay")) {
+                port = named.get("ghost-relay");
+                ghostRelay = new GhostRelay(1280);
+                ghostRelay.startUdp(Integer.parseInt(port));
+            }
+            
+            if (port != null) {
+                GhostChannel channel = GhostRelay.connectUdp(Integer.parseInt(port));
+                int playerId = new java.util.Random().nextInt(0x10000);
+                gameEngine.setGhostRacer(new GhostRacer(channel, playerId));
+            }
+        } catch (java.io.IOException | NumberFormatException e) {
+            System.err.println("Ghost racing unavailable: " + e.getMessage());
+        }
+    }
+    
     // Simple method to create an instructions panel if GameInstructions is not available
     private VBox createInstructionsPanel() {
         VBox panel = new VBox(15);
@@ -130,7 +263,10 @@ public class BedouinMadnessGame extends Application {
             "      -Controls-\n" +
             "Move Left: ← or A\n" +
             "Move Right: → or D\n" +
-            "Jump: SPACE or  ↑ or W"
+            "Jump: SPACE or  ↑ or W\n" +
+            "Rewind 3 seconds: R\n" +
+            "Performance overlay: F3\n" +
+            "Level editor: F2, save level: F5"
         );
         controlsLabel.setTextFill(javafx.scene.paint.Color.WHITE);
         
@@ -148,10 +284,35 @@ public class BedouinMadnessGame extends Application {
     
     @Override
     public void stop() {
+        // Closing the window and exiting both end up here, and JavaFX calls it once more on exit
+        if (shutDown) return;
+        shutDown = true;
+        
         // Cleanup resources
         if (gameEngine != null) {
+            gameEngine.saveRun(saveFile);
             gameEngine.kill();
         }
+        if (audioMixer != null) {
+            audioMixer.stop();
+        }
+        if (tuningWatcher != null) {
+            tuningWatcher.stop();
+        }
+        if (ghostRelay != null) {
+            try {
+                ghostRelay.stop();
+            } catch (java.io.IOException e) {
+                System.err.println("Could not stop ghost relay: " + e.getMessage());
+            }
+        }
+        if (highScoreStore != null) {
+            try {
+                highScoreStore.close();
+            } catch (java.io.IOException e) {
+                System.err.println("Could not save leaderboard: " + e.getMessage());
+            }
+        }
     }
     
     /**
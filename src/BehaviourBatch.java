@@ -0,0 +1,234 @@
+/**
+ * Runs the state machines of all enemies in a level that share one behaviour.
+ * The enemies' positions, states and state timers are kept in parallel primitive
+ * arrays and advanced together in one loop, so adding enemy types adds data rather
+ * than classes and {@code update} overrides. Enemies that react to the player read
+ * the level's shared {@link PlayerField}, which costs one array lookup per enemy.
+ * After each tick the new positions are copied back to the enemy objects for
+ * collisions and rendering.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class BehaviourBatch {
+    private final EnemyBehaviour behaviour;
+    private final double height;
+
+    // State table of the behaviour, copied for the update loop
+    private final double[] duration;
+    private final double[] startVelocityX, endVelocityX;
+    private final double[] startVelocityY, endVelocityY;
+    private final double[] enterOffsetX, enterOffsetY;
+    private final boolean[] harmful;
+    private final int[] next;
+    private final double[] chaseSpeed;
+    private final double[] nearRange, farRange;
+    private final int[] nearNext, farNext;
+
+    // One entry per enemy
+    private BehaviourEnemy[] enemies;
+    private double[] x, y;
+    private int[] state;
+    private double[] stateTime;
+    private int count = 0;
+
+    /**
+     * Constructs an empty batch for a behaviour.
+     *
+     * @param behaviour The behaviour every enemy in the batch follows.
+     * @param initialCapacity The number of enemies to make room for.
+     */
+    public BehaviourBatch(EnemyBehaviour behaviour, int initialCapacity) {
+        this.behaviour = behaviour;
+        this.height = behaviour.getHeight();
+        int states = behaviour.getStateCount();
+        duration = new double[states];
+        startVelocityX = new double[states];
+        endVelocityX = new double[states];
+        startVelocityY = new double[states];
+        endVelocityY = new double[states];
+        enterOffsetX = new double[states];
+        enterOffsetY = new double[states];
+        harmful = new boolean[states];
+        next = new int[states];
+        chaseSpeed = new double[states];
+        nearRange = new double[states];
+        farRange = new double[states];
+        nearNext = new int[states];
+        farNext = new int[states];
+        for (int s = 0; s < states; s++) {
+            duration[s] = behaviour.getDuration(s);
+            startVelocityX[s] = behaviour.getStartVelocityX(s);
+            endVelocityX[s] = behaviour.getEndVelocityX(s);
+            startVelocityY[s] = behaviour.getStartVelocityY(s);
+            endVelocityY[s] = behaviour.getEndVelocityY(s);
+            enterOffsetX[s] = behaviour.getEnterOffsetX(s);
+            enterOffsetY[s] = behaviour.getEnterOffsetY(s);
+            harmful[s] = behaviour.isHarmful(s);
+            next[s] = behaviour.getNext(s);
+            chaseSpeed[s] = behaviour.getChaseSpeed(s);
+            nearRange[s] = behaviour.getNearRange(s);
+            farRange[s] = behaviour.getFarRange(s);
+            nearNext[s] = behaviour.getNearNext(s);
+            farNext[s] = behaviour.getFarNext(s);
+        }
+
+        int capacity = Math.max(1, initialCapacity);
+        enemies = new BehaviourEnemy[capacity];
+        x = new double[capacity];
+        y = new double[capacity];
+        state = new int[capacity];
+        stateTime = new double[capacity];
+    }
+
+    /**
+     * Adds an enemy to the batch in the behaviour's first state.
+     * The first state's entry shift is applied straight away.
+     *
+     * @param enemy The enemy to add.
+     * @return The slot the enemy was given.
+     */
+    public int add(BehaviourEnemy enemy) {
+        if (count == enemies.length) grow();
+        int slot = count++;
+        enemies[slot] = enemy;
+        state[slot] = 0;
+        stateTime[slot] = 0;
+        x[slot] = enemy.getX() + enterOffsetX[0];
+        y[slot] = enemy.getY() + enterOffsetY[0];
+        enemy.moveTo(x[slot], y[slot]);
+        return slot;
+    }
+
+    /**
+     * Advances every enemy near the player.
+     * Player triggers are checked first, then the state's movement is applied.
+     * Steps that cross the end of a state are split, so the rest of the step
+     * is spent in the next state and enemies never drift from their paths.
+     * Enemies rise and fall with the ground as they move along it.
+     *
+     * @param deltaTime Time elapsed since the last update in seconds.
+     * @param field Where the player is, already updated for this tick.
+     * @param cullingDistance The maximum distance for enemies to be updated.
+     * @param particles The particle system lunge dust goes into, or null for none.
+     * @param terrain The ground the enemies move along.
+     */
+    public void update(double deltaTime, PlayerField field, double cullingDistance,
+                       ParticleSystem particles, Terrain terrain) {
+        double playerX = field.getPlayerX();
+        for (int i = 0; i < count; i++) {
+            if (Math.abs(x[i] - playerX) >= cullingDistance) continue;
+            BehaviourEnemy enemy = enemies[i];
+            if (!enemy.isActive()) continue;
+
+            int s = state[i];
+            double t = stateTime[i];
+            double px = x[i];
+            double py = y[i];
+
+            if (nearRange[s] > 0 || farRange[s] > 0) {
+                double distance = field.getDistance(px);
+                int target = s;
+                if (nearRange[s] > 0 && distance <= nearRange[s]) {
+                    target = nearNext[s];
+                } else if (farRange[s] > 0 && distance > farRange[s]) {
+                    target = farNext[s];
+                }
+                if (target != s) {
+                    s = target;
+                    t = 0;
+                    px += enterOffsetX[s];
+                    py += enterOffsetY[s];
+                }
+            }
+
+            double remaining = deltaTime;
+            while (remaining > 0) {
+                double step = Math.min(remaining, duration[s] - t);
+                px += EnemyBehaviour.displacement(startVelocityX[s], endVelocityX[s], duration[s], t, step);
+                py += EnemyBehaviour.displacement(startVelocityY[s], endVelocityY[s], duration[s], t, step);
+                if (chaseSpeed[s] > 0) {
+                    // Walk towards the player without overshooting
+                    double gap = Math.abs(playerX - px);
+                    px += field.getDirection(px) * Math.min(chaseSpeed[s] * step, gap);
+                }
+                t += step;
+                remaining -= step;
+                if (t >= duration[s]) {
+                    s = next[s];
+                    t = 0;
+                    if (particles != null && enterOffsetX[s] != 0) {
+                        // A sideways jump into the new state is a lunge
+                        particles.emitDust(px, py + height, enterOffsetX[s] > 0 ? 1 : -1);
+                    }
+                    px += enterOffsetX[s];
+                    py += enterOffsetY[s];
+                }
+            }
+            py += terrain.groundAt(px) - terrain.groundAt(x[i]);
+            state[i] = s;
+            stateTime[i] = t;
+            x[i] = px;
+            y[i] = py;
+            enemy.moveTo(px, py);
+        }
+    }
+
+    /**
+     * Checks if an enemy is in a state where it hurts the player.
+     *
+     * @param slot The enemy's slot.
+     * @return True if touching the enemy deals damage.
+     */
+    public boolean isHarmful(int slot) {
+        return harmful[state[slot]];
+    }
+
+    /**
+     * Gets the state an enemy is in.
+     *
+     * @param slot The enemy's slot.
+     * @return The index of the enemy's state.
+     */
+    public int getState(int slot) {
+        return state[slot];
+    }
+
+    /**
+     * Gets how long an enemy has been in its current state.
+     *
+     * @param slot The enemy's slot.
+     * @return The time in seconds.
+     */
+    public double getStateTime(int slot) {
+        return stateTime[slot];
+    }
+
+    /**
+     * Overwrites an enemy's position and state, for example when a snapshot is restored.
+     *
+     * @param slot The enemy's slot.
+     * @param newX The new x-coordinate.
+     * @param newY The new y-coordinate.
+     * @param newState The index of the new state.
+     * @param newStateTime How long the enemy has been in the new state.
+     */
+    public void restore(int slot, double newX, double newY, int newState, double newStateTime) {
+        x[slot] = newX;
+        y[slot] = newY;
+        state[slot] = newState;
+        stateTime[slot] = newStateTime;
+    }
+
+    public EnemyBehaviour getBehaviour() { return behaviour; }
+    public int size() { return count; }
+
+    private void grow() {
+        int capacity = enemies.length * 2;
+        enemies = java.util.Arrays.copyOf(enemies, capacity);
+        x = java.util.Arrays.copyOf(x, capacity);
+        y = java.util.Arrays.copyOf(y, capacity);
+        state = java.util.Arrays.copyOf(state, capacity);
+        stateTime = java.util.Arrays.copyOf(stateTime, capacity);
+    }
+}
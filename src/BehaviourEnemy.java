@@ -0,0 +1,141 @@
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * An enemy whose movement is defined by an {@link EnemyBehaviour} instead of code.
+ * The enemy does not move itself: the level's {@link BehaviourBatch} for its
+ * behaviour ticks all enemies of the type together and moves this one to its
+ * new position. The enemy is drawn with the sprite its behaviour names.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public final class BehaviourEnemy extends Enemy {
+    // Shared by all behaviour enemies, as they are only drawn on the JavaFX thread
+    private static PaintState paint;
+
+    private final EnemyBehaviour behaviour;
+    private BehaviourBatch batch;
+    private int slot = -1;
+
+    /**
+     * Creates a new enemy of a data-driven type at the specified position.
+     *
+     * @param behaviour The behaviour the enemy follows.
+     * @param x The x-coordinate of the enemy
+     * @param y The y-coordinate of the enemy
+     */
+    public BehaviourEnemy(EnemyBehaviour behaviour, double x, double y) {
+        super(x, y, behaviour.getWidth(), behaviour.getHeight(), behaviour.getDamage());
+        this.behaviour = behaviour;
+    }
+
+    /**
+     * Places the enemy in the batch that will tick it.
+     * Called by the level when the enemy is added.
+     *
+     * @param batch The batch for the enemy's behaviour.
+     */
+    void attachTo(BehaviourBatch batch) {
+        this.batch = batch;
+        this.slot = batch.add(this);
+    }
+
+    /**
+     * Moves the enemy to the position worked out by its batch.
+     *
+     * @param newX The new x-coordinate.
+     * @param newY The new y-coordinate.
+     */
+    void moveTo(double newX, double newY) {
+        x = newX;
+        y = newY;
+    }
+
+    /**
+     * Moves the enemy and its spawn point, and tells its batch where it now is.
+     *
+     * @param dx How far to move along x.
+     * @param dy How far to move along y.
+     */
+    @Override
+    public void translate(double dx, double dy) {
+        super.translate(dx, dy);
+        if (batch != null) {
+            batch.restore(slot, x, y, batch.getState(slot), batch.getStateTime(slot));
+        }
+    }
+
+    /**
+     * Does nothing, the enemy is moved by its behaviour batch.
+     *
+     * @param deltaTime Time elapsed since the last update in seconds
+     */
+    @Override
+    public void update(double deltaTime) {
+    }
+
+    @Override
+    public int getStateSize() {
+        return super.getStateSize() + 2;
+    }
+
+    @Override
+    public int writeState(double[] state, int offset) {
+        offset = super.writeState(state, offset);
+        state[offset] = batch != null ? batch.getState(slot) : 0;
+        state[offset + 1] = batch != null ? batch.getStateTime(slot) : 0;
+        return offset + 2;
+    }
+
+    @Override
+    public int readState(double[] state, int offset) {
+        offset = super.readState(state, offset);
+        if (batch != null) {
+            batch.restore(slot, x, y, (int) state[offset], state[offset + 1]);
+        }
+        return offset + 2;
+    }
+
+    /**
+     * Renders the enemy with its behaviour's sprite.
+     *
+     * @param gc The graphics context to draw on
+     */
+    @Override
+    public void render(GraphicsContext gc) {
+        if (!isActive) return;
+        if (paint == null || paint.getContext() != gc) {
+            paint = new PaintState(gc);
+        }
+        // Other objects draw in between, so nothing the cache knows still holds
+        paint.invalidate();
+        switch (behaviour.getSprite()) {
+            case SNAKE: Snake.draw(paint, x, y, getWidth(), getHeight()); break;
+            case VULTURE: Vulture.draw(paint, x, y, getWidth(), getHeight()); break;
+            default: Scorpion.draw(paint, x, y, getWidth(), getHeight()); break;
+        }
+    }
+
+    @Override
+    protected RenderCommand.Kind getRenderKind() {
+        return behaviour.getSprite();
+    }
+
+    /**
+     * Attacks the player on contact while the enemy is in a harmful state.
+     *
+     * @param player The player to attack
+     */
+    @Override
+    public void attack(Player player) {
+        boolean harmful = batch == null || batch.isHarmful(slot);
+        if (harmful && collidesWith(player)) {
+            player.takeDamage(getDamage());
+            AnimationManager.createEnemyAttackAnimation(this);
+        }
+    }
+
+    public EnemyBehaviour getBehaviour() {
+        return behaviour;
+    }
+}
@@ -0,0 +1,391 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The set of data-driven enemy types available to the level generator.
+ * Behaviours are read from a plain text file, by default the
+ * {@code enemy-behaviours.txt} resource next to the game classes. Extra enemy
+ * types that change the generated levels are kept in the
+ * {@code enemy-behaviours-extra.txt} resource and only used when the game is
+ * started with {@code --extra-enemies}. The format is
+ * one declaration per line, with {@code #} starting a comment:
+ * <pre>
+ * behaviour &lt;name&gt; sprite=SNAKE size=60x15 damage=1 level=4 weight=1
+ *       (sprite is one of SCORPION, SNAKE or VULTURE)
+ * state &lt;name&gt; time=0.8 vx=-100 vy=0 dx=80 dy=0 next=&lt;state&gt; [safe]
+ *       chase=120 near=150:&lt;state&gt; far=400:&lt;state&gt;
+ * </pre>
+ * States belong to the behaviour declared above them and the first one is the
+ * initial state. Velocities can be written as {@code start..end} to change
+ * linearly over the state's time. A state without {@code next} moves on to
+ * the state below it, and the last one back to the first. The optional
+ * {@code chase}, {@code near} and {@code far} settings make a state react to the
+ * player, see {@link EnemyBehaviour}.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class BehaviourLibrary {
+    private static final String DEFAULT_RESOURCE = "enemy-behaviours.txt";
+    private static final String EXTRA_RESOURCE = "enemy-behaviours-extra.txt";
+    private static volatile BehaviourLibrary defaultLibrary;
+
+    private final List<EnemyBehaviour> behaviours;
+    private final Map<String, EnemyBehaviour> byName = new HashMap<>();
+
+    /**
+     * Constructs a library from a list of behaviours.
+     *
+     * @param behaviours The behaviours, in the order they were declared.
+     */
+    public BehaviourLibrary(List<EnemyBehaviour> behaviours) {
+        this.behaviours = Collections.unmodifiableList(new ArrayList<>(behaviours));
+        for (EnemyBehaviour behaviour : behaviours) {
+            byName.put(behaviour.getName(), behaviour);
+        }
+    }
+
+    /**
+     * Gets the library used by the enemy factory.
+     * Loads the bundled behaviour file on first use. If it is missing or broken
+     * the library is empty and the factory falls back to the built-in enemies.
+     *
+     * @return The default library.
+     */
+    public static BehaviourLibrary getDefault() {
+        if (defaultLibrary == null) {
+            synchronized (BehaviourLibrary.class) {
+                if (defaultLibrary == null) {
+                    defaultLibrary = loadDefault();
+                }
+            }
+        }
+        return defaultLibrary;
+    }
+
+    /**
+     * Replaces the library used by the enemy factory.
+     * Levels created afterwards use the new behaviours.
+     *
+     * @param library The new default library.
+     */
+    public static void setDefault(BehaviourLibrary library) {
+        defaultLibrary = library;
+    }
+
+    /**
+     * Adds the extra enemy types bundled with the game to the library used by
+     * the enemy factory. Levels created afterwards may use them.
+     * If the extra behaviours are missing or broken the library is left as it was.
+     */
+    public static void addExtraBehaviours() {
+        try (InputStream in = BehaviourLibrary.class.getResourceAsStream(EXTRA_RESOURCE)) {
+            if (in == null) {
+                System.err.println("Extra enemy behaviours not found");
+                return;
+            }
+            List<EnemyBehaviour> behaviours = new ArrayList<>(getDefault().getBehaviours());
+            behaviours.addAll(parse(new InputStreamReader(in, StandardCharsets.UTF_8)).getBehaviours());
+            setDefault(new BehaviourLibrary(behaviours));
+        } catch (IOException e) {
+            System.err.println("Could not load extra enemy behaviours: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads a behaviour file.
+     *
+     * @param file The file to read.
+     * @return The library defined by the file.
+     * @throws IOException If the file cannot be read or is malformed.
+     */
+    public static BehaviourLibrary load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    /**
+     * Parses behaviour declarations.
+     *
+     * @param input The text to parse.
+     * @return The library defined by the text.
+     * @throws IOException If the text cannot be read or is malformed.
+     */
+    public static BehaviourLibrary parse(Reader input) throws IOException {
+        BufferedReader reader = new BufferedReader(input);
+        List<EnemyBehaviour> behaviours = new ArrayList<>();
+        Builder current = null;
+        String line;
+        int lineNumber = 0;
+
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            if (comment >= 0) line = line.substring(0, comment);
+            line = line.trim();
+            if (line.isEmpty()) continue;
+
+            String[] tokens = line.split("\\s+");
+            try {
+                if (tokens[0].equals("behaviour")) {
+                    if (current != null) behaviours.add(current.build());
+                    current = new Builder(tokens);
+                } else if (tokens[0].equals("state")) {
+                    if (current == null) throw new IllegalArgumentException("state before any behaviour");
+                    current.addState(tokens);
+                } else {
+                    throw new IllegalArgumentException("unknown declaration '" + tokens[0] + "'");
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+        try {
+            if (current != null) behaviours.add(current.build());
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage());
+        }
+        return new BehaviourLibrary(behaviours);
+    }
+
+    /**
+     * Picks a random behaviour that may appear on a level, weighted by each behaviour's weight.
+     * No random number is drawn when only one behaviour is allowed.
+     *
+     * @param levelNumber The level being generated.
+     * @param random The random number generator to draw from.
+     * @return The chosen behaviour, or null if none is allowed on the level.
+     */
+    public EnemyBehaviour pickForLevel(int levelNumber, Random random) {
+        int totalWeight = 0;
+        int candidates = 0;
+        EnemyBehaviour only = null;
+        for (EnemyBehaviour behaviour : behaviours) {
+            if (behaviour.getMinLevel() <= levelNumber && behaviour.getWeight() > 0) {
+                totalWeight += behaviour.getWeight();
+                candidates++;
+                only = behaviour;
+            }
+        }
+        if (candidates <= 1) return only;
+
+        int pick = random.nextInt(totalWeight);
+        for (EnemyBehaviour behaviour : behaviours) {
+            if (behaviour.getMinLevel() <= levelNumber && behaviour.getWeight() > 0) {
+                pick -= behaviour.getWeight();
+                if (pick < 0) return behaviour;
+            }
+        }
+        return only;
+    }
+
+    /**
+     * Finds a behaviour by name.
+     *
+     * @param name The name of the behaviour.
+     * @return The behaviour, or null if there is none with that name.
+     */
+    public EnemyBehaviour get(String name) {
+        return byName.get(name);
+    }
+
+    public List<EnemyBehaviour> getBehaviours() {
+        return behaviours;
+    }
+
+    public boolean isEmpty() {
+        return behaviours.isEmpty();
+    }
+
+    /**
+     * Loads the behaviour file bundled with the game.
+     */
+    private static BehaviourLibrary loadDefault() {
+        try (InputStream in = BehaviourLibrary.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (in == null) {
+                System.err.println("Enemy behaviours not found, using built-in enemies");
+                return new BehaviourLibrary(Collections.emptyList());
+            }
+            return parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Could not load enemy behaviours: " + e.getMessage());
+            return new BehaviourLibrary(Collections.emptyList());
+        }
+    }
+
+    /**
+     * Collects the declarations of one behaviour.
+     */
+    private static class Builder {
+        private final String name;
+        private RenderCommand.Kind sprite = RenderCommand.Kind.SCORPION;
+        private double width = 40;
+        private double height = 20;
+        private float damage = 1.0f;
+        private int minLevel = 1;
+        private int weight = 1;
+
+        private final List<String> stateNames = new ArrayList<>();
+        private final List<double[]> stateValues = new ArrayList<>();
+        private final List<Boolean> harmful = new ArrayList<>();
+        private final List<String> nextNames = new ArrayList<>();
+        private final List<String> nearNames = new ArrayList<>();
+        private final List<String> farNames = new ArrayList<>();
+
+        Builder(String[] tokens) {
+            if (tokens.length < 2) throw new IllegalArgumentException("behaviour needs a name");
+            name = tokens[1];
+            for (int i = 2; i < tokens.length; i++) {
+                String key = key(tokens[i]);
+                String value = value(tokens[i]);
+                switch (key) {
+                    case "sprite": sprite = sprite(value); break;
+                    case "size":
+                        String[] size = value.split("x");
+                        if (size.length != 2) throw new IllegalArgumentException("size must be WIDTHxHEIGHT");
+                        width = Double.parseDouble(size[0]);
+                        height = Double.parseDouble(size[1]);
+                        break;
+                    case "damage": damage = Float.parseFloat(value); break;
+                    case "level": minLevel = Integer.parseInt(value); break;
+                    case "weight": weight = Integer.parseInt(value); break;
+                    default: throw new IllegalArgumentException("unknown behaviour setting '" + key + "'");
+                }
+            }
+        }
+
+        void addState(String[] tokens) {
+            if (tokens.length < 2) throw new IllegalArgumentException("state needs a name");
+            // time, vx start/end, vy start/end, dx, dy, chase, near, far
+            double[] values = {0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
+            boolean isHarmful = true;
+            String next = null;
+            String near = null;
+            String far = null;
+            for (int i = 2; i < tokens.length; i++) {
+                if (tokens[i].equals("safe")) {
+                    isHarmful = false;
+                    continue;
+                }
+                String key = key(tokens[i]);
+                String value = value(tokens[i]);
+                switch (key) {
+                    case "time": values[0] = Double.parseDouble(value); break;
+                    case "vx": parseRange(value, values, 1); break;
+                    case "vy": parseRange(value, values, 3); break;
+                    case "dx": values[5] = Double.parseDouble(value); break;
+                    case "dy": values[6] = Double.parseDouble(value); break;
+                    case "next": next = value; break;
+                    case "chase": values[7] = Double.parseDouble(value); break;
+                    case "near": near = parseTrigger(value, values, 8); break;
+                    case "far": far = parseTrigger(value, values, 9); break;
+                    default: throw new IllegalArgumentException("unknown state setting '" + key + "'");
+                }
+            }
+            if (values[0] <= 0) throw new IllegalArgumentException("state " + tokens[1] + " needs a time above 0");
+            stateNames.add(tokens[1]);
+            stateValues.add(values);
+            harmful.add(isHarmful);
+            nextNames.add(next);
+            nearNames.add(near);
+            farNames.add(far);
+        }
+
+        EnemyBehaviour build() {
+            int count = stateNames.size();
+            if (count == 0) throw new IllegalArgumentException("behaviour " + name + " has no states");
+
+            double[] duration = new double[count];
+            double[] startVx = new double[count], endVx = new double[count];
+            double[] startVy = new double[count], endVy = new double[count];
+            double[] dx = new double[count], dy = new double[count];
+            boolean[] hurts = new boolean[count];
+            int[] next = new int[count];
+            double[] chase = new double[count];
+            double[] nearRange = new double[count], farRange = new double[count];
+            int[] nearNext = new int[count], farNext = new int[count];
+            for (int i = 0; i < count; i++) {
+                double[] values = stateValues.get(i);
+                duration[i] = values[0];
+                startVx[i] = values[1];
+                endVx[i] = values[2];
+                startVy[i] = values[3];
+                endVy[i] = values[4];
+                dx[i] = values[5];
+                dy[i] = values[6];
+                hurts[i] = harmful.get(i);
+                String nextName = nextNames.get(i);
+                next[i] = nextName == null ? (i + 1) % count : stateIndex(nextName);
+                chase[i] = values[7];
+                nearRange[i] = values[8];
+                farRange[i] = values[9];
+                nearNext[i] = nearNames.get(i) == null ? i : stateIndex(nearNames.get(i));
+                farNext[i] = farNames.get(i) == null ? i : stateIndex(farNames.get(i));
+            }
+            return new EnemyBehaviour(name, sprite, width, height, damage, minLevel, weight,
+                stateNames.toArray(new String[0]), duration, startVx, endVx, startVy, endVy,
+                dx, dy, hurts, next, chase, nearRange, nearNext, farRange, farNext);
+        }
+
+        private int stateIndex(String stateName) {
+            int index = stateNames.indexOf(stateName);
+            if (index < 0) {
+                throw new IllegalArgumentException("behaviour " + name + " has no state " + stateName);
+            }
+            return index;
+        }
+
+        private static String parseTrigger(String value, double[] values, int index) {
+            int colon = value.indexOf(':');
+            if (colon < 0) throw new IllegalArgumentException("expected DISTANCE:STATE but got '" + value + "'");
+            values[index] = Double.parseDouble(value.substring(0, colon));
+            return value.substring(colon + 1);
+        }
+
+        private static void parseRange(String value, double[] values, int index) {
+            int range = value.indexOf("..");
+            if (range < 0) {
+                values[index] = values[index + 1] = Double.parseDouble(value);
+            } else {
+                values[index] = Double.parseDouble(value.substring(0, range));
+                values[index + 1] = Double.parseDouble(value.substring(range + 2));
+            }
+        }
+
+        private static String key(String token) {
+            int equals = token.indexOf('=');
+            if (equals < 0) throw new IllegalArgumentException("expected key=value but got '" + token + "'");
+            return token.substring(0, equals);
+        }
+
+        private static String value(String token) {
+            return token.substring(token.indexOf('=') + 1);
+        }
+
+        /**
+         * Gets the sprite an enemy is drawn with. Only the enemy sprites are
+         * allowed, as the enemy drawing code has no other shapes.
+         */
+        private static RenderCommand.Kind sprite(String value) {
+            switch (value) {
+                case "SCORPION": return RenderCommand.Kind.SCORPION;
+                case "SNAKE": return RenderCommand.Kind.SNAKE;
+                case "VULTURE": return RenderCommand.Kind.VULTURE;
+                default: throw new IllegalArgumentException("sprite must be SCORPION, SNAKE or VULTURE but got '" + value + "'");
+            }
+        }
+    }
+}
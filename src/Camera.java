@@ -35,6 +35,17 @@ public class Camera {
         this.viewportHeight = viewportHeight;
     }
     
+    /**
+     * Sets the size of the visible area, for example after the window was resized.
+     * 
+     * @param viewportWidth The width of the visible area in world units.
+     * @param viewportHeight The height of the visible area in world units.
+     */
+    public void setViewport(double viewportWidth, double viewportHeight) {
+        this.viewportWidth = viewportWidth;
+        this.viewportHeight = viewportHeight;
+    }
+    
     /**
      * Sets the boundaries of the level that constrain camera movement.
      * The camera cannot move beyond these boundaries, preventing it from
@@ -61,9 +72,22 @@ public class Camera {
         // Smooth camera movement
         x += (targetX - x) * smoothingFactor;
         
-        // Keep camera within level bounds
+        // Keep camera within level bounds, at the start if the level is narrower than the view
+        if (x > levelWidth - viewportWidth) x = levelWidth - viewportWidth;
         if (x < 0) x = 0;
+    }
+    
+    /**
+     * Moves the camera sideways by a distance, within the level bounds.
+     * Used by the level editor, which pans instead of following the player.
+     * 
+     * @param dx How far to move the camera along x, in world units.
+     */
+    public void pan(double dx) {
+        x += dx;
+        targetX = x;
         if (x > levelWidth - viewportWidth) x = levelWidth - viewportWidth;
+        if (x < 0) x = 0;
     }
     
     /**
@@ -0,0 +1,223 @@
+import javafx.geometry.VPos;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+
+/**
+ * Heads-up display drawn straight into the game canvas.
+ * An alternative to the node-based HUD from {@link UIManager#createHUD(int)} that
+ * needs no layout or CSS passes. Every character and the heart are rendered to
+ * images once in the colours of the active theme, and again whenever the theme
+ * changes; when the score, hearts or level change, the HUD strip is composed
+ * from those images into a single cached image. Each frame then only costs one
+ * image draw.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class CanvasHud {
+    private static final String GLYPHS = "0123456789-SCORELV: ";
+    private static final double HEART_SIZE = 30;
+    private static final double HEART_SPACING = 5;
+    private static final double PADDING = 10;
+    private static final double ROW_SPACING = 10;
+    private static final double STATS_SPACING = 20;
+
+    private final double width;
+    private final Image[] levelGlyphs = new Image[128];
+    private final Image[] scoreGlyphs = new Image[128];
+    private final Font levelFont = Font.font("Arial", FontWeight.BOLD, 24);
+    private final Font scoreFont = Font.font("Arial", FontWeight.BOLD, 18);
+    private Image heartImage;
+    private Theme theme;
+    private double levelHeight;
+    private double scoreHeight;
+    private final Canvas stripCanvas;
+    private final SnapshotParameters snapshotParameters = new SnapshotParameters();
+
+    private Image strip;
+    private volatile boolean changed = true;
+    private int score;
+    private int hearts;
+    private int level;
+    private long rebuilds = 0;
+
+    /**
+     * Constructs a canvas HUD showing the values of a HUD model.
+     * Must be created on the JavaFX application thread.
+     *
+     * @param model The HUD model to display.
+     * @param width The width of the canvas the HUD is drawn on.
+     */
+    public CanvasHud(HudModel model, double width) {
+        this.width = width;
+        snapshotParameters.setFill(Color.TRANSPARENT);
+        renderImages();
+
+        double height = PADDING * 2 + levelHeight + ROW_SPACING + Math.max(HEART_SIZE, scoreHeight);
+        stripCanvas = new Canvas(width, Math.ceil(height));
+
+        score = model.getScore();
+        hearts = model.getHearts();
+        level = model.getLevel();
+        model.addListener((hud, flags) -> {
+            score = hud.getScore();
+            hearts = hud.getHearts();
+            level = hud.getLevel();
+            changed = true;
+        });
+    }
+
+    /**
+     * Draws the HUD centred at the top of the view.
+     * Rebuilds the cached HUD image first if any value changed since the last draw.
+     * Must be called on the JavaFX application thread, scaled to the view but
+     * without the camera transformation.
+     *
+     * @param gc The graphics context of the game canvas.
+     * @param viewWidth The visible width of the world.
+     */
+    public void draw(GraphicsContext gc, double viewWidth) {
+        if (theme != Palette.getTheme()) {
+            renderImages();
+            changed = true;
+        }
+        if (changed || strip == null) {
+            changed = false;
+            rebuildStrip();
+        }
+        gc.drawImage(strip, (viewWidth - width) / 2, 0);
+    }
+
+    /**
+     * Gets how many times the HUD image has been rebuilt.
+     *
+     * @return The number of rebuilds since the HUD was created.
+     */
+    public long getRebuildCount() {
+        return rebuilds;
+    }
+
+    /**
+     * Composes the level line and the hearts and score row into the cached HUD image,
+     * centred like the node-based HUD.
+     */
+    private void rebuildStrip() {
+        GraphicsContext sgc = stripCanvas.getGraphicsContext2D();
+        sgc.clearRect(0, 0, stripCanvas.getWidth(), stripCanvas.getHeight());
+
+        String levelLine = "LEVEL " + level;
+        double y = PADDING;
+        drawText(sgc, levelLine, levelGlyphs, (width - textWidth(levelLine, levelGlyphs)) / 2, y);
+        y += levelHeight + ROW_SPACING;
+
+        String scoreLine = "SCORE: " + score;
+        double heartsWidth = hearts > 0 ? hearts * HEART_SIZE + (hearts - 1) * HEART_SPACING : 0;
+        double scoreWidth = textWidth(scoreLine, scoreGlyphs);
+        double rowHeight = Math.max(HEART_SIZE, scoreHeight);
+        double x = (width - heartsWidth - STATS_SPACING - scoreWidth) / 2;
+        for (int i = 0; i < hearts; i++) {
+            sgc.drawImage(heartImage, x, y + (rowHeight - HEART_SIZE) / 2);
+            x += HEART_SIZE + HEART_SPACING;
+        }
+        if (hearts > 0) x += STATS_SPACING - HEART_SPACING;
+        drawText(sgc, scoreLine, scoreGlyphs, x, y + (rowHeight - scoreHeight) / 2);
+
+        strip = stripCanvas.snapshot(snapshotParameters, strip instanceof WritableImage ? (WritableImage) strip : null);
+        rebuilds++;
+    }
+
+    /**
+     * Draws a line of text from cached glyph images.
+     */
+    private static void drawText(GraphicsContext gc, String text, Image[] glyphs, double x, double y) {
+        for (int i = 0; i < text.length(); i++) {
+            Image glyph = glyphs[text.charAt(i) & 0x7F];
+            if (glyph == null) continue;
+            gc.drawImage(glyph, x, y);
+            x += glyph.getWidth();
+        }
+    }
+
+    /**
+     * Measures a line of text made of cached glyph images.
+     */
+    private static double textWidth(String text, Image[] glyphs) {
+        double total = 0;
+        for (int i = 0; i < text.length(); i++) {
+            Image glyph = glyphs[text.charAt(i) & 0x7F];
+            if (glyph != null) total += glyph.getWidth();
+        }
+        return total;
+    }
+
+    /**
+     * Renders the glyphs and the heart in the colours of the active theme.
+     */
+    private void renderImages() {
+        theme = Palette.getTheme();
+        levelHeight = renderGlyphs(levelFont, levelGlyphs);
+        scoreHeight = renderGlyphs(scoreFont, scoreGlyphs);
+        heartImage = renderHeart();
+    }
+
+    /**
+     * Renders every HUD character in a font to its own image.
+     *
+     * @param font The font to render with.
+     * @param glyphs The array to store the images in, indexed by character.
+     * @return The line height of the font.
+     */
+    private double renderGlyphs(Font font, Image[] glyphs) {
+        Text measure = new Text();
+        measure.setFont(font);
+        measure.setText("0");
+        double height = Math.ceil(measure.getLayoutBounds().getHeight());
+
+        Canvas canvas = new Canvas();
+        GraphicsContext cgc = canvas.getGraphicsContext2D();
+        for (int i = 0; i < GLYPHS.length(); i++) {
+            char ch = GLYPHS.charAt(i);
+            measure.setText(String.valueOf(ch));
+            double advance = Math.ceil(measure.getLayoutBounds().getWidth());
+            canvas.setWidth(Math.max(1, advance));
+            canvas.setHeight(height);
+            cgc.clearRect(0, 0, canvas.getWidth(), height);
+            cgc.setFont(font);
+            cgc.setFill(theme.getColor(Palette.HUD_TEXT));
+            cgc.setTextBaseline(VPos.TOP);
+            cgc.fillText(String.valueOf(ch), 0, 0);
+            glyphs[ch] = canvas.snapshot(snapshotParameters, null);
+        }
+        return height;
+    }
+
+    /**
+     * Renders the heart used for the health display, matching the node-based HUD.
+     */
+    private Image renderHeart() {
+        Canvas canvas = new Canvas(HEART_SIZE, HEART_SIZE);
+        GraphicsContext cgc = canvas.getGraphicsContext2D();
+        cgc.beginPath();
+        cgc.moveTo(15, 6);
+        cgc.bezierCurveTo(15, 6, 12, 0, 7.5, 0);
+        cgc.bezierCurveTo(3, 0, 0, 4, 0, 9);
+        cgc.bezierCurveTo(0, 14, 5, 19, 15, 27);
+        cgc.bezierCurveTo(25, 19, 30, 14, 30, 9);
+        cgc.bezierCurveTo(30, 4, 27, 0, 22.5, 0);
+        cgc.bezierCurveTo(18, 0, 15, 6, 15, 6);
+        cgc.closePath();
+        cgc.setFill(theme.getColor(Palette.DANGER));
+        cgc.fill();
+        cgc.setStroke(theme.getColor(Palette.OUTLINE));
+        cgc.setLineWidth(1);
+        cgc.stroke();
+        return canvas.snapshot(snapshotParameters, null);
+    }
+}
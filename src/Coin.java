@@ -1,5 +1,4 @@
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.paint.Color;
 
 /**
  * Represents a collectible coin in the game world.
@@ -15,16 +14,31 @@ public class Coin extends GameObject {
      */
     public enum CoinType { 
         //Silver coin with lower value 
-        SILVER, 
+        SILVER(1), 
         //Gold coin with higher value
-        GOLD 
+        GOLD(5);
+        
+        private final int value;
+        
+        CoinType(int value) {
+            this.value = value;
+        }
+        
+        /**
+         * Gets the point value of coins of this type.
+         * 
+         * @return The point value.
+         */
+        public int getValue() {
+            return value;
+        }
     }
     
     private CoinType type;
-    private int value;
-    private double rotationAngle = 0;
+    // Animation state only, so floats are precise enough
+    private float rotationAngle = 0;
     private boolean collected = false;
-    private double disappearTimer = 0;
+    private float disappearTimer = 0;
     
     /**
      * Constructs a new coin at the specified location with the given type.
@@ -35,8 +49,8 @@ public class Coin extends GameObject {
      */
     public Coin(double x, double y, CoinType type) {
         super(x, y, 20, 20); // Small coin size
+        setCollisionCategory(CollisionLayers.PICKUP);
         this.type = type;
-        this.value = (type == CoinType.GOLD) ? 5 : 1; // Gold = 5, Silver = 1
     }
     
     /**
@@ -64,6 +78,29 @@ public class Coin extends GameObject {
         }
     }
     
+    @Override
+    public int getStateSize() {
+        return super.getStateSize() + 3;
+    }
+    
+    @Override
+    public int writeState(double[] state, int offset) {
+        offset = super.writeState(state, offset);
+        state[offset] = rotationAngle;
+        state[offset + 1] = collected ? 1 : 0;
+        state[offset + 2] = disappearTimer;
+        return offset + 3;
+    }
+    
+    @Override
+    public int readState(double[] state, int offset) {
+        offset = super.readState(state, offset);
+        rotationAngle = (float) state[offset];
+        collected = state[offset + 1] != 0;
+        disappearTimer = (float) state[offset + 2];
+        return offset + 3;
+    }
+    
     /**
      * Renders the coin on the screen.
      * Creates a 3D-like rotating coin effect by varying the width based on rotation angle.
@@ -74,48 +111,93 @@ public class Coin extends GameObject {
     @Override
     public void render(GraphicsContext gc) {
         if (!isActive) return;
-        
         gc.save();
+        draw(new PaintState(gc), x, y, getWidth(), getHeight(), type, rotationAngle, getAlpha());
+        gc.restore();
+    }
+    
+    @Override
+    protected RenderCommand.Kind getRenderKind() {
+        return RenderCommand.Kind.COIN;
+    }
+    
+    @Override
+    public boolean writeRenderCommand(RenderCommand command) {
+        super.writeRenderCommand(command);
+        command.setVariant(type.ordinal());
+        command.setAngle(rotationAngle);
+        command.setAlpha(getAlpha());
+        return isActive;
+    }
+    
+    /**
+     * Gets the opacity of the coin, which fades out after collection.
+     * 
+     * @return The opacity between 0 and 1.
+     */
+    private double getAlpha() {
+        return collected ? 1.0 - (disappearTimer / 0.5) : 1.0;
+    }
+    
+    /**
+     * Draws a rotating coin with the given bounds and animation state.
+     * 
+     * @param paint The paint state to draw with.
+     * @param x The X-coordinate of the coin.
+     * @param y The Y-coordinate of the coin.
+     * @param width The width of the coin.
+     * @param height The height of the coin.
+     * @param type The type of coin, which selects its colours.
+     * @param rotationAngle The current rotation of the coin in degrees.
+     * @param alpha The opacity of the coin.
+     */
+    public static void draw(PaintState paint, double x, double y, double width, double height,
+                            CoinType type, double rotationAngle, double alpha) {
+        GraphicsContext gc = paint.getContext();
+        paint.setGlobalAlpha(alpha);
         
-        if (collected) {
-            double alpha = 1.0 - (disappearTimer / 0.5);
-            gc.setGlobalAlpha(alpha);
+        double scaleFactor = Math.abs(Math.cos(Math.toRadians(rotationAngle))) * 0.5 + 0.5;
+        double drawWidth = width * scaleFactor;
+        
+        if (paint.getDetail() < RenderQuality.FULL) {
+            // Squeezed but upright, without the edge or the mark
+            paint.setFill(Palette.color(type == CoinType.GOLD ? Palette.GOLD_COIN : Palette.SILVER_COIN));
+            gc.fillOval(x + (width - drawWidth) / 2, y, drawWidth, height);
+            return;
         }
         
+        paint.beginTransform();
         gc.translate(x + width / 2, y + height / 2);
         gc.rotate(rotationAngle);
         
-        double scaleFactor = Math.abs(Math.cos(Math.toRadians(rotationAngle))) * 0.5 + 0.5;
-        double drawWidth = width * scaleFactor;
-        
         if (type == CoinType.GOLD) {
             
-            gc.setFill(Color.GOLD);
-            gc.setStroke(Color.DARKGOLDENROD);
+            paint.setFill(Palette.color(Palette.GOLD_COIN));
+            paint.setStroke(Palette.color(Palette.GOLD_COIN_EDGE));
         } else {
             
-            gc.setFill(Color.SILVER);
-            gc.setStroke(Color.DARKGRAY);
+            paint.setFill(Palette.color(Palette.SILVER_COIN));
+            paint.setStroke(Palette.color(Palette.SILVER_COIN_EDGE));
         }
         
        
         gc.fillOval(-drawWidth / 2, -height / 2, drawWidth, height);
         
         
-        gc.setLineWidth(1);
+        paint.setLineWidth(1);
         gc.strokeOval(-drawWidth / 2, -height / 2, drawWidth, height);
         
         if (scaleFactor > 0.7) { 
             if (type == CoinType.GOLD) {
-                gc.setFill(Color.DARKGOLDENROD);
+                paint.setFill(Palette.color(Palette.GOLD_COIN_EDGE));
             } else {
-                gc.setFill(Color.DARKGRAY);
+                paint.setFill(Palette.color(Palette.SILVER_COIN_EDGE));
             }
-            gc.setFont(javafx.scene.text.Font.font(12));
+            paint.setFont(Palette.font(Palette.COIN_FONT));
             gc.fillText("$", -4, 4);
         }
         
-        gc.restore();
+        paint.endTransform();
     }
     
     /**
@@ -124,7 +206,7 @@ public class Coin extends GameObject {
      * @return The point value of the coin.
      */
     public int getValue() {
-        return value;
+        return type.getValue();
     }
     
     /**
@@ -0,0 +1,138 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures what the player's collision pass costs on mixed-entity levels,
+ * before and after collision categories. The levels mix enemies, spikes,
+ * moving platforms, coins and decorations, and the player runs across them
+ * and back. "Before" gathers the objects near the player into a new list,
+ * works out what each hit means with a chain of type checks and then checks
+ * every obstacle in the level again for moving platforms, as the engine used
+ * to. "After" gathers only the categories in the player's mask into a reused
+ * list, rejects pairs with one bitwise AND and looks up each hit's response
+ * by category pair. Both count hits instead of acting on them, so the level
+ * stays the same from tick to tick.
+ *
+ * Run with: java CollisionBenchmark [ticks]
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class CollisionBenchmark {
+    private static final int[] OBJECT_COUNTS = {100, 1000, 10000};
+    private static final double SPACING = 20;
+    private static final double VIEW_WIDTH = 1280;
+
+    private static int hits;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Optional number of ticks to time per level.
+     */
+    public static void main(String[] args) {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        CollisionResponses responses = new CollisionResponses();
+        int[] categories = {CollisionLayers.ENEMY, CollisionLayers.HAZARD, CollisionLayers.PLATFORM,
+                            CollisionLayers.PICKUP, CollisionLayers.GOAL};
+        for (int category : categories) {
+            responses.register(CollisionLayers.PLAYER, category, (player, other) -> hits++);
+        }
+
+        // Warm up
+        for (int count : OBJECT_COUNTS) {
+            run(responses, count, ticks, false);
+        }
+        for (int count : OBJECT_COUNTS) {
+            run(responses, count, ticks, true);
+        }
+    }
+
+    private static void run(CollisionResponses responses, int objectCount, int ticks, boolean report) {
+        double levelWidth = objectCount * SPACING;
+        Level level = new Level(1);
+        level.setLevelWidth(levelWidth);
+        for (int i = 0; i < objectCount; i++) {
+            double x = i * SPACING;
+            switch (i % 8) {
+                case 0: level.addEnemy(new Scorpion(x, 590)); break;
+                case 1: level.addEnemy(new Snake(x, 600)); break;
+                case 2: level.addObstacle(new Spike(x, 590)); break;
+                case 3: level.addObstacle(new MovingPlatform(x, 540, 80, 20)); break;
+                case 4: level.addEnvironmentObject(new DesertElement(x, 560, 40, 60, ElementType.CACTUS)); break;
+                default: level.addCoin(new Coin(x, 560 - (i % 3) * 30, i % 5 == 0 ? Coin.CoinType.GOLD : Coin.CoinType.SILVER));
+            }
+        }
+        level.setCompletionFlag(new Flag(levelWidth - 50, 580));
+        Player player = new Player(0, 570);
+        List<GameObject> nearby = new ArrayList<>();
+
+        hits = 0;
+        long start = System.nanoTime();
+        for (int tick = 0; tick < ticks; tick++) {
+            player.setX(playerX(tick, levelWidth));
+            collideBefore(level, player);
+        }
+        long beforeTime = System.nanoTime() - start;
+        int beforeHits = hits;
+
+        hits = 0;
+        start = System.nanoTime();
+        for (int tick = 0; tick < ticks; tick++) {
+            player.setX(playerX(tick, levelWidth));
+            nearby.clear();
+            level.collectObjectsNear(player.getX(), VIEW_WIDTH, player.getCollisionMask(), nearby);
+            for (GameObject obj : nearby) {
+                if (player.collidesWith(obj)) {
+                    responses.dispatch(player, obj);
+                }
+            }
+        }
+        long afterTime = System.nanoTime() - start;
+
+        if (report) {
+            System.out.printf("%6d objects: before %8.2f us/tick (%d hits), after %8.2f us/tick (%d hits)%n",
+                objectCount, beforeTime / 1e3 / ticks, beforeHits, afterTime / 1e3 / ticks, hits);
+        }
+    }
+
+    /**
+     * The player's collision pass as the engine used to run it.
+     */
+    private static void collideBefore(Level level, Player player) {
+        for (GameObject obj : level.getObjectsNearPlayer(player.getX(), VIEW_WIDTH)) {
+            if (overlaps(player, obj)) {
+                if (obj instanceof Enemy) {
+                    hits++;
+                } else if (obj instanceof Obstacle && ((Obstacle) obj).isDamaging()) {
+                    hits++;
+                } else if (obj instanceof Coin) {
+                    hits++;
+                } else if (obj instanceof Flag) {
+                    hits++;
+                }
+            }
+        }
+        for (Obstacle obstacle : level.getObstacles()) {
+            if (obstacle instanceof MovingPlatform && overlaps(player, obstacle)) {
+                hits++;
+            }
+        }
+    }
+
+    /**
+     * The bounding box test without the category check.
+     */
+    private static boolean overlaps(GameObject a, GameObject b) {
+        if (!a.isActive() || !b.isActive()) return false;
+        double xOverlap = Math.min(a.getX() + a.getWidth(), b.getX() + b.getWidth()) - Math.max(a.getX(), b.getX());
+        double yOverlap = Math.min(a.getY() + a.getHeight(), b.getY() + b.getHeight()) - Math.max(a.getY(), b.getY());
+        return xOverlap > 0 && yOverlap > 0;
+    }
+
+    private static double playerX(int tick, double levelWidth) {
+        // Player runs across the level and back at 200px/s
+        double t = tick / 60.0 * 200 % (levelWidth * 2);
+        return t < levelWidth ? t : levelWidth * 2 - t;
+    }
+}
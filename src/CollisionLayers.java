@@ -0,0 +1,84 @@
+/**
+ * Collision categories and the matrix of which categories collide.
+ * Every game object belongs to one category, a single bit, and carries a mask
+ * of the categories it collides with. Whether two objects can touch at all is
+ * then one bitwise AND, done before any bounding box maths. The masks come
+ * from the layer matrix below, so a new kind of entity only needs a category
+ * and a row in the matrix.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class CollisionLayers {
+    /** The player */
+    public static final int PLAYER = 1;
+    /** Enemies, which attack the player */
+    public static final int ENEMY = 1 << 1;
+    /** Obstacles that damage the player on contact */
+    public static final int HAZARD = 1 << 2;
+    /** Moving platforms the player stands and rides on */
+    public static final int PLATFORM = 1 << 3;
+    /** Coins and other things the player picks up */
+    public static final int PICKUP = 1 << 4;
+    /** The flag that ends the level */
+    public static final int GOAL = 1 << 5;
+    /** Decorations, which collide with nothing */
+    public static final int SCENERY = 1 << 6;
+    /** Number of categories */
+    public static final int LAYERS = 7;
+
+    private static final String[] NAMES = {
+        "player", "enemy", "hazard", "platform", "pickup", "goal", "scenery"};
+
+    // The layer matrix: for each category, the categories it collides with
+    private static final int[] MASKS = new int[LAYERS];
+
+    static {
+        allow(PLAYER, ENEMY | HAZARD | PLATFORM | PICKUP | GOAL);
+    }
+
+    /**
+     * Lets a category collide with others, both ways round.
+     *
+     * @param category The category.
+     * @param others The categories it collides with, as a mask.
+     */
+    private static void allow(int category, int others) {
+        MASKS[indexOf(category)] |= others;
+        for (int i = 0; i < LAYERS; i++) {
+            if ((others & (1 << i)) != 0) {
+                MASKS[i] |= category;
+            }
+        }
+    }
+
+    /**
+     * Gets the categories a category collides with.
+     *
+     * @param category The category.
+     * @return The mask of categories it collides with.
+     */
+    public static int maskFor(int category) {
+        return MASKS[indexOf(category)];
+    }
+
+    /**
+     * Gets the row of a category in the layer matrix.
+     *
+     * @param category The category, a single bit.
+     * @return The index of the category, from 0 to LAYERS - 1.
+     */
+    public static int indexOf(int category) {
+        return Integer.numberOfTrailingZeros(category);
+    }
+
+    /**
+     * Gets the name of a category.
+     *
+     * @param category The category.
+     * @return The name of the category.
+     */
+    public static String getName(int category) {
+        return NAMES[indexOf(category)];
+    }
+}
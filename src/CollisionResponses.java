@@ -0,0 +1,62 @@
+/**
+ * Table of what happens when two collision categories touch.
+ * Responses are registered for an ordered pair of categories and looked up by
+ * the categories of the two objects that collided, so handling a new kind of
+ * entity means registering one more response rather than adding a branch to a
+ * chain of type checks.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class CollisionResponses {
+    /**
+     * What happens when two objects touch.
+     */
+    public interface Response {
+        /**
+         * Handles the collision.
+         *
+         * @param object The first object.
+         * @param other The object it collided with.
+         */
+        void accept(GameObject object, GameObject other);
+    }
+
+    private final Response[] table;
+
+    /**
+     * Constructs an empty response table.
+     */
+    public CollisionResponses() {
+        table = new Response[CollisionLayers.LAYERS * CollisionLayers.LAYERS];
+    }
+
+    /**
+     * Sets the response for an object of one category touching one of another.
+     *
+     * @param category The category of the first object.
+     * @param otherCategory The category of the object it touched.
+     * @param response Called with both objects, in that order, or null for no response.
+     */
+    public void register(int category, int otherCategory, Response response) {
+        table[indexOf(category, otherCategory)] = response;
+    }
+
+    /**
+     * Runs the response for two objects that collided, if there is one.
+     *
+     * @param object The first object.
+     * @param other The object it collided with.
+     * @return True if a response was run, false otherwise.
+     */
+    public boolean dispatch(GameObject object, GameObject other) {
+        Response response = table[indexOf(object.getCollisionCategory(), other.getCollisionCategory())];
+        if (response == null) return false;
+        response.accept(object, other);
+        return true;
+    }
+
+    private static int indexOf(int category, int otherCategory) {
+        return CollisionLayers.indexOf(category) * CollisionLayers.LAYERS + CollisionLayers.indexOf(otherCategory);
+    }
+}
@@ -1,5 +1,4 @@
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.paint.Color;
 
 
 /**
@@ -50,41 +49,48 @@ public class DesertBackground extends GameObject {
     @Override
     public void render(GraphicsContext gc) {
         if (!isActive) return;
+        double width = getWidth();
+        double height = getHeight();
         
         // Sky
-        gc.setFill(Color.web("#87CEEB")); 
+        gc.setFill(Palette.color(Palette.SKY)); 
         gc.fillRect(x, y, width, height * 0.86);
         
         // Ground
-        gc.setFill(Color.web("#E9C893")); 
+        gc.setFill(Palette.color(Palette.SAND)); 
         gc.fillRect(x, y + height * 0.86, width, height * 0.14); 
         
-        gc.setStroke(Color.web("#A69185")); 
+        gc.setStroke(Palette.color(Palette.GROUND_LINE)); 
         gc.setLineWidth(2);
         gc.strokeLine(x, y + height * 0.86, x + width, y + height * 0.86);
         
         // First sand dune
-        gc.setFill(Color.web("#D4B483", 0.7)); 
+        gc.setFill(Palette.color(Palette.DUNE)); 
         double dune1X = x + width * 0.1;
         double dune1Width = width * 0.3;
         double dune1Height = height * 0.15;
         drawSandDune(gc, dune1X, y + height * 0.86 - dune1Height, dune1Width, dune1Height);
         
         // Second sand dune 
-        gc.setFill(Color.web("#E9C893", 0.6)); 
+        gc.setFill(Palette.color(Palette.DUNE_LIGHT)); 
         double dune2X = x + width * 0.5;
         double dune2Width = width * 0.4;
         double dune2Height = height * 0.2;
         drawSandDune(gc, dune2X, y + height * 0.86 - dune2Height, dune2Width, dune2Height);
         
         // Third smaller dune
-        gc.setFill(Color.web("#C19A6B", 0.5)); 
+        gc.setFill(Palette.color(Palette.DUNE_SHADOW)); 
         double dune3X = x + width * 0.35;
         double dune3Width = width * 0.2;
         double dune3Height = height * 0.1;
         drawSandDune(gc, dune3X, y + height * 0.86 - dune3Height, dune3Width, dune3Height);
     }
     
+    @Override
+    protected RenderCommand.Kind getRenderKind() {
+        return RenderCommand.Kind.BACKGROUND;
+    }
+    
     private void drawSandDune(GraphicsContext gc, double x, double y, double width, double height) {
         // Use bezier curves for a smoother, more natural dune shape
         gc.beginPath();
@@ -104,7 +110,7 @@ public class DesertBackground extends GameObject {
         gc.fill();
         
         // Add a subtle highlight line to give some depth
-        gc.setStroke(Color.web("#F5DEB3", 0.3)); 
+        gc.setStroke(Palette.color(Palette.DUNE_HIGHLIGHT)); 
         gc.setLineWidth(1);
         
         // Draw a subtle curve near the top of the dune for highlight
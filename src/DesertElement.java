@@ -1,5 +1,4 @@
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.paint.Color;
 
 /**
  * Represents decorative elements in the desert environment.
@@ -56,16 +55,41 @@ public class DesertElement extends GameObject {
     @Override
     public void render(GraphicsContext gc) {
         if (!isActive) return;
-        
+        draw(new PaintState(gc), x, y, getWidth(), getHeight(), type);
+    }
+    
+    @Override
+    protected RenderCommand.Kind getRenderKind() {
+        return RenderCommand.Kind.DESERT_ELEMENT;
+    }
+    
+    @Override
+    public boolean writeRenderCommand(RenderCommand command) {
+        super.writeRenderCommand(command);
+        command.setVariant(type.ordinal());
+        return isActive;
+    }
+    
+    /**
+     * Draws a desert element of the given type and bounds.
+     * 
+     * @param paint The paint state to draw with.
+     * @param x The x-coordinate of the element.
+     * @param y The y-coordinate of the element.
+     * @param width The width of the element.
+     * @param height The height of the element.
+     * @param type The type of desert element to draw.
+     */
+    public static void draw(PaintState paint, double x, double y, double width, double height, ElementType type) {
         switch(type) {
             case SAND_DUNE:
-                renderSandDune(gc);
+                renderSandDune(paint, x, y, width, height);
                 break;
             case CACTUS:
-                renderCactus(gc);
+                renderCactus(paint, x, y, width, height);
                 break;
             case ROCK:
-                renderRock(gc);
+                renderRock(paint, x, y, width, height);
                 break;
         }
     }
@@ -75,11 +99,12 @@ public class DesertElement extends GameObject {
      * Uses quadratic curves to create a smooth, natural-looking dune
      * with subtle details and shading.
      * 
-     * @param gc The graphics context to draw on.
+     * @param paint The paint state to draw with.
      */
-    private void renderSandDune(GraphicsContext gc) {
+    private static void renderSandDune(PaintState paint, double x, double y, double width, double height) {
+        GraphicsContext gc = paint.getContext();
         // Draw a sand dune (rounded hill shape)
-        gc.setFill(Color.web("#E9C893")); 
+        paint.setFill(Palette.color(Palette.SAND)); 
         
         // Create a rounded hill shape
         gc.beginPath();
@@ -89,10 +114,11 @@ public class DesertElement extends GameObject {
         gc.lineTo(x, y + height);
         gc.closePath();
         gc.fill();
+        if (paint.getDetail() < RenderQuality.FULL) return;
         
         // Add some detail/shadow
-        gc.setStroke(Color.web("#D4B483"));
-        gc.setLineWidth(1);
+        paint.setStroke(Palette.color(Palette.DUNE_OUTLINE));
+        paint.setLineWidth(1);
         gc.strokeLine(x + width*0.2, y + height*0.7, x + width*0.8, y + height*0.7);
     }
     
@@ -101,11 +127,12 @@ public class DesertElement extends GameObject {
      * Uses simple geometric shapes and line details to create
      * a recognizable desert cactus.
      * 
-     * @param gc The graphics context to draw on.
+     * @param paint The paint state to draw with.
      */
-    private void renderCactus(GraphicsContext gc) {
+    private static void renderCactus(PaintState paint, double x, double y, double width, double height) {
+        GraphicsContext gc = paint.getContext();
         // Draw a simple cactus
-        gc.setFill(Color.web("#2D8633")); // Cactus green
+        paint.setFill(Palette.color(Palette.CACTUS)); // Cactus green
         
         // Main stem
         gc.fillRect(x + width/2 - 5, y, 10, height);
@@ -113,10 +140,11 @@ public class DesertElement extends GameObject {
         // Arms
         gc.fillRect(x, y + height*0.3, width/2, 8);
         gc.fillRect(x + width/2, y + height*0.6, width/2, 8);
+        if (paint.getDetail() < RenderQuality.FULL) return;
         
         // Detail lines
-        gc.setStroke(Color.web("#1A5E20"));
-        gc.setLineWidth(1);
+        paint.setStroke(Palette.color(Palette.CACTUS_OUTLINE));
+        paint.setLineWidth(1);
         gc.strokeLine(x + width/2 - 2, y, x + width/2 - 2, y + height);
         gc.strokeLine(x + width/2 + 2, y, x + width/2 + 2, y + height);
     }
@@ -126,22 +154,24 @@ public class DesertElement extends GameObject {
      * Creates a cluster of rocks with subtle highlights to add
      * visual interest and dimension.
      * 
-     * @param gc The graphics context to draw on.
+     * @param paint The paint state to draw with.
      */
-    private void renderRock(GraphicsContext gc) {
+    private static void renderRock(PaintState paint, double x, double y, double width, double height) {
+        GraphicsContext gc = paint.getContext();
         // Draw a rock formation
-        gc.setFill(Color.web("#808080")); // Gray for rocks
+        paint.setFill(Palette.color(Palette.ROCK)); // Gray for rocks
         
         // Main rock shape
         gc.fillOval(x, y, width, height);
+        if (paint.getDetail() < RenderQuality.FULL) return;
         
         // Add some smaller rocks
         gc.fillOval(x - width*0.1, y + height*0.6, width*0.3, height*0.4);
         gc.fillOval(x + width*0.8, y + height*0.7, width*0.3, height*0.3);
         
         // Add some detail/highlight
-        gc.setStroke(Color.web("#A0A0A0"));
-        gc.setLineWidth(1);
+        paint.setStroke(Palette.color(Palette.ROCK_OUTLINE));
+        paint.setLineWidth(1);
         gc.strokeOval(x + width*0.3, y + height*0.2, width*0.2, height*0.1);
     }
 }
\ No newline at end of file
@@ -1,5 +1,4 @@
 import javafx.scene.canvas.GraphicsContext;
-import java.util.Random;
 
 /**
  * Abstract base class for all enemy entities in the game.
@@ -11,23 +10,23 @@ import java.util.Random;
  * @version 1.0
  */
 public abstract class Enemy extends GameObject {
-    protected double speed;
-
-    protected float damage;
+    protected ParticleSystem particles;
     
-    protected Random random = new Random();
+    protected Terrain terrain = Terrain.FLAT;
 
     /**
      * Constructs a new enemy at the specified location with the given dimensions.
-     * Subclasses must call this constructor and initialize speed and damage values.
+     * The size and damage are shared with every enemy of the same kind.
      * 
      * @param x The X-coordinate of the enemy in the game world.
      * @param y The Y-coordinate of the enemy in the game world.
      * @param width The width of the enemy's collision box.
      * @param height The height of the enemy's collision box.
+     * @param damage The damage dealt to the player on contact, in heart units.
      */
-    public Enemy(double x, double y, double width, double height) {
+    public Enemy(double x, double y, double width, double height, float damage) {
         super(x, y, width, height);
+        this.shape = ObjectShape.of(width, height, CollisionLayers.ENEMY, damage);
     }
 
     /**
@@ -37,12 +36,46 @@ public abstract class Enemy extends GameObject {
      */
     public abstract void attack(Player player);
     
+    /**
+     * Restores the enemy state from a flat array.
+     * Enemies are only ever hidden for the short attack flash run by
+     * AnimationManager, so a restored enemy is always made visible again.
+     * 
+     * @param state The array to read from.
+     * @param offset The index of the first value to read.
+     * @return The index after the last value read.
+     */
+    @Override
+    public int readState(double[] state, int offset) {
+        offset = super.readState(state, offset);
+        isActive = true;
+        return offset;
+    }
+    
+    /**
+     * Sets the particle system this enemy throws up its effects into.
+     * 
+     * @param particles The particle system, or null for no effects.
+     */
+    public void setParticleSystem(ParticleSystem particles) {
+        this.particles = particles;
+    }
+    
+    /**
+     * Sets the ground this enemy walks on.
+     * 
+     * @param terrain The ground of the enemy's level.
+     */
+    public void setTerrain(Terrain terrain) {
+        this.terrain = terrain;
+    }
+    
     /**
      * Gets the amount of damage this enemy can inflict.
      * 
      * @return The damage value in heart units (can be fractional for partial hearts).
      */
     public float getDamage() { 
-        return damage; 
+        return shape.getDamage();
     }
 }
\ No newline at end of file
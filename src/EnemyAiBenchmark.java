@@ -0,0 +1,67 @@
+/**
+ * Measures how the cost of player-aware enemy AI grows with the number of enemies.
+ * Fills a level with chasing and ambushing enemies and spikes, moves the player
+ * back and forth across it and times the level's enemy update. Because every enemy
+ * reads the same player field, the cost per enemy should stay flat as the count
+ * grows, and the field itself is only rebuilt when the player changes cell.
+ *
+ * Run with: java EnemyAiBenchmark [ticks]
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class EnemyAiBenchmark {
+    private static final double LEVEL_WIDTH = 3000;
+    private static final int[] ENEMY_COUNTS = {100, 1000, 10000, 100000};
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Optional number of ticks to time per enemy count.
+     */
+    public static void main(String[] args) {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        BehaviourLibrary library = BehaviourLibrary.getDefault();
+        EnemyBehaviour stalker = library.get("stalker");
+        EnemyBehaviour ambusher = library.get("ambusher");
+        if (stalker == null || ambusher == null) {
+            System.err.println("The stalker and ambusher behaviours are needed for this benchmark");
+            return;
+        }
+
+        // Warm up
+        run(stalker, ambusher, 1000, ticks, false);
+        for (int count : ENEMY_COUNTS) {
+            run(stalker, ambusher, count, ticks, true);
+        }
+    }
+
+    private static void run(EnemyBehaviour stalker, EnemyBehaviour ambusher,
+                            int enemyCount, int ticks, boolean report) {
+        Level level = new Level(1);
+        level.setLevelWidth(LEVEL_WIDTH);
+        for (int i = 1; i <= 6; i++) {
+            level.addObstacle(new Spike(i * LEVEL_WIDTH / 7, 590));
+        }
+        for (int i = 0; i < enemyCount; i++) {
+            double x = (i + 0.5) * LEVEL_WIDTH / enemyCount;
+            level.addEnemy(new BehaviourEnemy(i % 2 == 0 ? stalker : ambusher, x, 585));
+        }
+
+        double deltaTime = 1.0 / 60;
+        long start = System.nanoTime();
+        for (int tick = 0; tick < ticks; tick++) {
+            // Player runs across the level and back at 200px/s
+            double t = tick * deltaTime * 200 % (LEVEL_WIDTH * 2);
+            double playerX = t < LEVEL_WIDTH ? t : LEVEL_WIDTH * 2 - t;
+            level.updateEfficiently(deltaTime, playerX, Double.POSITIVE_INFINITY);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (report) {
+            double perTick = elapsed / (double) ticks;
+            System.out.printf("%6d enemies: %9.1f us/tick, %5.1f ns/enemy, field rebuilt %d times%n",
+                enemyCount, perTick / 1000, perTick / enemyCount, level.getPlayerField().getRebuildCount());
+        }
+    }
+}
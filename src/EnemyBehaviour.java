@@ -0,0 +1,137 @@
+/**
+ * A data-driven enemy type, described as a small state machine.
+ * Each state runs for a fixed time and moves the enemy with a velocity that
+ * changes linearly from a start to an end value over that time. Entering a state
+ * can also shift the enemy instantly (the snake's lunge), and states can be marked
+ * safe so the enemy only hurts the player in its other states. When a state's time
+ * runs out the machine moves on to the state's successor.
+ * States can also react to the player: a chase speed makes the enemy walk towards
+ * the player on top of its velocity curve, and near and far ranges switch to another
+ * state as soon as the player comes within, or gets beyond, a walking distance.
+ * Behaviours are immutable and shared by every enemy of the type; the changing
+ * state of each enemy lives in a {@link BehaviourBatch}.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class EnemyBehaviour {
+    private final String name;
+    private final RenderCommand.Kind sprite;
+    private final double width;
+    private final double height;
+    private final float damage;
+    private final int minLevel;
+    private final int weight;
+
+    // One entry per state
+    private final String[] stateNames;
+    private final double[] duration;
+    private final double[] startVelocityX, endVelocityX;
+    private final double[] startVelocityY, endVelocityY;
+    private final double[] enterOffsetX, enterOffsetY;
+    private final boolean[] harmful;
+    private final int[] next;
+    private final double[] chaseSpeed;
+    private final double[] nearRange, farRange;
+    private final int[] nearNext, farNext;
+
+    /**
+     * Constructs a behaviour from its state table.
+     * All state arrays must have the same length, and the first state is the initial one.
+     *
+     * @param name The unique name of the behaviour.
+     * @param sprite How enemies of this type are drawn.
+     * @param width The width of the enemy's collision box.
+     * @param height The height of the enemy's collision box.
+     * @param damage The damage dealt to the player in heart units.
+     * @param minLevel The first level the enemy can appear on.
+     * @param weight How often the enemy is picked relative to other types.
+     * @param stateNames The names of the states.
+     * @param duration How long each state lasts in seconds.
+     * @param startVelocityX The horizontal velocity at the start of each state.
+     * @param endVelocityX The horizontal velocity at the end of each state.
+     * @param startVelocityY The vertical velocity at the start of each state.
+     * @param endVelocityY The vertical velocity at the end of each state.
+     * @param enterOffsetX The horizontal shift applied when a state is entered.
+     * @param enterOffsetY The vertical shift applied when a state is entered.
+     * @param harmful Whether touching the enemy hurts the player in each state.
+     * @param next The index of the state that follows each state.
+     * @param chaseSpeed The speed each state walks towards the player at, 0 for none.
+     * @param nearRange The player distance that ends each state early, 0 for none.
+     * @param nearNext The state entered when the player comes within the near range.
+     * @param farRange The player distance beyond which each state ends early, 0 for none.
+     * @param farNext The state entered when the player gets beyond the far range.
+     */
+    public EnemyBehaviour(String name, RenderCommand.Kind sprite, double width, double height,
+                          float damage, int minLevel, int weight, String[] stateNames,
+                          double[] duration, double[] startVelocityX, double[] endVelocityX,
+                          double[] startVelocityY, double[] endVelocityY,
+                          double[] enterOffsetX, double[] enterOffsetY,
+                          boolean[] harmful, int[] next, double[] chaseSpeed,
+                          double[] nearRange, int[] nearNext, double[] farRange, int[] farNext) {
+        this.name = name;
+        this.sprite = sprite;
+        this.width = width;
+        this.height = height;
+        this.damage = damage;
+        this.minLevel = minLevel;
+        this.weight = weight;
+        this.stateNames = stateNames;
+        this.duration = duration;
+        this.startVelocityX = startVelocityX;
+        this.endVelocityX = endVelocityX;
+        this.startVelocityY = startVelocityY;
+        this.endVelocityY = endVelocityY;
+        this.enterOffsetX = enterOffsetX;
+        this.enterOffsetY = enterOffsetY;
+        this.harmful = harmful;
+        this.next = next;
+        this.chaseSpeed = chaseSpeed;
+        this.nearRange = nearRange;
+        this.nearNext = nearNext;
+        this.farRange = farRange;
+        this.farNext = farNext;
+    }
+
+    /**
+     * Gets the displacement caused by a state's velocity curve over part of the state.
+     * The velocity is linear in time, so this integrates it exactly.
+     *
+     * @param velocityStart The velocity at the start of the state.
+     * @param velocityEnd The velocity at the end of the state.
+     * @param duration The length of the state in seconds.
+     * @param from The time into the state the step starts at.
+     * @param step The length of the step in seconds.
+     * @return The distance moved during the step.
+     */
+    static double displacement(double velocityStart, double velocityEnd, double duration,
+                               double from, double step) {
+        if (velocityStart == velocityEnd) return velocityStart * step;
+        double to = from + step;
+        return velocityStart * step + (velocityEnd - velocityStart) * (to * to - from * from) / (2 * duration);
+    }
+
+    public String getName() { return name; }
+    public RenderCommand.Kind getSprite() { return sprite; }
+    public double getWidth() { return width; }
+    public double getHeight() { return height; }
+    public float getDamage() { return damage; }
+    public int getMinLevel() { return minLevel; }
+    public int getWeight() { return weight; }
+    public int getStateCount() { return duration.length; }
+    public String getStateName(int state) { return stateNames[state]; }
+    public double getDuration(int state) { return duration[state]; }
+    public double getStartVelocityX(int state) { return startVelocityX[state]; }
+    public double getEndVelocityX(int state) { return endVelocityX[state]; }
+    public double getStartVelocityY(int state) { return startVelocityY[state]; }
+    public double getEndVelocityY(int state) { return endVelocityY[state]; }
+    public double getEnterOffsetX(int state) { return enterOffsetX[state]; }
+    public double getEnterOffsetY(int state) { return enterOffsetY[state]; }
+    public boolean isHarmful(int state) { return harmful[state]; }
+    public int getNext(int state) { return next[state]; }
+    public double getChaseSpeed(int state) { return chaseSpeed[state]; }
+    public double getNearRange(int state) { return nearRange[state]; }
+    public int getNearNext(int state) { return nearNext[state]; }
+    public double getFarRange(int state) { return farRange[state]; }
+    public int getFarNext(int state) { return farNext[state]; }
+}
@@ -10,7 +10,24 @@ import java.util.Random;
  */
 class EnemyFactory {
     /** Random number generator for enemy type selection */
-    private Random random = new Random();
+    private Random random;
+
+    /**
+     * Creates an enemy factory with its own unseeded random generator.
+     */
+    public EnemyFactory() {
+        this(new Random());
+    }
+
+    /**
+     * Creates an enemy factory that draws enemy types from the given generator.
+     * Sharing the level generator keeps seeded levels reproducible.
+     * 
+     * @param random The random number generator for enemy type selection.
+     */
+    public EnemyFactory(Random random) {
+        this.random = random;
+    }
 
     /**
      * Creates a Scorpion enemy at the specified position.
@@ -50,7 +67,9 @@ class EnemyFactory {
 
     /**
      * Creates an appropriate enemy for the specified level at the given position.
-     * The enemy type distribution changes based on level:
+     * The enemy type is picked from the data-driven behaviours in
+     * {@link BehaviourLibrary#getDefault()}, weighted and limited by level.
+     * Without any behaviours the built-in enemies are used, distributed by level:
      * - Levels 1-3: Only scorpions
      * - Levels 4-7: Mix of scorpions and snakes
      * - Levels 8+: Equal distribution of all enemy types
@@ -61,6 +80,14 @@ class EnemyFactory {
      * @return A new Enemy instance appropriate for the current level.
      */
     public Enemy createEnemyForLevel(int levelNumber, double x, double y) {
+        BehaviourLibrary library = BehaviourLibrary.getDefault();
+        if (!library.isEmpty()) {
+            EnemyBehaviour behaviour = library.pickForLevel(levelNumber, random);
+            if (behaviour != null) {
+                return new BehaviourEnemy(behaviour, x, y);
+            }
+        }
+        
         if (levelNumber <= 3) {
             return createScorpion(x, y);
         } else if (levelNumber <= 7) {
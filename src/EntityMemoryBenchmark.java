@@ -0,0 +1,86 @@
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * Reports how much memory game objects take.
+ * Creates a large number of objects of each type and measures how much the
+ * heap grows, giving the bytes each object takes including everything it
+ * alone holds on to. Then generates one level with about as many objects in
+ * total, spread as in the game, and gives the bytes per object of the whole
+ * level, with its lists, grids and ground included.
+ * The numbers depend on the JVM; they are measured with garbage collection
+ * run until the heap settles.
+ *
+ * Run with: java EntityMemoryBenchmark [objectsPerType] [levelObjects]
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class EntityMemoryBenchmark {
+    private interface Maker {
+        Object make(int i);
+    }
+
+    /**
+     * Runs the report.
+     *
+     * @param args Optional number of objects of each type and number of objects in the level.
+     * @throws IOException If the level tuning cannot be parsed.
+     */
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int levelObjects = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        System.out.printf("%-16s %8s%n", "Object", "Bytes");
+        report("Coin", count, i -> new Coin(i * 50, 500, i % 4 == 0 ? Coin.CoinType.GOLD : Coin.CoinType.SILVER));
+        report("Spike", count, i -> new Spike(i * 50, 590));
+        report("MovingPlatform", count, i -> new MovingPlatform(i * 50, 500, 150, 30));
+        report("DesertElement", count, i -> new DesertElement(i * 50, 570, 30, 50, ElementType.CACTUS));
+        report("Scorpion", count, i -> new Scorpion(i * 50, 585));
+        report("Snake", count, i -> new Snake(i * 50, 585));
+        report("Vulture", count, i -> new Vulture(i * 50, 300));
+
+        // A level with the game's mix of objects, its width growing with them as in the game
+        double scale = levelObjects / 100.0;
+        Tuning.setDefault(Tuning.parse(new StringReader(
+            "level.width = " + (long) (scale * 5000) + "\n"
+            + "level.elements = " + (long) (scale * 10) + "\n"
+            + "level.enemies = " + (long) (scale * 10) + "\n"
+            + "level.platforms = 1: " + (long) (scale * 3) + "\n"
+            + "level.spikes = 1: " + (long) (scale * 7) + "\n"
+            + "level.silverCoins = " + (long) (scale * 52) + "\n"
+            + "level.goldCoins = " + (long) (scale * 18) + "\n")));
+        LevelFactory.setLevelDirectory(null);
+        LevelFactory.setSeed(1);
+        long before = usedMemory();
+        Level level = LevelFactory.createLevel(1);
+        long used = usedMemory() - before;
+        int objects = level.getAllObjects().size();
+        System.out.printf("Level of %d objects: %.1f MB, %.1f bytes per object%n",
+            objects, used / 1e6, (double) used / objects);
+    }
+
+    private static void report(String name, int count, Maker maker) {
+        Object[] objects = new Object[count];
+        long before = usedMemory();
+        for (int i = 0; i < count; i++) {
+            objects[i] = maker.make(i);
+        }
+        long used = usedMemory() - before;
+        System.out.printf("%-16s %8.1f%n", name, (double) used / count);
+        if (objects[count - 1] == null) System.out.println();
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // Collect until nothing more is freed
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long now = runtime.totalMemory() - runtime.freeMemory();
+            if (now >= used) break;
+            used = now;
+        }
+        return used;
+    }
+}
@@ -1,5 +1,4 @@
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.paint.Color;
 
 /**
  * Represents the completion flag that marks the end of a level.
@@ -11,7 +10,11 @@ import javafx.scene.paint.Color;
 public class Flag extends GameObject {
     private double waveTime = 0;
     
-    private final double waveSpeed = 2.0;
+    private static final double WAVE_SPEED = 2.0;
+    
+    // Corner buffers reused by every draw, which only happens on the JavaFX thread
+    private static final double[] WAVE_X = new double[4];
+    private static final double[] WAVE_Y = new double[4];
     
     /**
      * Constructs a new flag at the specified location.
@@ -22,6 +25,7 @@ public class Flag extends GameObject {
      */
     public Flag(double x, double y) {
         super(x, y, 20, 40); 
+        setCollisionCategory(CollisionLayers.GOAL);
     }
 
     /**
@@ -33,12 +37,31 @@ public class Flag extends GameObject {
      */
     @Override
     public void update(double deltaTime) {
-        waveTime += deltaTime * waveSpeed;
+        waveTime += deltaTime * WAVE_SPEED;
         if (waveTime > Math.PI * 2) {
             waveTime -= Math.PI * 2;
         }
     }
 
+    @Override
+    public int getStateSize() {
+        return super.getStateSize() + 1;
+    }
+
+    @Override
+    public int writeState(double[] state, int offset) {
+        offset = super.writeState(state, offset);
+        state[offset] = waveTime;
+        return offset + 1;
+    }
+
+    @Override
+    public int readState(double[] state, int offset) {
+        offset = super.readState(state, offset);
+        waveTime = state[offset];
+        return offset + 1;
+    }
+
     /**
      * Renders the flag on the screen.
      * Creates a pole with a waving golden flag attached to it.
@@ -51,17 +74,43 @@ public class Flag extends GameObject {
     @Override
     public void render(GraphicsContext gc) {
         if (!isActive) return;
-        
+        draw(new PaintState(gc), x, y, getWidth(), getHeight(), waveTime);
+    }
+
+    @Override
+    protected RenderCommand.Kind getRenderKind() {
+        return RenderCommand.Kind.FLAG;
+    }
+
+    @Override
+    public boolean writeRenderCommand(RenderCommand command) {
+        super.writeRenderCommand(command);
+        command.setFrame(waveTime);
+        return isActive;
+    }
+
+    /**
+     * Draws a waving flag with the given bounds.
+     * 
+     * @param paint The paint state to draw with.
+     * @param x The X-coordinate of the flag.
+     * @param y The Y-coordinate of the flag.
+     * @param width The width of the flag.
+     * @param height The height of the flag.
+     * @param waveTime The current phase of the wave animation.
+     */
+    public static void draw(PaintState paint, double x, double y, double width, double height, double waveTime) {
+        GraphicsContext gc = paint.getContext();
         // Draw pole
-        gc.setFill(Color.web("#8B4513")); 
+        paint.setFill(Palette.color(Palette.WOOD)); 
         gc.fillRect(x, y, 5, height);
         
         // Draw waving flag
-        gc.setFill(Color.GOLD);
+        paint.setFill(Palette.color(Palette.FLAG));
         
         // Create a wave effect
-        double[] xPoints = new double[4];
-        double[] yPoints = new double[4];
+        double[] xPoints = WAVE_X;
+        double[] yPoints = WAVE_Y;
         
         // Wave amplitude
         double waveAmp = 5.0;
@@ -85,14 +134,16 @@ public class Flag extends GameObject {
         // Draw flag with wave effect
         gc.fillPolygon(xPoints, yPoints, 4);
         
+        if (paint.getDetail() < RenderQuality.FULL) return;
+        
         // Add some flag details
-        gc.setStroke(Color.web("#FFD700", 0.7)); 
-        gc.setLineWidth(1);
+        paint.setStroke(Palette.color(Palette.FLAG_DETAIL)); 
+        paint.setLineWidth(1);
         gc.strokeLine(x + 10, y + 10, x + width - 5, y + 10);
         gc.strokeLine(x + 10, y + 20, x + width - 5, y + 20);
         
         // Make the flag more visible from a distance
-        gc.setStroke(Color.BLACK);
+        paint.setStroke(Palette.color(Palette.OUTLINE));
         gc.strokePolygon(xPoints, yPoints, 4);
     }
 }
\ No newline at end of file
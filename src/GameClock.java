@@ -0,0 +1,78 @@
+/**
+ * Simulation clock driven by engine ticks rather than the wall clock.
+ * The game engine advances the clock once per simulation tick, and ticks have a
+ * fixed length however long the frames take, so anything that measures time
+ * through it (scoring, animations, limb swings) stays consistent when the
+ * simulation is paused, slowed down, accelerated or replayed.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class GameClock {
+    private long tick;
+    private double elapsedSeconds;
+
+    /**
+     * Constructs a new clock starting at tick zero.
+     */
+    public GameClock() {
+        reset();
+    }
+
+    /**
+     * Advances the clock by one simulation tick.
+     *
+     * @param deltaTime Time simulated by this tick in seconds.
+     */
+    public void advance(double deltaTime) {
+        tick++;
+        elapsedSeconds += deltaTime;
+    }
+
+    /**
+     * Resets the clock back to tick zero.
+     */
+    public void reset() {
+        tick = 0;
+        elapsedSeconds = 0;
+    }
+
+    /**
+     * Moves the clock to an exact point in simulated time.
+     * Used when restoring a previously captured game state.
+     *
+     * @param tick The tick number to restore.
+     * @param elapsedSeconds The simulated time at that tick in seconds.
+     */
+    public void setTime(long tick, double elapsedSeconds) {
+        this.tick = tick;
+        this.elapsedSeconds = elapsedSeconds;
+    }
+
+    /**
+     * Gets the number of ticks simulated so far.
+     *
+     * @return The current tick number.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Gets the simulated time since the clock was reset.
+     *
+     * @return The elapsed simulated time in seconds.
+     */
+    public double getElapsedSeconds() {
+        return elapsedSeconds;
+    }
+
+    /**
+     * Gets the simulated time since the clock was reset.
+     *
+     * @return The elapsed simulated time in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return (long) (elapsedSeconds * 1000);
+    }
+}
@@ -1,6 +1,8 @@
 import javafx.animation.AnimationTimer;
 import javafx.scene.canvas.GraphicsContext;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * The core engine responsible for running the game loop and managing game state.
@@ -21,9 +23,57 @@ public class GameEngine {
     private GraphicsContext gc;
     private GameView gameView;
     private InputHandler inputHandler;
-    private boolean isPaused = false;
+    private volatile boolean isPaused = false;
     private boolean debugMode = false;
     private long lastUpdate = 0;
+    // The simulation always advances in ticks of this length, whatever the frame rate
+    private static final double TICK_SECONDS = 1.0 / 60;
+    // Longer frames (a stall, a debugger break) are cut to this, so the game slows down instead of leaping
+    private static final double MAX_FRAME_SECONDS = 0.25;
+    private double unsimulatedSeconds = 0;
+    private GameClock clock;
+    private HighScoreStore highScoreStore;
+    private SnapshotBuffer snapshots = new SnapshotBuffer(600, 30);
+    
+    // Optional simulation thread publishing frames to the JavaFX thread
+    private static final long SIMULATION_STEP_NANOS = 1_000_000_000L / 60;
+    private boolean threadedSimulation = false;
+    private Thread simulationThread;
+    private volatile boolean simulationRunning = false;
+    private final Object simulationLock = new Object();
+    private final RenderListBuffer renderBuffer = new RenderListBuffer(256);
+    private volatile double pendingRewindSeconds = 0;
+    
+    // Optional cap on simulation steps per second to save power, 0 for no cap
+    private static final long PULSE_TOLERANCE_NANOS = 4_000_000L;
+    private volatile long minStepNanos = 0;
+    private long lastStepTime = 0;
+    private QualityGovernor governor;
+    
+    private GhostRacer ghostRacer;
+    private TuningWatcher tuningWatcher;
+    private Long runSeed;
+    
+    // Desert effects; levels from SANDSTORM_LEVEL on have a sandstorm
+    private static final int SANDSTORM_LEVEL = 5;
+    private final ParticleSystem particles = new ParticleSystem(65536);
+    
+    // What each collision with the player means, keyed by the pair of collision categories
+    private final CollisionResponses collisionResponses = new CollisionResponses();
+    private final List<GameObject> nearbyObjects = new ArrayList<>();
+    private boolean levelCompleted = false;
+    
+    // Gameplay events published by the simulation; scoring and effects drain them every tick
+    private final GameEvents events = new GameEvents(1024);
+    private final GameEvents.Reader scoringEvents = events.newReader();
+    private final GameEvents.Reader effectEvents = events.newReader();
+    private final GameEvents.Handler scoringHandler = this::scoreEvent;
+    private final GameEvents.Handler effectHandler = this::playEffect;
+    
+    // Level editor mode: the game is paused but still drawn, and objects can be moved
+    private volatile boolean editing = false;
+    private boolean pausedBeforeEditing = false;
+    private boolean killed = false;
     
     /**
      * Constructs a new game engine with the specified components.
@@ -39,6 +89,83 @@ public class GameEngine {
         this.scoreManager = scoreManager;
         this.gc = gc;
         this.gameView = gameView;
+        this.clock = scoreManager.getClock();
+        AnimationManager.setClock(clock);
+        registerCollisionResponses();
+    }
+
+    /**
+     * Fills in the response table with what the player touching each
+     * collision category means.
+     */
+    private void registerCollisionResponses() {
+        collisionResponses.register(CollisionLayers.PLAYER, CollisionLayers.ENEMY, (p, enemy) -> {
+            float health = player.getExactHealth();
+            ((Enemy) enemy).attack(player);
+            if (player.getExactHealth() < health) {
+                publishAt(GameEvents.ENEMY_ATTACK, enemy, health - player.getExactHealth());
+            }
+        });
+        collisionResponses.register(CollisionLayers.PLAYER, CollisionLayers.HAZARD, (p, hazard) -> {
+            float health = player.getExactHealth();
+            player.takeDamage(1.0f);
+            // Every tick on a hazard costs points, as it always has, but only a hit is an event
+            scoreManager.applyDamagePenalty();
+            if (player.getExactHealth() < health) {
+                publishAt(GameEvents.DAMAGE_TAKEN, hazard, health - player.getExactHealth());
+            }
+        });
+        collisionResponses.register(CollisionLayers.PLAYER, CollisionLayers.PICKUP, (p, pickup) -> {
+            Coin coin = (Coin) pickup;
+            if (!coin.isCollected()) {
+                coin.collect();
+                publishAt(GameEvents.COIN_COLLECTED, coin, coin.getType() == Coin.CoinType.GOLD ? 10 : 1);
+            }
+        });
+        collisionResponses.register(CollisionLayers.PLAYER, CollisionLayers.GOAL, (p, flag) -> {
+            publishAt(GameEvents.LEVEL_COMPLETED, flag, currentLevel.getLevelNumber());
+            levelCompleted = true;
+        });
+        collisionResponses.register(CollisionLayers.PLAYER, CollisionLayers.PLATFORM, (p, platform) -> {
+            player.setVelocity(player.getVelocity().add(((MovingPlatform) platform).getVelocity()));
+            player.setY(platform.getY() - player.getHeight());
+        });
+    }
+
+    /**
+     * Publishes a gameplay event at the centre of an object.
+     */
+    private void publishAt(int type, GameObject obj, double amount) {
+        events.publish(type, clock.getTick(),
+            obj.getX() + obj.getWidth() / 2, obj.getY() + obj.getHeight() / 2, amount);
+    }
+
+    /**
+     * Applies a gameplay event to the score.
+     */
+    private void scoreEvent(int type, long tick, float x, float y, float amount) {
+        if (type == GameEvents.COIN_COLLECTED) {
+            scoreManager.addScore((int) amount);
+        }
+    }
+
+    /**
+     * Plays the visual effect of a gameplay event.
+     */
+    private void playEffect(int type, long tick, float x, float y, float amount) {
+        if (type == GameEvents.COIN_COLLECTED) {
+            particles.emitCoinSparkle(x, y);
+        }
+    }
+
+    /**
+     * Gets the stream of gameplay events, for consumers that drain it at their
+     * own cadence on their own thread.
+     * 
+     * @return The gameplay events.
+     */
+    public GameEvents getGameEvents() {
+        return events;
     }
 
     /**
@@ -47,13 +174,18 @@ public class GameEngine {
      * Updates UI elements to reflect the initial state.
      */
     public void initializeGame() {
-        player = new Player(100, 570);
+        LevelFactory.setSeed(runSeed != null ? runSeed : System.nanoTime());
+        player = new Player(100, 570, clock);
+        player.setGameEvents(events);
         currentLevel = LevelFactory.createLevel(1);
         player.setLevelBounds(currentLevel.getLevelWidth());
+        player.setTerrain(currentLevel.getTerrain());
+        startLevelEffects();
         scoreManager.startLevelTimer();
-        uiManager.updateHearts(player.getHealth());
-        uiManager.updateLevel(currentLevel.getLevelNumber());
-        uiManager.updateScore(scoreManager.getTotalScore()); 
+        snapshots.begin(currentLevel, player, scoreManager, clock);
+        showHearts();
+        showLevel();
+        showScore();
         startGameLoop();
     }
     
@@ -61,23 +193,139 @@ public class GameEngine {
      * Starts the main game loop using JavaFX AnimationTimer.
      * The loop handles input processing, game state updates,
      * and rendering at appropriate intervals.
+     * In threaded mode the timer only draws the latest published frame,
+     * while a separate simulation thread handles input and updates.
+     * With a capped simulation rate, pulses between steps are skipped and
+     * nothing is redrawn. The time spent on each frame is reported to the
+     * quality governor, if there is one. While the level editor is open the
+     * game stays paused but is still drawn every frame.
+     * The loop is only started once, later calls do nothing.
      */
     private void startGameLoop() {
+        if (gameLoop != null) return;
+        
         gameLoop = new AnimationTimer() {
             @Override
             public void handle(long now) {
-                if (isPaused) return;
-
-                if (lastUpdate == 0) lastUpdate = now;
-                double deltaTime = (now - lastUpdate) / 1_000_000_000.0; 
-                lastUpdate = now;
+                if (threadedSimulation) {
+                    if (minStepNanos > 0 && !renderBuffer.hasNewFrame()) return;
+                    long start = System.nanoTime();
+                    gameView.drawRenderList(renderBuffer.acquireLatest());
+                    if (governor != null) governor.endFrame(now, System.nanoTime() - start);
+                    return;
+                }
+                
+                if (isPaused) {
+                    if (editing) gameView.render();
+                    return;
+                }
+                if (now - lastStepTime < minStepNanos - PULSE_TOLERANCE_NANOS) return;
+                lastStepTime = now;
 
-                inputHandler.processInput();
-                update(deltaTime);
+                long start = System.nanoTime();
+                step(now);
+                long stepped = System.nanoTime();
                 gameView.render();
+                if (governor != null) {
+                    governor.recordUpdate(stepped - start);
+                    governor.endFrame(now, System.nanoTime() - stepped);
+                }
             }
         };
         gameLoop.start();
+        
+        if (threadedSimulation) {
+            simulationRunning = true;
+            simulationThread = new Thread(this::runSimulationLoop, "simulation");
+            simulationThread.setDaemon(true);
+            simulationThread.start();
+        }
+    }
+    
+    /**
+     * Runs the simulation at a fixed rate on its own thread.
+     * Each step updates the game and publishes a new render list,
+     * then sleeps until the next step is due.
+     */
+    private void runSimulationLoop() {
+        long nextStep = System.nanoTime();
+        while (simulationRunning) {
+            synchronized (simulationLock) {
+                if (!isPaused) {
+                    long start = System.nanoTime();
+                    step(start);
+                    if (gameView.buildRenderList(renderBuffer.getWriteList())) {
+                        renderBuffer.publish();
+                    }
+                    if (governor != null) governor.recordUpdate(System.nanoTime() - start);
+                } else if (editing && gameView.buildRenderList(renderBuffer.getWriteList())) {
+                    renderBuffer.publish();
+                }
+            }
+            
+            nextStep += Math.max(SIMULATION_STEP_NANOS, minStepNanos);
+            long wait = nextStep - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else {
+                nextStep = System.nanoTime(); // Running behind, don't try to catch up
+            }
+        }
+    }
+    
+    /**
+     * Advances the game by one frame.
+     * Works out the elapsed time, applies queued rewinds, reloaded tuning and
+     * input, then updates the game in as many fixed ticks as fit into the time
+     * not yet simulated. What is left over carries into the next frame, so
+     * the game runs the same ticks whatever the frame timing.
+     * 
+     * @param now The current time in nanoseconds.
+     */
+    private void step(long now) {
+        if (isPaused) return;
+        
+        if (lastUpdate == 0) lastUpdate = now;
+        unsimulatedSeconds += Math.min((now - lastUpdate) / 1_000_000_000.0, MAX_FRAME_SECONDS);
+        lastUpdate = now;
+        
+        if (pendingRewindSeconds > 0) {
+            double seconds = pendingRewindSeconds;
+            pendingRewindSeconds = 0;
+            rewind(seconds);
+        }
+        
+        // Reloaded files are only swapped in here, so a tick never sees half an edit
+        if (tuningWatcher != null) {
+            tuningWatcher.applyPending();
+        }
+
+        inputHandler.processInput();
+        while (unsimulatedSeconds >= TICK_SECONDS && !isPaused) {
+            unsimulatedSeconds -= TICK_SECONDS;
+            update(TICK_SECONDS);
+        }
+    }
+    
+    /**
+     * Shows the current total score in the HUD.
+     */
+    private void showScore() {
+        uiManager.getHudModel().setScore(scoreManager.getTotalScore());
+    }
+    
+    /**
+     * Shows the player's current hearts in the HUD.
+     */
+    private void showHearts() {
+        uiManager.getHudModel().setHearts(player.getHealth());
+    }
+    
+    /**
+     * Shows the current level number in the HUD.
+     */
+    private void showLevel() {
+        uiManager.getHudModel().setLevel(currentLevel.getLevelNumber());
     }
 
     /**
@@ -88,11 +336,23 @@ public class GameEngine {
      * @param deltaTime Time elapsed since the last update in seconds.
      */
     private void update(double deltaTime) {
+        clock.advance(deltaTime);
+        AnimationManager.update();
+        particles.update(deltaTime);
+        
         if (player.isActive()) {
+            boolean wasJumping = player.isJumping();
             player.update(deltaTime);
-            currentLevel.updateEfficiently(deltaTime, player.getX(), 1280);
+            if (wasJumping && !player.isJumping()) {
+                particles.emitSandPuff(player.getX() + player.getWidth() / 2, player.getY() + player.getHeight());
+            }
+            currentLevel.updateEfficiently(deltaTime, player.getX(), gameView.getViewWidth());
             handleCollisions();
-            uiManager.updateScore(scoreManager.getTotalScore());
+            snapshots.capture();
+            if (ghostRacer != null) {
+                ghostRacer.update(deltaTime, player, currentLevel.getLevelNumber());
+            }
+            showScore();
         } else if (player.isDying()) {
             player.update(deltaTime); 
         } else if (!player.isActive() && !player.isDying()) {
@@ -100,44 +360,34 @@ public class GameEngine {
             handlePlayerDeath();
         }
     }
-    
+
     /**
      * Handles all collision detection between the player and game objects.
-     * Processes interactions with enemies, obstacles, coins, and level completion flags.
-     * Triggers appropriate actions based on collision types.
+     * Only objects whose collision category is in the player's mask are
+     * gathered, and each hit is handed to the response registered for its
+     * category, such as an enemy attack, spike damage, a coin pickup, riding
+     * a moving platform or reaching the flag.
+     * The responses publish gameplay events, which scoring and effects then
+     * drain in one batch before the next level is started.
      */
     private void handleCollisions() {
-        List<GameObject> nearbyObjects = currentLevel.getObjectsNearPlayer(player.getX(), 1280);
+        nearbyObjects.clear();
+        currentLevel.collectObjectsNear(player.getX(), gameView.getViewWidth(), player.getCollisionMask(), nearbyObjects);
         for (GameObject obj : nearbyObjects) {
             if (player.collidesWith(obj)) {
-                if (obj instanceof Enemy) {
-                    ((Enemy) obj).attack(player);
-                    uiManager.updateHearts(player.getHealth());
-                    uiManager.updateScore(scoreManager.getTotalScore());
-                } else if (obj instanceof Obstacle && ((Obstacle) obj).isDamaging()) {
-                    player.takeDamage(1.0f);
-                    scoreManager.applyDamagePenalty();
-                    uiManager.updateHearts(player.getHealth());
-                    uiManager.updateScore(scoreManager.getTotalScore());
-                } else if (obj instanceof Coin) {
-                    Coin coin = (Coin) obj;
-                    if (!coin.isCollected()) {
-                        coin.collect();
-                        scoreManager.addScore(coin.getType() == Coin.CoinType.GOLD ? 10 : 1);
-                        uiManager.updateScore(scoreManager.getTotalScore());
-                    }
-                } else if (obj instanceof Flag) {
-                    advanceToNextLevel();
-                }
+                collisionResponses.dispatch(player, obj);
+                if (levelCompleted) break;
             }
         }
 
-        // Platform-specific collision (for moving platforms)
-        for (Obstacle obstacle : currentLevel.getObstacles()) {
-            if (obstacle instanceof MovingPlatform && player.collidesWith(obstacle)) {
-                player.setVelocity(player.getVelocity().add(((MovingPlatform) obstacle).getVelocity()));
-                player.setY(obstacle.getY() - player.getHeight());
-            }
+        if (scoringEvents.drain(scoringHandler) > 0) {
+            showHearts();
+            showScore();
+        }
+        effectEvents.drain(effectHandler);
+        if (levelCompleted) {
+            levelCompleted = false;
+            advanceToNextLevel();
         }
     }
 
@@ -156,8 +406,10 @@ public class GameEngine {
             javafx.application.Platform.runLater(() -> {
                 uiManager.showDeathDialog(remainingHearts, 
                     () -> {
-                        resetPlayer();
-                        resumeGame();
+                        synchronized (simulationLock) {
+                            resetPlayer();
+                            resumeGame();
+                        }
                     }, 
                     () -> {
                         showGameOver(false);
@@ -174,13 +426,16 @@ public class GameEngine {
      * @param healthValue The health value to set for the player.
      */
     private void resetPlayer(float healthValue) {
-        player = new Player(100, 570);
+        player = new Player(100, 570, clock);
+        player.setGameEvents(events);
         player.setLevelBounds(currentLevel.getLevelWidth());
+        player.setTerrain(currentLevel.getTerrain());
         player.setHealth(healthValue);
         inputHandler.setPlayer(player);
+        snapshots.begin(currentLevel, player, scoreManager, clock);
         scoreManager.applyDamagePenalty();
-        uiManager.updateHearts(player.getHealth());
-        uiManager.updateScore(scoreManager.getTotalScore());
+        showHearts();
+        showScore();
     }
 
     /**
@@ -192,6 +447,203 @@ public class GameEngine {
         resetPlayer(3.0f);
     }
     
+    /**
+     * Saves the run in progress, so it can be resumed later with {@link #loadRun}.
+     * Nothing is saved while the player is dying or dead, or once the engine
+     * has been killed and has let go of its level.
+     * 
+     * @param file The file to save to.
+     * @return True if the run was saved, false otherwise.
+     */
+    public boolean saveRun(java.nio.file.Path file) {
+        synchronized (simulationLock) {
+            if (killed || player == null || currentLevel == null || !player.isActive() || player.isDying()) return false;
+            try {
+                RunSave.write(file, currentLevel, player, scoreManager, clock);
+                return true;
+            } catch (java.io.IOException | RuntimeException e) {
+                System.err.println("Could not save the run: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+    
+    /**
+     * Runs a save and a load once without touching the saved run, so the
+     * first real save of the session is as quick as the rest.
+     */
+    public void warmUpRunSave() {
+        synchronized (simulationLock) {
+            if (player == null || currentLevel == null) return;
+            RunSave.warmUp(currentLevel, player, scoreManager, clock);
+        }
+    }
+    
+    /**
+     * Replaces the game in progress with a saved run, restoring its level,
+     * player, score and clock exactly as they were saved.
+     * 
+     * @param file The file to load from.
+     * @return True if the run was loaded, false if the file could not be read.
+     */
+    public boolean loadRun(java.nio.file.Path file) {
+        synchronized (simulationLock) {
+            Player loaded = new Player(100, 570, clock);
+            Level level;
+            try {
+                level = RunSave.read(file, loaded, scoreManager, clock);
+            } catch (java.io.IOException e) {
+                System.err.println("Could not load the saved run: " + e.getMessage());
+                return false;
+            }
+            
+            AnimationManager.cleanupAllAnimations();
+            currentLevel = level;
+            startLevelEffects();
+            player = loaded;
+            player.setGameEvents(events);
+            player.setLevelBounds(currentLevel.getLevelWidth());
+            player.setTerrain(currentLevel.getTerrain());
+            if (inputHandler != null) {
+                inputHandler.clearInputs();
+                inputHandler.setPlayer(player);
+            }
+            snapshots.begin(currentLevel, player, scoreManager, clock);
+            showHearts();
+            showLevel();
+            showScore();
+            return true;
+        }
+    }
+    
+    /**
+     * Opens or closes the level editor.
+     * Opening it pauses the game. Closing it clears the rewind history, which
+     * holds the level as it was before the edits, and resumes the game from
+     * the edited level unless it was already paused.
+     * 
+     * @param enabled True to open the editor, false to close it.
+     */
+    public void setEditing(boolean enabled) {
+        synchronized (simulationLock) {
+            if (enabled == editing || player == null || currentLevel == null) return;
+            if (enabled) {
+                pausedBeforeEditing = isPaused;
+                pauseGame();
+                editing = true;
+            } else {
+                editing = false;
+                snapshots.begin(currentLevel, player, scoreManager, clock);
+                if (inputHandler != null) inputHandler.clearInputs();
+                if (!pausedBeforeEditing) resumeGame();
+            }
+        }
+    }
+    
+    /**
+     * Checks whether the level editor is open.
+     * 
+     * @return True while editing.
+     */
+    public boolean isEditing() {
+        return editing;
+    }
+    
+    /**
+     * Finds the level object at a point, for the level editor.
+     * 
+     * @param worldX The x-coordinate of the point.
+     * @param worldY The y-coordinate of the point.
+     * @return The object, or null if there is none.
+     */
+    public GameObject pickObject(double worldX, double worldY) {
+        synchronized (simulationLock) {
+            return currentLevel != null ? currentLevel.pick(worldX, worldY) : null;
+        }
+    }
+    
+    /**
+     * Moves a level object, for the level editor. The level is updated in
+     * place, so the game resumes from the moved object.
+     * 
+     * @param obj The object to move.
+     * @param dx How far to move along x.
+     * @param dy How far to move along y.
+     */
+    public void moveObject(GameObject obj, double dx, double dy) {
+        synchronized (simulationLock) {
+            if (!editing) return;
+            currentLevel.moveObject(obj, dx, dy);
+        }
+    }
+    
+    /**
+     * Pans the view along the level, for the level editor.
+     * 
+     * @param dx How far to move the view along x.
+     */
+    public void panCamera(double dx) {
+        synchronized (simulationLock) {
+            gameView.getCamera().pan(dx);
+        }
+    }
+    
+    /**
+     * Saves the current level's layout to the folder of levels, where it is
+     * loaded from instead of being generated. Only the regions edited since
+     * the level was last saved or loaded are written.
+     * 
+     * @return The number of regions written, or -1 if the level could not be saved.
+     */
+    public int saveLevel() {
+        synchronized (simulationLock) {
+            if (currentLevel == null) return -1;
+            LevelFile file = currentLevel.getLevelFile();
+            if (file == null) {
+                java.nio.file.Path directory = LevelFactory.getLevelDirectory();
+                if (directory == null) directory = java.nio.file.Paths.get("levels");
+                file = new LevelFile(LevelFile.pathFor(directory, currentLevel.getLevelNumber()));
+            }
+            try {
+                file.save(currentLevel);
+                return file.getRegionsWritten();
+            } catch (java.io.IOException | RuntimeException e) {
+                System.err.println("Could not save the level: " + e.getMessage());
+                return -1;
+            }
+        }
+    }
+    
+    /**
+     * Rewinds the running level to the state it was in a number of seconds ago.
+     * Restores the player, every level object, the score and the game clock
+     * from the snapshot buffer without rebuilding the level.
+     * 
+     * @param seconds How far back to rewind, in simulated seconds.
+     * @return True if the game was rewound, false if no suitable snapshot exists.
+     */
+    public boolean rewind(double seconds) {
+        if (isPaused || player == null || !player.isActive() || player.isDying()) return false;
+        
+        long tick = snapshots.findTick(clock.getElapsedSeconds() - seconds);
+        if (tick < 0 || !snapshots.restore(tick)) return false;
+        
+        AnimationManager.cleanupAllAnimations();
+        showHearts();
+        showScore();
+        return true;
+    }
+    
+    /**
+     * Queues a rewind to be applied at the start of the next simulation step.
+     * Safe to call from the JavaFX thread while the simulation runs on its own thread.
+     * 
+     * @param seconds How far back to rewind, in simulated seconds.
+     */
+    public void requestRewind(double seconds) {
+        pendingRewindSeconds = seconds;
+    }
+    
     /**
      * Advances the game to the next level after completing the current one.
      * Calculates level score, creates a new level, resets player position,
@@ -200,12 +652,26 @@ public class GameEngine {
     private void advanceToNextLevel() {
         int levelScore = scoreManager.calculateLevelScore();
         currentLevel = LevelFactory.createLevel(currentLevel.getLevelNumber() + 1);
+        startLevelEffects();
         float currentHealth = player.getHealth();
         resetPlayer(currentHealth);
         player.setLevelBounds(currentLevel.getLevelWidth());
+        player.setTerrain(currentLevel.getTerrain());
         scoreManager.startLevelTimer();
-        uiManager.updateLevel(currentLevel.getLevelNumber());
-        uiManager.updateScore(scoreManager.getTotalScore());
+        showLevel();
+        showScore();
+    }
+
+    /**
+     * Clears the particles of the previous level and connects the particle
+     * system to the current one, starting a sandstorm on later levels.
+     */
+    private void startLevelEffects() {
+        particles.clear();
+        currentLevel.setParticleSystem(particles);
+        int levelNumber = currentLevel.getLevelNumber();
+        double stormRate = levelNumber < SANDSTORM_LEVEL ? 0 : Math.min(6000, 1500 * (levelNumber - SANDSTORM_LEVEL + 1));
+        particles.setSandstorm(stormRate, currentLevel.getLevelWidth(), 620);
     }
 
     /**
@@ -222,6 +688,7 @@ public class GameEngine {
         }
         
         final int scoreToShow = finalScore;
+        recordRun(finalScore);
         
         javafx.application.Platform.runLater(() -> {
             uiManager.showGameOverDialog(isWin, scoreToShow, currentLevel.getLevelNumber());
@@ -229,6 +696,21 @@ public class GameEngine {
         });
     }
 
+    /**
+     * Records the finished run on the persistent leaderboard, if one is attached.
+     * 
+     * @param finalScore The final score of the run.
+     */
+    private void recordRun(int finalScore) {
+        if (highScoreStore == null) return;
+        try {
+            highScoreStore.record(new RunRecord(finalScore, currentLevel.getLevelNumber(),
+                LevelFactory.getSeed(), System.currentTimeMillis(), scoreManager.getLevelTimes()));
+        } catch (java.io.IOException e) {
+            System.err.println("Could not record run: " + e.getMessage());
+        }
+    }
+
     /**
      * Pauses the game loop.
      * Stops updates and rendering until the game is resumed.
@@ -244,6 +726,7 @@ public class GameEngine {
     public void resumeGame() {
         isPaused = false;
         lastUpdate = 0; 
+        unsimulatedSeconds = 0;
     }
 
     /**
@@ -252,8 +735,18 @@ public class GameEngine {
      * Creates a fresh game state ready to be played.
      */
     public void resetGame() {
+        synchronized (simulationLock) {
+            resetGameState();
+        }
+    }
+    
+    /**
+     * Performs the game reset. Callers must hold the simulation lock.
+     */
+    private void resetGameState() {
         pauseGame();
         AnimationManager.cleanupAllAnimations();
+        clock.reset();
         scoreManager.resetScore();
 
         // Reset input handler to clear any pressed keys
@@ -276,15 +769,109 @@ public class GameEngine {
     /**
      * Cleans up resources when the game is shutting down.
      * Stops the game loop, cleans up animations, and releases level resources.
+     * Calling it again does nothing.
      */
     public void kill() {
+        if (killed) return;
+        killed = true;
         if (gameLoop != null) {
             gameLoop.stop();
         }
+        simulationRunning = false;
+        if (simulationThread != null) {
+            try {
+                simulationThread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
         AnimationManager.cleanupAllAnimations();
         if (currentLevel != null) {
             currentLevel.cleanup();
         }
+        if (ghostRacer != null) {
+            ghostRacer.close();
+        }
+    }
+
+    /**
+     * Chooses whether the simulation runs on its own thread.
+     * Must be called before the game is first initialized.
+     * 
+     * @param threaded True to update on a separate simulation thread and only draw
+     *                 on the JavaFX thread, false to do both on the JavaFX thread.
+     */
+    public void setThreadedSimulation(boolean threaded) {
+        this.threadedSimulation = threaded;
+    }
+    
+    /**
+     * Caps how many simulation steps run per second, to save power on battery devices.
+     * Frames are only drawn after a step, so the frame rate is capped as well.
+     * The quality governor, if there is one, aims for the capped rate.
+     * 
+     * @param stepsPerSecond The most steps per second, 0 for one step per pulse.
+     */
+    public void setSimulationRateCap(double stepsPerSecond) {
+        minStepNanos = stepsPerSecond > 0 ? (long) (1_000_000_000L / stepsPerSecond) : 0;
+        if (governor != null) {
+            governor.setTargetFps(stepsPerSecond > 0 ? Math.min(60, stepsPerSecond) : 60);
+        }
+    }
+    
+    /**
+     * Sets the governor told how long each frame took, which adjusts the quality to keep up.
+     * 
+     * @param governor The quality governor, or null to keep the quality fixed.
+     */
+    public void setQualityGovernor(QualityGovernor governor) {
+        this.governor = governor;
+    }
+
+    /**
+     * Fixes the level generator seed used for every new game.
+     * Racers who share a seed play exactly the same levels.
+     * 
+     * @param seed The seed, or null to pick a new seed for each game.
+     */
+    public void setRunSeed(Long seed) {
+        this.runSeed = seed;
+    }
+    
+    /**
+     * Attaches a ghost racer that streams the player to other racers.
+     * 
+     * @param racer The ghost racer, or null to race alone.
+     */
+    public void setGhostRacer(GhostRacer racer) {
+        this.ghostRacer = racer;
+    }
+    
+    /**
+     * Gets the attached ghost racer.
+     * 
+     * @return The ghost racer, or null if racing alone.
+     */
+    public GhostRacer getGhostRacer() {
+        return ghostRacer;
+    }
+    
+    /**
+     * Attaches the watcher whose reloaded tuning is swapped in between ticks.
+     * 
+     * @param watcher The tuning watcher, or null to keep the tuning fixed.
+     */
+    public void setTuningWatcher(TuningWatcher watcher) {
+        this.tuningWatcher = watcher;
+    }
+    
+    /**
+     * Gets the particle system used for the desert effects.
+     * 
+     * @return The particle system.
+     */
+    public ParticleSystem getParticles() {
+        return particles;
     }
 
     /**
@@ -296,6 +883,15 @@ public class GameEngine {
         this.inputHandler = handler;
     }
 
+    /**
+     * Sets the persistent leaderboard that finished runs are recorded to.
+     * 
+     * @param store The high score store, or null to disable recording.
+     */
+    public void setHighScoreStore(HighScoreStore store) {
+        this.highScoreStore = store;
+    }
+
     /**
      * Gets the current player object.
      * 
@@ -305,6 +901,15 @@ public class GameEngine {
         return player;
     }
 
+    /**
+     * Gets the game clock driving the simulation.
+     * 
+     * @return The game clock advanced once per update.
+     */
+    public GameClock getClock() {
+        return clock;
+    }
+
     /**
      * Gets the current level object.
      * 
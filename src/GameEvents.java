@@ -0,0 +1,196 @@
+import java.lang.invoke.VarHandle;
+
+/**
+ * Stream of gameplay events, such as coins collected and damage taken, from
+ * the simulation to whoever wants to react to them.
+ * The simulation publishes events into a preallocated ring buffer and moves
+ * on; it never waits for, or even knows about, the consumers. Each consumer has
+ * its own {@link Reader} and drains the events in batches at its own cadence,
+ * on its own thread: scoring and effects once per tick, the performance
+ * overlay once per frame, audio once per mixed block. Events are stored as primitives in parallel arrays,
+ * so publishing and draining allocate nothing.
+ * There must only be one publishing thread at a time. A reader that falls
+ * more than the capacity behind skips the oldest events and counts them as
+ * missed. Publishing fences the slot writes after the previous count, and a
+ * reader fences its slot reads before checking the count again, so even on
+ * weakly ordered processors a reader never takes an event that was being
+ * written over while it read it.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class GameEvents {
+    /** The player picked up a coin; the amount is the points it is worth */
+    public static final int COIN_COLLECTED = 0;
+    /** A hazard hurt the player; the amount is the health lost */
+    public static final int DAMAGE_TAKEN = 1;
+    /** The player reached the flag; the amount is the level number */
+    public static final int LEVEL_COMPLETED = 2;
+    /** An enemy hurt the player; the amount is the health lost */
+    public static final int ENEMY_ATTACK = 3;
+    /** The player jumped; the amount is the upward speed */
+    public static final int PLAYER_JUMPED = 4;
+    /** Number of event types */
+    public static final int TYPES = 5;
+
+    private static final String[] NAMES = {"coin", "damage", "level", "attack", "jump"};
+
+    /**
+     * Receives drained events one at a time.
+     */
+    public interface Handler {
+        /**
+         * Called for each event, in the order they were published.
+         *
+         * @param type The event type, such as COIN_COLLECTED.
+         * @param tick The simulation tick the event happened on.
+         * @param x The x-coordinate where the event happened.
+         * @param y The y-coordinate where the event happened.
+         * @param amount The amount the event carries, which depends on its type.
+         */
+        void onEvent(int type, long tick, float x, float y, float amount);
+    }
+
+    /**
+     * A consumer's position in the stream. Each reader must only be drained
+     * from one thread.
+     */
+    public class Reader {
+        private long position;
+        private long missed = 0;
+
+        private Reader(long position) {
+            this.position = position;
+        }
+
+        /**
+         * Hands every event published since the last drain to a handler.
+         *
+         * @param handler The handler to call for each event.
+         * @return The number of events handled.
+         */
+        public int drain(Handler handler) {
+            return drain(handler, Integer.MAX_VALUE);
+        }
+
+        /**
+         * Hands events published since the last drain to a handler, up to a limit.
+         *
+         * @param handler The handler to call for each event.
+         * @param max The most events to handle.
+         * @return The number of events handled.
+         */
+        public int drain(Handler handler, int max) {
+            int handled = 0;
+            while (handled < max) {
+                long end = published;
+                if (end - position >= capacity) {
+                    // Fallen behind: the oldest events have been written over
+                    long oldest = end - capacity + 1;
+                    missed += oldest - position;
+                    position = oldest;
+                }
+                if (position >= end) break;
+
+                int slot = (int) (position & mask);
+                int type = types[slot];
+                long tick = ticks[slot];
+                float x = xs[slot];
+                float y = ys[slot];
+                float amount = amounts[slot];
+                // The slot may have been written over while it was read
+                VarHandle.acquireFence();
+                if (published - position >= capacity) continue;
+
+                position++;
+                handled++;
+                handler.onEvent(type, tick, x, y, amount);
+            }
+            return handled;
+        }
+
+        /**
+         * Gets how many events this reader skipped because it fell behind.
+         *
+         * @return The number of missed events.
+         */
+        public long getMissed() {
+            return missed;
+        }
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final int[] types;
+    private final long[] ticks;
+    private final float[] xs;
+    private final float[] ys;
+    private final float[] amounts;
+    private volatile long published = 0;
+
+    /**
+     * Constructs an event stream.
+     *
+     * @param capacity The number of events kept for readers, rounded up to a power of two.
+     */
+    public GameEvents(int capacity) {
+        this.capacity = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.mask = this.capacity - 1;
+        types = new int[this.capacity];
+        ticks = new long[this.capacity];
+        xs = new float[this.capacity];
+        ys = new float[this.capacity];
+        amounts = new float[this.capacity];
+    }
+
+    /**
+     * Publishes an event. Must only be called from the one publishing thread.
+     *
+     * @param type The event type, such as COIN_COLLECTED.
+     * @param tick The simulation tick the event happened on.
+     * @param x The x-coordinate where the event happened.
+     * @param y The y-coordinate where the event happened.
+     * @param amount The amount the event carries, which depends on its type.
+     */
+    public void publish(int type, long tick, double x, double y, double amount) {
+        long sequence = published;
+        // Keep the slot writes after the count from the last publish, or a
+        // lagging reader could see new slot data with the old count
+        VarHandle.releaseFence();
+        int slot = (int) (sequence & mask);
+        types[slot] = type;
+        ticks[slot] = tick;
+        xs[slot] = (float) x;
+        ys[slot] = (float) y;
+        amounts[slot] = (float) amount;
+        published = sequence + 1;
+    }
+
+    /**
+     * Creates a reader that starts with the next event published.
+     *
+     * @return A new reader.
+     */
+    public Reader newReader() {
+        return new Reader(published);
+    }
+
+    /**
+     * Gets the number of events published so far.
+     *
+     * @return The number of events.
+     */
+    public long getPublished() {
+        return published;
+    }
+
+    /**
+     * Gets the name of an event type.
+     *
+     * @param type The event type.
+     * @return The name of the type.
+     */
+    public static String getName(int type) {
+        return NAMES[type];
+    }
+}
@@ -2,6 +2,10 @@ import javafx.scene.canvas.GraphicsContext;
 
 /**
  * Game Object class that defines all objects in the game.
+ * An object holds only what is its own: where it is, where it was spawned
+ * and whether it is active. Its size and collision layer are in a shared
+ * {@link ObjectShape}, and the point it was spawned at, which only anchors
+ * patrols and swoops, is kept in floats.
  * 
  * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
  * @version 1.0
@@ -9,9 +13,9 @@ import javafx.scene.canvas.GraphicsContext;
 
 abstract class GameObject {
     protected double x, y;
-    protected double width, height;
-    protected double initialX;
+    protected float initialX, initialY;
     protected boolean isActive;
+    protected ObjectShape shape;
 
     /**
      * Constructs a new object with the specified dimensions and coordinates.
@@ -25,10 +29,20 @@ abstract class GameObject {
     public GameObject(double x, double y, double width, double height) {
         this.x = x;
         this.y = y;
-        this.initialX = x;
-        this.width = width;
-        this.height = height;
+        this.initialX = (float) x;
+        this.initialY = (float) y;
         this.isActive = true;
+        this.shape = ObjectShape.of(width, height, CollisionLayers.SCENERY);
+    }
+    
+    /**
+     * Sets the collision category of the object.
+     * The categories it collides with are taken from the layer matrix.
+     * 
+     * @param category One of the categories in {@link CollisionLayers}.
+     */
+    protected void setCollisionCategory(int category) {
+        this.shape = shape.withCategory(category);
     }
     
     /**
@@ -47,6 +61,25 @@ abstract class GameObject {
      */
     public abstract void render(GraphicsContext gc);
 
+    /**
+     * Gets the kind of draw command this object produces.
+     * 
+     * @return The render kind of the object.
+     */
+    protected abstract RenderCommand.Kind getRenderKind();
+    
+    /**
+     * Describes how the object looks this frame as a draw command.
+     * Subclasses with animation state override this to add it to the command.
+     * 
+     * @param command The pooled command to fill in.
+     * @return True if the object draws anything this frame, false otherwise.
+     */
+    public boolean writeRenderCommand(RenderCommand command) {
+        command.set(getRenderKind(), x, y, shape.getWidth(), shape.getHeight());
+        return isActive;
+    }
+
     /**
      * Renders the object graphics.
      * The method is defined abstractly.
@@ -55,10 +88,11 @@ abstract class GameObject {
      * @return True if the other object collides with current object false otherwise.
      */
     public boolean collidesWith(GameObject other) {
-    if (other == null || !isActive || !other.isActive) return false;
+    if (other == null || (shape.getCollisionMask() & other.shape.getCollisionCategory()) == 0) return false;
+    if (!isActive || !other.isActive) return false;
     
-    double xOverlap = Math.max(0, Math.min(x + width, other.x + other.width) - Math.max(x, other.x));
-    double yOverlap = Math.max(0, Math.min(y + height, other.y + other.height) - Math.max(y, other.y));
+    double xOverlap = Math.max(0, Math.min(x + getWidth(), other.x + other.getWidth()) - Math.max(x, other.x));
+    double yOverlap = Math.max(0, Math.min(y + getHeight(), other.y + other.getHeight()) - Math.max(y, other.y));
     double overlapArea = xOverlap * yOverlap;
     
     
@@ -66,11 +100,70 @@ abstract class GameObject {
 }
     
     
+    /**
+     * Moves the object together with the point it was spawned at, so any
+     * patrol or swoop it makes around that point moves with it.
+     * Used by the level editor.
+     * 
+     * @param dx How far to move along x.
+     * @param dy How far to move along y.
+     */
+    public void translate(double dx, double dy) {
+        x += dx;
+        y += dy;
+        initialX += dx;
+        initialY += dy;
+    }
+    
+    /**
+     * Gets the number of values this object writes when its state is captured.
+     * Subclasses that add mutable state override this together with
+     * {@link #writeState} and {@link #readState}.
+     * 
+     * @return The number of state values.
+     */
+    public int getStateSize() {
+        return 3;
+    }
+    
+    /**
+     * Writes the mutable state of this object into a flat array.
+     * 
+     * @param state The array to write into.
+     * @param offset The index of the first value to write.
+     * @return The index after the last value written.
+     */
+    public int writeState(double[] state, int offset) {
+        state[offset] = x;
+        state[offset + 1] = y;
+        state[offset + 2] = isActive ? 1 : 0;
+        return offset + 3;
+    }
+    
+    /**
+     * Restores the mutable state of this object from a flat array.
+     * 
+     * @param state The array to read from.
+     * @param offset The index of the first value to read.
+     * @return The index after the last value read.
+     */
+    public int readState(double[] state, int offset) {
+        x = state[offset];
+        y = state[offset + 1];
+        isActive = state[offset + 2] != 0;
+        return offset + 3;
+    }
+    
     public double getX() { return x; }
     public double getY() { return y; }
-    public double getWidth() { return width; }
-    public double getHeight() { return height; }
+    public double getWidth() { return shape.getWidth(); }
+    public double getHeight() { return shape.getHeight(); }
+    public double getInitialX() { return initialX; }
+    public double getInitialY() { return initialY; }
     public boolean isActive() { return isActive; }
+    public int getCollisionCategory() { return shape.getCollisionCategory(); }
+    public int getCollisionMask() { return shape.getCollisionMask(); }
+    public ObjectShape getShape() { return shape; }
     public void setActive(boolean active) { this.isActive = active; }
     public void setX(double x) { this.x = x; }
     public void setY(double y) { this.y = y; }
@@ -1,19 +1,39 @@
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.paint.Color;
-import java.util.List;
 
 /**
  * Game View class defining and drawing the game content.
+ * The view always shows the full height of the world and scales it to the
+ * canvas height, so a wider canvas shows more of the level to each side.
  * 
  * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
  * @version 1.0
  */
 public class GameView {
+    /** Height of the world shown by the view, in world units */
+    public static final double WORLD_HEIGHT = 720;
+    
     private Canvas gameCanvas;
     private GraphicsContext gc;
     private GameEngine gameEngine;
     private Camera camera;
+    private RenderList frameList = new RenderList(256);
+    private CanvasHud hud;
+    private ParticleRenderer particleRenderer;
+    private PaintState paint;
+    private long[] drawOrder = new long[256];
+    private int lastStateChanges = 0;
+    private int lastSkippedChanges = 0;
+    private final RenderQuality quality = new RenderQuality();
+    private QualityGovernor governor;
+    private volatile boolean parallax = true;
+    private PerfOverlay perfOverlay;
+    private LevelEditor editor;
+    private double[] groundXs = new double[0];
+    private double[] groundYs = new double[0];
+    // Canvas pixels per world unit, and the visible world width, for the current canvas size
+    private volatile double pixelScale;
+    private volatile double viewWidth;
     
     /**
      * The GameView Constructor defining the canvans and engine of the game.
@@ -24,8 +44,42 @@ public class GameView {
     public GameView(Canvas canvas, GameEngine engine) {
         this.gameCanvas = canvas;
         this.gc = canvas.getGraphicsContext2D();
+        this.paint = new PaintState(gc);
         this.gameEngine = engine;
-        this.camera = new Camera(canvas.getWidth(), canvas.getHeight());
+        setCanvasSize(canvas.getWidth(), canvas.getHeight());
+        this.camera = new Camera(viewWidth, WORLD_HEIGHT);
+    }
+    
+    /**
+     * Fits the world to a new canvas size.
+     * Called by the viewport after it resized the canvas. The camera picks up the
+     * new visible width the next time a frame is built.
+     * 
+     * @param width The width of the canvas in pixels.
+     * @param height The height of the canvas in pixels.
+     */
+    public void setCanvasSize(double width, double height) {
+        double scale = height / WORLD_HEIGHT;
+        viewWidth = width / scale;
+        pixelScale = scale;
+    }
+    
+    /**
+     * Gets the width of the world that fits on the canvas.
+     * 
+     * @return The visible width in world units.
+     */
+    public double getViewWidth() {
+        return viewWidth;
+    }
+    
+    /**
+     * Gets how many canvas pixels one world unit is drawn with.
+     * 
+     * @return The number of pixels per world unit.
+     */
+    public double getPixelScale() {
+        return pixelScale;
     }
     
     
@@ -39,6 +93,15 @@ public class GameView {
         this.gameEngine = engine;
     }
     
+    /**
+     * Sets a HUD to draw on top of the game world.
+     * 
+     * @param hud The canvas HUD, or null when the HUD is part of the scene graph.
+     */
+    public void setHud(CanvasHud hud) {
+        this.hud = hud;
+    }
+    
     /**
      * Gets the camera object used for view transformations.
      * 
@@ -50,54 +113,387 @@ public class GameView {
     
      /**
      * Renders the game world onto the canvas.
-     * Clears the canvas, updates camera position to follow the player,
-     * applies camera transformation, renders the background with parallax,
-     * and draws only the visible game objects for better performance.
-     * Also draws debug information when debug mode is enabled.
+     * Builds this frame's render list from the current game state and draws it
+     * straight away. Used when the simulation runs on the JavaFX thread.
      */
     public void render() {
-        
         if (gameEngine == null) return;
         
-        // Clear the canvas
-        gc.clearRect(0, 0, gameCanvas.getWidth(), gameCanvas.getHeight());
+        if (buildRenderList(frameList)) {
+            drawRenderList(frameList);
+        }
+    }
+    
+    /**
+     * Captures the visible game world as a list of draw commands.
+     * Updates the camera to follow the player and records a command for each
+     * visible object, with the player last so it is drawn on top.
+     * Runs on the simulation side and never touches the canvas.
+     * 
+     * @param list The render list to fill.
+     * @return True if the list was filled, false if there is no game to draw.
+     */
+    public boolean buildRenderList(RenderList list) {
+        if (gameEngine == null) return false;
         
         // Get player and level
         Player player = gameEngine.getPlayer();
         Level currentLevel = gameEngine.getCurrentLevel();
         
-        if (player == null || currentLevel == null) return;
+        if (player == null || currentLevel == null) return false;
         
-        // Update camera to follow player
+        // Update camera to follow player, unless the level editor has it
+        double width = viewWidth;
+        camera.setViewport(width, WORLD_HEIGHT);
         camera.setLevelBounds(currentLevel.getLevelWidth(), currentLevel.getLevelHeight());
-        camera.follow(player);
+        if (gameEngine.isEditing()) {
+            camera.pan(0);
+        } else {
+            camera.follow(player);
+        }
+        
+        list.reset(camera.getX(), gameEngine.getClock().getTick());
+        list.setTerrain(currentLevel.getTerrain());
+        
+        // Add only visible objects for rendering
+        currentLevel.writeVisible(list, camera.getX(), width);
+        
+        // Draw racing ghosts behind the player
+        GhostRacer ghostRacer = gameEngine.getGhostRacer();
+        if (ghostRacer != null) {
+            ghostRacer.writeRenderCommands(list, gameEngine.getClock().getElapsedSeconds(),
+                currentLevel.getLevelNumber());
+        }
+        
+        // Draw player on top of other objects
+        if (!player.writeRenderCommand(list.next())) {
+            list.discardLast();
+        }
+        
+        // Particles are drawn over everything else
+        gameEngine.getParticles().writeVisible(list.getParticles(), camera.getX(),
+            width, WORLD_HEIGHT);
+        
+        return true;
+    }
+    
+    /**
+     * Draws a render list onto the canvas.
+     * Clears the canvas, applies the scale to the canvas size and the camera
+     * transformation recorded in the list,
+     * renders the background with parallax and draws the commands, then the
+     * particles, followed by the canvas HUD if there is one. Commands are drawn
+     * layer by layer in the order the list was built, but within a layer they
+     * are grouped by kind and variant, so entities sharing colours are drawn
+     * together and redundant paint changes are dropped. Each entity is drawn with
+     * the level of detail the render quality picks for it.
+     * Must be called on the JavaFX application thread.
+     * 
+     * @param list The render list to draw.
+     */
+    public void drawRenderList(RenderList list) {
+        long now = System.nanoTime();
+        quality.beginFrame();
+        paint.beginFrame();
+        
+        // Clear the canvas
+        gc.clearRect(0, 0, gameCanvas.getWidth(), gameCanvas.getHeight());
         
         // Save the current state
         gc.save();
         
-        // Apply camera transformation
-        gc.translate(-camera.getX(), 0); // Only transform horizontally
+        // Fit the world to the canvas, then apply camera transformation
+        double scale = pixelScale;
+        double width = viewWidth;
+        gc.scale(scale, scale);
+        gc.save();
+        gc.translate(-list.getCameraX(), 0); // Only transform horizontally
         
         // Draw background with parallax effect
-        drawBackground(currentLevel);
+        drawBackground(list.getCameraX(), width, list.getTerrain());
         
-        // Get only visible objects for rendering
-        List<GameObject> visibleObjects = currentLevel.getVisibleObjects(
-            camera.getX(), gameCanvas.getWidth());
+        int count = sortCommands(list);
+        for (int i = 0; i < count; i++) {
+            drawCommand(list.get((int) drawOrder[i]));
+        }
+        lastStateChanges = paint.getChanges();
+        lastSkippedChanges = paint.getSkipped();
+        paint.setGlobalAlpha(1.0);
         
-        // Draw all visible objects
-        for (GameObject obj : visibleObjects) {
-            obj.render(gc);
+        int particleWidth = (int) Math.ceil(width);
+        if (particleRenderer == null || particleRenderer.getWidth() != particleWidth) {
+            particleRenderer = new ParticleRenderer(particleWidth, (int) WORLD_HEIGHT);
+        }
+        particleRenderer.draw(gc, list.getParticles(), list.getCameraX());
+        if (editor != null) {
+            editor.drawSelection(gc);
         }
         
-        // Draw player on top of other objects
-        if (player.isActive()) {
-            player.render(gc);
+        // Back to the unmoved view for the HUD and overlay
+        gc.restore();
+        
+        if (hud != null) {
+            hud.draw(gc, width);
+        }
+        if (editor != null) {
+            editor.drawBanner(gc, width);
+        }
+        if (perfOverlay != null) {
+            perfOverlay.draw(gc, this, now);
         }
         
         // Restore the original state
         gc.restore();
+    }
+    
+    /**
+     * Sorts the commands of a list into drawing order.
+     * Each command gets a key made of its layer, kind and variant with its
+     * index in the low bits, so equal keys keep the order they were built in.
+     * 
+     * @param list The render list to sort.
+     * @return The number of sorted commands in drawOrder.
+     */
+    private int sortCommands(RenderList list) {
+        int count = list.size();
+        if (drawOrder.length < count) {
+            drawOrder = new long[Math.max(count, drawOrder.length * 2)];
+        }
+        for (int i = 0; i < count; i++) {
+            RenderCommand c = list.get(i);
+            long group = (getLayer(c.getKind()) * 16L + c.getKind().ordinal()) * 256 + (c.getVariant() & 0xFF);
+            drawOrder[i] = group << 32 | i;
+        }
+        java.util.Arrays.sort(drawOrder, 0, count);
+        return count;
+    }
+    
+    /**
+     * Gets the layer a kind of entity is drawn in, from back to front.
+     * The layers follow the order the level lists its objects in.
+     * 
+     * @param kind The kind of entity.
+     * @return The layer, lower layers are drawn first.
+     */
+    private static int getLayer(RenderCommand.Kind kind) {
+        switch (kind) {
+            case SCORPION:
+            case SNAKE:
+            case VULTURE:
+                return 0;
+            case SPIKE:
+            case MOVING_PLATFORM:
+                return 1;
+            case DESERT_ELEMENT:
+                return 2;
+            case COIN:
+                return 3;
+            case FLAG:
+                return 4;
+            case GHOST:
+                return 5;
+            default:
+                return 6;
+        }
+    }
+    
+    /**
+     * Draws a single render command using the drawing routine of its entity type.
+     * 
+     * @param c The command to draw.
+     */
+    private void drawCommand(RenderCommand c) {
+        // Only ghosts and coins draw see-through
+        if (c.getKind() != RenderCommand.Kind.GHOST && c.getKind() != RenderCommand.Kind.COIN) {
+            paint.setGlobalAlpha(1.0);
+        }
         
+        int detail = quality.detailFor(Math.max(c.getWidth(), c.getHeight()) * pixelScale);
+        if (detail == RenderQuality.MINIMAL) {
+            drawBlock(c);
+            return;
+        }
+        paint.setDetail(detail);
+        
+        switch (c.getKind()) {
+            case PLAYER:
+                Player.draw(paint, c.getX(), c.getY(), c.getWidth(), c.getHeight(),
+                    c.getVariant(), c.getFrame(), c.getAngle(), c.getAlpha());
+                break;
+            case GHOST:
+                paint.setGlobalAlpha(c.getAlpha());
+                Player.draw(paint, c.getX(), c.getY(), c.getWidth(), c.getHeight(),
+                    c.getVariant() & ~RenderCommand.PLAYER_DYING, c.getFrame(), 0, 1.0);
+                break;
+            case SCORPION:
+                Scorpion.draw(paint, c.getX(), c.getY(), c.getWidth(), c.getHeight());
+                break;
+            case SNAKE:
+                Snake.draw(paint, c.getX(), c.getY(), c.getWidth(), c.getHeight());
+                break;
+            case VULTURE:
+                Vulture.draw(paint, c.getX(), c.getY(), c.getWidth(), c.getHeight());
+                break;
+            case SPIKE:
+                Spike.draw(paint, c.getX(), c.getY(), c.getWidth(), c.getHeight());
+                break;
+            case MOVING_PLATFORM:
+                MovingPlatform.draw(paint, c.getX(), c.getY(), c.getWidth(), c.getHeight());
+                break;
+            case COIN:
+                Coin.draw(paint, c.getX(), c.getY(), c.getWidth(), c.getHeight(),
+                    Coin.CoinType.values()[c.getVariant()], c.getAngle(), c.getAlpha());
+                break;
+            case FLAG:
+                Flag.draw(paint, c.getX(), c.getY(), c.getWidth(), c.getHeight(), c.getFrame());
+                break;
+            case DESERT_ELEMENT:
+                DesertElement.draw(paint, c.getX(), c.getY(), c.getWidth(), c.getHeight(),
+                    ElementType.values()[c.getVariant()]);
+                break;
+            default:
+                break;
+        }
+    }
+    
+    /**
+     * Draws a command as a single rectangle in its entity's main colour.
+     * 
+     * @param c The command to draw.
+     */
+    private void drawBlock(RenderCommand c) {
+        int swatch;
+        switch (c.getKind()) {
+            case PLAYER:
+                boolean dying = (c.getVariant() & RenderCommand.PLAYER_DYING) != 0;
+                paint.setGlobalAlpha(c.getAlpha());
+                swatch = dying ? Palette.DEAD : Palette.NINJA;
+                break;
+            case GHOST:
+                paint.setGlobalAlpha(c.getAlpha());
+                swatch = Palette.NINJA;
+                break;
+            case SCORPION:
+            case SPIKE:
+                swatch = Palette.DANGER;
+                break;
+            case SNAKE:
+                swatch = Palette.SNAKE;
+                break;
+            case VULTURE:
+                swatch = Palette.WOOD;
+                break;
+            case MOVING_PLATFORM:
+                swatch = Palette.SAND;
+                break;
+            case COIN:
+                paint.setGlobalAlpha(c.getAlpha());
+                swatch = c.getVariant() == Coin.CoinType.GOLD.ordinal() ? Palette.GOLD_COIN : Palette.SILVER_COIN;
+                break;
+            case FLAG:
+                swatch = Palette.FLAG;
+                break;
+            case DESERT_ELEMENT:
+                ElementType type = ElementType.values()[c.getVariant()];
+                swatch = type == ElementType.CACTUS ? Palette.CACTUS
+                    : type == ElementType.ROCK ? Palette.ROCK : Palette.SAND;
+                break;
+            default:
+                return;
+        }
+        paint.setFill(Palette.color(swatch));
+        gc.fillRect(c.getX(), c.getY(), c.getWidth(), c.getHeight());
+    }
+    
+    /**
+     * Gets the render quality that picks each entity's level of detail.
+     * 
+     * @return The render quality.
+     */
+    public RenderQuality getQuality() {
+        return quality;
+    }
+    
+    /**
+     * Sets the governor that adjusts this view's quality, so the overlay can show it.
+     * 
+     * @param governor The quality governor, or null if the quality is fixed.
+     */
+    public void setGovernor(QualityGovernor governor) {
+        this.governor = governor;
+    }
+    
+    /**
+     * Gets the governor that adjusts this view's quality.
+     * 
+     * @return The quality governor, or null if the quality is fixed.
+     */
+    public QualityGovernor getGovernor() {
+        return governor;
+    }
+
+    /**
+     * Gets the gameplay events of the game being shown.
+     * 
+     * @return The gameplay events, or null before the engine is set.
+     */
+    public GameEvents getGameEvents() {
+        return gameEngine != null ? gameEngine.getGameEvents() : null;
+    }
+    
+    /**
+     * Turns the parallax dunes of the background on or off.
+     * Without them the background is only sky and ground.
+     * 
+     * @param enabled True to draw the dunes.
+     */
+    public void setParallax(boolean enabled) {
+        this.parallax = enabled;
+    }
+    
+    /**
+     * Sets the level editor whose selection and banner are drawn over the game.
+     * 
+     * @param editor The level editor, or null for none.
+     */
+    public void setEditor(LevelEditor editor) {
+        this.editor = editor;
+    }
+    
+    /**
+     * Shows or hides the performance overlay.
+     * Must be called on the JavaFX application thread.
+     * 
+     * @param visible True to show the overlay.
+     */
+    public void setPerfOverlayVisible(boolean visible) {
+        perfOverlay = visible ? new PerfOverlay() : null;
+    }
+    
+    /**
+     * Shows the performance overlay if it is hidden, hides it otherwise.
+     * Must be called on the JavaFX application thread.
+     */
+    public void togglePerfOverlay() {
+        setPerfOverlayVisible(perfOverlay == null);
+    }
+    
+    /**
+     * Gets how many paint state changes reached the canvas in the last frame.
+     * 
+     * @return The number of state changes.
+     */
+    public int getStateChanges() {
+        return lastStateChanges;
+    }
+    
+    /**
+     * Gets how many redundant paint state changes were dropped in the last frame.
+     * 
+     * @return The number of dropped state changes.
+     */
+    public int getSkippedStateChanges() {
+        return lastSkippedChanges;
     }
     
     /**
@@ -105,26 +501,35 @@ public class GameView {
      * Creates a layered background with sky, distant mountains that move slower
      * than the player (parallax), and a ground section that moves with the camera.
      * The parallax effect creates a sense of depth in the 2D world.
+     * The ground follows the level's terrain, drawn straight from its height
+     * samples.
+     * Below full quality the dune highlights are left out, and at minimal
+     * quality the smaller dunes as well. With parallax turned off there are
+     * no dunes at all.
      * 
-     * @param level The current level being rendered.
+     * @param cameraX The x-coordinate of the camera.
+     * @param width The visible width of the world.
+     * @param terrain The ground of the level.
      */
-    private void drawBackground(Level level) {
+    private void drawBackground(double cameraX, double width, Terrain terrain) {
+        int level = quality.getLevel();
+        
         // Sky
-        gc.setFill(Color.web("#87CEEB")); 
-        gc.fillRect(camera.getX(), 0, gameCanvas.getWidth(), gameCanvas.getHeight() * 0.86);
+        paint.setFill(Palette.color(Palette.SKY)); 
+        gc.fillRect(cameraX, 0, width, WORLD_HEIGHT * 0.86);
         
         double parallaxFactor = 0.4;
-        double duneOffset = camera.getX() * parallaxFactor;
+        double duneOffset = cameraX * parallaxFactor;
         
         // Draw only visible dune ranges
         int start = (int)(duneOffset / 500) - 1;
-        int end = start + (int)(gameCanvas.getWidth() / 500) + 2;
+        int end = start + (int)(width / 500) + 2;
         
-        for (int i = start; i < end; i++) {
+        for (int i = start; i < end && parallax; i++) {
             double baseX = i * 500 - (duneOffset % 500);
             
             // First sand dune (darker)
-            gc.setFill(Color.web("#D4B483", 0.7));  
+            paint.setFill(Palette.color(Palette.DUNE));  
             gc.beginPath();
             gc.moveTo(baseX, 620);
             gc.bezierCurveTo(
@@ -138,19 +543,21 @@ public class GameView {
             gc.fill();
             
             // Add a subtle highlight for depth
-            gc.setStroke(Color.web("#F5DEB3", 0.3));
-            gc.setLineWidth(1);
-            gc.beginPath();
-            gc.moveTo(baseX + 100, 590);
-            gc.quadraticCurveTo(
-                baseX + 250, 540,
-                baseX + 400, 590
-            );
-            gc.stroke();
+            if (level == RenderQuality.FULL) {
+                paint.setStroke(Palette.color(Palette.DUNE_HIGHLIGHT));
+                paint.setLineWidth(1);
+                gc.beginPath();
+                gc.moveTo(baseX + 100, 590);
+                gc.quadraticCurveTo(
+                    baseX + 250, 540,
+                    baseX + 400, 590
+                );
+                gc.stroke();
+            }
             
             // Smaller overlapping dune with slightly different color for variety
-            if (i % 2 == 0) {
-                gc.setFill(Color.web("#C19A6B", 0.5)); 
+            if (i % 2 == 0 && level > RenderQuality.MINIMAL) {
+                paint.setFill(Palette.color(Palette.DUNE_SHADOW)); 
                 gc.beginPath();
                 gc.moveTo(baseX + 150, 620);
                 gc.bezierCurveTo(
@@ -165,15 +572,29 @@ public class GameView {
                 }
             }
         
-        // Ground (moves with camera)
-        gc.setFill(Color.web("#E9C893")); // Sand color
-        gc.fillRect(camera.getX(), gameCanvas.getHeight() * 0.86, 
-                    gameCanvas.getWidth(), gameCanvas.getHeight() * 0.14);
+        // Ground (moves with camera), one point per visible terrain sample
+        int first = (int) Math.floor(cameraX / Terrain.STEP);
+        int last = (int) Math.ceil((cameraX + width) / Terrain.STEP);
+        int points = last - first + 1;
+        if (groundXs.length < points + 2) {
+            groundXs = new double[points + 2];
+            groundYs = new double[points + 2];
+        }
+        for (int i = 0; i < points; i++) {
+            double x = (first + i) * Terrain.STEP;
+            groundXs[i] = x;
+            groundYs[i] = terrain.groundAt(x);
+        }
+        groundXs[points] = groundXs[points - 1];
+        groundYs[points] = WORLD_HEIGHT;
+        groundXs[points + 1] = groundXs[0];
+        groundYs[points + 1] = WORLD_HEIGHT;
+        paint.setFill(Palette.color(Palette.SAND)); // Sand color
+        gc.fillPolygon(groundXs, groundYs, points + 2);
         
         // Ground line - only draw what's visible
-        gc.setStroke(Color.web("#A69185")); 
-        gc.setLineWidth(2);
-        gc.strokeLine(camera.getX(), gameCanvas.getHeight() * 0.86, 
-                    camera.getX() + gameCanvas.getWidth(), gameCanvas.getHeight() * 0.86);
+        paint.setStroke(Palette.color(Palette.GROUND_LINE)); 
+        paint.setLineWidth(2);
+        gc.strokePolyline(groundXs, groundYs, points);
     }
 }
\ No newline at end of file
@@ -0,0 +1,99 @@
+import javafx.scene.canvas.Canvas;
+import javafx.scene.layout.Pane;
+import javafx.scene.transform.Scale;
+
+/**
+ * Resizable area of the window that shows the game canvas.
+ * The canvas always fills the area, but its resolution is the area's size times
+ * a render scale. Below 1 the game draws fewer pixels and the canvas is
+ * stretched up to fill the area, which trades sharpness for frame rate on slow
+ * machines. Above 1 the game draws more pixels than the area shows and the
+ * canvas is shrunk down, for extra sharpness on fast ones.
+ * Whenever the area or the render scale changes, the game view is told the new
+ * canvas size so it can fit the world to it.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class GameViewport extends Pane {
+    /** Lowest render scale allowed */
+    public static final double MIN_RENDER_SCALE = 0.25;
+    /** Highest render scale allowed */
+    public static final double MAX_RENDER_SCALE = 2.0;
+
+    private final Canvas canvas;
+    private final GameView view;
+    private final Scale fit = new Scale(1, 1, 0, 0);
+    private double renderScale = 1.0;
+    private double qualityScale = 1.0;
+
+    /**
+     * Constructs a viewport around the game canvas.
+     *
+     * @param canvas The canvas the game is drawn on.
+     * @param view The view drawing on the canvas.
+     * @param width The preferred width of the viewport.
+     * @param height The preferred height of the viewport.
+     */
+    public GameViewport(Canvas canvas, GameView view, double width, double height) {
+        this.canvas = canvas;
+        this.view = view;
+        canvas.setManaged(false);
+        canvas.getTransforms().add(fit);
+        getChildren().add(canvas);
+        setPrefSize(width, height);
+        setMinSize(1, 1);
+    }
+
+    /**
+     * Sets the render scale, the number of canvas pixels per screen pixel.
+     *
+     * @param scale The new render scale, clamped to the allowed range.
+     */
+    public void setRenderScale(double scale) {
+        renderScale = Math.max(MIN_RENDER_SCALE, Math.min(MAX_RENDER_SCALE, scale));
+        requestLayout();
+    }
+
+    /**
+     * Lowers the render scale below the chosen one to save time.
+     * The canvas resolution is the viewport's size times both scales.
+     *
+     * @param scale The share of the chosen render scale to use, up to 1.
+     */
+    public void setQualityScale(double scale) {
+        qualityScale = Math.max(0, Math.min(1, scale));
+        requestLayout();
+    }
+
+    /**
+     * Gets the render scale.
+     *
+     * @return The number of canvas pixels per screen pixel.
+     */
+    public double getRenderScale() {
+        return renderScale;
+    }
+
+    /**
+     * Resizes the canvas to the viewport's size times the render scale
+     * and stretches it back to fill the viewport.
+     */
+    @Override
+    protected void layoutChildren() {
+        double width = getWidth();
+        double height = getHeight();
+        if (width <= 0 || height <= 0) return;
+
+        double scale = Math.max(MIN_RENDER_SCALE, renderScale * qualityScale);
+        double pixelWidth = Math.max(1, Math.round(width * scale));
+        double pixelHeight = Math.max(1, Math.round(height * scale));
+        if (pixelWidth != canvas.getWidth() || pixelHeight != canvas.getHeight()) {
+            canvas.setWidth(pixelWidth);
+            canvas.setHeight(pixelHeight);
+            view.setCanvasSize(pixelWidth, pixelHeight);
+        }
+        fit.setX(width / pixelWidth);
+        fit.setY(height / pixelHeight);
+    }
+}
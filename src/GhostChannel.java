@@ -0,0 +1,36 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A racer's connection to a ghost relay.
+ * Sends this racer's packets and receives the packets of other racers.
+ * Both operations are non-blocking.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public interface GhostChannel {
+    /**
+     * Sends one packet to the relay.
+     *
+     * @param packet The packet, from its position to its limit.
+     * @throws IOException If the packet cannot be sent.
+     */
+    void send(ByteBuffer packet) throws IOException;
+
+    /**
+     * Receives the next waiting packet, if any.
+     *
+     * @param packet A cleared buffer to receive into; it is flipped ready for reading.
+     * @return True if a packet was received, false if none was waiting.
+     * @throws IOException If receiving fails.
+     */
+    boolean receive(ByteBuffer packet) throws IOException;
+
+    /**
+     * Closes the connection.
+     *
+     * @throws IOException If closing fails.
+     */
+    void close() throws IOException;
+}
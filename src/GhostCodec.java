@@ -0,0 +1,212 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Packs player positions into small ghost-racing packets.
+ * Positions are quantized to a quarter pixel. A key packet carries the full
+ * position, while delta packets carry only the change since the previous packet
+ * as zigzag varints, which usually fit in one byte per axis. Every packet has a
+ * sequence number; a receiver that misses a packet ignores deltas until the
+ * next key packet arrives.
+ *
+ * Packet layout: type (1 byte), player id (2), sequence (2), then either
+ * x (4), y (2), flags (1), level (1) for a key packet, or
+ * varint dx, varint dy, flags (1) for a delta packet.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class GhostCodec {
+    /** Largest packet the codec produces */
+    public static final int MAX_PACKET_BYTES = 16;
+    /** Number of quantization steps per pixel */
+    public static final int STEPS_PER_PIXEL = 4;
+
+    private static final byte KEY = 0;
+    private static final byte DELTA = 1;
+
+    private static final int HEADER_BYTES = 5;
+    private static final int KEY_BYTES = HEADER_BYTES + 8;
+    private static final int MAX_VARINT_BYTES = 5;
+
+    /**
+     * Position and appearance of one racer, in quantized units.
+     */
+    public static class GhostState {
+        int playerId;
+        int sequence = -1;
+        int qx, qy;
+        int flags;
+        int level;
+
+        /**
+         * Sets the state from world coordinates.
+         *
+         * @param x The x-coordinate in pixels.
+         * @param y The y-coordinate in pixels.
+         * @param flags The PLAYER_* flags from RenderCommand.
+         * @param level The level the racer is on.
+         */
+        public void set(double x, double y, int flags, int level) {
+            this.qx = (int) Math.round(x * STEPS_PER_PIXEL);
+            this.qy = (int) Math.round(y * STEPS_PER_PIXEL);
+            this.flags = flags;
+            this.level = level;
+        }
+
+        void copyFrom(GhostState other) {
+            playerId = other.playerId;
+            sequence = other.sequence;
+            qx = other.qx;
+            qy = other.qy;
+            flags = other.flags;
+            level = other.level;
+        }
+
+        public int getPlayerId() { return playerId; }
+        public int getSequence() { return sequence; }
+        public double getX() { return (double) qx / STEPS_PER_PIXEL; }
+        public double getY() { return (double) qy / STEPS_PER_PIXEL; }
+        public int getFlags() { return flags; }
+        public int getLevel() { return level; }
+    }
+
+    /**
+     * Writes a packet for the current state.
+     *
+     * @param current The state to send. Its sequence number is advanced.
+     * @param previous The last state sent, or null to force a key packet.
+     * @param keyFrame True to send a key packet even if a delta is possible.
+     * @param out The buffer to write the packet into.
+     */
+    public static void encode(GhostState current, GhostState previous, boolean keyFrame, ByteBuffer out) {
+        current.sequence = (previous == null ? 0 : previous.sequence + 1) & 0xFFFF;
+        boolean key = keyFrame || previous == null || previous.level != current.level;
+
+        out.put(key ? KEY : DELTA);
+        out.putShort((short) current.playerId);
+        out.putShort((short) current.sequence);
+        if (key) {
+            out.putInt(current.qx);
+            out.putShort((short) current.qy);
+            out.put((byte) current.flags);
+            out.put((byte) current.level);
+        } else {
+            putVarInt(out, zigzag(current.qx - previous.qx));
+            putVarInt(out, zigzag(current.qy - previous.qy));
+            out.put((byte) current.flags);
+        }
+    }
+
+    /**
+     * Checks that a packet is complete before anything reads it. Datagrams can
+     * arrive truncated or from something that is not a racer at all, and
+     * reading past their end would throw on the receiving thread.
+     *
+     * @param packet The packet, positioned at its start. It is not consumed.
+     * @return True if the packet has a known type and all of its fields.
+     */
+    public static boolean isComplete(ByteBuffer packet) {
+        int start = packet.position();
+        int length = packet.remaining();
+        if (length < HEADER_BYTES) return false;
+
+        byte type = packet.get(start);
+        if (type == KEY) return length >= KEY_BYTES;
+        if (type != DELTA) return false;
+
+        // Two varints, then the flags byte
+        int offset = HEADER_BYTES;
+        for (int field = 0; field < 2; field++) {
+            int bytes = 0;
+            byte b;
+            do {
+                if (offset >= length || bytes == MAX_VARINT_BYTES) return false;
+                b = packet.get(start + offset++);
+                bytes++;
+            } while ((b & 0x80) != 0);
+        }
+        return offset < length;
+    }
+
+    /**
+     * Reads the player id of a packet without consuming it.
+     * The packet must be complete; see {@link #isComplete}.
+     *
+     * @param packet The packet, positioned at its start.
+     * @return The id of the player who sent it.
+     */
+    public static int peekPlayerId(ByteBuffer packet) {
+        return packet.getShort(packet.position() + 1) & 0xFFFF;
+    }
+
+    /**
+     * Applies a packet to the last known state of its sender.
+     *
+     * @param packet The packet to read.
+     * @param state The sender's last known state, updated in place.
+     * @return True if the state was updated, false if the packet was
+     *         incomplete or stale, or a delta arrived without its base.
+     */
+    public static boolean decode(ByteBuffer packet, GhostState state) {
+        if (!isComplete(packet)) return false;
+        byte type = packet.get();
+        int playerId = packet.getShort() & 0xFFFF;
+        int sequence = packet.getShort() & 0xFFFF;
+
+        if (type == KEY) {
+            int qx = packet.getInt();
+            int qy = packet.getShort();
+            int flags = packet.get() & 0xFF;
+            int level = packet.get() & 0xFF;
+            if (state.sequence >= 0 && !isNewer(sequence, state.sequence)) return false;
+            state.qx = qx;
+            state.qy = qy;
+            state.flags = flags;
+            state.level = level;
+        } else {
+            int dx = unzigzag(getVarInt(packet));
+            int dy = unzigzag(getVarInt(packet));
+            int flags = packet.get() & 0xFF;
+            if (state.sequence < 0 || sequence != ((state.sequence + 1) & 0xFFFF)) return false;
+            state.qx += dx;
+            state.qy += dy;
+            state.flags = flags;
+        }
+        state.playerId = playerId;
+        state.sequence = sequence;
+        return true;
+    }
+
+    private static boolean isNewer(int sequence, int last) {
+        int diff = (sequence - last) & 0xFFFF;
+        return diff != 0 && diff < 0x8000;
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void putVarInt(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static int getVarInt(ByteBuffer in) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
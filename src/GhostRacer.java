@@ -0,0 +1,211 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Client side of ghost racing.
+ * Streams the local player's position to a relay at a fixed rate and keeps a short
+ * history of every remote racer's positions. Remote racers are drawn as translucent
+ * ghosts, interpolated slightly in the past so that their motion stays smooth
+ * between packets.
+ * Samples are stamped with the monotonic time they arrived rather than the game
+ * clock, which rewinds and resets; a racer that stops sending is dropped after
+ * GHOST_TIMEOUT seconds.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class GhostRacer {
+    private static final double SEND_INTERVAL = 1.0 / 20;
+    private static final int KEY_FRAME_INTERVAL = 10;
+    private static final double INTERPOLATION_DELAY = 0.1;
+    private static final double GHOST_ALPHA = 0.4;
+    private static final double GHOST_TIMEOUT = 5.0;
+    private static final double EVICT_INTERVAL = 1.0;
+
+    private final GhostChannel channel;
+    private final GhostCodec.GhostState outgoing = new GhostCodec.GhostState();
+    private final GhostCodec.GhostState lastSent = new GhostCodec.GhostState();
+    private final ByteBuffer sendBuffer = ByteBuffer.allocate(GhostCodec.MAX_PACKET_BYTES);
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocate(GhostCodec.MAX_PACKET_BYTES * 4);
+    private final RenderCommand scratch = new RenderCommand();
+    private final Map<Integer, Ghost> ghosts = new HashMap<>();
+
+    private boolean hasSent = false;
+    private int packetsSinceKeyFrame = 0;
+    private double sendTimer = 0;
+    private double evictTimer = 0;
+    private long packetsSent = 0;
+    private long bytesSent = 0;
+
+    /**
+     * Constructs a ghost racer.
+     *
+     * @param channel The connection to the relay.
+     * @param playerId The id this racer's packets are tagged with (0 to 65535).
+     */
+    public GhostRacer(GhostChannel channel, int playerId) {
+        this.channel = channel;
+        this.outgoing.playerId = playerId & 0xFFFF;
+    }
+
+    /**
+     * Sends the local player's position when due and processes incoming packets.
+     * Called once per simulation tick.
+     *
+     * @param deltaTime Time elapsed since the last update in seconds.
+     * @param player The local player.
+     * @param level The level the local player is on.
+     */
+    public void update(double deltaTime, Player player, int level) {
+        try {
+            sendTimer += deltaTime;
+            if (sendTimer >= SEND_INTERVAL) {
+                sendTimer -= SEND_INTERVAL;
+                sendPosition(player, level);
+            }
+            double receiveTime = receiveTime();
+            receivePackets(receiveTime);
+            evictTimer += deltaTime;
+            if (evictTimer >= EVICT_INTERVAL) {
+                evictTimer = 0;
+                double cutoff = receiveTime - GHOST_TIMEOUT;
+                ghosts.values().removeIf(ghost -> ghost.times[ghost.newest] < cutoff);
+            }
+        } catch (IOException e) {
+            System.err.println("Ghost racing error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Adds a draw command for every ghost on the given level.
+     *
+     * @param list The render list to add to.
+     * @param now The current game clock time in seconds, used to animate the limbs.
+     * @param level The level being drawn.
+     */
+    public void writeRenderCommands(RenderList list, double now, int level) {
+        double renderTime = receiveTime() - INTERPOLATION_DELAY;
+        double limbOffset = ((long) (now * 10)) % 4 - 2;
+        for (Ghost ghost : ghosts.values()) {
+            if (ghost.state.getLevel() != level || ghost.count == 0) continue;
+            RenderCommand command = list.next();
+            command.set(RenderCommand.Kind.GHOST, 0, 0, 30, 50);
+            ghost.interpolate(renderTime, command);
+            command.setFrame(limbOffset);
+            command.setAlpha(GHOST_ALPHA);
+        }
+    }
+
+    /**
+     * Closes the connection to the relay.
+     */
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Could not close ghost channel: " + e.getMessage());
+        }
+    }
+
+    public long getPacketsSent() { return packetsSent; }
+    public long getBytesSent() { return bytesSent; }
+    public int getGhostCount() { return ghosts.size(); }
+
+    private void sendPosition(Player player, int level) throws IOException {
+        player.writeRenderCommand(scratch);
+        outgoing.set(player.getX(), player.getY(), scratch.getVariant(), level);
+
+        boolean keyFrame = packetsSinceKeyFrame >= KEY_FRAME_INTERVAL - 1;
+        sendBuffer.clear();
+        GhostCodec.encode(outgoing, hasSent ? lastSent : null, keyFrame, sendBuffer);
+        sendBuffer.flip();
+        bytesSent += sendBuffer.remaining();
+        channel.send(sendBuffer);
+
+        packetsSinceKeyFrame = keyFrame || !hasSent ? 0 : packetsSinceKeyFrame + 1;
+        lastSent.copyFrom(outgoing);
+        hasSent = true;
+        packetsSent++;
+    }
+
+    /**
+     * Gets the monotonic time samples are stamped with, in seconds.
+     */
+    private static double receiveTime() {
+        return System.nanoTime() / 1e9;
+    }
+
+    private void receivePackets(double now) throws IOException {
+        while (true) {
+            receiveBuffer.clear();
+            if (!channel.receive(receiveBuffer)) return;
+            if (!GhostCodec.isComplete(receiveBuffer)) continue;
+
+            int playerId = GhostCodec.peekPlayerId(receiveBuffer);
+            if (playerId == outgoing.playerId) continue;
+            Ghost ghost = ghosts.get(playerId);
+            if (ghost == null) {
+                ghost = new Ghost();
+                ghosts.put(playerId, ghost);
+            }
+            if (GhostCodec.decode(receiveBuffer, ghost.state)) {
+                ghost.addSample(now);
+            }
+        }
+    }
+
+    /**
+     * A remote racer with a short history of received positions.
+     */
+    private static class Ghost {
+        private static final int HISTORY = 8;
+
+        final GhostCodec.GhostState state = new GhostCodec.GhostState();
+        final double[] times = new double[HISTORY];
+        final double[] xs = new double[HISTORY];
+        final double[] ys = new double[HISTORY];
+        final int[] flags = new int[HISTORY];
+        int newest = -1;
+        int count = 0;
+
+        void addSample(double now) {
+            newest = (newest + 1) % HISTORY;
+            times[newest] = now;
+            xs[newest] = state.getX();
+            ys[newest] = state.getY();
+            flags[newest] = state.getFlags();
+            if (count < HISTORY) count++;
+        }
+
+        /**
+         * Fills a command with the ghost's position at the given time,
+         * interpolating between the two samples around it.
+         */
+        void interpolate(double time, RenderCommand command) {
+            int later = newest;
+            if (times[newest] <= time) {
+                command.set(RenderCommand.Kind.GHOST, xs[newest], ys[newest], 30, 50);
+                command.setVariant(flags[newest]);
+                return;
+            }
+            for (int n = 1; n < count; n++) {
+                int earlier = (newest - n + HISTORY) % HISTORY;
+                if (times[earlier] <= time) {
+                    double span = times[later] - times[earlier];
+                    double t = span > 0 ? (time - times[earlier]) / span : 1.0;
+                    command.set(RenderCommand.Kind.GHOST,
+                        xs[earlier] + (xs[later] - xs[earlier]) * t,
+                        ys[earlier] + (ys[later] - ys[earlier]) * t, 30, 50);
+                    command.setVariant(flags[later]);
+                    return;
+                }
+                later = earlier;
+            }
+            // Older than the whole history (or only one sample): hold the oldest known position
+            command.set(RenderCommand.Kind.GHOST, xs[later], ys[later], 30, 50);
+            command.setVariant(flags[later]);
+        }
+    }
+}
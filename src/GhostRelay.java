@@ -0,0 +1,255 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Relay that forwards ghost-racing packets between racers.
+ * The relay tracks where each racer is by decoding the packets it forwards,
+ * and only passes a packet on to racers on the same level within a horizontal
+ * interest range, since ghosts further away would be off screen anyway.
+ * Racers connect either in-process, for tests and split-screen use, or over
+ * UDP on the loopback interface.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class GhostRelay {
+    private final double interestRange;
+    private final List<Member> members = new ArrayList<>();
+    private final Map<SocketAddress, Member> udpMembers = new HashMap<>();
+
+    private DatagramChannel udpChannel;
+    private Thread udpThread;
+
+    private long forwardedPackets = 0;
+    private long filteredPackets = 0;
+    private long droppedPackets = 0;
+
+    /**
+     * Constructs a relay.
+     *
+     * @param interestRange The horizontal distance in pixels within which racers see each other.
+     */
+    public GhostRelay(double interestRange) {
+        this.interestRange = interestRange;
+    }
+
+    /**
+     * Opens an in-process connection to this relay.
+     *
+     * @return A channel whose packets are routed directly, without sockets.
+     */
+    public GhostChannel openLocalChannel() {
+        LocalMember member = new LocalMember();
+        synchronized (this) {
+            members.add(member);
+        }
+        return member;
+    }
+
+    /**
+     * Starts relaying UDP packets sent to the given loopback port.
+     *
+     * @param port The port to listen on.
+     * @throws IOException If the port cannot be bound.
+     */
+    public void startUdp(int port) throws IOException {
+        udpChannel = DatagramChannel.open();
+        udpChannel.bind(new InetSocketAddress("127.0.0.1", port));
+        udpThread = new Thread(this::runUdpLoop, "ghost-relay");
+        udpThread.setDaemon(true);
+        udpThread.start();
+    }
+
+    /**
+     * Connects to a relay listening on a loopback port.
+     *
+     * @param port The port of the relay.
+     * @return A non-blocking UDP channel to the relay.
+     * @throws IOException If the socket cannot be opened.
+     */
+    public static GhostChannel connectUdp(int port) throws IOException {
+        DatagramChannel channel = DatagramChannel.open();
+        channel.configureBlocking(false);
+        channel.connect(new InetSocketAddress("127.0.0.1", port));
+        return new GhostChannel() {
+            @Override
+            public void send(ByteBuffer packet) throws IOException {
+                channel.write(packet);
+            }
+
+            @Override
+            public boolean receive(ByteBuffer packet) throws IOException {
+                int read = channel.read(packet);
+                packet.flip();
+                return read > 0;
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+
+    /**
+     * Stops the UDP relay if it is running.
+     *
+     * @throws IOException If the socket cannot be closed.
+     */
+    public void stop() throws IOException {
+        if (udpChannel != null) {
+            udpChannel.close();
+        }
+    }
+
+    /**
+     * Forwards a packet from one racer to every other racer that is interested in it.
+     *
+     * @param packet The packet, from its position to its limit.
+     * @param from The racer who sent it.
+     */
+    private synchronized void route(ByteBuffer packet, Member from) {
+        if (!GhostCodec.isComplete(packet)) {
+            droppedPackets++;
+            return;
+        }
+        GhostCodec.decode(packet.duplicate(), from.state);
+
+        for (int i = 0; i < members.size(); i++) {
+            Member to = members.get(i);
+            if (to == from) continue;
+            if (isInterested(to, from)) {
+                to.deliver(packet.duplicate());
+                forwardedPackets++;
+            } else {
+                filteredPackets++;
+            }
+        }
+    }
+
+    /**
+     * Checks if a racer should receive another racer's updates.
+     *
+     * @param to The receiving racer.
+     * @param from The sending racer.
+     * @return True if the sender is on the same level and within the interest range.
+     */
+    private boolean isInterested(Member to, Member from) {
+        if (to.state.sequence < 0) return true; // Position not known yet
+        return to.state.level == from.state.level
+            && Math.abs(to.state.getX() - from.state.getX()) <= interestRange;
+    }
+
+    /**
+     * Receives datagrams and routes them until the relay is stopped.
+     */
+    private void runUdpLoop() {
+        ByteBuffer packet = ByteBuffer.allocate(GhostCodec.MAX_PACKET_BYTES * 4);
+        try {
+            while (udpChannel.isOpen()) {
+                packet.clear();
+                SocketAddress sender = udpChannel.receive(packet);
+                packet.flip();
+                Member member;
+                synchronized (this) {
+                    member = udpMembers.get(sender);
+                    if (member == null) {
+                        member = new UdpMember(sender);
+                        udpMembers.put(sender, member);
+                        members.add(member);
+                    }
+                }
+                route(packet, member);
+            }
+        } catch (ClosedChannelException e) {
+            // Relay stopped
+        } catch (IOException e) {
+            System.err.println("Ghost relay stopped: " + e.getMessage());
+        }
+    }
+
+    public synchronized long getForwardedPackets() { return forwardedPackets; }
+    public synchronized long getFilteredPackets() { return filteredPackets; }
+    public synchronized long getDroppedPackets() { return droppedPackets; }
+
+    /**
+     * A racer connected to the relay, with its last known position.
+     */
+    private abstract static class Member {
+        final GhostCodec.GhostState state = new GhostCodec.GhostState();
+
+        abstract void deliver(ByteBuffer packet);
+    }
+
+    /**
+     * A racer in the same process, with an in-memory inbox.
+     */
+    private class LocalMember extends Member implements GhostChannel {
+        private final ArrayDeque<byte[]> inbox = new ArrayDeque<>();
+
+        @Override
+        void deliver(ByteBuffer packet) {
+            byte[] copy = new byte[packet.remaining()];
+            packet.get(copy);
+            synchronized (inbox) {
+                inbox.add(copy);
+            }
+        }
+
+        @Override
+        public void send(ByteBuffer packet) {
+            route(packet, this);
+        }
+
+        @Override
+        public boolean receive(ByteBuffer packet) {
+            byte[] next;
+            synchronized (inbox) {
+                next = inbox.poll();
+            }
+            if (next == null) {
+                packet.flip();
+                return false;
+            }
+            packet.put(next);
+            packet.flip();
+            return true;
+        }
+
+        @Override
+        public void close() {
+            synchronized (GhostRelay.this) {
+                members.remove(this);
+            }
+        }
+    }
+
+    /**
+     * A racer connected over UDP.
+     */
+    private class UdpMember extends Member {
+        private final SocketAddress address;
+
+        UdpMember(SocketAddress address) {
+            this.address = address;
+        }
+
+        @Override
+        void deliver(ByteBuffer packet) {
+            try {
+                udpChannel.send(packet, address);
+            } catch (IOException e) {
+                System.err.println("Could not forward ghost packet: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Measures ghost-racing packet throughput on a single core.
+ * Simulates a number of racers moving through a level and pushes their packets
+ * through the codec and an in-process relay, including interest filtering and
+ * decoding on the receiving side. Prints packets per second, average packet size
+ * and how many deliveries the interest range saved.
+ *
+ * Run with: java GhostSyncBenchmark [racers] [packetsPerRacer]
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class GhostSyncBenchmark {
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Optional racer count and packets per racer.
+     */
+    public static void main(String[] args) {
+        int racers = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int packetsPerRacer = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        // Warm up, then measure
+        run(racers, packetsPerRacer / 10, false);
+        run(racers, packetsPerRacer, true);
+    }
+
+    private static void run(int racers, int packetsPerRacer, boolean report) {
+        GhostRelay relay = new GhostRelay(1280);
+        GhostChannel[] channels = new GhostChannel[racers];
+        GhostCodec.GhostState[] current = new GhostCodec.GhostState[racers];
+        GhostCodec.GhostState[] previous = new GhostCodec.GhostState[racers];
+        GhostCodec.GhostState[][] received = new GhostCodec.GhostState[racers][racers];
+        for (int i = 0; i < racers; i++) {
+            channels[i] = relay.openLocalChannel();
+            current[i] = new GhostCodec.GhostState();
+            current[i].playerId = i;
+            previous[i] = new GhostCodec.GhostState();
+            for (int j = 0; j < racers; j++) {
+                received[i][j] = new GhostCodec.GhostState();
+            }
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(GhostCodec.MAX_PACKET_BYTES);
+        ByteBuffer in = ByteBuffer.allocate(GhostCodec.MAX_PACKET_BYTES * 4);
+        long bytes = 0;
+        long decoded = 0;
+
+        long start = System.nanoTime();
+        for (int p = 0; p < packetsPerRacer; p++) {
+            for (int i = 0; i < racers; i++) {
+                // Racers spread over a 3000px level, running right at 200px/s with a jump arc
+                double t = p / 20.0;
+                double x = (i * 3000.0 / racers + t * 200) % 3000;
+                double y = 570 - Math.abs(Math.sin(t * 2 + i)) * 150;
+                current[i].set(x, y, RenderCommand.PLAYER_MOVING | RenderCommand.PLAYER_FACING_RIGHT, 1);
+
+                out.clear();
+                GhostCodec.encode(current[i], p == 0 ? null : previous[i], p % 10 == 0, out);
+                out.flip();
+                bytes += out.remaining();
+                try {
+                    channels[i].send(out);
+                } catch (java.io.IOException e) {
+                    throw new IllegalStateException(e);
+                }
+                previous[i].copyFrom(current[i]);
+            }
+
+            for (int i = 0; i < racers; i++) {
+                while (true) {
+                    in.clear();
+                    try {
+                        if (!channels[i].receive(in)) break;
+                    } catch (java.io.IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    if (GhostCodec.decode(in, received[i][GhostCodec.peekPlayerId(in)])) {
+                        decoded++;
+                    }
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (report) {
+            long sent = (long) racers * packetsPerRacer;
+            double seconds = elapsed / 1e9;
+            System.out.printf("Racers: %d, packets sent: %d, delivered: %d, filtered by interest: %d%n",
+                racers, sent, relay.getForwardedPackets(), relay.getFilteredPackets());
+            System.out.printf("Average packet size: %.2f bytes (%d decoded)%n", (double) bytes / sent, decoded);
+            System.out.printf("Throughput: %.0f packets/sec sent, %.0f deliveries/sec on one core%n",
+                sent / seconds, relay.getForwardedPackets() / seconds);
+        }
+    }
+}
@@ -0,0 +1,437 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Local persistent leaderboard.
+ * Every finished run is appended to a log file, which is synced to disk in batches.
+ * A small index file holds the sorted top runs and the best time for each level,
+ * together with the log length it covers. The index is rewritten every time a
+ * batch of the log is synced, whether or not the leaderboard changed, so on
+ * startup only the runs since the last sync are replayed. Opening the store does
+ * not depend on how many runs have been recorded, and all queries are answered
+ * from memory.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class HighScoreStore {
+    /** Number of runs kept in the leaderboard index */
+    public static final int TOP_RUNS = 100;
+    /** Number of levels tracked for best times */
+    public static final int MAX_LEVELS = 32;
+
+    private static final int INDEX_MAGIC = 0x424D4C42; // "BMLB"
+    private static final int INDEX_VERSION = 1;
+    private static final int SYNC_BATCH = 8;
+    private static final int RECORD_HEADER_BYTES = 4 + 4 + 8 + 8 + 4;
+    // Results of reading a record header that does not give a whole record
+    private static final long CORRUPT = -1;
+    private static final long SHORT = -2;
+    // Runs are stamped with the wall clock; anything before 2020 or a year ahead is not a timestamp
+    private static final long EARLIEST_TIMESTAMP = 1_577_836_800_000L;
+    private static final long LATEST_TIMESTAMP_SLACK = 365L * 24 * 60 * 60 * 1000;
+
+    private final Path logFile;
+    private final Path indexFile;
+    private FileChannel log;
+
+    private final RunRecord[] topRuns = new RunRecord[TOP_RUNS];
+    private int topCount = 0;
+    private final float[] bestLevelTimes = new float[MAX_LEVELS];
+    private final long[] bestLevelSeeds = new long[MAX_LEVELS];
+
+    private int unsyncedRecords = 0;
+    private boolean indexDirty = false;
+    private long indexedLength = 0;
+
+    /**
+     * Opens the leaderboard stored in the given directory, creating it if needed.
+     *
+     * @param directory The directory holding the log and index files.
+     * @throws IOException If the files cannot be read or created.
+     */
+    public HighScoreStore(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.logFile = directory.resolve("runs.log");
+        this.indexFile = directory.resolve("leaderboard.idx");
+        Arrays.fill(bestLevelTimes, Float.MAX_VALUE);
+
+        indexedLength = loadIndex();
+        log = FileChannel.open(logFile, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (indexedLength > log.size()) {
+            // Index is newer than the log (log replaced or truncated), start over from the log
+            topCount = 0;
+            Arrays.fill(bestLevelTimes, Float.MAX_VALUE);
+            indexedLength = 0;
+        }
+        replayLog(indexedLength);
+        if (log.size() != indexedLength) {
+            // Cover the replayed runs, so the next start does not replay them again
+            log.force(false);
+            updateIndex();
+        }
+    }
+
+    /**
+     * Appends a finished run to the log and updates the leaderboard.
+     * The log is forced to disk once every few records and on {@link #flush()},
+     * and the index is rewritten to cover it each time.
+     *
+     * @param run The run to record.
+     * @throws IOException If the run cannot be written.
+     */
+    public void record(RunRecord run) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_BYTES + run.getLevelCount() * 4);
+        buffer.putInt(run.getScore());
+        buffer.putInt(run.getLevelReached());
+        buffer.putLong(run.getSeed());
+        buffer.putLong(run.getTimestamp());
+        buffer.putInt(run.getLevelCount());
+        for (int i = 0; i < run.getLevelCount(); i++) {
+            buffer.putFloat(run.getLevelTime(i));
+        }
+        buffer.flip();
+
+        log.position(log.size());
+        while (buffer.hasRemaining()) {
+            log.write(buffer);
+        }
+
+        addToLeaderboard(run);
+
+        unsyncedRecords++;
+        if (unsyncedRecords >= SYNC_BATCH) {
+            log.force(false);
+            unsyncedRecords = 0;
+            updateIndex();
+        }
+    }
+
+    /**
+     * Gets the best runs recorded so far, best first.
+     *
+     * @param count The maximum number of runs to return.
+     * @return Up to count runs ordered from best to worst.
+     */
+    public List<RunRecord> getTopRuns(int count) {
+        int n = Math.min(count, topCount);
+        List<RunRecord> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            result.add(topRuns[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the highest score recorded so far.
+     *
+     * @return The best score, or 0 if no runs have been recorded.
+     */
+    public int getHighScore() {
+        return topCount > 0 ? topRuns[0].getScore() : 0;
+    }
+
+    /**
+     * Gets the rank a score would take on the leaderboard.
+     *
+     * @param score The score to rank.
+     * @return The one-based rank, or -1 if the score would not make the leaderboard.
+     */
+    public int getRank(int score) {
+        int rank = 0;
+        while (rank < topCount && topRuns[rank].getScore() >= score) {
+            rank++;
+        }
+        return rank < TOP_RUNS ? rank + 1 : -1;
+    }
+
+    /**
+     * Gets the fastest recorded completion time of a level.
+     *
+     * @param levelNumber The one-based level number.
+     * @return The best time in seconds, or -1 if the level was never completed.
+     */
+    public float getBestLevelTime(int levelNumber) {
+        int index = levelNumber - 1;
+        if (index < 0 || index >= MAX_LEVELS || bestLevelTimes[index] == Float.MAX_VALUE) {
+            return -1;
+        }
+        return bestLevelTimes[index];
+    }
+
+    /**
+     * Gets the seed of the run that set the best time for a level.
+     *
+     * @param levelNumber The one-based level number.
+     * @return The seed of the record run, or 0 if the level was never completed.
+     */
+    public long getBestLevelSeed(int levelNumber) {
+        int index = levelNumber - 1;
+        if (index < 0 || index >= MAX_LEVELS) return 0;
+        return bestLevelSeeds[index];
+    }
+
+    /**
+     * Forces pending log records to disk and rewrites the index if the
+     * leaderboard changed or the log grew since it was last written.
+     *
+     * @throws IOException If the files cannot be written.
+     */
+    public void flush() throws IOException {
+        if (unsyncedRecords > 0) {
+            log.force(false);
+            unsyncedRecords = 0;
+        }
+        if (indexDirty || log.size() != indexedLength) {
+            updateIndex();
+        }
+    }
+
+    /**
+     * Rewrites the index to cover the whole log. The log must already be forced,
+     * or the index could claim runs that a crash loses.
+     *
+     * @throws IOException If the index cannot be written.
+     */
+    private void updateIndex() throws IOException {
+        long length = log.size();
+        writeIndex(length);
+        indexedLength = length;
+        indexDirty = false;
+    }
+
+    /**
+     * Flushes all pending data and closes the log.
+     *
+     * @throws IOException If the files cannot be written.
+     */
+    public void close() throws IOException {
+        if (log != null && log.isOpen()) {
+            flush();
+            log.close();
+        }
+    }
+
+    /**
+     * Inserts a run into the sorted top list and updates the per-level best times.
+     *
+     * @param run The run to add.
+     */
+    private void addToLeaderboard(RunRecord run) {
+        int position = topCount;
+        while (position > 0 && run.compareTo(topRuns[position - 1]) < 0) {
+            position--;
+        }
+        if (position < TOP_RUNS) {
+            int last = Math.min(topCount, TOP_RUNS - 1);
+            System.arraycopy(topRuns, position, topRuns, position + 1, last - position);
+            topRuns[position] = run;
+            if (topCount < TOP_RUNS) topCount++;
+            indexDirty = true;
+        }
+
+        int levels = Math.min(run.getLevelCount(), MAX_LEVELS);
+        for (int i = 0; i < levels; i++) {
+            float time = run.getLevelTime(i);
+            if (time < bestLevelTimes[i]) {
+                bestLevelTimes[i] = time;
+                bestLevelSeeds[i] = run.getSeed();
+                indexDirty = true;
+            }
+        }
+    }
+
+    /**
+     * Replays the runs appended to the log after the given offset.
+     * A partially written record at the end of the log is discarded. A record
+     * with a corrupt header is skipped by searching for the next offset from
+     * which the records run cleanly to the end of the log; its bytes are kept.
+     *
+     * @param fromOffset The log offset already covered by the index.
+     * @throws IOException If the log cannot be read.
+     */
+    private void replayLog(long fromOffset) throws IOException {
+        long size = log.size();
+        long position = fromOffset;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+
+        while (position + RECORD_HEADER_BYTES <= size) {
+            long length = recordLength(position, size, header);
+            if (length == CORRUPT) {
+                long next = findNextRecord(position + 1, size, header);
+                System.err.println("Skipping " + (next - position) + " corrupt bytes in the run log at " + position);
+                position = next;
+                continue;
+            }
+            if (length == SHORT) {
+                break;
+            }
+
+            header.rewind();
+            int score = header.getInt();
+            int levelReached = header.getInt();
+            long seed = header.getLong();
+            long timestamp = header.getLong();
+            int levelCount = header.getInt();
+            ByteBuffer times = ByteBuffer.allocate(levelCount * 4);
+            log.read(times, position + RECORD_HEADER_BYTES);
+            times.flip();
+            float[] levelTimes = new float[levelCount];
+            for (int i = 0; i < levelCount; i++) {
+                levelTimes[i] = times.getFloat();
+            }
+
+            addToLeaderboard(new RunRecord(score, levelReached, seed, timestamp, levelTimes));
+            position += length;
+        }
+
+        if (position < size) {
+            // Only a record cut short by a crash is left, drop it
+            log.truncate(position);
+        }
+    }
+
+    /**
+     * Reads a record and works out how long it is. The fields are checked
+     * against what a real run can hold, which also rejects reads that start in
+     * the middle of a record.
+     *
+     * @param position The offset of the record.
+     * @param size The length of the log.
+     * @param header A buffer for the header, left holding it.
+     * @return The length of the record in bytes, CORRUPT if the record cannot
+     *         be a run, or SHORT if it runs past the end of the log.
+     * @throws IOException If the log cannot be read.
+     */
+    private long recordLength(long position, long size, ByteBuffer header) throws IOException {
+        if (position + RECORD_HEADER_BYTES > size) return SHORT;
+        header.clear();
+        log.read(header, position);
+        int score = header.getInt(0);
+        int levelReached = header.getInt(4);
+        long timestamp = header.getLong(16);
+        int levelCount = header.getInt(24);
+        // A run finishes at most the levels it reached
+        if (score < 0 || levelReached < 0 || levelCount < 0 || levelCount > levelReached
+                || timestamp < EARLIEST_TIMESTAMP || timestamp > System.currentTimeMillis() + LATEST_TIMESTAMP_SLACK) {
+            return CORRUPT;
+        }
+        long length = RECORD_HEADER_BYTES + levelCount * 4L;
+        if (position + length > size) return SHORT;
+
+        ByteBuffer times = ByteBuffer.allocate(levelCount * 4);
+        log.read(times, position + RECORD_HEADER_BYTES);
+        for (int i = 0; i < levelCount; i++) {
+            float time = times.getFloat(i * 4);
+            if (!(time > 0) || Float.isInfinite(time)) return CORRUPT;
+        }
+        return length;
+    }
+
+    /**
+     * Finds the first offset from which the log parses as whole records right
+     * up to its end, or up to a record cut short by a crash after at least one
+     * whole record.
+     *
+     * @param from The first offset to try.
+     * @param size The length of the log.
+     * @param header A buffer for record headers.
+     * @return The offset of the next good record, or size if there is none.
+     * @throws IOException If the log cannot be read.
+     */
+    private long findNextRecord(long from, long size, ByteBuffer header) throws IOException {
+        for (long start = from; start + RECORD_HEADER_BYTES <= size; start++) {
+            long position = start;
+            long length;
+            while ((length = recordLength(position, size, header)) > 0) {
+                position += length;
+            }
+            if (position == size || (length == SHORT && position > start)) {
+                return start;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Loads the leaderboard index if present.
+     *
+     * @return The log length covered by the index, or 0 if there is no usable index.
+     */
+    private long loadIndex() {
+        if (!Files.exists(indexFile)) return 0;
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+            if (buffer.getInt() != INDEX_MAGIC || buffer.getInt() != INDEX_VERSION) return 0;
+            long logOffset = buffer.getLong();
+
+            int count = Math.min(buffer.getInt(), TOP_RUNS);
+            for (int i = 0; i < count; i++) {
+                int score = buffer.getInt();
+                int levelReached = buffer.getInt();
+                long seed = buffer.getLong();
+                long timestamp = buffer.getLong();
+                topRuns[i] = new RunRecord(score, levelReached, seed, timestamp, new float[0]);
+            }
+            topCount = count;
+
+            int levels = Math.min(buffer.getInt(), MAX_LEVELS);
+            for (int i = 0; i < levels; i++) {
+                bestLevelTimes[i] = buffer.getFloat();
+                bestLevelSeeds[i] = buffer.getLong();
+            }
+            return logOffset;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable leaderboard index: " + e.getMessage());
+            topCount = 0;
+            Arrays.fill(bestLevelTimes, Float.MAX_VALUE);
+            return 0;
+        }
+    }
+
+    /**
+     * Writes the index to a temporary file and moves it over the old index,
+     * so a crash never leaves a half-written index behind.
+     *
+     * @param logOffset The log length the index covers.
+     * @throws IOException If the index cannot be written.
+     */
+    private void writeIndex(long logOffset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 4 + 8 + 4 + topCount * 24 + 4 + MAX_LEVELS * 12);
+        buffer.putInt(INDEX_MAGIC);
+        buffer.putInt(INDEX_VERSION);
+        buffer.putLong(logOffset);
+        buffer.putInt(topCount);
+        for (int i = 0; i < topCount; i++) {
+            buffer.putInt(topRuns[i].getScore());
+            buffer.putInt(topRuns[i].getLevelReached());
+            buffer.putLong(topRuns[i].getSeed());
+            buffer.putLong(topRuns[i].getTimestamp());
+        }
+        buffer.putInt(MAX_LEVELS);
+        for (int i = 0; i < MAX_LEVELS; i++) {
+            buffer.putFloat(bestLevelTimes[i]);
+            buffer.putLong(bestLevelSeeds[i]);
+        }
+        buffer.flip();
+
+        Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
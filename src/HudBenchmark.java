@@ -0,0 +1,120 @@
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures the time one pulse spends on the scene with the node-based HUD and
+ * with the canvas HUD. Each scene is laid out like the game window: the HUD
+ * above a 1280 by 620 game canvas, or a single 1280 by 720 canvas the HUD is
+ * drawn into. A frame fills the game canvas, applies the HUD changes and then
+ * renders the scene with {@link Scene#snapshot}, which runs the same CSS,
+ * layout and render passes as a pulse does. Frames are timed with the score
+ * changing on every frame, as it does while the player stands on a hazard, and
+ * with nothing changing. Each case is timed a few times and the fastest run is
+ * reported, since the rendering both scenes share makes single runs noisy.
+ *
+ * Needs a running JavaFX toolkit. Without a display, run it headless with
+ * Monocle: java -Dglass.platform=Monocle -Dmonocle.platform=Headless
+ * -Dprism.order=sw HudBenchmark [frames]
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class HudBenchmark {
+    private static final double WIDTH = 1280;
+    private static final double HEIGHT = 720;
+    private static final double NODE_HUD_HEIGHT = 100;
+    private static final int RUNS = 5;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Optional number of frames to time.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        CountDownLatch done = new CountDownLatch(1);
+        Platform.startup(() -> {
+            try {
+                run(frames);
+            } finally {
+                done.countDown();
+            }
+        });
+        done.await();
+        Platform.exit();
+    }
+
+    private static void run(int frames) {
+        // Node-based HUD above the game canvas
+        UIManager nodeUi = new UIManager(new ScoreManager());
+        Canvas nodeCanvas = new Canvas(WIDTH, HEIGHT - NODE_HUD_HEIGHT);
+        Scene nodeScene = new Scene(new VBox(nodeUi.createHUD(1), nodeCanvas), WIDTH, HEIGHT);
+
+        // Canvas HUD drawn into a single game canvas
+        UIManager canvasUi = new UIManager(new ScoreManager());
+        Canvas canvas = new Canvas(WIDTH, HEIGHT);
+        CanvasHud canvasHud = canvasUi.createCanvasHud(WIDTH);
+        Scene canvasScene = new Scene(new VBox(canvas), WIDTH, HEIGHT);
+
+        WritableImage image = new WritableImage((int) WIDTH, (int) HEIGHT);
+
+        // Warm up
+        for (int i = 0; i < frames; i++) {
+            frame(nodeScene, nodeCanvas, nodeUi.getHudModel(), null, image, i);
+            frame(canvasScene, canvas, canvasUi.getHudModel(), canvasHud, image, i);
+        }
+
+        double nodeChanging = time(nodeScene, nodeCanvas, nodeUi.getHudModel(), null, image, frames, true);
+        double canvasChanging = time(canvasScene, canvas, canvasUi.getHudModel(), canvasHud, image, frames, true);
+        double nodeStill = time(nodeScene, nodeCanvas, nodeUi.getHudModel(), null, image, frames, false);
+        double canvasStill = time(canvasScene, canvas, canvasUi.getHudModel(), canvasHud, image, frames, false);
+
+        System.out.printf("Score changing every frame: node HUD %.1f us, canvas HUD %.1f us per pulse%n",
+            nodeChanging, canvasChanging);
+        System.out.printf("Nothing changing:           node HUD %.1f us, canvas HUD %.1f us per pulse%n",
+            nodeStill, canvasStill);
+        System.out.printf("Canvas HUD image rebuilt %d times%n", canvasHud.getRebuildCount());
+    }
+
+    /**
+     * Times a number of frames of one scene, a few times over.
+     *
+     * @return The average time per frame of the fastest run in microseconds.
+     */
+    private static double time(Scene scene, Canvas canvas, HudModel model, CanvasHud canvasHud,
+                               WritableImage image, int frames, boolean changing) {
+        long fastest = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < frames; i++) {
+                frame(scene, canvas, model, canvasHud, image, changing ? run * frames + i : 0);
+            }
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        return fastest / 1e3 / frames;
+    }
+
+    /**
+     * Draws and renders one frame with the given score.
+     */
+    private static void frame(Scene scene, Canvas canvas, HudModel model, CanvasHud canvasHud,
+                              WritableImage image, int score) {
+        model.setScore(score);
+        model.flush();
+
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.setFill(Color.SKYBLUE);
+        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        if (canvasHud != null) {
+            canvasHud.draw(gc, WIDTH);
+        }
+        scene.snapshot(image);
+    }
+}
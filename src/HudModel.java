@@ -0,0 +1,106 @@
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Values shown on the heads-up display, with change detection.
+ * The game writes score, hearts and level here as often as it likes, from any thread;
+ * writes that do not change a value are ignored. Changes are collected into a dirty
+ * mask and handed to listeners in one batch when {@link #flush()} is called, which the
+ * UI does once per JavaFX pulse, so the scene graph is touched at most once per frame.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class HudModel {
+    /** Change flag for the score */
+    public static final int SCORE = 1;
+    /** Change flag for the hearts */
+    public static final int HEARTS = 2;
+    /** Change flag for the level number */
+    public static final int LEVEL = 4;
+
+    /**
+     * Receives batched HUD changes.
+     */
+    public interface Listener {
+        /**
+         * Called with every change since the previous flush.
+         *
+         * @param hud The model holding the new values.
+         * @param changed The combined change flags (SCORE, HEARTS, LEVEL).
+         */
+        void hudChanged(HudModel hud, int changed);
+    }
+
+    private volatile int score = 0;
+    private volatile int hearts = 3;
+    private volatile int level = 1;
+    private final AtomicInteger dirty = new AtomicInteger(SCORE | HEARTS | LEVEL);
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Sets the score to display.
+     *
+     * @param score The total score.
+     */
+    public void setScore(int score) {
+        if (this.score != score) {
+            this.score = score;
+            markDirty(SCORE);
+        }
+    }
+
+    /**
+     * Sets the number of hearts to display.
+     *
+     * @param hearts The player's remaining hearts.
+     */
+    public void setHearts(int hearts) {
+        if (this.hearts != hearts) {
+            this.hearts = hearts;
+            markDirty(HEARTS);
+        }
+    }
+
+    /**
+     * Sets the level number to display.
+     *
+     * @param level The current level number.
+     */
+    public void setLevel(int level) {
+        if (this.level != level) {
+            this.level = level;
+            markDirty(LEVEL);
+        }
+    }
+
+    /**
+     * Registers a listener for batched changes.
+     *
+     * @param listener The listener to add.
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Delivers all changes made since the last flush to the listeners in one call.
+     * Does nothing if nothing changed.
+     */
+    public void flush() {
+        int changed = dirty.getAndSet(0);
+        if (changed == 0) return;
+        for (Listener listener : listeners) {
+            listener.hudChanged(this, changed);
+        }
+    }
+
+    private void markDirty(int field) {
+        dirty.accumulateAndGet(field, (a, b) -> a | b);
+    }
+
+    public int getScore() { return score; }
+    public int getHearts() { return hearts; }
+    public int getLevel() { return level; }
+}
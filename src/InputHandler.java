@@ -1,7 +1,7 @@
 import javafx.scene.Scene;
 import javafx.scene.input.KeyCode;
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages user input processing for the game.
@@ -13,12 +13,22 @@ import java.util.Set;
  * @version 1.0
  */
 public class InputHandler {
-    private final Set<KeyCode> pressedKeys = new HashSet<>();
+    private final Set<KeyCode> pressedKeys = ConcurrentHashMap.newKeySet();
     
-    private Player player;
+    private volatile Player player;
+    
+    private volatile boolean jumpRequested = false;
     
     private Scene scene;
     
+    private Runnable rewindHandler;
+    
+    private Runnable perfOverlayHandler;
+    
+    private Runnable editorHandler;
+    
+    private Runnable saveLevelHandler;
+    
     /**
      * Constructs a new input handler for the specified scene and player.
      * Sets up event handlers for key press and release events.
@@ -42,28 +52,30 @@ public class InputHandler {
             KeyCode code = event.getCode();
             pressedKeys.add(code);
             
-            if ((code == KeyCode.SPACE || code == KeyCode.W || code == KeyCode.UP) && player != null) {
-                player.jump();
+            // Jumps are applied in processInput so the player is only changed by the game loop
+            if (code == KeyCode.SPACE || code == KeyCode.W || code == KeyCode.UP) {
+                jumpRequested = true;
+            }
+            
+            if (code == KeyCode.R && rewindHandler != null) {
+                rewindHandler.run();
+            }
+            
+            if (code == KeyCode.F3 && perfOverlayHandler != null) {
+                perfOverlayHandler.run();
             }
-        });
-        
-        scene.setOnKeyReleased(event -> {
-            KeyCode code = event.getCode();
-            pressedKeys.remove(code);
             
-            // If left/right released, stop horizontal movement only if no other directional keys are pressed
-            if ((code == KeyCode.LEFT || code == KeyCode.A || 
-                 code == KeyCode.RIGHT || code == KeyCode.D) &&
-                !pressedKeys.contains(KeyCode.LEFT) && 
-                !pressedKeys.contains(KeyCode.A) &&
-                !pressedKeys.contains(KeyCode.RIGHT) && 
-                !pressedKeys.contains(KeyCode.D) &&
-                player != null) {
-                
-                player.stopMoving();
+            if (code == KeyCode.F2 && editorHandler != null) {
+                editorHandler.run();
             }
             
+            if (code == KeyCode.F5 && saveLevelHandler != null) {
+                saveLevelHandler.run();
+            }
         });
+        
+        // Stopping is left to processInput, which sees that no direction key is held
+        scene.setOnKeyReleased(event -> pressedKeys.remove(event.getCode()));
     }
     
     /**
@@ -76,32 +88,73 @@ public class InputHandler {
         this.player = player;
     }
     
+    /**
+     * Sets the action run when the rewind key (R) is pressed.
+     * 
+     * @param handler The rewind action, or null to disable rewinding.
+     */
+    public void setRewindHandler(Runnable handler) {
+        this.rewindHandler = handler;
+    }
+    
+    /**
+     * Sets the action run when the performance overlay key (F3) is pressed.
+     * 
+     * @param handler The action that shows or hides the overlay, or null to disable the key.
+     */
+    public void setPerfOverlayHandler(Runnable handler) {
+        this.perfOverlayHandler = handler;
+    }
+    
+    /**
+     * Sets the actions run when the level editor key (F2) and the save level
+     * key (F5) are pressed.
+     * 
+     * @param editor The action that opens or closes the editor, or null to disable the key.
+     * @param saveLevel The action that saves the edited level, or null to disable the key.
+     */
+    public void setEditorHandlers(Runnable editor, Runnable saveLevel) {
+        this.editorHandler = editor;
+        this.saveLevelHandler = saveLevel;
+    }
+    
     /**
      * Processes currently pressed keys and applies corresponding actions.
      * Called each frame to handle continuous actions like movement.
      * Supports simultaneous key presses (e.g., moving and jumping at the same time).
      */
     public void processInput() {
-        if (player == null || !player.isActive()) return; // Safety check
+        if (player == null || !player.isActive()) { // Safety check
+            jumpRequested = false;
+            return;
+        }
+        
+        if (jumpRequested) {
+            jumpRequested = false;
+            player.jump();
+        }
         
         // Handle movement based on currently pressed keys
-        if (pressedKeys.contains(KeyCode.LEFT) || pressedKeys.contains(KeyCode.A)) {
+        boolean left = pressedKeys.contains(KeyCode.LEFT) || pressedKeys.contains(KeyCode.A);
+        boolean right = pressedKeys.contains(KeyCode.RIGHT) || pressedKeys.contains(KeyCode.D);
+        if (left) {
             player.moveLeft();
         } 
-        if (pressedKeys.contains(KeyCode.RIGHT) || pressedKeys.contains(KeyCode.D)) {
+        if (right) {
             player.moveRight();
         }
+        if (!left && !right) {
+            player.stopMoving();
+        }
     }
     
     /**
-     * Clears all pressed keys and resets player movement state.
+     * Clears all pressed keys, so the player stops on the next processed input.
      * Useful when transitioning between game states or after dialog interactions.
      */
     public void clearInputs() {
         pressedKeys.clear();
-        if (player != null) {
-            player.stopMoving();
-        }
+        jumpRequested = false;
     }
     
 }
\ No newline at end of file
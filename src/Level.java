@@ -1,6 +1,8 @@
 import javafx.scene.canvas.GraphicsContext;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Iterator;
 import java.util.stream.Collectors;
 
@@ -14,14 +16,24 @@ import java.util.stream.Collectors;
  * @version 1.0
  */
 public class Level {
+    /** Width of the regions a level is divided into for saving edits */
+    public static final double REGION_WIDTH = 512;
+
     private int levelNumber;
     private List<Enemy> enemies;
+    private List<Enemy> codedEnemies;
+    private Map<EnemyBehaviour, BehaviourBatch> behaviourBatches;
+    private PlayerField playerField;
+    private ParticleSystem particles;
     private List<Obstacle> obstacles;
     private List<GameObject> environmentObjects;
     private List<Coin> coins;
     private double levelWidth;
     private double levelHeight;
     private GameObject completionFlag;
+    private final java.util.BitSet editedRegions = new java.util.BitSet();
+    private LevelFile levelFile;
+    private Terrain terrain = Terrain.FLAT;
     
 
     /**
@@ -33,6 +45,8 @@ public class Level {
     public Level(int levelNumber) {
         this.levelNumber = levelNumber;
         this.enemies = new ArrayList<>();
+        this.codedEnemies = new ArrayList<>();
+        this.behaviourBatches = new LinkedHashMap<>();
         this.obstacles = new ArrayList<>();
         this.environmentObjects = new ArrayList<>();
         this.coins = new ArrayList<>();
@@ -55,7 +69,10 @@ public class Level {
      * @param deltaTime Time elapsed since the last update in seconds.
      */
     public void update(double deltaTime) {
-        for (Enemy enemy : enemies) enemy.update(deltaTime);
+        for (Enemy enemy : codedEnemies) enemy.update(deltaTime);
+        for (BehaviourBatch batch : behaviourBatches.values()) {
+            batch.update(deltaTime, getPlayerField(), Double.POSITIVE_INFINITY, particles, terrain);
+        }
         for (Obstacle obstacle : obstacles) obstacle.update(deltaTime);
         for (GameObject envObj : environmentObjects) envObj.update(deltaTime);
         for (Coin coin : coins) coin.update(deltaTime);
@@ -71,12 +88,20 @@ public class Level {
      * @param cullingDistance The maximum distance for objects to be updated.
      */
     public void updateEfficiently(double deltaTime, double playerX, double cullingDistance) {
-        for (Enemy enemy : enemies) {
+        for (Enemy enemy : codedEnemies) {
             if (Math.abs(enemy.getX() - playerX) < cullingDistance) {
                 enemy.update(deltaTime);
             }
         }
         
+        // Data-driven enemies are ticked together, one batch per behaviour,
+        // sharing one view of where the player is
+        PlayerField field = getPlayerField();
+        field.update(playerX);
+        for (BehaviourBatch batch : behaviourBatches.values()) {
+            batch.update(deltaTime, field, cullingDistance, particles, terrain);
+        }
+        
         for (Obstacle obstacle : obstacles) {
             if (Math.abs(obstacle.getX() - playerX) < cullingDistance) {
                 obstacle.update(deltaTime);
@@ -110,32 +135,48 @@ public class Level {
      */
     public List<GameObject> getObjectsNearPlayer(double playerX, double cullingDistance) {
         List<GameObject> nearby = new ArrayList<>();
-        
+        collectObjectsNear(playerX, cullingDistance, ~0, nearby);
+        return nearby;
+    }
+
+    /**
+     * Adds the active game objects near the player that can collide with it
+     * to a list. Objects whose collision category is not in the mask are
+     * skipped before their position is looked at.
+     * 
+     * @param playerX The x-coordinate of the player.
+     * @param cullingDistance The maximum distance for objects to be included.
+     * @param mask The collision categories to include.
+     * @param nearby The list the objects are added to.
+     */
+    public void collectObjectsNear(double playerX, double cullingDistance, int mask, List<GameObject> nearby) {
         for (Enemy enemy : enemies) {
-            if (Math.abs(enemy.getX() - playerX) < cullingDistance && enemy.isActive()) {
+            if (isNear(enemy, playerX, cullingDistance, mask)) {
                 nearby.add(enemy);
             }
         }
         
         for (Obstacle obstacle : obstacles) {
-            if (Math.abs(obstacle.getX() - playerX) < cullingDistance && obstacle.isActive()) {
+            if (isNear(obstacle, playerX, cullingDistance, mask)) {
                 nearby.add(obstacle);
             }
         }
         
         for (Coin coin : coins) {
-            if (Math.abs(coin.getX() - playerX) < cullingDistance && coin.isActive()) {
+            if (isNear(coin, playerX, cullingDistance, mask)) {
                 nearby.add(coin);
             }
         }
         
-        if (completionFlag != null && 
-            Math.abs(completionFlag.getX() - playerX) < cullingDistance && 
-            completionFlag.isActive()) {
+        if (completionFlag != null && isNear(completionFlag, playerX, cullingDistance, mask)) {
             nearby.add(completionFlag);
         }
-        
-        return nearby;
+    }
+
+    private static boolean isNear(GameObject obj, double playerX, double cullingDistance, int mask) {
+        return (obj.getCollisionCategory() & mask) != 0
+            && obj.isActive()
+            && Math.abs(obj.getX() - playerX) < cullingDistance;
     }
 
     /**
@@ -197,6 +238,39 @@ public class Level {
         return visible;
     }
     
+    /**
+     * Writes a render command for every visible object, in the same order as
+     * {@link #getVisibleObjects}, straight into a render list, so drawing a
+     * frame builds no list of its own.
+     * 
+     * @param list The render list to add the commands to.
+     * @param cameraX The x-coordinate of the camera.
+     * @param viewportWidth The width of the visible viewport.
+     */
+    public void writeVisible(RenderList list, double cameraX, double viewportWidth) {
+        writeVisible(enemies, list, cameraX, viewportWidth);
+        writeVisible(obstacles, list, cameraX, viewportWidth);
+        writeVisible(environmentObjects, list, cameraX, viewportWidth);
+        writeVisible(coins, list, cameraX, viewportWidth);
+        if (completionFlag != null) {
+            writeVisible(completionFlag, list, cameraX, viewportWidth);
+        }
+    }
+
+    private void writeVisible(List<? extends GameObject> objects, RenderList list,
+                              double cameraX, double viewportWidth) {
+        for (int i = 0; i < objects.size(); i++) {
+            writeVisible(objects.get(i), list, cameraX, viewportWidth);
+        }
+    }
+
+    private void writeVisible(GameObject obj, RenderList list, double cameraX, double viewportWidth) {
+        if (isVisible(obj, cameraX, viewportWidth) && obj.isActive()
+                && !obj.writeRenderCommand(list.next())) {
+            list.discardLast();
+        }
+    }
+
     /**
      * Determines if a game object is visible within the camera view.
      * 
@@ -251,12 +325,78 @@ public class Level {
         this.completionFlag = flag;
     }
 
+    /**
+     * Adds an enemy to the level.
+     * Data-driven enemies join the batch for their behaviour, other enemies
+     * are updated one by one.
+     * 
+     * @param enemy The enemy to add.
+     */
     public void addEnemy(Enemy enemy) {
         enemies.add(enemy);
+        if (enemy instanceof BehaviourEnemy) {
+            BehaviourEnemy behaviourEnemy = (BehaviourEnemy) enemy;
+            BehaviourBatch batch = behaviourBatches.computeIfAbsent(
+                behaviourEnemy.getBehaviour(), b -> new BehaviourBatch(b, 16));
+            behaviourEnemy.attachTo(batch);
+        } else {
+            codedEnemies.add(enemy);
+            enemy.setParticleSystem(particles);
+            enemy.setTerrain(terrain);
+        }
+    }
+    
+    /**
+     * Sets the ground of the level, which the player lands on and walking
+     * enemies follow.
+     * 
+     * @param terrain The ground of the level.
+     */
+    public void setTerrain(Terrain terrain) {
+        this.terrain = terrain;
+        for (Enemy enemy : codedEnemies) {
+            enemy.setTerrain(terrain);
+        }
+    }
+    
+    /**
+     * Gets the ground of the level.
+     * 
+     * @return The ground, flat unless terrain was set.
+     */
+    public Terrain getTerrain() {
+        return terrain;
+    }
+    
+    /**
+     * Sets the particle system enemies throw up their effects into.
+     * 
+     * @param particles The particle system, or null for no effects.
+     */
+    public void setParticleSystem(ParticleSystem particles) {
+        this.particles = particles;
+        for (Enemy enemy : codedEnemies) {
+            enemy.setParticleSystem(particles);
+        }
     }
 
     public void addObstacle(Obstacle obstacle) {
         obstacles.add(obstacle);
+        if (playerField != null) playerField.addObstacle(obstacle);
+    }
+    
+    /**
+     * Gets the field enemy AI uses to find the player.
+     * Created on first use, once the level's size and obstacles are known.
+     * 
+     * @return The player field of this level.
+     */
+    public PlayerField getPlayerField() {
+        if (playerField == null) {
+            playerField = new PlayerField(levelWidth);
+            playerField.setObstacles(obstacles);
+        }
+        return playerField;
     }
 
     public void addEnvironmentObject(GameObject obj) {
@@ -285,29 +425,132 @@ public class Level {
     }
 
     /**
-     * The Method sets everything in the Level to null to ensure consistency.
+     * Finds the object drawn at a point, for the level editor.
+     * When several objects overlap the point, the smallest one is chosen,
+     * so a coin can be picked up off the dune behind it.
+     * 
+     * @param worldX The x-coordinate of the point.
+     * @param worldY The y-coordinate of the point.
+     * @return The object at the point, or null if there is none.
      */
-    public void cleanup() {
-        if (enemies != null) {
-            enemies.clear();
-            enemies = null;
+    public GameObject pick(double worldX, double worldY) {
+        GameObject picked = pick(enemies, worldX, worldY, null);
+        picked = pick(obstacles, worldX, worldY, picked);
+        picked = pick(environmentObjects, worldX, worldY, picked);
+        picked = pick(coins, worldX, worldY, picked);
+        if (completionFlag != null) picked = pick(completionFlag, worldX, worldY, picked);
+        return picked;
+    }
+
+    private GameObject pick(List<? extends GameObject> objects, double worldX, double worldY,
+                            GameObject picked) {
+        for (int i = 0; i < objects.size(); i++) {
+            picked = pick(objects.get(i), worldX, worldY, picked);
         }
-        
-        if (obstacles != null) {
-            obstacles.clear();
-            obstacles = null;
+        return picked;
+    }
+
+    /**
+     * Gets an object if it is at the point and smaller than the one picked so far.
+     */
+    private GameObject pick(GameObject obj, double worldX, double worldY, GameObject picked) {
+        if (worldX < obj.getX() || worldX > obj.getX() + obj.getWidth()
+                || worldY < obj.getY() || worldY > obj.getY() + obj.getHeight()) {
+            return picked;
         }
-        
-        if (environmentObjects != null) {
-            environmentObjects.clear();
-            environmentObjects = null;
+        if (picked != null && obj.getWidth() * obj.getHeight() >= picked.getWidth() * picked.getHeight()) {
+            return picked;
         }
-        
+        return obj;
+    }
+
+    /**
+     * Moves an object of this level, for the level editor.
+     * Updates the player field if the object blocks enemies and marks the
+     * regions it left and entered as edited. Nothing else depends on where an
+     * object is, so the level is not rebuilt.
+     * 
+     * @param obj The object to move.
+     * @param dx How far to move along x.
+     * @param dy How far to move along y.
+     */
+    public void moveObject(GameObject obj, double dx, double dy) {
+        double oldX = obj.getX();
+        markEdited(obj.getInitialX());
+        obj.translate(dx, dy);
+        markEdited(obj.getInitialX());
+        if (obj instanceof Obstacle && playerField != null) {
+            playerField.moveObstacle((Obstacle) obj, oldX);
+        }
+    }
+
+    private void markEdited(double x) {
+        editedRegions.set(getRegionOf(x));
+    }
+
+    /**
+     * Gets the region an object spawned at a point belongs to.
+     * 
+     * @param x The x-coordinate of the object's spawn point.
+     * @return The region index, from 0 to the region count - 1.
+     */
+    public int getRegionOf(double x) {
+        int region = (int) (x / REGION_WIDTH);
+        return Math.max(0, Math.min(getRegionCount() - 1, region));
+    }
+
+    /**
+     * Gets the number of regions the level is divided into.
+     * 
+     * @return The region count.
+     */
+    public int getRegionCount() {
+        return Math.max(1, (int) Math.ceil(levelWidth / REGION_WIDTH));
+    }
+
+    /**
+     * Gets the regions edited since they were last saved.
+     * 
+     * @return The edited regions, one bit per region. Changes as the level is edited.
+     */
+    public java.util.BitSet getEditedRegions() {
+        return editedRegions;
+    }
+
+    /**
+     * Gets the file this level was last saved to or loaded from.
+     * 
+     * @return The level file, or null if the level was generated and never saved.
+     */
+    public LevelFile getLevelFile() {
+        return levelFile;
+    }
+
+    /**
+     * Sets the file this level was last saved to or loaded from.
+     * 
+     * @param levelFile The level file.
+     */
+    public void setLevelFile(LevelFile levelFile) {
+        this.levelFile = levelFile;
+    }
+
+    /**
+     * Empties the level to release its objects. The level is left empty
+     * rather than broken, so anything still reading it sees no objects.
+     */
+    public void cleanup() {
+        enemies.clear();
+        codedEnemies.clear();
+        behaviourBatches.clear();
+        obstacles.clear();
+        environmentObjects.clear();
         if (coins != null) {
             coins.clear();
-            coins = null;
         }
         
         completionFlag = null;
+        playerField = null;
+        particles = null;
     }
 }
\ No newline at end of file
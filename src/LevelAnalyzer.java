@@ -0,0 +1,418 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Checks that a level can be completed, by working out where the player can
+ * get to from where they start. The places the player can stand are the
+ * stretches of ground between damaging obstacles and the paths of the moving
+ * platforms. A search from the start follows every jump from one of these to
+ * another that clears the obstacles in between, and the level can be
+ * completed if a reached place is within a jump of the flag. Coins that no
+ * reached place is within a jump of are reported as unreachable.
+ * Jumps are judged from the player's jump speed, gravity and running speed
+ * in the tuning. How far a jump carries at every height it passes is worked
+ * out once, when the analyzer is made, so judging a jump reads a table. The
+ * player is taken to jump at full running speed with full control in the
+ * air, a moving platform to be standable anywhere along its path, and
+ * touching a platform to put the player on top of it, as the game does.
+ * Enemies are not taken to block the way.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class LevelAnalyzer {
+    // Where the game engine puts the player at the start of a level
+    private static final double START_X = 100;
+    // Furthest drop below the take-off point the jump tables cover
+    private static final int MAX_DROP = (int) GameView.WORLD_HEIGHT;
+
+    private final double apex;
+    // How far ahead the player is when passing each height on the way up and on the way down,
+    // indexed by height above the take-off point plus MAX_DROP
+    private final double[] rise;
+    private final double[] reach;
+    // Furthest a jump carries the player ahead of where it started
+    private final double maxReach;
+    // Run-up before a jump in which the take-off point matters
+    private final double runUp;
+
+    private final List<Obstacle> hazardList = new ArrayList<>();
+    private final List<MovingPlatform> platformList = new ArrayList<>();
+    private double[] hazardLeft = new double[16];
+    private double[] hazardRight = new double[16];
+    private double[] hazardTop = new double[16];
+    private int hazardCount;
+    private double hazardSpan;
+
+    // Places to stand, ordered by left edge, in x-coordinates of the player's left side
+    private double[] surfaceLeft = new double[16];
+    private double[] surfaceRight = new double[16];
+    // Feet height on a platform, or NaN for ground
+    private double[] surfaceTop = new double[16];
+    // Feet height at which the player's head touches the underside of a platform
+    private double[] surfaceTouch = new double[16];
+    // Lowest feet height over the run-up at each end of a stretch of ground
+    private double[] takeOffLeft = new double[16];
+    private double[] takeOffRight = new double[16];
+    private int surfaceCount;
+    private double surfaceSpan;
+    private boolean[] reached = new boolean[16];
+    private int[] queue = new int[16];
+    private int reachedCount;
+
+    private Terrain terrain;
+    private boolean flagReachable;
+    private final List<Coin> unreachableCoins = new ArrayList<>();
+
+    /**
+     * Constructs an analyzer for the player's physics in a tuning.
+     *
+     * @param tuning The tuning giving the player's jump speed, gravity and speed.
+     */
+    public LevelAnalyzer(Tuning tuning) {
+        double jumpSpeed = Math.max(0, tuning.get(Tuning.PLAYER_JUMP_SPEED));
+        double gravity = Math.max(1, tuning.get(Tuning.PLAYER_GRAVITY));
+        double speed = Math.max(0, tuning.get(Tuning.PLAYER_SPEED));
+        apex = jumpSpeed * jumpSpeed / (2 * gravity);
+        runUp = speed * jumpSpeed / gravity;
+
+        int heights = MAX_DROP + (int) Math.floor(apex) + 1;
+        rise = new double[heights];
+        reach = new double[heights];
+        for (int i = 0; i < heights; i++) {
+            double root = Math.sqrt(Math.max(0, jumpSpeed * jumpSpeed - 2 * gravity * (i - MAX_DROP)));
+            rise[i] = speed * (jumpSpeed - root) / gravity;
+            reach[i] = speed * (jumpSpeed + root) / gravity;
+        }
+        maxReach = reach[0];
+    }
+
+    /**
+     * Works out whether a level can be completed and which of its coins can
+     * be collected.
+     *
+     * @param level The level to analyze.
+     * @return True if the player can reach the flag from the start.
+     */
+    public boolean analyze(Level level) {
+        terrain = level.getTerrain();
+        collectHazards(level);
+        collectSurfaces(level);
+        search();
+
+        GameObject flag = level.getCompletionFlag();
+        flagReachable = flag != null && isTargetReached(flag);
+        unreachableCoins.clear();
+        for (Coin coin : level.getActiveCoins()) {
+            if (!isTargetReached(coin)) unreachableCoins.add(coin);
+        }
+        return flagReachable;
+    }
+
+    /**
+     * Sorts the damaging obstacles along the level and notes where the
+     * player's left side cannot be without touching each of them.
+     */
+    private void collectHazards(Level level) {
+        hazardList.clear();
+        platformList.clear();
+        for (Obstacle obstacle : level.getObstacles()) {
+            if (!obstacle.isActive()) continue;
+            if (obstacle.isDamaging()) {
+                hazardList.add(obstacle);
+            } else if (obstacle instanceof MovingPlatform) {
+                platformList.add((MovingPlatform) obstacle);
+            }
+        }
+        hazardList.sort(Comparator.comparingDouble(GameObject::getX));
+        platformList.sort(Comparator.comparingDouble(GameObject::getX));
+
+        hazardCount = hazardList.size();
+        if (hazardLeft.length < hazardCount) {
+            hazardLeft = new double[hazardCount];
+            hazardRight = new double[hazardCount];
+            hazardTop = new double[hazardCount];
+        }
+        hazardSpan = 0;
+        for (int i = 0; i < hazardCount; i++) {
+            Obstacle hazard = hazardList.get(i);
+            hazardLeft[i] = hazard.getX() - Player.WIDTH;
+            hazardRight[i] = hazard.getX() + hazard.getWidth();
+            hazardTop[i] = hazard.getY();
+            hazardSpan = Math.max(hazardSpan, hazardRight[i] - hazardLeft[i]);
+        }
+    }
+
+    /**
+     * Splits the ground at the hazards and merges in the platforms, keeping
+     * the places to stand ordered by their left edge.
+     */
+    private void collectSurfaces(Level level) {
+        surfaceCount = 0;
+        surfaceSpan = 0;
+        double end = level.getLevelWidth() - Player.WIDTH;
+        double groundStart = 0;
+        int platform = 0;
+        for (int i = 0; i <= hazardCount; i++) {
+            double groundEnd = i < hazardCount ? Math.min(hazardLeft[i], end) : end;
+            if (groundEnd > groundStart) {
+                while (platform < platformList.size() && platformList.get(platform).getX() - Player.WIDTH < groundStart) {
+                    addPlatform(platformList.get(platform++));
+                }
+                addSurface(groundStart, groundEnd, Double.NaN);
+            }
+            if (i < hazardCount) groundStart = Math.max(groundStart, hazardRight[i]);
+        }
+        while (platform < platformList.size()) {
+            addPlatform(platformList.get(platform++));
+        }
+    }
+
+    private void addPlatform(MovingPlatform platform) {
+        addSurface(platform.getX() - Player.WIDTH, platform.getX() + platform.getWidth() + platform.getMoveRange(),
+            platform.getY());
+        surfaceTouch[surfaceCount - 1] = platform.getY() + platform.getHeight() + Player.HEIGHT;
+    }
+
+    private void addSurface(double left, double right, double top) {
+        if (surfaceCount == surfaceLeft.length) {
+            int capacity = surfaceCount * 2;
+            surfaceLeft = Arrays.copyOf(surfaceLeft, capacity);
+            surfaceRight = Arrays.copyOf(surfaceRight, capacity);
+            surfaceTop = Arrays.copyOf(surfaceTop, capacity);
+            surfaceTouch = Arrays.copyOf(surfaceTouch, capacity);
+            takeOffLeft = Arrays.copyOf(takeOffLeft, capacity);
+            takeOffRight = Arrays.copyOf(takeOffRight, capacity);
+            reached = new boolean[capacity];
+            queue = new int[capacity];
+        }
+        int i = surfaceCount++;
+        surfaceLeft[i] = left;
+        surfaceRight[i] = right;
+        surfaceTop[i] = top;
+        if (Double.isNaN(top)) {
+            takeOffLeft[i] = lowestFeet(left, Math.min(right, left + runUp));
+            takeOffRight[i] = lowestFeet(Math.max(left, right - runUp), right);
+        } else {
+            takeOffLeft[i] = top;
+            takeOffRight[i] = top;
+        }
+        surfaceSpan = Math.max(surfaceSpan, right - left);
+    }
+
+    /**
+     * Gets the lowest the player's feet are on the ground while their left
+     * side is between two points.
+     */
+    private double lowestFeet(double from, double to) {
+        double lowest = feetOnGround(to);
+        for (double x = from; x < to; x += Terrain.STEP) {
+            lowest = Math.max(lowest, feetOnGround(x));
+        }
+        return lowest;
+    }
+
+    private double feetOnGround(double left) {
+        return terrain.groundAt(left + Player.WIDTH / 2);
+    }
+
+    /**
+     * Marks every place the player can get to from the start.
+     */
+    private void search() {
+        Arrays.fill(reached, 0, surfaceCount, false);
+        reachedCount = 0;
+        int start = -1;
+        for (int i = 0; i < surfaceCount && start < 0; i++) {
+            if (Double.isNaN(surfaceTop[i]) && surfaceLeft[i] <= START_X && surfaceRight[i] >= START_X) start = i;
+        }
+        if (start < 0) return;
+
+        reached[start] = true;
+        queue[reachedCount++] = start;
+        for (int head = 0; head < reachedCount; head++) {
+            int from = queue[head];
+            int first = firstSurfaceNear(surfaceLeft[from]);
+            for (int to = first; to < surfaceCount && surfaceLeft[to] <= surfaceRight[from] + maxReach; to++) {
+                if (reached[to] || surfaceRight[to] < surfaceLeft[from] - maxReach) continue;
+                if (canJump(from, to)) {
+                    reached[to] = true;
+                    queue[reachedCount++] = to;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the first place to stand that may be within a jump of a point.
+     */
+    private int firstSurfaceNear(double x) {
+        double limit = x - maxReach - surfaceSpan;
+        int low = 0;
+        int high = surfaceCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (surfaceLeft[middle] < limit) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    private boolean canJump(int from, int to) {
+        double left = surfaceLeft[to];
+        double right = surfaceRight[to];
+        double takeOff = takeOffFeet(from, left, right);
+        if (right < surfaceLeft[from]) {
+            return canCross(from, takeOff, left, right, takeOff - landingFeet(to, right));
+        }
+        if (left > surfaceRight[from]) {
+            return canCross(from, takeOff, left, right, takeOff - landingFeet(to, left));
+        }
+        // Dropping down is always possible, jumping up only as high as the jump goes
+        double landing = Double.isNaN(surfaceTop[to])
+            ? lowestFeet(Math.max(left, surfaceLeft[from]), Math.min(right, surfaceRight[from]))
+            : surfaceTouch[to];
+        return takeOff - landing <= apex;
+    }
+
+    /**
+     * Gets the lowest feet height landing on a place counts from. A
+     * platform is landed on as soon as any part of the player touches it.
+     */
+    private double landingFeet(int surface, double x) {
+        if (Double.isNaN(surfaceTop[surface])) return feetOnGround(x);
+        return surfaceTouch[surface];
+    }
+
+    /**
+     * Gets the feet height a jump from a place towards a range is taken
+     * from: the lowest ground in the run-up at the near end, or the lowest
+     * ground under the range if the place stretches under it.
+     */
+    private double takeOffFeet(int surface, double left, double right) {
+        if (!Double.isNaN(surfaceTop[surface])) return surfaceTop[surface];
+        if (right < surfaceLeft[surface]) return takeOffLeft[surface];
+        if (left > surfaceRight[surface]) return takeOffRight[surface];
+        return lowestFeet(Math.max(left, surfaceLeft[surface]), Math.min(right, surfaceRight[surface]));
+    }
+
+    /**
+     * Checks whether a jump from a place gets the player's left side into
+     * a range while their feet are at or above a height, clearing every
+     * hazard on the way.
+     *
+     * @param from The place jumped from.
+     * @param takeOff The feet height jumped from.
+     * @param left The left end of the range.
+     * @param right The right end of the range.
+     * @param height The least height above the take-off point.
+     */
+    private boolean canCross(int from, double takeOff, double left, double right, double height) {
+        if (height > apex) return false;
+        double start = surfaceLeft[from];
+        double end = surfaceRight[from];
+        if (right >= start && left <= end) return true;
+
+        boolean rightwards = left > end;
+        // The range of take-off points, narrowed by every hazard passed over
+        double low = rightwards ? Math.max(start, left - reachAt(height)) : start;
+        double high = rightwards ? end : Math.min(end, right + reachAt(height));
+        double near = rightwards ? start : right;
+        double far = rightwards ? left : end;
+        for (int i = firstHazardAfter(near); i < hazardCount && hazardLeft[i] < far; i++) {
+            if (hazardRight[i] <= near) continue;
+            double clearance = takeOff - hazardTop[i];
+            if (clearance > apex) return false;
+            if (rightwards) {
+                low = Math.max(low, hazardRight[i] - reachAt(clearance));
+                if (clearance > 0) high = Math.min(high, hazardLeft[i] - riseAt(clearance));
+            } else {
+                high = Math.min(high, hazardLeft[i] + reachAt(clearance));
+                if (clearance > 0) low = Math.max(low, hazardRight[i] + riseAt(clearance));
+            }
+            if (low > high) return false;
+        }
+        return low <= high;
+    }
+
+    private int firstHazardAfter(double x) {
+        double limit = x - hazardSpan;
+        int low = 0;
+        int high = hazardCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (hazardLeft[middle] < limit) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    private double riseAt(double height) {
+        return rise[indexOf(height)];
+    }
+
+    private double reachAt(double height) {
+        return reach[indexOf(height)];
+    }
+
+    private int indexOf(double height) {
+        // Rounded up, so a jump is never judged higher than it goes
+        return Math.max(0, Math.min(reach.length - 1, (int) Math.ceil(height) + MAX_DROP));
+    }
+
+    /**
+     * Checks whether the player can touch an object from any place reached.
+     */
+    private boolean isTargetReached(GameObject target) {
+        double left = target.getX() - Player.WIDTH;
+        double right = target.getX() + target.getWidth();
+        double bottom = target.getY() + target.getHeight();
+        int first = firstSurfaceNear(left);
+        for (int i = first; i < surfaceCount && surfaceLeft[i] <= right + maxReach; i++) {
+            if (!reached[i] || surfaceRight[i] < left - maxReach) continue;
+            double takeOff = takeOffFeet(i, left, right);
+            // Out of reach if it hangs wholly below the place, and reached once the player's head gets to it
+            if (target.getY() >= takeOff) continue;
+            if (canCross(i, takeOff, left, right, takeOff - bottom - Player.HEIGHT)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets whether the flag could be reached in the level last analyzed.
+     *
+     * @return True if the level can be completed.
+     */
+    public boolean isFlagReachable() {
+        return flagReachable;
+    }
+
+    /**
+     * Gets the coins of the level last analyzed that cannot be collected.
+     *
+     * @return The unreachable coins, emptied by the next analysis.
+     */
+    public List<Coin> getUnreachableCoins() {
+        return unreachableCoins;
+    }
+
+    /**
+     * Gets how many places to stand the level last analyzed has.
+     *
+     * @return The number of stretches of ground and platforms.
+     */
+    public int getSurfaceCount() {
+        return surfaceCount;
+    }
+
+    /**
+     * Gets how many places to stand the player can get to.
+     *
+     * @return The number of reached stretches of ground and platforms.
+     */
+    public int getReachedCount() {
+        return reachedCount;
+    }
+}
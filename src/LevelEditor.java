@@ -0,0 +1,136 @@
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+/**
+ * Lets designers drag the objects of a paused level around with the mouse.
+ * Pressing on an object selects it and dragging moves it; dragging empty
+ * space pans the view along the level. Each move goes through the game
+ * engine, which updates the level in place, so the game resumes from the
+ * edited level as soon as the editor is closed.
+ * Only reacts to the mouse while the engine is in editor mode, and must be
+ * used on the JavaFX application thread.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class LevelEditor {
+    private static final Color SELECTION = Color.web("#00E5FF");
+    private static final Color BANNER = Color.web("#000000", 0.6);
+
+    private final GameEngine engine;
+    private final GameView view;
+    private final Font font = Font.font("Monospaced", 14);
+    private GameObject selected;
+    private boolean panning = false;
+    private double lastX, lastY;
+    private String status = "";
+
+    /**
+     * Constructs a level editor for the game drawn by a view.
+     *
+     * @param engine The game engine whose level is edited.
+     * @param view The view the level is drawn by.
+     */
+    public LevelEditor(GameEngine engine, GameView view) {
+        this.engine = engine;
+        this.view = view;
+    }
+
+    /**
+     * Listens to the mouse on the canvas the game is drawn on.
+     *
+     * @param canvas The game canvas.
+     */
+    public void attach(Canvas canvas) {
+        canvas.setOnMousePressed(this::mousePressed);
+        canvas.setOnMouseDragged(this::mouseDragged);
+        canvas.setOnMouseReleased(e -> panning = false);
+    }
+
+    private void mousePressed(MouseEvent e) {
+        if (!engine.isEditing()) return;
+        lastX = toWorldX(e.getX());
+        lastY = toWorldY(e.getY());
+        selected = engine.pickObject(lastX, lastY);
+        panning = selected == null;
+    }
+
+    private void mouseDragged(MouseEvent e) {
+        if (!engine.isEditing()) return;
+        double worldX = toWorldX(e.getX());
+        double worldY = toWorldY(e.getY());
+        if (panning) {
+            // The point under the mouse stays under it, so the camera moves the other way
+            engine.panCamera(lastX - worldX);
+            return;
+        }
+        if (selected != null) {
+            engine.moveObject(selected, worldX - lastX, worldY - lastY);
+        }
+        lastX = worldX;
+        lastY = worldY;
+    }
+
+    private double toWorldX(double screenX) {
+        return screenX / view.getPixelScale() + view.getCamera().getX();
+    }
+
+    private double toWorldY(double screenY) {
+        return screenY / view.getPixelScale();
+    }
+
+    /**
+     * Saves the edited level and shows how many regions were written.
+     */
+    public void save() {
+        if (!engine.isEditing()) return;
+        int regions = engine.saveLevel();
+        status = regions < 0 ? "save failed" : "saved " + regions + " region" + (regions == 1 ? "" : "s");
+    }
+
+    /**
+     * Opens the editor if it is closed, closes it otherwise.
+     */
+    public void toggle() {
+        engine.setEditing(!engine.isEditing());
+        selected = null;
+        panning = false;
+        status = "";
+    }
+
+    /**
+     * Draws an outline around the selected object.
+     * Must be called with the camera transformation applied.
+     *
+     * @param gc The graphics context of the game canvas.
+     */
+    public void drawSelection(GraphicsContext gc) {
+        if (selected == null || !engine.isEditing()) return;
+        gc.setStroke(SELECTION);
+        gc.setLineWidth(2);
+        gc.strokeRect(selected.getX() - 2, selected.getY() - 2,
+            selected.getWidth() + 4, selected.getHeight() + 4);
+    }
+
+    /**
+     * Draws the editor banner along the top of the view.
+     * Must be called without the camera transformation.
+     *
+     * @param gc The graphics context of the game canvas.
+     * @param width The width of the view.
+     */
+    public void drawBanner(GraphicsContext gc, double width) {
+        if (!engine.isEditing()) return;
+        Level level = engine.getCurrentLevel();
+        int edited = level != null ? level.getEditedRegions().cardinality() : 0;
+        gc.setFill(BANNER);
+        gc.fillRect(0, 0, width, 28);
+        gc.setFill(Color.WHITE);
+        gc.setFont(font);
+        gc.fillText("EDITOR  drag to move, drag empty space to pan  F5 save  F2 resume  | "
+            + edited + " edited region" + (edited == 1 ? "" : "s") + "  " + status, 10, 19);
+    }
+}
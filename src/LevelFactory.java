@@ -11,68 +11,229 @@ import java.util.Random;
  * @version 1.0
  */
 public class LevelFactory {
-    private static final Random random = new Random();
+    private static long seed = System.nanoTime();
+    private static Random random = new Random(seed);
+    private static java.nio.file.Path levelDirectory = null;
+    
+    // Levels generated before giving up on one the player can complete
+    private static final int MAX_GENERATION_ATTEMPTS = 8;
+    
+    /**
+     * Reseeds the level generator so that the following levels are reproducible.
+     * Every run that uses the same seed generates the same sequence of levels.
+     * 
+     * @param newSeed The seed for the level generator
+     */
+    public static void setSeed(long newSeed) {
+        seed = newSeed;
+        random = new Random(newSeed);
+    }
+    
+    /**
+     * Gets the seed the level generator was last seeded with.
+     * 
+     * @return The current generator seed
+     */
+    public static long getSeed() {
+        return seed;
+    }
+    
+    /**
+     * Captures the exact position of the level generator in its sequence,
+     * so a saved run generates the same next levels when it is resumed.
+     * 
+     * @return The generator state.
+     */
+    public static byte[] getGeneratorState() {
+        try {
+            java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+            try (java.io.ObjectOutputStream out = new java.io.ObjectOutputStream(bytes)) {
+                out.writeObject(random);
+            }
+            return bytes.toByteArray();
+        } catch (java.io.IOException e) {
+            throw new IllegalStateException("Could not capture the level generator", e);
+        }
+    }
+    
+    /**
+     * Restores the level generator to a captured state.
+     * 
+     * @param newSeed The seed the generator was last seeded with
+     * @param state The generator state from {@link #getGeneratorState()}
+     * @throws java.io.IOException If the state cannot be read
+     */
+    public static void setGeneratorState(long newSeed, byte[] state) throws java.io.IOException {
+        try (java.io.ObjectInputStream in = new java.io.ObjectInputStream(new java.io.ByteArrayInputStream(state))) {
+            // Nothing but the generator itself may be read back
+            in.setObjectInputFilter(java.io.ObjectInputFilter.Config.createFilter("java.util.Random;!*"));
+            random = (Random) in.readObject();
+            seed = newSeed;
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new java.io.IOException("Unreadable level generator state", e);
+        }
+    }
+    
+    /**
+     * Sets the folder of levels saved from the level editor.
+     * A level that has a file there is loaded from it instead of generated.
+     * 
+     * @param directory The folder of levels, or null to always generate levels
+     */
+    public static void setLevelDirectory(java.nio.file.Path directory) {
+        levelDirectory = directory;
+    }
+    
+    /**
+     * Gets the folder of levels saved from the level editor.
+     * 
+     * @return The folder of levels, or null if levels are always generated
+     */
+    public static java.nio.file.Path getLevelDirectory() {
+        return levelDirectory;
+    }
     
     /**
      * Creates a new level based on the level number.
      * Higher level numbers result in more challenging levels with
-     * more enemies, obstacles, and wider level boundaries.
+     * more enemies, obstacles, and wider level boundaries, as set by the
+     * per-level tables of the current {@link Tuning}.
+     * A generated level is checked with a {@link LevelAnalyzer}, and one the
+     * player cannot complete or collect every coin of is generated again.
+     * A level saved from the level editor is loaded instead.
      * 
      * @param levelNumber The level number to create
      * @return A fully initialized Level object ready for gameplay
      */
     public static Level createLevel(int levelNumber) {
-        Level level = new Level(levelNumber);
+        if (levelDirectory != null) {
+            java.nio.file.Path file = LevelFile.pathFor(levelDirectory, levelNumber);
+            if (java.nio.file.Files.isRegularFile(file)) {
+                try {
+                    return new LevelFile(file).load();
+                } catch (java.io.IOException e) {
+                    System.err.println("Could not load " + file + ", generating the level: " + e.getMessage());
+                }
+            }
+        }
+        
+        Tuning tuning = Tuning.getDefault();
+        LevelAnalyzer analyzer = new LevelAnalyzer(tuning);
+        Level best = null;
+        boolean bestCompletable = false;
+        int bestUnreachable = 0;
         
-        double levelWidth;
-        if (levelNumber <= 3) {
-            levelWidth = 2000;
-        } else if (levelNumber <= 7) {
-            levelWidth = 2500;
-        } else {
-            levelWidth = 3000;
+        // Keep the level with the fewest unreachable coins among those that can be completed
+        for (int attempt = 0; attempt < MAX_GENERATION_ATTEMPTS; attempt++) {
+            Level level = generateLevel(levelNumber, tuning);
+            boolean completable = analyzer.analyze(level);
+            int unreachable = analyzer.getUnreachableCoins().size();
+            if (best == null || (completable && !bestCompletable)
+                    || (completable == bestCompletable && unreachable < bestUnreachable)) {
+                best = level;
+                bestCompletable = completable;
+                bestUnreachable = unreachable;
+            }
+            if (completable && unreachable == 0) break;
+        }
+        
+        if (!bestCompletable) {
+            System.err.println("Level " + levelNumber + " could not be generated so that its flag can be reached");
+        } else if (bestUnreachable > 0) {
+            System.err.println("Level " + levelNumber + " has " + bestUnreachable + " coins the player cannot reach");
         }
-        level.setLevelWidth(levelWidth);
+        return best;
+    }
+    
+    /**
+     * Generates a level from the next draws of the level generator.
+     * 
+     * @param levelNumber The level number to generate
+     * @param tuning The tuning giving the level's size and contents
+     * @return The generated level
+     */
+    private static Level generateLevel(int levelNumber, Tuning tuning) {
+        Level level = new Level(levelNumber);
+        
+        level.setLevelWidth(tuning.getForLevel(Tuning.LEVEL_WIDTH, levelNumber));
+        level.setTerrain(Terrain.generate(terrainSeed(levelNumber), level.getLevelWidth()));
         
         level.initialize();
         
-        addEnvironmentElements(level, levelNumber);
-        addEnemies(level, levelNumber);
-        addObstacles(level, levelNumber);
-        addCoins(level, levelNumber);
-        addCompletionFlag(level);
+        // Everything scattered keeps its spacing and stays clear of the flag and the enemies,
+        // so those are placed first
+        Scatter scatter = new Scatter(level.getLevelWidth(), random, new double[] {
+            tuning.get(Tuning.COIN_SPACING), tuning.get(Tuning.SPIKE_SPACING), tuning.get(Tuning.ELEMENT_SPACING)});
+        addCompletionFlag(level, scatter);
+        addEnemies(level, levelNumber, tuning, scatter);
+        addObstacles(level, levelNumber, tuning, scatter);
+        addEnvironmentElements(level, levelNumber, tuning, scatter);
+        addCoins(level, levelNumber, tuning, scatter);
         
         return level;
     }
     
+    /**
+     * Works out the seed of a level's dunes from the run's seed without
+     * drawing from the level generator, so levels hold the same objects
+     * whatever their ground looks like.
+     * 
+     * @param levelNumber The level number
+     * @return The terrain seed, never the flat ground's
+     */
+    private static long terrainSeed(int levelNumber) {
+        long h = (seed + levelNumber) * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return h == Terrain.FLAT_SEED ? 1 : h;
+    }
+    
+    /**
+     * Gets the y-coordinate that puts an object placed for the flat floor
+     * the same height above the ground at its middle.
+     * 
+     * @param level The level the object is placed in
+     * @param x The x-coordinate of the object
+     * @param y The y-coordinate of the object on the flat floor
+     * @param width The width of the object
+     * @return The y-coordinate on the level's ground
+     */
+    private static double onGround(Level level, double x, double y, double width) {
+        return y - level.getTerrain().riseAt(x + width / 2);
+    }
+    
     /**
      * Adds decorative environment elements to the level.
-     * Elements include sand dunes, cacti, and rock formations.
+     * Elements include sand dunes, cacti, and rock formations, spread out
+     * so they do not pile up on each other.
      * Higher level numbers result in more environmental elements.
      * 
      * @param level The level to add environment elements to
      * @param levelNumber The current level number
+     * @param tuning The tuning giving the number of elements
+     * @param scatter The scatter that spreads the elements out
      */
-    private static void addEnvironmentElements(Level level, int levelNumber) {
+    private static void addEnvironmentElements(Level level, int levelNumber, Tuning tuning, Scatter scatter) {
         double levelWidth = level.getLevelWidth();
+        double[] spot = new double[2];
         
         // Add different desert elements based on level number
-        int elementCount = 5 + (levelNumber);
+        int elementCount = tuning.getForLevel(Tuning.LEVEL_ELEMENTS, levelNumber);
         
         for (int i = 0; i < elementCount; i++) {
-            double x = random.nextDouble() * (levelWidth - 300) + 150;
+            scatter.place(Scatter.ELEMENT, i, elementCount, 150, levelWidth - 150, Terrain.BASE, Terrain.BASE, spot);
+            double x = spot[0];
             
             // Determine element type
             int elementType = random.nextInt(3);
             switch (elementType) {
                 case 0: 
-                    level.addEnvironmentObject(new DesertElement(x, 620, 200, 50, ElementType.SAND_DUNE));
+                    level.addEnvironmentObject(new DesertElement(x, onGround(level, x, 620, 200), 200, 50, ElementType.SAND_DUNE));
                     break;
                 case 1: 
-                    level.addEnvironmentObject(new DesertElement(x, 570, 30, 50, ElementType.CACTUS));
+                    level.addEnvironmentObject(new DesertElement(x, onGround(level, x, 570, 30), 30, 50, ElementType.CACTUS));
                     break;
                 case 2: 
-                    level.addEnvironmentObject(new DesertElement(x, 590, 80, 30, ElementType.ROCK));
+                    level.addEnvironmentObject(new DesertElement(x, onGround(level, x, 590, 80), 80, 30, ElementType.ROCK));
                     break;
             }
         }
@@ -81,64 +242,71 @@ public class LevelFactory {
     /**
      * Adds enemies to the level based on the level number.
      * Higher level numbers result in more enemies and more
-     * variety in enemy types.
+     * variety in enemy types. The ground each enemy moves over is kept
+     * clear of everything scattered afterwards.
      * 
      * @param level The level to add enemies to
      * @param levelNumber The current level number
+     * @param tuning The tuning giving the number of enemies
+     * @param scatter The scatter that keeps other objects away from the enemies
      */
-    private static void addEnemies(Level level, int levelNumber) {
+    private static void addEnemies(Level level, int levelNumber, Tuning tuning, Scatter scatter) {
         double levelWidth = level.getLevelWidth();
-        int enemyCount;
-        
-        // Determine enemy count based on level
-        if (levelNumber <= 3) {
-            enemyCount = 1 + levelNumber; // 2-4 enemies
-        } else if (levelNumber <= 7) {
-            enemyCount = 5 + (levelNumber - 3); // 6-9 enemies
-        } else {
-            enemyCount = 5 + (levelNumber); // 10+ enemies
-        }
+        int enemyCount = tuning.getForLevel(Tuning.LEVEL_ENEMIES, levelNumber);
         
         // Create enemy factory
-        EnemyFactory enemyFactory = new EnemyFactory();
+        EnemyFactory enemyFactory = new EnemyFactory(random);
         
         // Add enemies with spacing between them
         double spacing = levelWidth / (enemyCount + 1);
         for (int i = 0; i < enemyCount; i++) {
             double x = spacing * (i + 1);
-            level.addEnemy(enemyFactory.createEnemyForLevel(levelNumber, x, 585));
+            Enemy enemy = enemyFactory.createEnemyForLevel(levelNumber, x, 585);
+            // Room for patrols and lunges, from a little above the enemy down to the ground
+            scatter.exclude(x - 60, 585 - 60, enemy.getWidth() + 160, GameView.WORLD_HEIGHT, Scatter.ALL);
+            enemy.translate(0, onGround(level, x, 585, enemy.getWidth()) - 585);
+            level.addEnemy(enemy);
         }
     }
     
     /**
      * Adds obstacles to the level based on the level number.
      * Higher level numbers introduce moving platforms and spikes.
+     * Spikes are spread out and kept from under the platforms' paths.
      * 
      * @param level The level to add obstacles to
      * @param levelNumber The current level number
+     * @param tuning The tuning giving the number of platforms and spikes
+     * @param scatter The scatter that spreads the spikes out
      */
-    private static void addObstacles(Level level, int levelNumber) {
+    private static void addObstacles(Level level, int levelNumber, Tuning tuning, Scatter scatter) {
         double levelWidth = level.getLevelWidth();
         
-        // Add moving platforms for levels 4+
-        if (levelNumber >= 4) {
-            int platformCount = levelNumber < 6 ? levelNumber - 3 : 3; // 1 platform at level 4, more at higher levels
+        // Add moving platforms from the first level the tuning has them for
+        if (tuning.hasLevel(Tuning.LEVEL_PLATFORMS, levelNumber)) {
+            int platformCount = tuning.getForLevel(Tuning.LEVEL_PLATFORMS, levelNumber);
             
             double spacing = levelWidth / (platformCount + 1);
             for (int i = 0; i < platformCount; i++) {
                 double x = spacing * (i + 1);
                 double y = 450 + random.nextInt(100);
-                level.addObstacle(new MovingPlatform(x, y, 150, 30));
+                MovingPlatform platform = new MovingPlatform(x, onGround(level, x, y, 150), 150, 30);
+                scatter.exclude(x - 30, y, platform.getWidth() + platform.getMoveRange() + 30,
+                    GameView.WORLD_HEIGHT, 1 << Scatter.SPIKE);
+                level.addObstacle(platform);
             }
         }
         
-        // Add spikes for levels 7+
-        if (levelNumber >= 7) {
-            int spikeCount = levelNumber < 10 ? levelNumber - 7 + random.nextInt(3) : 3 + random.nextInt(3);
+        // Add spikes from the first level the tuning has them for
+        if (tuning.hasLevel(Tuning.LEVEL_SPIKES, levelNumber)) {
+            int spikeCount = tuning.getForLevel(Tuning.LEVEL_SPIKES, levelNumber)
+                + random.nextInt(tuning.getSpikeVariation());
+            double[] spot = new double[2];
             
             for (int i = 0; i < spikeCount; i++) {
-                double x = random.nextDouble() * (levelWidth - 500) + 250;
-                level.addObstacle(new Spike(x, 590));
+                scatter.place(Scatter.SPIKE, i, spikeCount, 250, levelWidth - 250, 590, 590, spot);
+                double x = spot[0];
+                level.addObstacle(new Spike(x, onGround(level, x, 590, 30)));
             }
         }
     }
@@ -146,52 +314,45 @@ public class LevelFactory {
     /**
      * Adds collectible coins to the level.
      * Higher level numbers result in more coins, with increased
-     * number of valuable gold coins in later levels.
+     * number of valuable gold coins in later levels. Coins are spread out
+     * so none overlap, and kept away from the enemies and the flag.
      * 
      * @param level The level to add coins to
      * @param levelNumber The current level number
+     * @param tuning The tuning giving the number of coins
+     * @param scatter The scatter that spreads the coins out
      */
-    private static void addCoins(Level level, int levelNumber) {
+    private static void addCoins(Level level, int levelNumber, Tuning tuning, Scatter scatter) {
         double levelWidth = level.getLevelWidth();
-        int silverCoinCount;
-        int goldCoinCount;
-        
-        // More coins in higher levels
-        if (levelNumber <= 3) {
-            silverCoinCount = 10 + levelNumber * 3;   
-            goldCoinCount = 3 + levelNumber;          
-        } else if (levelNumber <= 7) {
-            silverCoinCount = 15 + (levelNumber - 3) * 3;  
-            goldCoinCount = 6 + (levelNumber - 3) * 2;    
-        } else {
-            silverCoinCount = 30 + (levelNumber - 7) * 3;  
-            goldCoinCount = 14 + (levelNumber - 7) * 2;  
-        }
+        int silverCoinCount = tuning.getForLevel(Tuning.LEVEL_SILVER_COINS, levelNumber);
+        int goldCoinCount = tuning.getForLevel(Tuning.LEVEL_GOLD_COINS, levelNumber);
+        double[] spot = new double[2];
         
         for (int i = 0; i < silverCoinCount; i++) {
-            double x = 200 + random.nextDouble() * (levelWidth - 400); 
-            double y = 450 + random.nextDouble() * 150; 
-            level.addCoin(new Coin(x, y, Coin.CoinType.SILVER));
+            scatter.place(Scatter.COIN, i, silverCoinCount, 200, levelWidth - 200, 450, 600, spot);
+            level.addCoin(new Coin(spot[0], onGround(level, spot[0], spot[1], 20), Coin.CoinType.SILVER));
         }
         
         for (int i = 0; i < goldCoinCount; i++) {
-            double x = 200 + random.nextDouble() * (levelWidth - 400);
-            double y = 450 + random.nextDouble() * 100;
-            level.addCoin(new Coin(x, y, Coin.CoinType.GOLD));
+            scatter.place(Scatter.COIN, i, goldCoinCount, 200, levelWidth - 200, 450, 550, spot);
+            level.addCoin(new Coin(spot[0], onGround(level, spot[0], spot[1], 20), Coin.CoinType.GOLD));
         }
     }
     
     /**
      * Adds a completion flag near the end of the level.
      * The player must reach this flag to complete the level.
+     * The area around it is kept clear of everything scattered.
      * 
      * @param level The level to add the completion flag to
+     * @param scatter The scatter that keeps other objects away from the flag
      */
-    private static void addCompletionFlag(Level level) {
+    private static void addCompletionFlag(Level level, Scatter scatter) {
         double levelWidth = level.getLevelWidth();
-        Flag flag = new Flag(levelWidth - 150, 540);
+        Flag flag = new Flag(levelWidth - 150, onGround(level, levelWidth - 150, 540, 20));
+        scatter.exclude(levelWidth - 230, 0, 180, GameView.WORLD_HEIGHT, Scatter.ALL);
         flag.setActive(true);
         level.setCompletionFlag(flag);
         
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,301 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A level layout saved from the level editor, split into regions along x.
+ * The file starts with a header, which holds the seed the level's ground is
+ * generated from, and a directory that gives each region's
+ * offset, length and reserved capacity, followed by the regions themselves.
+ * A region holds the objects spawned inside it, each stored as the same
+ * record a saved run uses.
+ * The first save writes the whole file through a temporary file, as a saved
+ * run does. After that, only the regions edited since the last save are
+ * encoded and appended to the end of the file. They are forced to disk before
+ * their directory entries are pointed at them, so a crash part way through
+ * leaves each region either as it was or as it was saved, never half written.
+ * The extents they leave behind are dead space; once there is more dead space
+ * than live regions, the next save writes the whole file again to compact it.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class LevelFile {
+    private static final int MAGIC = 0x424D4C56; // "BMLV"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 4 + 4 + 4 + 8 + 8 + 8 + 4;
+    private static final int ENTRY_BYTES = 8 + 4 + 4;
+    // Dead space below this is never worth a rewrite
+    private static final long MIN_COMPACT_BYTES = 64 * 1024;
+
+    private final Path file;
+    private int regionsWritten = 0;
+
+    /**
+     * Constructs a level file.
+     *
+     * @param file The path of the file.
+     */
+    public LevelFile(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Gets where the layout of a level is kept in a folder of levels.
+     *
+     * @param directory The folder of levels.
+     * @param levelNumber The level number.
+     * @return The path of the level's file.
+     */
+    public static Path pathFor(Path directory, int levelNumber) {
+        return directory.resolve("level-" + levelNumber + ".lvl");
+    }
+
+    /**
+     * Saves a level. Writes only its edited regions if the file was last
+     * written from or read into this same level, and the whole file otherwise.
+     * Clears the level's edited regions once they are written.
+     *
+     * @param level The level to save.
+     * @throws IOException If the file cannot be written, or an object cannot be saved.
+     */
+    public void save(Level level) throws IOException {
+        if (level.getLevelFile() != this || !Files.isRegularFile(file)) {
+            writeAll(level);
+        } else {
+            writeEdited(level);
+        }
+        level.getEditedRegions().clear();
+        level.setLevelFile(this);
+    }
+
+    /**
+     * Reads a level. Enemies, obstacles and coins are built as they were when
+     * spawned, so the level starts fresh.
+     *
+     * @return The level.
+     * @throws IOException If the file cannot be read or is not a level of this version.
+     */
+    public Level load() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        try {
+            if (buffer.getInt() != MAGIC) throw new IOException("Not a level file");
+            int version = buffer.getInt();
+            if (version != VERSION) throw new IOException("Unsupported level file version " + version);
+            Level level = new Level(buffer.getInt());
+            level.setLevelWidth(buffer.getDouble());
+            level.setTerrain(Terrain.generate(buffer.getLong(), level.getLevelWidth()));
+            if (buffer.getDouble() != Level.REGION_WIDTH || buffer.getInt() != level.getRegionCount()) {
+                throw new IOException("Level file has a different region layout");
+            }
+
+            for (int region = 0; region < level.getRegionCount(); region++) {
+                int entry = HEADER_BYTES + region * ENTRY_BYTES;
+                ByteBuffer blob = buffer.duplicate();
+                blob.position((int) buffer.getLong(entry));
+                blob.limit(blob.position() + buffer.getInt(entry + 8));
+                int count = blob.getInt();
+                for (int i = 0; i < count; i++) {
+                    RunSave.addToLevel(level, RunSave.getRecord(blob));
+                }
+            }
+            level.setLevelFile(this);
+            return level;
+        } catch (java.nio.BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Level file is cut short or corrupt", e);
+        }
+    }
+
+    /**
+     * Writes the whole file to a temporary file and moves it into place.
+     */
+    private void writeAll(Level level) throws IOException {
+        int regionCount = level.getRegionCount();
+        ByteBuffer[] blobs = encodeRegions(level, null);
+
+        int offset = HEADER_BYTES + regionCount * ENTRY_BYTES;
+        int size = offset;
+        for (ByteBuffer blob : blobs) {
+            size += capacityFor(blob.remaining());
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(level.getLevelNumber());
+        buffer.putDouble(level.getLevelWidth());
+        buffer.putLong(level.getTerrain().getSeed());
+        buffer.putDouble(Level.REGION_WIDTH);
+        buffer.putInt(regionCount);
+        for (ByteBuffer blob : blobs) {
+            int capacity = capacityFor(blob.remaining());
+            buffer.putLong(offset);
+            buffer.putInt(blob.remaining());
+            buffer.putInt(capacity);
+            offset += capacity;
+        }
+        for (ByteBuffer blob : blobs) {
+            int start = buffer.position();
+            buffer.put(blob);
+            // Leave the spare capacity zeroed
+            buffer.position(start + capacityFor(buffer.position() - start));
+        }
+        buffer.flip();
+
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, buffer, 0);
+            channel.force(true);
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        regionsWritten = regionCount;
+    }
+
+    /**
+     * Appends the edited regions to the existing file and points the
+     * directory at them, or writes the whole file if that leaves too much
+     * dead space behind.
+     */
+    private void writeEdited(Level level) throws IOException {
+        BitSet edited = level.getEditedRegions();
+        regionsWritten = 0;
+        if (edited.isEmpty()) return;
+        ByteBuffer[] blobs = encodeRegions(level, edited);
+        if (!appendEdited(level.getRegionCount(), edited, blobs)) {
+            writeAll(level);
+        }
+    }
+
+    /**
+     * Appends encoded regions to the file and points the directory at them.
+     *
+     * @return False, with nothing written, if the file should be compacted instead.
+     */
+    private boolean appendEdited(int regionCount, BitSet edited, ByteBuffer[] blobs) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer directory = ByteBuffer.allocate(regionCount * ENTRY_BYTES);
+            readFully(channel, directory, HEADER_BYTES);
+
+            long end = channel.size();
+            long live = 0;
+            long appended = 0;
+            for (int region = 0; region < regionCount; region++) {
+                int capacity = directory.getInt(region * ENTRY_BYTES + 12);
+                if (blobs[region] != null) {
+                    capacity = capacityFor(blobs[region].remaining());
+                    appended += capacity;
+                }
+                live += capacity;
+            }
+            long dead = end + appended - HEADER_BYTES - directory.capacity() - live;
+            if (dead > live && dead > MIN_COMPACT_BYTES) {
+                return false;
+            }
+
+            // The new extents must be on disk before anything points at them
+            long offset = end;
+            for (int region = edited.nextSetBit(0); region >= 0; region = edited.nextSetBit(region + 1)) {
+                ByteBuffer blob = blobs[region];
+                int entry = region * ENTRY_BYTES;
+                int length = blob.remaining();
+                int capacity = capacityFor(length);
+                writeFully(channel, blob, offset);
+                directory.putLong(entry, offset);
+                directory.putInt(entry + 8, length);
+                directory.putInt(entry + 12, capacity);
+                offset += capacity;
+                regionsWritten++;
+            }
+            channel.force(false);
+
+            directory.rewind();
+            writeFully(channel, directory, HEADER_BYTES);
+            channel.force(false);
+        }
+        return true;
+    }
+
+    /**
+     * Encodes the objects of each region. Each object belongs to the region
+     * it was spawned in, so moving an object back and forth across a region
+     * border moves it between regions.
+     *
+     * @param only The regions to encode, or null for all of them.
+     * @return The encoded regions, ready to be written; null for regions not encoded.
+     */
+    private static ByteBuffer[] encodeRegions(Level level, BitSet only) throws IOException {
+        int regionCount = level.getRegionCount();
+        List<GameObject> objects = level.getAllObjects();
+        int[] regionOf = new int[objects.size()];
+        int[] counts = new int[regionCount];
+        int[] sizes = new int[regionCount];
+        for (int i = 0; i < objects.size(); i++) {
+            GameObject obj = objects.get(i);
+            int region = level.getRegionOf(obj.getInitialX());
+            regionOf[i] = region;
+            if (only == null || only.get(region)) {
+                counts[region]++;
+                sizes[region] += RunSave.recordBytes(obj);
+            }
+        }
+
+        ByteBuffer[] blobs = new ByteBuffer[regionCount];
+        for (int region = 0; region < regionCount; region++) {
+            if (only == null || only.get(region)) {
+                blobs[region] = ByteBuffer.allocate(4 + sizes[region]);
+                blobs[region].putInt(counts[region]);
+            }
+        }
+        for (int i = 0; i < objects.size(); i++) {
+            ByteBuffer blob = blobs[regionOf[i]];
+            if (blob != null) {
+                RunSave.putRecord(blob, objects.get(i));
+            }
+        }
+        for (ByteBuffer blob : blobs) {
+            if (blob != null) blob.flip();
+        }
+        return blobs;
+    }
+
+    /**
+     * Gets the space a region takes in the file. Regions are never rewritten
+     * in place, so no room is reserved beyond what the region needs.
+     */
+    private static int capacityFor(int length) {
+        return length;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) throw new IOException("Level file is cut short");
+            position += read;
+        }
+    }
+
+    /**
+     * Gets how many regions the last save wrote.
+     *
+     * @return The number of regions written.
+     */
+    public int getRegionsWritten() {
+        return regionsWritten;
+    }
+
+    public Path getFile() { return file; }
+}
@@ -1,5 +1,4 @@
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.paint.Color;
 import javafx.geometry.Point2D;
 
 /**
@@ -12,11 +11,14 @@ import javafx.geometry.Point2D;
  * @version 1.0
  */
 public class MovingPlatform extends Obstacle {
-    private double moveRange = 200;
-    private double moveSpeed = 50;
-    private boolean movingRight = true;
+    // Every platform moves the same way, so they share these
+    private static final double MOVE_RANGE = 200;
+    private static final double MOVE_SPEED = 50;
+    private static final Point2D RIGHT = new Point2D(MOVE_SPEED, 0);
+    private static final Point2D LEFT = new Point2D(-MOVE_SPEED, 0);
     
-    private Point2D velocity = new Point2D(moveSpeed, 0);
+    private boolean movingRight = true;
+    private Point2D velocity = RIGHT;
 
     /**
      * Constructs a new moving platform with the specified dimensions and position.
@@ -29,6 +31,8 @@ public class MovingPlatform extends Obstacle {
      */
     public MovingPlatform(double x, double y, double width, double height) {
         super(x, y, width, height, false);
+        // The player rides along, which the platform response relies on
+        setCollisionCategory(CollisionLayers.PLATFORM);
     }
 
     /**
@@ -42,16 +46,36 @@ public class MovingPlatform extends Obstacle {
         if (!isActive) return;
         
         if (movingRight) {
-            x += moveSpeed * deltaTime;
-            velocity = new Point2D(moveSpeed, 0);
-            if (x > initialX + moveRange) movingRight = false;
+            x += MOVE_SPEED * deltaTime;
+            velocity = RIGHT;
+            if (x > initialX + MOVE_RANGE) movingRight = false;
         } else {
-            x -= moveSpeed * deltaTime;
-            velocity = new Point2D(-moveSpeed, 0);
+            x -= MOVE_SPEED * deltaTime;
+            velocity = LEFT;
             if (x < initialX) movingRight = true;
         }
     }
 
+    @Override
+    public int getStateSize() {
+        return super.getStateSize() + 1;
+    }
+
+    @Override
+    public int writeState(double[] state, int offset) {
+        offset = super.writeState(state, offset);
+        state[offset] = movingRight ? 1 : 0;
+        return offset + 1;
+    }
+
+    @Override
+    public int readState(double[] state, int offset) {
+        offset = super.readState(state, offset);
+        movingRight = state[offset] != 0;
+        velocity = movingRight ? RIGHT : LEFT;
+        return offset + 1;
+    }
+
     /**
      * Renders the platform with a desert-themed appearance.
      * The platform includes visual details to match the game's desert aesthetic.
@@ -61,25 +85,44 @@ public class MovingPlatform extends Obstacle {
     @Override
     public void render(GraphicsContext gc) {
         if (!isActive) return;
-        
+        draw(new PaintState(gc), x, y, getWidth(), getHeight());
+    }
+
+    @Override
+    protected RenderCommand.Kind getRenderKind() {
+        return RenderCommand.Kind.MOVING_PLATFORM;
+    }
+
+    /**
+     * Draws a moving platform with the given bounds.
+     * 
+     * @param paint The paint state to draw with
+     * @param x The x-coordinate of the platform
+     * @param y The y-coordinate of the platform
+     * @param width The width of the platform
+     * @param height The height of the platform
+     */
+    public static void draw(PaintState paint, double x, double y, double width, double height) {
+        GraphicsContext gc = paint.getContext();
         // Platform base
-        gc.setFill(Color.web("#E9C893")); 
+        paint.setFill(Palette.color(Palette.SAND)); 
         gc.fillRect(x, y, width, height);
+        if (paint.getDetail() < RenderQuality.FULL) return;
         
         // Platform outline
-        gc.setStroke(Color.web("#A69185")); 
-        gc.setLineWidth(1.5);
+        paint.setStroke(Palette.color(Palette.GROUND_LINE)); 
+        paint.setLineWidth(1.5);
         gc.strokeRect(x, y, width, height);
         
         // Platform detail lines
-        gc.setStroke(Color.web("#A69185")); 
-        gc.setLineWidth(1);
-        gc.setLineDashes(3, 2);
+        paint.setStroke(Palette.color(Palette.GROUND_LINE)); 
+        paint.setLineWidth(1);
+        paint.setLineDashes(3, 2);
         
         // Horizontal line
         gc.strokeLine(x + 5, y + height/2, x + width - 5, y + height/2);
         
-        gc.setLineDashes(null);
+        paint.setLineDashes((double[]) null);
     }
     
     /**
@@ -92,4 +135,13 @@ public class MovingPlatform extends Obstacle {
     public Point2D getVelocity() {
         return velocity;
     }
-}
\ No newline at end of file
+    
+    /**
+     * Gets how far the platform travels right of where it started.
+     * 
+     * @return The movement range in pixels
+     */
+    public double getMoveRange() {
+        return MOVE_RANGE;
+    }
+}
@@ -0,0 +1,100 @@
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The size and collision layer of a kind of game object, shared by every
+ * object of that kind. Objects of a type almost always have the same size, so
+ * instead of each carrying its own copy, they all point at one shape. Shapes
+ * are interned: asking for a shape that exists already gives back the same
+ * instance, so a level of a million coins holds a single coin shape.
+ * A shape never changes; an object that needs another size or layer is given
+ * another shape.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public final class ObjectShape {
+    private static final ConcurrentHashMap<ObjectShape, ObjectShape> SHAPES = new ConcurrentHashMap<>();
+
+    private final double width;
+    private final double height;
+    private final int collisionCategory;
+    private final int collisionMask;
+    private final float damage;
+
+    private ObjectShape(double width, double height, int collisionCategory, float damage) {
+        this.width = width;
+        this.height = height;
+        this.collisionCategory = collisionCategory;
+        this.collisionMask = CollisionLayers.maskFor(collisionCategory);
+        this.damage = damage;
+    }
+
+    /**
+     * Gets the shape of a size in a collision category.
+     *
+     * @param width The width of the objects.
+     * @param height The height of the objects.
+     * @param collisionCategory One of the categories in {@link CollisionLayers}.
+     * @return The shared shape.
+     */
+    public static ObjectShape of(double width, double height, int collisionCategory) {
+        return of(width, height, collisionCategory, 0);
+    }
+
+    /**
+     * Gets the shape of a size in a collision category whose objects deal
+     * damage on contact.
+     *
+     * @param width The width of the objects.
+     * @param height The height of the objects.
+     * @param collisionCategory One of the categories in {@link CollisionLayers}.
+     * @param damage The damage dealt to the player in heart units.
+     * @return The shared shape.
+     */
+    public static ObjectShape of(double width, double height, int collisionCategory, float damage) {
+        ObjectShape shape = new ObjectShape(width, height, collisionCategory, damage);
+        ObjectShape shared = SHAPES.putIfAbsent(shape, shape);
+        return shared != null ? shared : shape;
+    }
+
+    /**
+     * Gets the shape of the same size in another collision category.
+     *
+     * @param category One of the categories in {@link CollisionLayers}.
+     * @return The shared shape.
+     */
+    public ObjectShape withCategory(int category) {
+        return category == collisionCategory ? this : of(width, height, category, damage);
+    }
+
+    /**
+     * Gets the number of distinct shapes in use.
+     *
+     * @return The number of shapes.
+     */
+    public static int getShapeCount() {
+        return SHAPES.size();
+    }
+
+    public double getWidth() { return width; }
+    public double getHeight() { return height; }
+    public int getCollisionCategory() { return collisionCategory; }
+    public int getCollisionMask() { return collisionMask; }
+    public float getDamage() { return damage; }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof ObjectShape)) return false;
+        ObjectShape shape = (ObjectShape) other;
+        return Double.compare(width, shape.width) == 0 && Double.compare(height, shape.height) == 0
+            && collisionCategory == shape.collisionCategory && Float.compare(damage, shape.damage) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Double.hashCode(width);
+        hash = 31 * hash + Double.hashCode(height);
+        hash = 31 * hash + collisionCategory;
+        return 31 * hash + Float.hashCode(damage);
+    }
+}
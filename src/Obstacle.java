@@ -11,11 +11,10 @@ import javafx.scene.paint.Color;
  * @version 1.0
  */
 public abstract class Obstacle extends GameObject {
-    /** Indicates whether this obstacle inflicts damage on contact with the player */
-    protected boolean isDamaging;
-
     /**
      * Constructs a new obstacle with the specified properties.
+     * Damaging obstacles collide as hazards; others are scenery unless the
+     * subclass gives them a category of its own, as moving platforms do.
      * 
      * @param x The x-coordinate of the obstacle
      * @param y The y-coordinate of the obstacle
@@ -25,7 +24,7 @@ public abstract class Obstacle extends GameObject {
      */
     public Obstacle(double x, double y, double width, double height, boolean isDamaging) {
         super(x, y, width, height);
-        this.isDamaging = isDamaging;
+        setCollisionCategory(isDamaging ? CollisionLayers.HAZARD : CollisionLayers.SCENERY);
     }
 
     /**
@@ -34,7 +33,7 @@ public abstract class Obstacle extends GameObject {
      * @return True if the obstacle is damaging, false otherwise
      */
     public boolean isDamaging() {
-        return isDamaging;
+        return shape.getCollisionCategory() == CollisionLayers.HAZARD;
     }
 
     /**
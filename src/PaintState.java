@@ -0,0 +1,240 @@
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Font;
+import javafx.scene.transform.Affine;
+
+/**
+ * Tracks the paint state of a graphics context and drops redundant changes.
+ * Draw routines set fills, strokes, line widths, dashes, opacity and fonts
+ * through this class instead of the context. A change is only passed on when
+ * the value differs from the current one, so runs of similar draws issue the
+ * state once. Each change that reaches the context is counted, which shows how
+ * well a frame was batched.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class PaintState {
+    private final GraphicsContext gc;
+
+    private Paint fill;
+    private Paint stroke;
+    private double lineWidth;
+    private double[] lineDashes;
+    private double globalAlpha;
+    private Font font;
+    private boolean known;
+    private final Affine savedTransform = new Affine();
+    private int detail = RenderQuality.FULL;
+
+    private int changes = 0;
+    private int skipped = 0;
+
+    /**
+     * Constructs a paint state for a graphics context.
+     *
+     * @param gc The graphics context to draw on.
+     */
+    public PaintState(GraphicsContext gc) {
+        this.gc = gc;
+    }
+
+    /**
+     * Gets the graphics context, for drawing shapes with the current state.
+     *
+     * @return The graphics context.
+     */
+    public GraphicsContext getContext() {
+        return gc;
+    }
+
+    /**
+     * Forgets the cached state, for example after {@code gc.restore()}.
+     * The next change of each property is always passed on.
+     */
+    public void invalidate() {
+        known = false;
+    }
+
+    /**
+     * Starts counting changes for a new frame.
+     * The cache is invalidated since other code may have changed the context.
+     */
+    public void beginFrame() {
+        changes = 0;
+        skipped = 0;
+        invalidate();
+    }
+
+    /**
+     * Sets the fill paint.
+     *
+     * @param paint The new fill.
+     */
+    public void setFill(Paint paint) {
+        sync();
+        if (paint.equals(fill)) {
+            skipped++;
+            return;
+        }
+        fill = paint;
+        gc.setFill(paint);
+        changes++;
+    }
+
+    /**
+     * Sets the stroke paint.
+     *
+     * @param paint The new stroke.
+     */
+    public void setStroke(Paint paint) {
+        sync();
+        if (paint.equals(stroke)) {
+            skipped++;
+            return;
+        }
+        stroke = paint;
+        gc.setStroke(paint);
+        changes++;
+    }
+
+    /**
+     * Sets the stroke width.
+     *
+     * @param width The new line width.
+     */
+    public void setLineWidth(double width) {
+        sync();
+        if (width == lineWidth) {
+            skipped++;
+            return;
+        }
+        lineWidth = width;
+        gc.setLineWidth(width);
+        changes++;
+    }
+
+    /**
+     * Sets the dash pattern of strokes.
+     *
+     * @param dashes The dash lengths, or null for solid lines.
+     */
+    public void setLineDashes(double... dashes) {
+        sync();
+        if (java.util.Arrays.equals(dashes, lineDashes)) {
+            skipped++;
+            return;
+        }
+        lineDashes = dashes;
+        gc.setLineDashes(dashes);
+        changes++;
+    }
+
+    /**
+     * Sets the opacity of everything drawn.
+     *
+     * @param alpha The new opacity from 0 to 1.
+     */
+    public void setGlobalAlpha(double alpha) {
+        sync();
+        if (alpha == globalAlpha) {
+            skipped++;
+            return;
+        }
+        globalAlpha = alpha;
+        gc.setGlobalAlpha(alpha);
+        changes++;
+    }
+
+    /**
+     * Sets the font used for text.
+     *
+     * @param newFont The new font.
+     */
+    public void setFont(Font newFont) {
+        sync();
+        if (newFont.equals(font)) {
+            skipped++;
+            return;
+        }
+        font = newFont;
+        gc.setFont(newFont);
+        changes++;
+    }
+
+    /**
+     * Remembers the current transform so a draw can move or rotate the context.
+     * Unlike {@code gc.save()}, the paint state is left alone, so it stays cached
+     * for the next draw. Calls cannot be nested.
+     */
+    public void beginTransform() {
+        gc.getTransform(savedTransform);
+        changes++;
+    }
+
+    /**
+     * Puts back the transform remembered by {@link #beginTransform()}.
+     */
+    public void endTransform() {
+        gc.setTransform(savedTransform);
+        changes++;
+    }
+
+    /**
+     * Sets how much detail the next draws should use.
+     * Draw routines leave out text, strokes and highlights below FULL.
+     *
+     * @param detail One of the RenderQuality detail levels.
+     */
+    public void setDetail(int detail) {
+        this.detail = detail;
+    }
+
+    /**
+     * Gets how much detail draws should use.
+     *
+     * @return One of the RenderQuality detail levels.
+     */
+    public int getDetail() {
+        return detail;
+    }
+
+    /**
+     * Counts a change made directly on the context, such as a save, restore or transform.
+     */
+    public void countChange() {
+        changes++;
+    }
+
+    /**
+     * Gets how many state changes reached the context since the frame began.
+     *
+     * @return The number of changes.
+     */
+    public int getChanges() {
+        return changes;
+    }
+
+    /**
+     * Gets how many redundant state changes were dropped since the frame began.
+     *
+     * @return The number of dropped changes.
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Reads the context's current state into the cache after it was invalidated.
+     */
+    private void sync() {
+        if (known) return;
+        fill = gc.getFill();
+        stroke = gc.getStroke();
+        lineWidth = gc.getLineWidth();
+        lineDashes = gc.getLineDashes();
+        globalAlpha = gc.getGlobalAlpha();
+        font = gc.getFont();
+        known = true;
+    }
+}
@@ -0,0 +1,119 @@
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+/**
+ * The colours and fonts the game world is drawn with.
+ * Render code asks for a swatch or font by one of the constants below and gets
+ * an object resolved once by the active theme, so no colour strings are parsed
+ * and no fonts are looked up while a frame is drawn. Switching the theme, for
+ * example to dark mode, changes every swatch at once from the next frame on.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class Palette {
+    /** Sky above the dunes */
+    public static final int SKY = 0;
+    /** Sand of the ground, platforms and dune decorations */
+    public static final int SAND = 1;
+    /** Line where the ground meets the sky, and platform outlines */
+    public static final int GROUND_LINE = 2;
+    /** Distant dunes */
+    public static final int DUNE = 3;
+    /** Lighter distant dunes */
+    public static final int DUNE_LIGHT = 4;
+    /** Smaller, darker distant dunes */
+    public static final int DUNE_SHADOW = 5;
+    /** Highlight along the top of a dune */
+    public static final int DUNE_HIGHLIGHT = 6;
+    /** Outline of a sand dune decoration */
+    public static final int DUNE_OUTLINE = 7;
+    /** Cactus */
+    public static final int CACTUS = 8;
+    /** Cactus outline */
+    public static final int CACTUS_OUTLINE = 9;
+    /** Rock */
+    public static final int ROCK = 10;
+    /** Rock outline */
+    public static final int ROCK_OUTLINE = 11;
+    /** Flag pole and vultures */
+    public static final int WOOD = 12;
+    /** Completion flag */
+    public static final int FLAG = 13;
+    /** Details on the completion flag */
+    public static final int FLAG_DETAIL = 14;
+    /** Outlines of the player and the flag */
+    public static final int OUTLINE = 15;
+    /** Player's robe and limbs */
+    public static final int NINJA = 16;
+    /** Player's mask */
+    public static final int NINJA_MASK = 17;
+    /** Player's eyes, spikes and scorpions */
+    public static final int DANGER = 18;
+    /** Player during the death animation */
+    public static final int DEAD = 19;
+    /** Snake body */
+    public static final int SNAKE = 20;
+    /** Snake pattern */
+    public static final int SNAKE_PATTERN = 21;
+    /** Gold coin */
+    public static final int GOLD_COIN = 22;
+    /** Gold coin edge and mark */
+    public static final int GOLD_COIN_EDGE = 23;
+    /** Silver coin */
+    public static final int SILVER_COIN = 24;
+    /** Silver coin edge and mark */
+    public static final int SILVER_COIN_EDGE = 25;
+    /** Text of the HUD drawn on the canvas */
+    public static final int HUD_TEXT = 26;
+    /** Number of swatches */
+    public static final int SWATCHES = 27;
+
+    /** Font of the mark on coins */
+    public static final int COIN_FONT = 0;
+    /** Number of fonts */
+    public static final int FONTS = 1;
+
+    private static volatile Theme theme = Theme.DAY;
+
+    private Palette() {
+    }
+
+    /**
+     * Gets a swatch of the active theme.
+     *
+     * @param swatch One of the swatch constants.
+     * @return The resolved colour.
+     */
+    public static Color color(int swatch) {
+        return theme.getColor(swatch);
+    }
+
+    /**
+     * Gets a font of the active theme.
+     *
+     * @param font One of the font constants.
+     * @return The resolved font.
+     */
+    public static Font font(int font) {
+        return theme.getFont(font);
+    }
+
+    /**
+     * Switches the theme the world is drawn with.
+     *
+     * @param newTheme The theme to use from the next frame on.
+     */
+    public static void setTheme(Theme newTheme) {
+        theme = newTheme;
+    }
+
+    /**
+     * Gets the active theme.
+     *
+     * @return The active theme.
+     */
+    public static Theme getTheme() {
+        return theme;
+    }
+}
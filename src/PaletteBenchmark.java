@@ -0,0 +1,190 @@
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+/**
+ * Measures what the colour and font lookups of one frame cost, before and after
+ * the palette. The scene is a crowded stretch of level: the parallax background,
+ * the player, enemies, obstacles, decorations, the flag and hundreds of coins.
+ * "Before" parses every colour string and looks up the coin font the way the
+ * draw routines used to, every frame. "After" asks the palette for the same
+ * swatches. Allocated bytes are read from the JVM's per-thread counter.
+ * Drawing itself is not included since it needs a running JavaFX toolkit.
+ *
+ * Run with: java PaletteBenchmark [frames]
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class PaletteBenchmark {
+    private static final int DUNE_RANGES = 4;
+    private static final int PLAYERS = 1;
+    private static final int SCORPIONS = 20;
+    private static final int SNAKES = 20;
+    private static final int VULTURES = 10;
+    private static final int SPIKES = 30;
+    private static final int PLATFORMS = 10;
+    private static final int DECORATIONS = 40;
+    private static final int FLAGS = 1;
+    private static final int COINS = 300;
+
+    private static Object sink;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Optional number of frames to time.
+     */
+    public static void main(String[] args) {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        boolean fonts = fontsAvailable();
+        if (!fonts) {
+            System.out.println("Fonts need the JavaFX toolkit, so coin font lookups are left out");
+        }
+
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        // Warm up
+        for (int i = 0; i < frames; i++) {
+            frameBefore(fonts);
+            frameAfter(fonts);
+        }
+
+        long bytes = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < frames; i++) {
+            frameBefore(fonts);
+        }
+        long beforeTime = System.nanoTime() - start;
+        long beforeBytes = threads.getThreadAllocatedBytes(thread) - bytes;
+
+        bytes = threads.getThreadAllocatedBytes(thread);
+        start = System.nanoTime();
+        for (int i = 0; i < frames; i++) {
+            frameAfter(fonts);
+        }
+        long afterTime = System.nanoTime() - start;
+        long afterBytes = threads.getThreadAllocatedBytes(thread) - bytes;
+
+        System.out.printf("Before: %.1f us and %d bytes allocated per frame%n",
+            beforeTime / 1e3 / frames, beforeBytes / frames);
+        System.out.printf("After:  %.1f us and %d bytes allocated per frame%n",
+            afterTime / 1e3 / frames, afterBytes / frames);
+    }
+
+    /**
+     * Looks up one frame's colours by parsing them, as the draw routines used to.
+     */
+    private static void frameBefore(boolean fonts) {
+        sink = Color.web("#87CEEB");
+        for (int i = 0; i < DUNE_RANGES; i++) {
+            sink = Color.web("#D4B483", 0.7);
+            sink = Color.web("#F5DEB3", 0.3);
+            if (i % 2 == 0) sink = Color.web("#C19A6B", 0.5);
+        }
+        sink = Color.web("#E9C893");
+        sink = Color.web("#A69185");
+
+        for (int i = 0; i < PLAYERS; i++) {
+            sink = Color.web("#C19A6B");
+            sink = Color.web("#000000");
+            sink = Color.web("#D22F27");
+            sink = Color.web("#C19A6B");
+        }
+        for (int i = 0; i < SCORPIONS; i++) {
+            sink = Color.web("#D22F27");
+            sink = Color.web("#D22F27");
+        }
+        for (int i = 0; i < SNAKES; i++) {
+            sink = Color.web("#4F7942");
+            sink = Color.web("#2E8B57");
+        }
+        for (int i = 0; i < VULTURES; i++) {
+            sink = Color.web("#8B4513");
+        }
+        for (int i = 0; i < SPIKES; i++) {
+            sink = Color.web("#D22F27");
+        }
+        for (int i = 0; i < PLATFORMS; i++) {
+            sink = Color.web("#E9C893");
+            sink = Color.web("#A69185");
+            sink = Color.web("#A69185");
+        }
+        for (int i = 0; i < DECORATIONS; i++) {
+            sink = Color.web("#2D8633");
+            sink = Color.web("#1A5E20");
+        }
+        for (int i = 0; i < FLAGS; i++) {
+            sink = Color.web("#8B4513");
+            sink = Color.web("#FFD700", 0.7);
+        }
+        if (fonts) {
+            for (int i = 0; i < COINS; i++) {
+                sink = Font.font(12);
+            }
+        }
+    }
+
+    /**
+     * Looks up the same colours from the palette.
+     */
+    private static void frameAfter(boolean fonts) {
+        sink = Palette.color(Palette.SKY);
+        for (int i = 0; i < DUNE_RANGES; i++) {
+            sink = Palette.color(Palette.DUNE);
+            sink = Palette.color(Palette.DUNE_HIGHLIGHT);
+            if (i % 2 == 0) sink = Palette.color(Palette.DUNE_SHADOW);
+        }
+        sink = Palette.color(Palette.SAND);
+        sink = Palette.color(Palette.GROUND_LINE);
+
+        for (int i = 0; i < PLAYERS; i++) {
+            sink = Palette.color(Palette.NINJA);
+            sink = Palette.color(Palette.NINJA_MASK);
+            sink = Palette.color(Palette.DANGER);
+            sink = Palette.color(Palette.NINJA);
+        }
+        for (int i = 0; i < SCORPIONS; i++) {
+            sink = Palette.color(Palette.DANGER);
+            sink = Palette.color(Palette.DANGER);
+        }
+        for (int i = 0; i < SNAKES; i++) {
+            sink = Palette.color(Palette.SNAKE);
+            sink = Palette.color(Palette.SNAKE_PATTERN);
+        }
+        for (int i = 0; i < VULTURES; i++) {
+            sink = Palette.color(Palette.WOOD);
+        }
+        for (int i = 0; i < SPIKES; i++) {
+            sink = Palette.color(Palette.DANGER);
+        }
+        for (int i = 0; i < PLATFORMS; i++) {
+            sink = Palette.color(Palette.SAND);
+            sink = Palette.color(Palette.GROUND_LINE);
+            sink = Palette.color(Palette.GROUND_LINE);
+        }
+        for (int i = 0; i < DECORATIONS; i++) {
+            sink = Palette.color(Palette.CACTUS);
+            sink = Palette.color(Palette.CACTUS_OUTLINE);
+        }
+        for (int i = 0; i < FLAGS; i++) {
+            sink = Palette.color(Palette.WOOD);
+            sink = Palette.color(Palette.FLAG_DETAIL);
+        }
+        if (fonts) {
+            for (int i = 0; i < COINS; i++) {
+                sink = Palette.font(Palette.COIN_FONT);
+            }
+        }
+    }
+
+    private static boolean fontsAvailable() {
+        try {
+            Font.font(12);
+            return true;
+        } catch (RuntimeException | Error e) {
+            return false;
+        }
+    }
+}
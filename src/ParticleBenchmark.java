@@ -0,0 +1,82 @@
+/**
+ * Measures the CPU cost of the particle system with a heavy load.
+ * Runs a dense sandstorm over a level together with puffs, sparkles and dust,
+ * and times the simulation, the culling into a frame and the stamping into the
+ * pixel buffer for each frame. The upload to the screen image is not included
+ * since it needs a running JavaFX toolkit.
+ *
+ * Run with: java ParticleBenchmark [targetParticles] [frames]
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class ParticleBenchmark {
+    private static final double LEVEL_WIDTH = 3000;
+    private static final int VIEW_WIDTH = 1280;
+    private static final int VIEW_HEIGHT = 720;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Optional target number of live particles and number of frames.
+     */
+    public static void main(String[] args) {
+        int target = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int frames = args.length > 1 ? Integer.parseInt(args[1]) : 1200;
+
+        ParticleSystem particles = new ParticleSystem(target + 10_000);
+        ParticleFrame frame = new ParticleFrame(target);
+        ParticleRenderer renderer = new ParticleRenderer(VIEW_WIDTH, VIEW_HEIGHT);
+        double deltaTime = 1.0 / 60;
+
+        // Storm particles live 4.5 seconds on average
+        particles.setSandstorm(target / 4.5, LEVEL_WIDTH, 620);
+        for (int i = 0; i < 600; i++) {
+            step(particles, frame, renderer, i, deltaTime);
+        }
+
+        long simulate = 0, cull = 0, stamp = 0;
+        long visible = 0, live = 0;
+        for (int i = 0; i < frames; i++) {
+            long t0 = System.nanoTime();
+            emitEffects(particles, i);
+            particles.update(deltaTime);
+            long t1 = System.nanoTime();
+            double cameraX = cameraFor(i);
+            particles.writeVisible(frame, cameraX, VIEW_WIDTH, VIEW_HEIGHT);
+            long t2 = System.nanoTime();
+            renderer.rasterize(frame, cameraX);
+            long t3 = System.nanoTime();
+
+            simulate += t1 - t0;
+            cull += t2 - t1;
+            stamp += t3 - t2;
+            visible += frame.size();
+            live += particles.getCount();
+        }
+
+        System.out.printf("Live particles: %d on average, %d visible%n", live / frames, visible / frames);
+        System.out.printf("Per frame: simulate %.3f ms, cull %.3f ms, stamp %.3f ms, total %.3f ms (budget 16.7 ms)%n",
+            simulate / 1e6 / frames, cull / 1e6 / frames, stamp / 1e6 / frames,
+            (simulate + cull + stamp) / 1e6 / frames);
+    }
+
+    private static void step(ParticleSystem particles, ParticleFrame frame, ParticleRenderer renderer,
+                             int i, double deltaTime) {
+        emitEffects(particles, i);
+        particles.update(deltaTime);
+        particles.writeVisible(frame, cameraFor(i), VIEW_WIDTH, VIEW_HEIGHT);
+        renderer.rasterize(frame, cameraFor(i));
+    }
+
+    private static void emitEffects(ParticleSystem particles, int i) {
+        double x = 200 + (i * 7) % 2600;
+        if (i % 20 == 0) particles.emitSandPuff(x, 620);
+        if (i % 15 == 0) particles.emitCoinSparkle(x + 100, 500);
+        if (i % 30 == 0) particles.emitDust(x + 300, 620, 1);
+    }
+
+    private static double cameraFor(int i) {
+        return (i * 3) % (LEVEL_WIDTH - VIEW_WIDTH);
+    }
+}
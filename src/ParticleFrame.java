@@ -0,0 +1,58 @@
+/**
+ * The visible particles of one frame, ready to be drawn.
+ * Holds only what the renderer needs, a position and a stamp index per particle,
+ * in primitive arrays that are reused from frame to frame.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class ParticleFrame {
+    private float[] x;
+    private float[] y;
+    private byte[] stamp;
+    private int size = 0;
+
+    /**
+     * Constructs an empty frame.
+     *
+     * @param initialCapacity The number of particles to make room for.
+     */
+    public ParticleFrame(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        x = new float[capacity];
+        y = new float[capacity];
+        stamp = new byte[capacity];
+    }
+
+    /**
+     * Empties the frame.
+     */
+    public void reset() {
+        size = 0;
+    }
+
+    /**
+     * Adds a particle, growing the arrays if needed.
+     *
+     * @param px The x-coordinate of the particle in the world.
+     * @param py The y-coordinate of the particle.
+     * @param stampIndex The stamp to draw the particle with.
+     */
+    public void add(float px, float py, int stampIndex) {
+        if (size == x.length) {
+            int capacity = x.length * 2;
+            x = java.util.Arrays.copyOf(x, capacity);
+            y = java.util.Arrays.copyOf(y, capacity);
+            stamp = java.util.Arrays.copyOf(stamp, capacity);
+        }
+        x[size] = px;
+        y[size] = py;
+        stamp[size] = (byte) stampIndex;
+        size++;
+    }
+
+    public int size() { return size; }
+    public float getX(int i) { return x[i]; }
+    public float getY(int i) { return y[i]; }
+    public int getStamp(int i) { return stamp[i]; }
+}
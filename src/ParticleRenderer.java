@@ -0,0 +1,210 @@
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+/**
+ * Draws particles without issuing a canvas call per particle.
+ * Each colour and fade step has a small pre-rendered sprite stamp. Visible
+ * particles are stamped into an ARGB pixel buffer the size of the viewport,
+ * which is then uploaded to an image and drawn with a single image draw.
+ * Only the rows touched in this frame or the previous one are cleared and
+ * uploaded.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class ParticleRenderer {
+    /** Largest width or height of a stamp in pixels */
+    public static final int MAX_STAMP_SIZE = 6;
+
+    private static final int[] COLOURS = {0xE9C893, 0xC19A6B, 0xFFD700, 0xFFFFFF, 0x8B7D5B, 0xD4B483};
+    private static final double[] BASE_ALPHA = {0.9, 0.9, 1.0, 1.0, 0.8, 0.45};
+
+    private final int width;
+    private final int height;
+    private final int[] pixels;
+    private final int[][] stamps;
+    private final int[] stampWidth;
+    private final int[] stampHeight;
+    private WritableImage image;
+
+    // Rows holding particles from the last rasterized frame
+    private int dirtyTop;
+    private int dirtyBottom;
+    // Rows that must be uploaded for the last rasterized frame
+    private int uploadTop;
+    private int uploadBottom;
+
+    /**
+     * Constructs a renderer for a viewport.
+     *
+     * @param width The width of the viewport in pixels.
+     * @param height The height of the viewport in pixels.
+     */
+    public ParticleRenderer(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.pixels = new int[width * height];
+        this.dirtyTop = height;
+        this.dirtyBottom = 0;
+
+        int stampCount = ParticleSystem.COLOURS * ParticleSystem.FADE_LEVELS;
+        stamps = new int[stampCount][];
+        stampWidth = new int[stampCount];
+        stampHeight = new int[stampCount];
+        for (int c = 0; c < ParticleSystem.COLOURS; c++) {
+            for (int f = 0; f < ParticleSystem.FADE_LEVELS; f++) {
+                double alpha = BASE_ALPHA[c] * (f + 1) / ParticleSystem.FADE_LEVELS;
+                buildStamp(c * ParticleSystem.FADE_LEVELS + f, c, alpha);
+            }
+        }
+    }
+
+    /**
+     * Draws a frame's particles. Must be called on the JavaFX application thread,
+     * with the camera transformation applied.
+     *
+     * @param gc The graphics context to draw on.
+     * @param frame The visible particles.
+     * @param cameraX The x-coordinate of the left edge of the viewport.
+     */
+    public void draw(GraphicsContext gc, ParticleFrame frame, double cameraX) {
+        if (frame.size() == 0 && dirtyTop >= dirtyBottom) return;
+
+        rasterize(frame, cameraX);
+        if (image == null) {
+            image = new WritableImage(width, height);
+        }
+        if (uploadTop < uploadBottom) {
+            image.getPixelWriter().setPixels(0, uploadTop, width, uploadBottom - uploadTop,
+                PixelFormat.getIntArgbPreInstance(), pixels, uploadTop * width, width);
+        }
+        gc.drawImage(image, cameraX, 0);
+    }
+
+    /**
+     * Gets the width of the viewport this renderer draws.
+     *
+     * @return The width in pixels.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Stamps a frame's particles into the pixel buffer, clearing the previous frame first.
+     * Does not touch JavaFX, so it can be timed on its own.
+     *
+     * @param frame The visible particles.
+     * @param cameraX The x-coordinate of the left edge of the viewport.
+     */
+    public void rasterize(ParticleFrame frame, double cameraX) {
+        int previousTop = dirtyTop;
+        int previousBottom = dirtyBottom;
+        if (previousTop < previousBottom) {
+            java.util.Arrays.fill(pixels, previousTop * width, previousBottom * width, 0);
+        }
+
+        int top = height;
+        int bottom = 0;
+        for (int i = 0; i < frame.size(); i++) {
+            int sx = (int) (frame.getX(i) - cameraX);
+            int sy = (int) frame.getY(i);
+            int s = frame.getStamp(i);
+            int sw = stampWidth[s];
+            int sh = stampHeight[s];
+            if (sx < 0 || sy < 0 || sx + sw > width || sy + sh > height) continue;
+
+            blend(stamps[s], sw, sh, sx, sy);
+            if (sy < top) top = sy;
+            if (sy + sh > bottom) bottom = sy + sh;
+        }
+
+        dirtyTop = top;
+        dirtyBottom = bottom;
+        uploadTop = Math.min(previousTop, top);
+        uploadBottom = Math.max(previousBottom, bottom);
+    }
+
+    /**
+     * Blends a premultiplied stamp over the buffer.
+     */
+    private void blend(int[] stamp, int sw, int sh, int sx, int sy) {
+        int k = 0;
+        for (int row = 0; row < sh; row++) {
+            int index = (sy + row) * width + sx;
+            for (int col = 0; col < sw; col++, k++, index++) {
+                int src = stamp[k];
+                int srcAlpha = src >>> 24;
+                if (srcAlpha == 0) continue;
+                int dst = pixels[index];
+                if (srcAlpha == 255 || dst == 0) {
+                    pixels[index] = src;
+                    continue;
+                }
+                int inverse = 255 - srcAlpha;
+                int a = srcAlpha + ((dst >>> 24) * inverse) / 255;
+                int r = ((src >> 16) & 0xFF) + (((dst >> 16) & 0xFF) * inverse) / 255;
+                int g = ((src >> 8) & 0xFF) + (((dst >> 8) & 0xFF) * inverse) / 255;
+                int b = (src & 0xFF) + ((dst & 0xFF) * inverse) / 255;
+                pixels[index] = (a << 24) | (r << 16) | (g << 8) | b;
+            }
+        }
+    }
+
+    /**
+     * Builds the stamp for a colour and opacity.
+     * Sand is a small round grain, sparkles are crosses, dust is a soft blob
+     * and storm particles are horizontal streaks.
+     */
+    private void buildStamp(int index, int colourIndex, double alpha) {
+        float[] coverage;
+        int w;
+        int h;
+        switch (colourIndex) {
+            case ParticleSystem.GOLD:
+                w = 5; h = 5;
+                coverage = new float[] {
+                    0, 0, 0.5f, 0, 0,
+                    0, 0.5f, 1, 0.5f, 0,
+                    0.5f, 1, 1, 1, 0.5f,
+                    0, 0.5f, 1, 0.5f, 0,
+                    0, 0, 0.5f, 0, 0};
+                break;
+            case ParticleSystem.WHITE:
+                w = 3; h = 3;
+                coverage = new float[] {0, 0.6f, 0, 0.6f, 1, 0.6f, 0, 0.6f, 0};
+                break;
+            case ParticleSystem.DUST:
+                w = 4; h = 4;
+                coverage = new float[] {
+                    0.2f, 0.6f, 0.6f, 0.2f,
+                    0.6f, 1, 1, 0.6f,
+                    0.6f, 1, 1, 0.6f,
+                    0.2f, 0.6f, 0.6f, 0.2f};
+                break;
+            case ParticleSystem.STORM:
+                w = MAX_STAMP_SIZE; h = 1;
+                coverage = new float[] {1, 0.85f, 0.65f, 0.45f, 0.25f, 0.1f};
+                break;
+            default:
+                w = 3; h = 3;
+                coverage = new float[] {0.5f, 1, 0.5f, 1, 1, 1, 0.5f, 1, 0.5f};
+                break;
+        }
+
+        int rgb = COLOURS[colourIndex];
+        int[] stamp = new int[w * h];
+        for (int i = 0; i < stamp.length; i++) {
+            double a = alpha * coverage[i];
+            int alphaByte = (int) Math.round(a * 255);
+            int r = (int) Math.round(((rgb >> 16) & 0xFF) * a);
+            int g = (int) Math.round(((rgb >> 8) & 0xFF) * a);
+            int b = (int) Math.round((rgb & 0xFF) * a);
+            stamp[i] = (alphaByte << 24) | (r << 16) | (g << 8) | b;
+        }
+        stamps[index] = stamp;
+        stampWidth[index] = w;
+        stampHeight[index] = h;
+    }
+}
@@ -0,0 +1,248 @@
+/**
+ * Preallocated particle system for the desert effects.
+ * Every particle's position, velocity, remaining life and colour index live in
+ * parallel primitive arrays sized once up front. Dead particles are removed by
+ * moving the last live particle into their slot, so the live particles always
+ * fill the front of the arrays and no particle ever allocates. When the arrays
+ * are full, or the live particles reach a lower limit set to save time, new
+ * particles are dropped.
+ * Effects: sand puffs when the player lands, sparkles when a coin is collected,
+ * dust when a snake lunges, and a sandstorm blowing across the whole level.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class ParticleSystem {
+    /** Colour index of light sand */
+    public static final int SAND = 0;
+    /** Colour index of dark sand */
+    public static final int SAND_DARK = 1;
+    /** Colour index of gold sparkles */
+    public static final int GOLD = 2;
+    /** Colour index of white sparkles */
+    public static final int WHITE = 3;
+    /** Colour index of snake dust */
+    public static final int DUST = 4;
+    /** Colour index of sandstorm streaks */
+    public static final int STORM = 5;
+    /** Number of colour indices */
+    public static final int COLOURS = 6;
+    /** Number of fade steps a particle's stamp goes through as it dies */
+    public static final int FADE_LEVELS = 4;
+
+    // Downward acceleration per colour in pixels per second squared
+    private static final float[] GRAVITY = {400, 400, -30, -30, 150, 0};
+
+    private final int capacity;
+    private final float[] x, y, vx, vy;
+    private final float[] life, inverseMaxLife;
+    private final byte[] colour;
+    private int count = 0;
+    // Set from the JavaFX thread by the quality governor
+    private volatile int limit;
+    private int seed = 0x9E3779B9;
+
+    private float stormRate = 0;
+    private float stormAccumulator = 0;
+    private float levelWidth = 0;
+    private float groundY = 620;
+
+    /**
+     * Constructs a particle system.
+     *
+     * @param capacity The maximum number of live particles.
+     */
+    public ParticleSystem(int capacity) {
+        this.capacity = capacity;
+        this.limit = capacity;
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        life = new float[capacity];
+        inverseMaxLife = new float[capacity];
+        colour = new byte[capacity];
+    }
+
+    /**
+     * Adds a single particle.
+     *
+     * @param px The x-coordinate of the particle.
+     * @param py The y-coordinate of the particle.
+     * @param velocityX The horizontal velocity in pixels per second.
+     * @param velocityY The vertical velocity in pixels per second.
+     * @param lifetime How long the particle lives in seconds.
+     * @param colourIndex The particle's colour index.
+     * @return True if the particle was added, false if the system is full.
+     */
+    public boolean emit(float px, float py, float velocityX, float velocityY, float lifetime, int colourIndex) {
+        if (count >= limit || lifetime <= 0) return false;
+        int i = count++;
+        x[i] = px;
+        y[i] = py;
+        vx[i] = velocityX;
+        vy[i] = velocityY;
+        life[i] = lifetime;
+        inverseMaxLife[i] = 1f / lifetime;
+        colour[i] = (byte) colourIndex;
+        return true;
+    }
+
+    /**
+     * Kicks up a puff of sand, for example where the player lands.
+     *
+     * @param px The x-coordinate of the puff.
+     * @param py The y-coordinate of the ground.
+     */
+    public void emitSandPuff(double px, double py) {
+        for (int i = 0; i < 14; i++) {
+            float side = i % 2 == 0 ? 1 : -1;
+            emit((float) px + side * random(0, 8), (float) py - 2,
+                side * random(30, 120), -random(40, 140), random(0.3f, 0.6f),
+                i % 3 == 0 ? SAND_DARK : SAND);
+        }
+    }
+
+    /**
+     * Bursts sparkles out of a collected coin.
+     *
+     * @param px The x-coordinate of the coin's centre.
+     * @param py The y-coordinate of the coin's centre.
+     */
+    public void emitCoinSparkle(double px, double py) {
+        for (int i = 0; i < 16; i++) {
+            double angle = i * (Math.PI * 2 / 16);
+            float speed = random(40, 110);
+            emit((float) px, (float) py, (float) Math.cos(angle) * speed, (float) Math.sin(angle) * speed,
+                random(0.4f, 0.8f), i % 4 == 0 ? WHITE : GOLD);
+        }
+    }
+
+    /**
+     * Throws up dust behind a lunging snake.
+     *
+     * @param px The x-coordinate of the snake's tail.
+     * @param py The y-coordinate of the ground under the snake.
+     * @param direction 1 if the snake lunges right, -1 if it lunges left.
+     */
+    public void emitDust(double px, double py, int direction) {
+        for (int i = 0; i < 10; i++) {
+            emit((float) px, (float) py - random(0, 6), -direction * random(20, 90), -random(20, 70),
+                random(0.4f, 0.7f), DUST);
+        }
+    }
+
+    /**
+     * Starts or stops a sandstorm across the whole level.
+     * Storm particles blow from right to left and wrap around the level's edges.
+     *
+     * @param particlesPerSecond How many storm particles to add each second, 0 to stop the storm.
+     * @param width The width of the level.
+     * @param ground The y-coordinate of the ground.
+     */
+    public void setSandstorm(double particlesPerSecond, double width, double ground) {
+        stormRate = (float) particlesPerSecond;
+        levelWidth = (float) width;
+        groundY = (float) ground;
+        stormAccumulator = 0;
+    }
+
+    /**
+     * Moves every particle and removes the ones that have died.
+     *
+     * @param deltaTime Time elapsed since the last update in seconds.
+     */
+    public void update(double deltaTime) {
+        float dt = (float) deltaTime;
+        if (stormRate > 0) spawnStorm(dt);
+
+        int i = 0;
+        while (i < count) {
+            float remaining = life[i] - dt;
+            if (remaining <= 0) {
+                // Swap-remove: the last live particle takes this slot
+                int last = --count;
+                x[i] = x[last];
+                y[i] = y[last];
+                vx[i] = vx[last];
+                vy[i] = vy[last];
+                life[i] = life[last];
+                inverseMaxLife[i] = inverseMaxLife[last];
+                colour[i] = colour[last];
+                continue;
+            }
+            life[i] = remaining;
+            vy[i] += GRAVITY[colour[i]] * dt;
+            x[i] += vx[i] * dt;
+            y[i] += vy[i] * dt;
+            if (colour[i] == STORM && x[i] < 0) x[i] += levelWidth;
+            i++;
+        }
+    }
+
+    /**
+     * Records the particles inside the viewport for drawing.
+     * Each particle gets the stamp for its colour and how far it has faded.
+     *
+     * @param frame The frame to fill.
+     * @param cameraX The x-coordinate of the left edge of the viewport.
+     * @param viewportWidth The width of the viewport.
+     * @param viewportHeight The height of the viewport.
+     */
+    public void writeVisible(ParticleFrame frame, double cameraX, double viewportWidth, double viewportHeight) {
+        frame.reset();
+        float left = (float) cameraX - ParticleRenderer.MAX_STAMP_SIZE;
+        float right = (float) (cameraX + viewportWidth);
+        float bottom = (float) viewportHeight;
+        float top = -ParticleRenderer.MAX_STAMP_SIZE;
+        for (int i = 0; i < count; i++) {
+            float px = x[i];
+            float py = y[i];
+            if (px < left || px >= right || py < top || py >= bottom) continue;
+            int fade = (int) (life[i] * inverseMaxLife[i] * FADE_LEVELS);
+            if (fade >= FADE_LEVELS) fade = FADE_LEVELS - 1;
+            frame.add(px, py, colour[i] * FADE_LEVELS + fade);
+        }
+    }
+
+    /**
+     * Removes every particle, for example when a new level starts.
+     */
+    public void clear() {
+        count = 0;
+        stormAccumulator = 0;
+    }
+
+    /**
+     * Limits the number of live particles below the capacity.
+     * Particles already alive are kept; new ones are dropped until enough have died.
+     *
+     * @param maxParticles The most live particles allowed, clamped to the capacity.
+     */
+    public void setLimit(int maxParticles) {
+        limit = Math.max(0, Math.min(capacity, maxParticles));
+    }
+
+    public int getCount() { return count; }
+    public int getCapacity() { return capacity; }
+    public int getLimit() { return limit; }
+
+    private void spawnStorm(float dt) {
+        stormAccumulator += stormRate * dt;
+        while (stormAccumulator >= 1) {
+            stormAccumulator -= 1;
+            emit(random(0, levelWidth), random(0, groundY), -random(200, 340), random(-15, 25),
+                random(3, 6), STORM);
+        }
+    }
+
+    /**
+     * Returns a random value in a range from a cheap xorshift generator.
+     */
+    private float random(float min, float max) {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return min + (seed >>> 8) * (1f / (1 << 24)) * (max - min);
+    }
+}
@@ -0,0 +1,107 @@
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Performance figures drawn in the top right corner of the game canvas.
+ * Shows the frame rate, the quality governor's step and settings, how many
+ * entities were drawn at each level of detail, how many paint state changes
+ * reached the canvas, the size of the view and canvas, the heap in use and
+ * how many gameplay events of each type have happened since it was shown.
+ * The text is rebuilt twice a second, so the overlay does not allocate
+ * strings every frame.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class PerfOverlay {
+    private static final long REFRESH_NANOS = 500_000_000L;
+    private static final double WIDTH = 420;
+    private static final double LINE_HEIGHT = 16;
+    private static final double PADDING = 8;
+    private static final Color BACKGROUND = Color.web("#000000", 0.6);
+
+    private final Font font = Font.font("Monospaced", 12);
+    private String[] lines = new String[0];
+    private long lastRefresh = 0;
+    private long lastFrame = 0;
+    private double averageInterval = 0;
+    private GameEvents.Reader events;
+    private final long[] eventCounts = new long[GameEvents.TYPES];
+    private final GameEvents.Handler countEvent = (type, tick, x, y, amount) -> eventCounts[type]++;
+
+    /**
+     * Draws the overlay for the frame a view has just drawn.
+     * Must be called on the JavaFX application thread, scaled to the view but
+     * without the camera transformation.
+     *
+     * @param gc The graphics context of the game canvas.
+     * @param view The view whose figures are shown.
+     * @param now The time the frame began in nanoseconds.
+     */
+    public void draw(GraphicsContext gc, GameView view, long now) {
+        if (lastFrame != 0) {
+            long interval = now - lastFrame;
+            averageInterval = averageInterval == 0 ? interval : averageInterval * 0.9 + interval * 0.1;
+        }
+        lastFrame = now;
+        if (events == null && view.getGameEvents() != null) {
+            events = view.getGameEvents().newReader();
+        }
+        if (events != null) {
+            events.drain(countEvent);
+        }
+        if (now - lastRefresh >= REFRESH_NANOS) {
+            lastRefresh = now;
+            lines = buildLines(view);
+        }
+
+        double x = view.getViewWidth() - WIDTH - PADDING;
+        gc.setFill(BACKGROUND);
+        gc.fillRect(x, PADDING, WIDTH, lines.length * LINE_HEIGHT + PADDING * 2);
+        gc.setFill(Color.WHITE);
+        gc.setFont(font);
+        for (int i = 0; i < lines.length; i++) {
+            gc.fillText(lines[i], x + PADDING, PADDING * 2 + LINE_HEIGHT * i + 4);
+        }
+    }
+
+    private String[] buildLines(GameView view) {
+        RenderQuality quality = view.getQuality();
+        QualityGovernor governor = view.getGovernor();
+        double frameMs = averageInterval / 1e6;
+        Runtime runtime = Runtime.getRuntime();
+        long heapMb = (runtime.totalMemory() - runtime.freeMemory()) >> 20;
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("FPS %.0f  frame %.1f ms", frameMs > 0 ? 1000 / frameMs : 0, frameMs));
+        if (governor != null) {
+            lines.add(String.format("Work %.1f ms  target %.1f ms",
+                governor.getAverageWorkNanos() / 1e6, governor.getTargetNanos() / 1e6));
+            lines.add(String.format("Step %d/%d%s  drops %d  recover %d",
+                governor.getStep(), QualityGovernor.STEPS - 1, governor.isAdaptive() ? "" : " (fixed)",
+                governor.getDrops(), governor.getRecoverFrames()));
+            lines.add(governor.describeStep());
+        } else {
+            lines.add("Quality " + RenderQuality.getName(quality.getLevel()) + " (fixed)");
+        }
+        lines.add(String.format("LOD full %d  reduced %d  minimal %d",
+            quality.getDrawn(RenderQuality.FULL), quality.getDrawn(RenderQuality.REDUCED),
+            quality.getDrawn(RenderQuality.MINIMAL)));
+        lines.add(String.format("Paint changes %d  skipped %d",
+            view.getStateChanges(), view.getSkippedStateChanges()));
+        lines.add(String.format("View %.0f x %.0f  canvas %.0f x %.0f px",
+            view.getViewWidth(), GameView.WORLD_HEIGHT,
+            view.getViewWidth() * view.getPixelScale(), GameView.WORLD_HEIGHT * view.getPixelScale()));
+        lines.add(String.format("Heap %d MB", heapMb));
+        if (events != null) {
+            StringBuilder counts = new StringBuilder("Events");
+            for (int type = 0; type < GameEvents.TYPES; type++) {
+                counts.append(' ').append(GameEvents.getName(type)).append(' ').append(eventCounts[type]);
+            }
+            lines.add(counts.append("  missed ").append(events.getMissed()).toString());
+        }
+        return lines.toArray(new String[0]);
+    }
+}
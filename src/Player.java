@@ -1,16 +1,18 @@
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.paint.Color;
 import javafx.geometry.Point2D;
 
 /**
  * Player class representing the main character controlled by the user.
  */
 public class Player extends GameObject {
+    /** Width of the player */
+    public static final double WIDTH = 30;
+    /** Height of the player */
+    public static final double HEIGHT = 50;
+    
     private float health = 3.0f;
-    private double speed = 200;
     private boolean isJumping = false;
     private Point2D velocity = new Point2D(0, 0);
-    private double gravity = 500;
     private boolean isInvincible = false;
     private double invincibilityTimer = 0;
     private double invincibilityDuration = 1.5;
@@ -30,12 +32,17 @@ public class Player extends GameObject {
     private double frameDuration = 0.2;
     private PlayerState state = PlayerState.IDLE;
     
-    private double accelerationRate = 1500;
-    private double decelerationRate = 2000;
     private double targetSpeedX = 0;
     
     private long lastDebugOutput = 0;
     
+    private GameClock clock;
+    private GameEvents events;
+    private Terrain terrain = Terrain.FLAT;
+    
+    // Furthest the player steps down a slope without leaving the ground
+    private static final double STEP_DOWN = 10;
+    
     enum PlayerState {
         IDLE, RUNNING, JUMPING, DYING
     }
@@ -47,7 +54,29 @@ public class Player extends GameObject {
      * @param y The y-coordinate of the player
      */
     public Player(double x, double y) {
-        super(x, y, 30, 50);
+        this(x, y, new GameClock());
+    }
+    
+    /**
+     * Creates a new player at the specified position that animates using the given clock.
+     * 
+     * @param x The x-coordinate of the player
+     * @param y The y-coordinate of the player
+     * @param clock The game clock advanced by the engine each tick
+     */
+    public Player(double x, double y, GameClock clock) {
+        super(x, y, WIDTH, HEIGHT);
+        this.clock = clock;
+        setCollisionCategory(CollisionLayers.PLAYER);
+    }
+
+    /**
+     * Sets the gameplay events the player publishes its jumps to.
+     * 
+     * @param events The gameplay events, or null to publish nothing.
+     */
+    public void setGameEvents(GameEvents events) {
+        this.events = events;
     }
 
     /**
@@ -56,11 +85,22 @@ public class Player extends GameObject {
      * @param levelWidth The width of the current level
      */
     public void setLevelBounds(double levelWidth) {
-        this.maxX = levelWidth - width;
+        this.maxX = levelWidth - WIDTH;
+    }
+
+    /**
+     * Sets the ground the player runs on and lands on.
+     * 
+     * @param terrain The ground of the current level
+     */
+    public void setTerrain(Terrain terrain) {
+        this.terrain = terrain;
     }
 
     /**
      * Updates the player's position and state.
+     * The player lands on the ground under the middle of their feet, and
+     * stays on it when running down a dune.
      * 
      * @param deltaTime Time elapsed since the last update in seconds
      */
@@ -104,20 +144,22 @@ public class Player extends GameObject {
             isFacingRight = false;
         }
         
+        // Physics come from the current tuning, so they can change while the game runs
+        Tuning tuning = Tuning.getDefault();
         double currentSpeedX = velocity.getX();
         if (Math.abs(currentSpeedX - targetSpeedX) > 5) {
             if (currentSpeedX < targetSpeedX) {
-                currentSpeedX += accelerationRate * deltaTime;
+                currentSpeedX += tuning.get(Tuning.PLAYER_ACCELERATION) * deltaTime;
                 if (currentSpeedX > targetSpeedX) currentSpeedX = targetSpeedX;
             } else {
-                currentSpeedX -= decelerationRate * deltaTime;
+                currentSpeedX -= tuning.get(Tuning.PLAYER_DECELERATION) * deltaTime;
                 if (currentSpeedX < targetSpeedX) currentSpeedX = targetSpeedX;
             }
         } else {
             currentSpeedX = targetSpeedX;
         }
         
-        velocity = new Point2D(currentSpeedX, velocity.getY() + gravity * deltaTime);
+        velocity = new Point2D(currentSpeedX, velocity.getY() + tuning.get(Tuning.PLAYER_GRAVITY) * deltaTime);
         
         double newX = x + velocity.getX() * deltaTime;
         double newY = y + velocity.getY() * deltaTime;
@@ -135,11 +177,14 @@ public class Player extends GameObject {
         x = newX;
         y = newY;
 
-        double groundLevel = 620;
-        if (y + height > groundLevel) { 
-            y = groundLevel - height;
+        double groundLevel = terrain.groundAt(x + WIDTH / 2);
+        if (y + HEIGHT > groundLevel) { 
+            y = groundLevel - HEIGHT;
             velocity = new Point2D(velocity.getX(), 0);
             isJumping = false;
+        } else if (!isJumping && groundLevel - (y + HEIGHT) < STEP_DOWN) {
+            y = groundLevel - HEIGHT;
+            velocity = new Point2D(velocity.getX(), 0);
         }
         
     }
@@ -167,9 +212,13 @@ public class Player extends GameObject {
     public void jump() {
         if (!isJumping && !isDying) {
             isJumping = true;
-            velocity = new Point2D(velocity.getX(), -375);
+            double jumpSpeed = Tuning.getDefault().get(Tuning.PLAYER_JUMP_SPEED);
+            velocity = new Point2D(velocity.getX(), -jumpSpeed);
             state = PlayerState.JUMPING;
             animationFrame = 0;
+            if (events != null) {
+                events.publish(GameEvents.PLAYER_JUMPED, clock.getTick(), x + WIDTH / 2, y + HEIGHT, jumpSpeed);
+            }
         }
     }
 
@@ -178,7 +227,7 @@ public class Player extends GameObject {
      */
     public void moveLeft() { 
         if (!isDying) {
-            targetSpeedX = -speed;
+            targetSpeedX = -Tuning.getDefault().get(Tuning.PLAYER_SPEED);
             isFacingRight = false;
         }
     }
@@ -188,7 +237,7 @@ public class Player extends GameObject {
      */
     public void moveRight() {
         if (!isDying) {
-            targetSpeedX = speed;
+            targetSpeedX = Tuning.getDefault().get(Tuning.PLAYER_SPEED);
             isFacingRight = true;
         }
     }
@@ -252,6 +301,15 @@ public class Player extends GameObject {
     public int getHealth() { 
         return (int) Math.ceil(health); 
     }
+
+    /**
+     * Gets the exact health of the player, including partial hearts.
+     * 
+     * @return The player's health
+     */
+    public float getExactHealth() {
+        return health;
+    }
     
     /**
      * Sets the player's health to the specified value.
@@ -265,6 +323,52 @@ public class Player extends GameObject {
         }
     }
 
+    @Override
+    public int getStateSize() {
+        return super.getStateSize() + 15;
+    }
+    
+    @Override
+    public int writeState(double[] state, int offset) {
+        offset = super.writeState(state, offset);
+        state[offset] = health;
+        state[offset + 1] = velocity.getX();
+        state[offset + 2] = velocity.getY();
+        state[offset + 3] = isJumping ? 1 : 0;
+        state[offset + 4] = isInvincible ? 1 : 0;
+        state[offset + 5] = invincibilityTimer;
+        state[offset + 6] = isFacingRight ? 1 : 0;
+        state[offset + 7] = isDying ? 1 : 0;
+        state[offset + 8] = deathTimer;
+        state[offset + 9] = rotationAngle;
+        state[offset + 10] = fadeOut;
+        state[offset + 11] = animationFrame;
+        state[offset + 12] = frameTimer;
+        state[offset + 13] = this.state.ordinal();
+        state[offset + 14] = targetSpeedX;
+        return offset + 15;
+    }
+    
+    @Override
+    public int readState(double[] state, int offset) {
+        offset = super.readState(state, offset);
+        health = (float) state[offset];
+        velocity = new Point2D(state[offset + 1], state[offset + 2]);
+        isJumping = state[offset + 3] != 0;
+        isInvincible = state[offset + 4] != 0;
+        invincibilityTimer = state[offset + 5];
+        isFacingRight = state[offset + 6] != 0;
+        isDying = state[offset + 7] != 0;
+        deathTimer = state[offset + 8];
+        rotationAngle = state[offset + 9];
+        fadeOut = state[offset + 10];
+        animationFrame = (int) state[offset + 11];
+        frameTimer = state[offset + 12];
+        this.state = PlayerState.values()[(int) state[offset + 13]];
+        targetSpeedX = state[offset + 14];
+        return offset + 15;
+    }
+
     /**
      * Renders the player on the screen.
      * 
@@ -272,51 +376,119 @@ public class Player extends GameObject {
      */
     @Override
     public void render(GraphicsContext gc) {
-        if (!isActive) return;
-        
-        if (isInvincible && (int)(invincibilityTimer * 10) % 2 == 0 && !isDying) {
-            return;
-        }
-        
+        if (!isActive || isBlinkedOut()) return;
         gc.save();
+        draw(new PaintState(gc), x, y, WIDTH, HEIGHT, getRenderFlags(), getLimbOffset(), rotationAngle, fadeOut);
+        gc.restore();
+    }
+    
+    @Override
+    protected RenderCommand.Kind getRenderKind() {
+        return RenderCommand.Kind.PLAYER;
+    }
+    
+    @Override
+    public boolean writeRenderCommand(RenderCommand command) {
+        super.writeRenderCommand(command);
+        command.setVariant(getRenderFlags());
+        command.setFrame(getLimbOffset());
+        command.setAngle(rotationAngle);
+        command.setAlpha(fadeOut);
+        return isActive && !isBlinkedOut();
+    }
+    
+    /**
+     * Checks if the player is hidden this frame by the invincibility blink.
+     * 
+     * @return True if the player should not be drawn, false otherwise
+     */
+    private boolean isBlinkedOut() {
+        return isInvincible && (int)(invincibilityTimer * 10) % 2 == 0 && !isDying;
+    }
+    
+    /**
+     * Packs the drawing-relevant state of the player into render command flags.
+     * 
+     * @return The combined PLAYER_* flags from RenderCommand
+     */
+    private int getRenderFlags() {
+        int flags = 0;
+        if (isDying) flags |= RenderCommand.PLAYER_DYING;
+        if (state == PlayerState.RUNNING || state == PlayerState.JUMPING) flags |= RenderCommand.PLAYER_MOVING;
+        if (isFacingRight) flags |= RenderCommand.PLAYER_FACING_RIGHT;
+        return flags;
+    }
+    
+    /**
+     * Gets the current swing offset of the arms and legs while moving.
+     * 
+     * @return The limb offset in pixels
+     */
+    private double getLimbOffset() {
+        return (clock.getElapsedMillis() / 100) % 4 - 2;
+    }
+    
+    /**
+     * Draws the player with the given bounds and animation state.
+     * 
+     * @param paint The paint state to draw with
+     * @param x The x-coordinate of the player
+     * @param y The y-coordinate of the player
+     * @param width The width of the player
+     * @param height The height of the player
+     * @param flags The PLAYER_* flags from RenderCommand
+     * @param limbOffset The swing offset of the limbs while moving
+     * @param rotationAngle The rotation of the death animation in degrees
+     * @param fadeOut The opacity of the death animation
+     */
+    public static void draw(PaintState paint, double x, double y, double width, double height,
+                            int flags, double limbOffset, double rotationAngle, double fadeOut) {
+        GraphicsContext gc = paint.getContext();
         
-        if (isDying) {
+        if ((flags & RenderCommand.PLAYER_DYING) != 0) {
+            paint.beginTransform();
             gc.translate(x + width/2, y + height/2);
             gc.rotate(rotationAngle);
-            gc.setGlobalAlpha(fadeOut);
+            paint.setGlobalAlpha(fadeOut);
             
-            gc.setFill(Color.RED);
+            paint.setFill(Palette.color(Palette.DEAD));
             gc.fillRect(-width/2, -height/2, width, height);
             
-            gc.setStroke(Color.BLACK);
-            gc.setLineWidth(2);
-            gc.strokeLine(-10, -15, -5, -10);
-            gc.strokeLine(-10, -10, -5, -15);
-            gc.strokeLine(5, -15, 10, -10);
-            gc.strokeLine(5, -10, 10, -15);
-        } else {
-            if (state == PlayerState.IDLE) {
-                drawSimpleNinja(gc, false);
-            } else if (state == PlayerState.RUNNING) {
-                drawSimpleNinja(gc, true);
-            } else if (state == PlayerState.JUMPING) {
-                drawSimpleNinja(gc, true);
+            if (paint.getDetail() == RenderQuality.FULL) {
+                paint.setStroke(Palette.color(Palette.OUTLINE));
+                paint.setLineWidth(2);
+                gc.strokeLine(-10, -15, -5, -10);
+                gc.strokeLine(-10, -10, -5, -15);
+                gc.strokeLine(5, -15, 10, -10);
+                gc.strokeLine(5, -10, 10, -15);
             }
+            
+            paint.endTransform();
+        } else {
+            drawSimpleNinja(paint, x, y, width, height, (flags & RenderCommand.PLAYER_MOVING) != 0,
+                (flags & RenderCommand.PLAYER_FACING_RIGHT) != 0, limbOffset);
         }
-        
-        gc.restore();
     }
     
     /**
      * Draws the player character as a ninja.
      * 
-     * @param gc The graphics context to draw on
+     * @param paint The paint state to draw with
+     * @param x The x-coordinate of the player
+     * @param y The y-coordinate of the player
+     * @param width The width of the player
+     * @param height The height of the player
      * @param isMoving Whether the player is in a moving state
+     * @param isFacingRight Whether the player faces right
+     * @param offset The swing offset of the limbs while moving
      */
-    private void drawSimpleNinja(GraphicsContext gc, boolean isMoving) {
-        gc.setFill(Color.web("#C19A6B"));
+    private static void drawSimpleNinja(PaintState paint, double x, double y, double width, double height,
+                                        boolean isMoving, boolean isFacingRight, double offset) {
+        GraphicsContext gc = paint.getContext();
+        paint.setFill(Palette.color(Palette.NINJA));
         double drawX = x;
         if (!isFacingRight) {
+            paint.beginTransform();
             gc.translate(x + width, 0);
             gc.scale(-1, 1);
             drawX = 0;
@@ -325,31 +497,50 @@ public class Player extends GameObject {
         gc.fillRect(drawX + 5, y + 10, width - 10, height - 10);
         gc.fillOval(drawX + 5, y, width - 10, 20);
         
-        gc.setFill(Color.web("#000000"));
+        paint.setFill(Palette.color(Palette.NINJA_MASK));
         gc.fillRect(drawX + 5, y + 8, width - 10, 4);
         
-        gc.setFill(Color.web("#D22F27"));
+        if (paint.getDetail() < RenderQuality.FULL) {
+            // Body, head and mask are enough to read the player at a glance
+            if (!isFacingRight) {
+                paint.endTransform();
+            }
+            return;
+        }
+        
+        paint.setFill(Palette.color(Palette.DANGER));
         gc.fillRect(drawX + 20, y + 8, 5, 4);
         
         if (isMoving) {
-            double offset = (System.currentTimeMillis() / 100) % 4 - 2;
-            gc.setFill(Color.web("#C19A6B"));
+            paint.setFill(Palette.color(Palette.NINJA));
             gc.fillRect(drawX, y + 15 + offset, 5, 15);
             gc.fillRect(drawX + width - 5, y + 15 - offset, 5, 15);
             gc.fillRect(drawX + 8, y + height - 20 + offset, 5, 20);
             gc.fillRect(drawX + width - 13, y + height - 20 - offset, 5, 20);
         } else {
-            gc.setFill(Color.web("#C19A6B"));
+            paint.setFill(Palette.color(Palette.NINJA));
             gc.fillRect(drawX, y + 15, 5, 15);
             gc.fillRect(drawX + width - 5, y + 15, 5, 15);
             gc.fillRect(drawX + 8, y + height - 20, 5, 20);
             gc.fillRect(drawX + width - 13, y + height - 20, 5, 20);
         }
         
-        gc.setStroke(Color.BLACK);
-        gc.setLineWidth(1);
+        paint.setStroke(Palette.color(Palette.OUTLINE));
+        paint.setLineWidth(1);
         gc.strokeRect(drawX + 5, y + 10, width - 10, height - 10);
         gc.strokeOval(drawX + 5, y, width - 10, 20);
+        if (!isFacingRight) {
+            paint.endTransform();
+        }
+    }
+
+    /**
+     * Checks if the player is in the air.
+     * 
+     * @return True if the player is jumping or falling, false if on the ground
+     */
+    public boolean isJumping() {
+        return isJumping;
     }
 
     /**
@@ -0,0 +1,184 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Where the player is, as seen from every point of a level.
+ * The level's x-range is divided into cells, and damaging obstacles on the
+ * ground block the cells they cover. The field keeps only the nearest blocked
+ * cell on each side of the player, moving them as the player crosses cells, so
+ * a point can reach the player exactly when it lies between the two. The field
+ * is shared by all enemy AI and each enemy's query is a couple of comparisons
+ * however many enemies there are.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class PlayerField {
+    /** Width of a field cell in pixels */
+    public static final double CELL_SIZE = 16;
+    /** Distance of cells the player cannot be reached from */
+    public static final double UNREACHABLE = Double.POSITIVE_INFINITY;
+
+    private final int cellCount;
+    // Number of damaging obstacles covering each cell
+    private final int[] blocked;
+
+    private int playerCell = -1;
+    // Nearest blocked cell left of the player, or -1
+    private int leftBlock = -1;
+    // Nearest blocked cell right of the player, or cellCount
+    private int rightBlock;
+    private double playerX;
+    private boolean obstaclesChanged = true;
+    private long rebuilds = 0;
+
+    /**
+     * Constructs a field covering a level.
+     *
+     * @param levelWidth The width of the level in pixels.
+     */
+    public PlayerField(double levelWidth) {
+        cellCount = Math.max(1, (int) Math.ceil(levelWidth / CELL_SIZE) + 1);
+        blocked = new int[cellCount];
+        rightBlock = cellCount;
+    }
+
+    /**
+     * Marks the cells covered by damaging ground obstacles as blocked.
+     * Moving platforms and other harmless obstacles do not block the way.
+     *
+     * @param obstacles The obstacles of the level.
+     */
+    public void setObstacles(List<Obstacle> obstacles) {
+        Arrays.fill(blocked, 0);
+        for (Obstacle obstacle : obstacles) {
+            block(obstacle, obstacle.getX(), 1);
+        }
+        obstaclesChanged = true;
+    }
+
+    /**
+     * Marks the cells covered by one more obstacle as blocked, if it is damaging.
+     *
+     * @param obstacle The obstacle added to the level.
+     */
+    public void addObstacle(Obstacle obstacle) {
+        block(obstacle, obstacle.getX(), 1);
+    }
+
+    /**
+     * Moves the cells blocked by an obstacle that has been moved.
+     *
+     * @param obstacle The obstacle, at its new position.
+     * @param oldX The x-coordinate it was moved from.
+     */
+    public void moveObstacle(Obstacle obstacle, double oldX) {
+        block(obstacle, oldX, -1);
+        block(obstacle, obstacle.getX(), 1);
+    }
+
+    private void block(Obstacle obstacle, double x, int change) {
+        if (!obstacle.isDamaging()) return;
+        int first = cellOf(x);
+        int last = cellOf(x + obstacle.getWidth());
+        for (int c = first; c <= last; c++) {
+            blocked[c] += change;
+        }
+        obstaclesChanged = true;
+    }
+
+    /**
+     * Records the player's position for this tick. Crossing into another cell
+     * moves the nearest blocked cells by checking only the cells crossed, and
+     * a change of obstacles looks for them again from the player.
+     *
+     * @param x The x-coordinate of the player.
+     */
+    public void update(double x) {
+        playerX = x;
+
+        int cell = cellOf(x);
+        if (obstaclesChanged || playerCell < 0) {
+            playerCell = cell;
+            obstaclesChanged = false;
+            leftBlock = findBlock(cell - 1, -1);
+            rightBlock = findBlock(cell + 1, 1);
+            rebuilds++;
+        } else if (cell > playerCell) {
+            // The cells walked past (including the one left) now lie to the left
+            for (int c = cell - 1; c >= playerCell; c--) {
+                if (blocked[c] != 0) {
+                    leftBlock = c;
+                    break;
+                }
+            }
+            if (rightBlock <= cell) rightBlock = findBlock(cell + 1, 1);
+            playerCell = cell;
+        } else if (cell < playerCell) {
+            for (int c = cell + 1; c <= playerCell; c++) {
+                if (blocked[c] != 0) {
+                    rightBlock = c;
+                    break;
+                }
+            }
+            if (leftBlock >= cell) leftBlock = findBlock(cell - 1, -1);
+            playerCell = cell;
+        }
+    }
+
+    /**
+     * Gets the walking distance from a point to the player.
+     *
+     * @param x The x-coordinate of the point.
+     * @return The distance in pixels, or {@link #UNREACHABLE} if an obstacle is in the way.
+     */
+    public double getDistance(double x) {
+        return isReachable(x) ? Math.abs(playerX - x) : UNREACHABLE;
+    }
+
+    /**
+     * Gets the direction to walk from a point to reach the player.
+     *
+     * @param x The x-coordinate of the point.
+     * @return 1 to walk right, -1 to walk left, or 0 if the player is in the same cell or unreachable.
+     */
+    public int getDirection(double x) {
+        int cell = cellOf(x);
+        if (cell <= leftBlock || cell >= rightBlock) return 0;
+        return Integer.compare(playerCell, cell);
+    }
+
+    /**
+     * Checks if the player can be reached from a point without crossing an obstacle.
+     *
+     * @param x The x-coordinate of the point.
+     * @return True if the player is reachable.
+     */
+    public boolean isReachable(double x) {
+        int cell = cellOf(x);
+        return cell > leftBlock && cell < rightBlock;
+    }
+
+    public double getPlayerX() { return playerX; }
+    public long getRebuildCount() { return rebuilds; }
+
+    /**
+     * Finds the first blocked cell from a cell onwards in one direction.
+     * The player's own cell is never searched, so it counts as open,
+     * since the player may be jumping over an obstacle.
+     *
+     * @return The blocked cell, or -1 or cellCount if the way is clear to the level's edge.
+     */
+    private int findBlock(int from, int step) {
+        int c = from;
+        while (c >= 0 && c < cellCount && blocked[c] == 0) {
+            c += step;
+        }
+        return c;
+    }
+
+    private int cellOf(double x) {
+        int cell = (int) (x / CELL_SIZE);
+        return cell < 0 ? 0 : (cell >= cellCount ? cellCount - 1 : cell);
+    }
+}
@@ -0,0 +1,236 @@
+/**
+ * Holds a target frame time by stepping quality settings down and up.
+ * Every frame the governor looks at two things: how long the game spent
+ * updating and drawing, and how long the frame actually took from one pulse to
+ * the next. Frames are timed against the target or against the display's own
+ * pulse, whichever is slower, since a display that refreshes below the target
+ * rate cannot be helped by lowering quality.
+ * When the work or the frame keeps running over budget, it moves one
+ * step down a fixed ladder of settings. The ladder halves the particle cap,
+ * lowers the level of detail and the HUD refresh rate, turns off the parallax
+ * dunes, and finally lowers the render scale. Once the work fits comfortably in
+ * the budget for a while, it moves one step back up.
+ * Every time a step up has to be undone soon after, the wait before the next
+ * step up doubles, so the settings do not flicker between two steps.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class QualityGovernor {
+    /** Number of steps on the quality ladder, step 0 being the best */
+    public static final int STEPS = 6;
+
+    // The quality ladder: one column per step
+    private static final double[] PARTICLE_SHARE = {1.0, 0.5, 0.5, 0.25, 0.25, 0.0};
+    private static final int[] DETAIL = {
+        RenderQuality.FULL, RenderQuality.FULL, RenderQuality.REDUCED,
+        RenderQuality.REDUCED, RenderQuality.REDUCED, RenderQuality.MINIMAL};
+    private static final int[] HUD_RATE = {0, 0, 20, 10, 10, 5};
+    private static final boolean[] PARALLAX = {true, true, true, false, false, false};
+    private static final double[] RENDER_SCALE = {1.0, 1.0, 1.0, 1.0, 0.75, 0.5};
+
+    // Frames are over budget when they take this much longer than the target
+    private static final double JITTER = 1.15;
+    // Share of the target the update and draw work may use before it is over budget
+    private static final double WORK_LIMIT = 0.8;
+    // Share of the target the work must stay under before quality may rise
+    private static final double HEADROOM = 0.5;
+
+    // Frames in a row over budget before stepping down
+    private static final int DROP_FRAMES = 20;
+    // Frames in a row with headroom before stepping up, doubled after each relapse
+    private static final int RECOVER_FRAMES = 180;
+    private static final int MAX_RECOVER_FRAMES = 3600;
+    // A step down this soon after a step up counts as a relapse
+    private static final int RELAPSE_FRAMES = 600;
+    // Longer gaps between frames are pauses, not slow frames
+    private static final long STALL_NANOS = 250_000_000L;
+    // How fast the display pulse estimate creeps up toward longer frames
+    private static final double PULSE_DRIFT = 0.001;
+
+    private GameView view;
+    private ParticleSystem particles;
+    private GameViewport viewport;
+    private UIManager uiManager;
+
+    private long targetNanos;
+    private boolean adaptive = true;
+    private int step = 0;
+    private volatile long updateNanos = 0;
+    private long lastFrame = 0;
+    private double averageInterval = 0;
+    private double pulseNanos = 0;
+    private double averageWork = 0;
+    private int overBudget = 0;
+    private int withinBudget = 0;
+    private int recoverFrames = RECOVER_FRAMES;
+    private int framesSinceRise = Integer.MAX_VALUE;
+    private int drops = 0;
+
+    /**
+     * Constructs a governor for a target frame rate.
+     *
+     * @param targetFps The frame rate to hold.
+     */
+    public QualityGovernor(double targetFps) {
+        setTargetFps(targetFps);
+    }
+
+    /**
+     * Sets what the governor controls. Any of them may be null.
+     * Applies the current step straight away.
+     *
+     * @param view The view whose level of detail and parallax are set.
+     * @param particles The particle system whose cap is set.
+     * @param viewport The viewport whose render scale is lowered.
+     * @param uiManager The UI manager whose HUD refresh rate is set.
+     */
+    public void control(GameView view, ParticleSystem particles, GameViewport viewport, UIManager uiManager) {
+        this.view = view;
+        this.particles = particles;
+        this.viewport = viewport;
+        this.uiManager = uiManager;
+        apply();
+    }
+
+    /**
+     * Sets the frame rate to hold, for example the capped simulation rate.
+     *
+     * @param targetFps The frame rate to hold.
+     */
+    public void setTargetFps(double targetFps) {
+        targetNanos = (long) (1_000_000_000L / targetFps);
+    }
+
+    /**
+     * Records how long the last simulation step took.
+     * May be called from the simulation thread.
+     *
+     * @param nanos The time spent updating, in nanoseconds.
+     */
+    public void recordUpdate(long nanos) {
+        updateNanos = nanos;
+    }
+
+    /**
+     * Records a drawn frame and steps the quality if needed.
+     * Must be called on the JavaFX application thread.
+     *
+     * @param now The time the frame began, in nanoseconds.
+     * @param renderNanos The time spent building and drawing the frame, in nanoseconds.
+     */
+    public void endFrame(long now, long renderNanos) {
+        long interval = lastFrame == 0 ? 0 : now - lastFrame;
+        lastFrame = now;
+        if (interval <= 0 || interval > STALL_NANOS) {
+            overBudget = 0;
+            withinBudget = 0;
+            return;
+        }
+
+        long work = updateNanos + renderNanos;
+        averageInterval = averageInterval == 0 ? interval : averageInterval * 0.9 + interval * 0.1;
+        averageWork = averageWork == 0 ? work : averageWork * 0.9 + work * 0.1;
+        // The fastest recent frame is as fast as the display goes. It follows
+        // shorter frames at once and longer ones only slowly, so slow frames
+        // from too much work still count against it.
+        if (pulseNanos == 0 || interval < pulseNanos) {
+            pulseNanos = interval;
+        } else {
+            pulseNanos += (interval - pulseNanos) * PULSE_DRIFT;
+        }
+        if (framesSinceRise < Integer.MAX_VALUE) framesSinceRise++;
+        if (!adaptive) return;
+
+        boolean slowFrames = averageInterval > Math.max(targetNanos, pulseNanos) * JITTER;
+        if (slowFrames || averageWork > targetNanos * WORK_LIMIT) {
+            withinBudget = 0;
+            if (++overBudget >= DROP_FRAMES && step < STEPS - 1) {
+                step++;
+                drops++;
+                overBudget = 0;
+                if (framesSinceRise < RELAPSE_FRAMES) {
+                    recoverFrames = Math.min(recoverFrames * 2, MAX_RECOVER_FRAMES);
+                }
+                apply();
+            }
+        } else {
+            overBudget = 0;
+            if (averageWork < targetNanos * HEADROOM) {
+                if (++withinBudget >= recoverFrames && step > 0) {
+                    step--;
+                    withinBudget = 0;
+                    framesSinceRise = 0;
+                    apply();
+                }
+            } else {
+                withinBudget = 0;
+            }
+            if (framesSinceRise >= MAX_RECOVER_FRAMES) {
+                // Stable for long enough, forget earlier relapses
+                recoverFrames = RECOVER_FRAMES;
+            }
+        }
+    }
+
+    /**
+     * Turns automatic stepping on or off. When off, the current step is kept.
+     *
+     * @param adaptive True to follow the frame-time budget.
+     */
+    public void setAdaptive(boolean adaptive) {
+        this.adaptive = adaptive;
+        overBudget = 0;
+        withinBudget = 0;
+    }
+
+    /**
+     * Moves to a step of the quality ladder directly.
+     *
+     * @param newStep The step, from 0 for the best quality to STEPS - 1.
+     */
+    public void setStep(int newStep) {
+        step = Math.max(0, Math.min(STEPS - 1, newStep));
+        apply();
+    }
+
+    /**
+     * Applies the settings of the current step to everything controlled.
+     */
+    private void apply() {
+        if (view != null) {
+            view.getQuality().setLevel(DETAIL[step]);
+            view.setParallax(PARALLAX[step]);
+        }
+        if (particles != null) {
+            particles.setLimit((int) (particles.getCapacity() * PARTICLE_SHARE[step]));
+        }
+        if (viewport != null) {
+            viewport.setQualityScale(RENDER_SCALE[step]);
+        }
+        if (uiManager != null) {
+            uiManager.setHudRefreshRate(HUD_RATE[step]);
+        }
+    }
+
+    /**
+     * Describes the settings of the current step.
+     *
+     * @return A short description such as "detail reduced, parallax off, particles 25%".
+     */
+    public String describeStep() {
+        return String.format("detail %s, parallax %s, particles %.0f%%, scale %.0f%%, HUD %s",
+            RenderQuality.getName(DETAIL[step]), PARALLAX[step] ? "on" : "off",
+            PARTICLE_SHARE[step] * 100, RENDER_SCALE[step] * 100,
+            HUD_RATE[step] > 0 ? HUD_RATE[step] + " Hz" : "every frame");
+    }
+
+    public int getStep() { return step; }
+    public boolean isAdaptive() { return adaptive; }
+    public long getTargetNanos() { return targetNanos; }
+    public double getAverageFrameNanos() { return averageInterval; }
+    public double getPulseNanos() { return pulseNanos; }
+    public double getAverageWorkNanos() { return averageWork; }
+    public int getDrops() { return drops; }
+    public int getRecoverFrames() { return recoverFrames; }
+}
@@ -0,0 +1,80 @@
+/**
+ * A single draw request in a render list.
+ * Holds everything needed to draw one entity for one frame, so the drawing side
+ * never has to read live game objects. Commands are pooled by their render list
+ * and must not be changed after the list has been published.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class RenderCommand {
+    /**
+     * The kinds of entity a command can draw.
+     */
+    public enum Kind {
+        PLAYER, GHOST, SCORPION, SNAKE, VULTURE, SPIKE, MOVING_PLATFORM, COIN, FLAG, DESERT_ELEMENT, BACKGROUND
+    }
+
+    /** Player variant flag: the player is playing the death animation */
+    public static final int PLAYER_DYING = 1;
+    /** Player variant flag: the player is running or jumping */
+    public static final int PLAYER_MOVING = 2;
+    /** Player variant flag: the player faces right */
+    public static final int PLAYER_FACING_RIGHT = 4;
+
+    private Kind kind;
+    private int variant;
+    private double x, y, width, height;
+    private double frame;
+    private double angle;
+    private double alpha;
+
+    /**
+     * Sets the kind and bounds of the command and resets all animation values.
+     *
+     * @param kind The kind of entity to draw.
+     * @param x The x-coordinate of the entity.
+     * @param y The y-coordinate of the entity.
+     * @param width The width of the entity.
+     * @param height The height of the entity.
+     */
+    public void set(Kind kind, double x, double y, double width, double height) {
+        this.kind = kind;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.variant = 0;
+        this.frame = 0;
+        this.angle = 0;
+        this.alpha = 1.0;
+    }
+
+    /**
+     * Copies every value from another command.
+     *
+     * @param other The command to copy.
+     */
+    public void copyFrom(RenderCommand other) {
+        set(other.kind, other.x, other.y, other.width, other.height);
+        variant = other.variant;
+        frame = other.frame;
+        angle = other.angle;
+        alpha = other.alpha;
+    }
+
+    public Kind getKind() { return kind; }
+    public int getVariant() { return variant; }
+    public double getX() { return x; }
+    public double getY() { return y; }
+    public double getWidth() { return width; }
+    public double getHeight() { return height; }
+    public double getFrame() { return frame; }
+    public double getAngle() { return angle; }
+    public double getAlpha() { return alpha; }
+
+    public void setVariant(int variant) { this.variant = variant; }
+    public void setFrame(double frame) { this.frame = frame; }
+    public void setAngle(double angle) { this.angle = angle; }
+    public void setAlpha(double alpha) { this.alpha = alpha; }
+}
@@ -0,0 +1,84 @@
+/**
+ * The draw commands for one frame, together with the camera position they were built for
+ * and the visible particles.
+ * Commands are pooled: a list keeps the command objects it has handed out and reuses
+ * them for the next frame, so building a frame does not allocate once the pool has grown
+ * to the largest frame seen.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class RenderList {
+    private RenderCommand[] commands = new RenderCommand[0];
+    private final ParticleFrame particles = new ParticleFrame(1024);
+    private int count = 0;
+    private double cameraX;
+    private long tick;
+    private Terrain terrain = Terrain.FLAT;
+
+    /**
+     * Constructs a render list with room for the given number of commands.
+     *
+     * @param initialCapacity The number of commands to preallocate.
+     */
+    public RenderList(int initialCapacity) {
+        grow(initialCapacity);
+    }
+
+    /**
+     * Empties the list for a new frame.
+     *
+     * @param cameraX The camera x-coordinate the frame is drawn from.
+     * @param tick The simulation tick the frame shows.
+     */
+    public void reset(double cameraX, long tick) {
+        this.count = 0;
+        this.particles.reset();
+        this.cameraX = cameraX;
+        this.tick = tick;
+    }
+
+    /**
+     * Hands out the next pooled command, growing the pool if needed.
+     *
+     * @return A command to fill in.
+     */
+    public RenderCommand next() {
+        if (count == commands.length) {
+            grow(commands.length * 2 + 16);
+        }
+        return commands[count++];
+    }
+
+    /**
+     * Drops the most recently handed out command, for objects that turn out to draw nothing.
+     */
+    public void discardLast() {
+        if (count > 0) count--;
+    }
+
+    private void grow(int capacity) {
+        RenderCommand[] larger = new RenderCommand[capacity];
+        System.arraycopy(commands, 0, larger, 0, commands.length);
+        for (int i = commands.length; i < capacity; i++) {
+            larger[i] = new RenderCommand();
+        }
+        commands = larger;
+    }
+
+    public RenderCommand get(int index) { return commands[index]; }
+    public int size() { return count; }
+    public double getCameraX() { return cameraX; }
+    public Terrain getTerrain() { return terrain; }
+    
+    /**
+     * Sets the ground of the level the frame shows.
+     * 
+     * @param terrain The level's ground.
+     */
+    public void setTerrain(Terrain terrain) {
+        this.terrain = terrain;
+    }
+    public ParticleFrame getParticles() { return particles; }
+    public long getTick() { return tick; }
+}
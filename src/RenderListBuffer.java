@@ -0,0 +1,78 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free triple buffer handing render lists from the simulation to the drawing thread.
+ * The simulation always owns one list to write into, the drawing thread always owns one
+ * list to read from, and the third list holds the latest published frame. Publishing and
+ * acquiring are single atomic swaps of the middle list, so neither side ever waits for
+ * the other: a slow draw just skips frames, and a slow simulation just redraws the last one.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class RenderListBuffer {
+    private static final int INDEX_MASK = 3;
+    private static final int FRESH = 4;
+
+    private final RenderList[] lists = new RenderList[3];
+
+    // Index of the published list, plus the FRESH bit when it has not been acquired yet
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int writeIndex = 0;
+    private int readIndex = 2;
+
+    /**
+     * Constructs a triple buffer of render lists.
+     *
+     * @param initialCapacity The number of commands to preallocate in each list.
+     */
+    public RenderListBuffer(int initialCapacity) {
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new RenderList(initialCapacity);
+        }
+    }
+
+    /**
+     * Gets the list the simulation should fill for the next frame.
+     * Only the simulation thread may call this.
+     *
+     * @return The list owned by the writer.
+     */
+    public RenderList getWriteList() {
+        return lists[writeIndex];
+    }
+
+    /**
+     * Publishes the write list as the latest frame and takes the previous middle list
+     * back as the next write list. Only the simulation thread may call this.
+     */
+    public void publish() {
+        int previous = middle.getAndSet(writeIndex | FRESH);
+        writeIndex = previous & INDEX_MASK;
+    }
+
+    /**
+     * Checks whether a frame was published since the last acquire.
+     * Only the drawing thread may rely on the answer.
+     *
+     * @return True if acquireLatest would return a new frame.
+     */
+    public boolean hasNewFrame() {
+        return (middle.get() & FRESH) != 0;
+    }
+
+    /**
+     * Gets the latest published frame. If a new frame was published since the last call
+     * it is swapped in, otherwise the previously acquired frame is returned again.
+     * Only the drawing thread may call this.
+     *
+     * @return The most recent complete render list.
+     */
+    public RenderList acquireLatest() {
+        if ((middle.get() & FRESH) != 0) {
+            int previous = middle.getAndSet(readIndex);
+            readIndex = previous & INDEX_MASK;
+        }
+        return lists[readIndex];
+    }
+}
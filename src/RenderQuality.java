@@ -0,0 +1,92 @@
+/**
+ * Chooses how much detail entities are drawn with.
+ * Each entity's level of detail depends on how large it appears on screen and
+ * on a global quality level. Below full quality, details such as text, strokes
+ * and highlights are left out; at minimal quality entities are drawn as single
+ * rectangles. The quality level is set by the {@link QualityGovernor} when the
+ * game falls behind its frame-time budget, or fixed by hand.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class RenderQuality {
+    /** Entities are drawn as a single rectangle in their main colour */
+    public static final int MINIMAL = 0;
+    /** Entities are drawn without text, strokes and highlights */
+    public static final int REDUCED = 1;
+    /** Entities are drawn with every detail */
+    public static final int FULL = 2;
+    /** Number of detail levels */
+    public static final int LEVELS = 3;
+
+    private static final String[] NAMES = {"minimal", "reduced", "full"};
+
+    // Entities smaller than these on screen lose detail whatever the quality level
+    private static final double MINIMAL_SIZE = 8;
+    private static final double REDUCED_SIZE = 16;
+
+    private volatile int level = FULL;
+    private final int[] drawn = new int[LEVELS];
+
+    /**
+     * Clears the per-frame counts of drawn entities.
+     */
+    public void beginFrame() {
+        java.util.Arrays.fill(drawn, 0);
+    }
+
+    /**
+     * Chooses the level of detail for an entity and counts it.
+     *
+     * @param screenSize The larger of the entity's width and height on screen in pixels.
+     * @return The level of detail to draw the entity with.
+     */
+    public int detailFor(double screenSize) {
+        int detail = level;
+        if (screenSize < MINIMAL_SIZE) {
+            detail = MINIMAL;
+        } else if (screenSize < REDUCED_SIZE && detail > REDUCED) {
+            detail = REDUCED;
+        }
+        drawn[detail]++;
+        return detail;
+    }
+
+    /**
+     * Sets the quality level.
+     *
+     * @param level One of MINIMAL, REDUCED or FULL.
+     */
+    public void setLevel(int level) {
+        this.level = Math.max(MINIMAL, Math.min(FULL, level));
+    }
+
+    /**
+     * Gets the quality level.
+     *
+     * @return One of MINIMAL, REDUCED or FULL.
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the name of a level of detail.
+     *
+     * @param detail One of MINIMAL, REDUCED or FULL.
+     * @return The name of the level.
+     */
+    public static String getName(int detail) {
+        return NAMES[detail];
+    }
+
+    /**
+     * Gets how many entities were drawn with a level of detail since the frame began.
+     *
+     * @param detail One of MINIMAL, REDUCED or FULL.
+     * @return The number of entities.
+     */
+    public int getDrawn(int detail) {
+        return drawn[detail];
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Immutable record of one finished run, as stored on the leaderboard.
+ * Holds the final score, the last level reached, the level generator seed,
+ * the time the run ended and the completion time of every finished level.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class RunRecord implements Comparable<RunRecord> {
+    private final int score;
+    private final int levelReached;
+    private final long seed;
+    private final long timestamp;
+    private final float[] levelTimes;
+
+    /**
+     * Constructs a new run record.
+     *
+     * @param score The final score of the run.
+     * @param levelReached The last level the player reached.
+     * @param seed The level generator seed the run was played with.
+     * @param timestamp The time the run ended, in milliseconds since the epoch.
+     * @param levelTimes The completion time in seconds of each finished level.
+     */
+    public RunRecord(int score, int levelReached, long seed, long timestamp, float[] levelTimes) {
+        this.score = score;
+        this.levelReached = levelReached;
+        this.seed = seed;
+        this.timestamp = timestamp;
+        this.levelTimes = levelTimes.clone();
+    }
+
+    /**
+     * Orders records from best to worst: higher scores first,
+     * then further levels, then earlier runs.
+     *
+     * @param other The record to compare with.
+     * @return A negative value if this record ranks above the other.
+     */
+    @Override
+    public int compareTo(RunRecord other) {
+        if (score != other.score) return Integer.compare(other.score, score);
+        if (levelReached != other.levelReached) return Integer.compare(other.levelReached, levelReached);
+        return Long.compare(timestamp, other.timestamp);
+    }
+
+    public int getScore() { return score; }
+    public int getLevelReached() { return levelReached; }
+    public long getSeed() { return seed; }
+    public long getTimestamp() { return timestamp; }
+    public float[] getLevelTimes() { return levelTimes.clone(); }
+    public int getLevelCount() { return levelTimes.length; }
+
+    /**
+     * Gets the completion time of one finished level.
+     *
+     * @param index The zero-based index of the level within the run.
+     * @return The level time in seconds.
+     */
+    public float getLevelTime(int index) {
+        return levelTimes[index];
+    }
+}
@@ -0,0 +1,341 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Saves an in-progress run to a compact binary file and restores it.
+ * The file holds the game clock, the score and the level times, the position
+ * of the level generator, the player, the seed of the current level's ground
+ * and every object of the level.
+ * Each object is stored as a type code, where it was spawned and what it was
+ * built with, followed by the same state values that rewinding captures, such
+ * as an enemy's attack phase, a coin's collected flag or a platform's
+ * position. Loading builds the objects back from this record, so the level is
+ * restored exactly as it was instead of being generated again.
+ * The file starts with a magic number and a format version. Saving writes a
+ * temporary file first and moves it into place, so a crash never leaves a
+ * half-written save behind.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class RunSave {
+    private static final int MAGIC = 0x424D5356; // "BMSV"
+    private static final int VERSION = 2;
+
+    // Type codes of level objects
+    private static final byte SCORPION = 0;
+    private static final byte SNAKE = 1;
+    private static final byte VULTURE = 2;
+    private static final byte BEHAVIOUR_ENEMY = 3;
+    private static final byte SPIKE = 4;
+    private static final byte MOVING_PLATFORM = 5;
+    private static final byte DESERT_ELEMENT = 6;
+    private static final byte COIN = 7;
+    private static final byte FLAG = 8;
+
+    /**
+     * Writes a run to a file.
+     *
+     * @param file The file to write.
+     * @param level The level being played.
+     * @param player The player.
+     * @param scoreManager The score manager of the game.
+     * @param clock The game clock.
+     * @throws IOException If the file cannot be written, or an object cannot be saved.
+     */
+    public static void write(Path file, Level level, Player player, ScoreManager scoreManager,
+                             GameClock clock) throws IOException {
+        List<GameObject> objects = level.getAllObjects();
+        byte[] generator = LevelFactory.getGeneratorState();
+        float[] levelTimes = scoreManager.getLevelTimes();
+
+        int size = 4 + 4 + 8 + 8 + 8 + 4 + generator.length
+            + stateBytes(scoreManager.getStateSize()) + 4 + levelTimes.length * 4
+            + 4 + 8 + 8 + 4 + stateBytes(player.getStateSize());
+        for (GameObject obj : objects) {
+            size += recordBytes(obj) + stateBytes(obj.getStateSize());
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        double[] state = new double[64];
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(clock.getTick());
+        buffer.putDouble(clock.getElapsedSeconds());
+        buffer.putLong(LevelFactory.getSeed());
+        buffer.putInt(generator.length);
+        buffer.put(generator);
+
+        state = putState(buffer, state, scoreManager.getStateSize(),
+            (values, offset) -> scoreManager.writeState(values, offset));
+        buffer.putInt(levelTimes.length);
+        for (float time : levelTimes) {
+            buffer.putFloat(time);
+        }
+
+        buffer.putInt(level.getLevelNumber());
+        buffer.putDouble(level.getLevelWidth());
+        buffer.putLong(level.getTerrain().getSeed());
+        buffer.putInt(objects.size());
+        for (GameObject obj : objects) {
+            putRecord(buffer, obj);
+            state = putState(buffer, state, obj.getStateSize(), obj::writeState);
+        }
+        putState(buffer, state, player.getStateSize(), player::writeState);
+        buffer.flip();
+
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a run from a file. The whole file is read and checked before
+     * anything is changed, so a bad file leaves the running game untouched.
+     *
+     * @param file The file to read.
+     * @param player A new player, which receives the saved player state.
+     * @param scoreManager The score manager of the game, which receives the saved score.
+     * @param clock The game clock, which is set to the saved time.
+     * @return The restored level.
+     * @throws IOException If the file cannot be read or is not a saved run of this version.
+     */
+    public static Level read(Path file, Player player, ScoreManager scoreManager, GameClock clock)
+            throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE) throw new IOException("Save file too large");
+            buffer = ByteBuffer.allocate((int) length);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading until the buffer is full
+            }
+            buffer.flip();
+        }
+
+        try {
+            if (buffer.getInt() != MAGIC) throw new IOException("Not a saved run");
+            int version = buffer.getInt();
+            if (version != VERSION) throw new IOException("Unsupported save version " + version);
+
+            long tick = buffer.getLong();
+            double elapsed = buffer.getDouble();
+            long seed = buffer.getLong();
+            byte[] generator = new byte[buffer.getInt()];
+            buffer.get(generator);
+
+            double[] scoreState = getState(buffer, scoreManager.getStateSize());
+            float[] levelTimes = new float[buffer.getInt()];
+            for (int i = 0; i < levelTimes.length; i++) {
+                levelTimes[i] = buffer.getFloat();
+            }
+
+            Level level = new Level(buffer.getInt());
+            level.setLevelWidth(buffer.getDouble());
+            level.setTerrain(Terrain.generate(buffer.getLong(), level.getLevelWidth()));
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                GameObject obj = getRecord(buffer);
+                addToLevel(level, obj);
+                // Read after adding, since data-driven enemies keep their state in their batch
+                obj.readState(getState(buffer, obj.getStateSize()), 0);
+            }
+            double[] playerState = getState(buffer, player.getStateSize());
+
+            // Everything was read, now apply it
+            LevelFactory.setGeneratorState(seed, generator);
+            player.readState(playerState, 0);
+            scoreManager.readState(scoreState, 0);
+            scoreManager.setLevelTimes(levelTimes);
+            clock.setTime(tick, elapsed);
+            return level;
+        } catch (java.nio.BufferUnderflowException | IllegalArgumentException
+                 | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("Truncated or corrupt save file", e);
+        }
+    }
+
+    /**
+     * Saves a run to a temporary file and reads it back into throwaway objects.
+     * The first save and load of a session are much slower than the rest while
+     * the classes involved are loaded and compiled, so doing this once at
+     * startup keeps the first autosave from causing a hitch.
+     *
+     * @param level The level being played.
+     * @param player The player.
+     * @param scoreManager The score manager of the game.
+     * @param clock The game clock.
+     */
+    public static void warmUp(Level level, Player player, ScoreManager scoreManager, GameClock clock) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("bedouin-madness", ".sav");
+            write(file, level, player, scoreManager, clock);
+            GameClock scratchClock = new GameClock();
+            read(file, new Player(0, 0, scratchClock), new ScoreManager(scratchClock), scratchClock);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not warm up saving: " + e.getMessage());
+        } finally {
+            try {
+                if (file != null) Files.deleteIfExists(file);
+            } catch (IOException e) {
+                System.err.println("Could not delete " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gets the size of an object's record: its type code, spawn point, size,
+     * variant and, for data-driven enemies, the name of its behaviour.
+     *
+     * @param obj The object.
+     * @return The most bytes its record takes.
+     */
+    static int recordBytes(GameObject obj) {
+        int size = 1 + 8 + 8 + 8 + 8 + 1;
+        if (obj instanceof BehaviourEnemy) {
+            size += 2 + ((BehaviourEnemy) obj).getBehaviour().getName().length() * 3;
+        }
+        return size;
+    }
+
+    /**
+     * Writes the record an object can be built back from.
+     *
+     * @param buffer The buffer to write to.
+     * @param obj The object.
+     * @throws IOException If the object is of a type that cannot be saved.
+     */
+    static void putRecord(ByteBuffer buffer, GameObject obj) throws IOException {
+        byte type = typeOf(obj);
+        buffer.put(type);
+        buffer.putDouble(obj.getInitialX());
+        buffer.putDouble(obj.getInitialY());
+        buffer.putDouble(obj.getWidth());
+        buffer.putDouble(obj.getHeight());
+        if (type == DESERT_ELEMENT) {
+            buffer.put((byte) ((DesertElement) obj).getType().ordinal());
+        } else if (type == COIN) {
+            buffer.put((byte) ((Coin) obj).getType().ordinal());
+        } else {
+            buffer.put((byte) 0);
+        }
+        if (type == BEHAVIOUR_ENEMY) {
+            byte[] name = ((BehaviourEnemy) obj).getBehaviour().getName().getBytes(StandardCharsets.UTF_8);
+            buffer.putShort((short) name.length);
+            buffer.put(name);
+        }
+    }
+
+    /**
+     * Builds an object back from its record, as it was when spawned.
+     *
+     * @param buffer The buffer to read from.
+     * @return The new object.
+     * @throws IOException If the record is not valid.
+     */
+    static GameObject getRecord(ByteBuffer buffer) throws IOException {
+        byte type = buffer.get();
+        double x = buffer.getDouble();
+        double y = buffer.getDouble();
+        double width = buffer.getDouble();
+        double height = buffer.getDouble();
+        int variant = buffer.get();
+
+        switch (type) {
+            case SCORPION: return new Scorpion(x, y);
+            case SNAKE: return new Snake(x, y);
+            case VULTURE: return new Vulture(x, y);
+            case BEHAVIOUR_ENEMY: {
+                byte[] name = new byte[buffer.getShort()];
+                buffer.get(name);
+                String behaviourName = new String(name, StandardCharsets.UTF_8);
+                EnemyBehaviour behaviour = BehaviourLibrary.getDefault().get(behaviourName);
+                if (behaviour == null) throw new IOException("Unknown enemy behaviour " + behaviourName);
+                return new BehaviourEnemy(behaviour, x, y);
+            }
+            case SPIKE: return new Spike(x, y);
+            case MOVING_PLATFORM: return new MovingPlatform(x, y, width, height);
+            case DESERT_ELEMENT: return new DesertElement(x, y, width, height, ElementType.values()[variant]);
+            case COIN: return new Coin(x, y, Coin.CoinType.values()[variant]);
+            case FLAG: return new Flag(x, y);
+            default: throw new IOException("Unknown object type " + type);
+        }
+    }
+
+    /**
+     * Adds an object to the part of a level it belongs in.
+     *
+     * @param level The level.
+     * @param obj The object.
+     */
+    static void addToLevel(Level level, GameObject obj) {
+        if (obj instanceof Enemy) {
+            level.addEnemy((Enemy) obj);
+        } else if (obj instanceof Obstacle) {
+            level.addObstacle((Obstacle) obj);
+        } else if (obj instanceof Coin) {
+            level.addCoin((Coin) obj);
+        } else if (obj instanceof Flag) {
+            level.setCompletionFlag(obj);
+        } else {
+            level.addEnvironmentObject(obj);
+        }
+    }
+
+    private static byte typeOf(GameObject obj) throws IOException {
+        if (obj instanceof Scorpion) return SCORPION;
+        if (obj instanceof Snake) return SNAKE;
+        if (obj instanceof Vulture) return VULTURE;
+        if (obj instanceof BehaviourEnemy) return BEHAVIOUR_ENEMY;
+        if (obj instanceof Spike) return SPIKE;
+        if (obj instanceof MovingPlatform) return MOVING_PLATFORM;
+        if (obj instanceof DesertElement) return DESERT_ELEMENT;
+        if (obj instanceof Coin) return COIN;
+        if (obj instanceof Flag) return FLAG;
+        throw new IOException("Cannot save a " + obj.getClass().getSimpleName());
+    }
+
+    /**
+     * Something that writes its state values into an array.
+     */
+    private interface StateWriter {
+        int writeState(double[] state, int offset);
+    }
+
+    private static double[] putState(ByteBuffer buffer, double[] state, int size, StateWriter writer) {
+        if (state.length < size) state = new double[size];
+        writer.writeState(state, 0);
+        buffer.put((byte) size);
+        for (int i = 0; i < size; i++) {
+            buffer.putDouble(state[i]);
+        }
+        return state;
+    }
+
+    private static double[] getState(ByteBuffer buffer, int expected) throws IOException {
+        int size = buffer.get() & 0xFF;
+        if (size != expected) throw new IOException("State of " + size + " values where " + expected + " were expected");
+        double[] state = new double[size];
+        for (int i = 0; i < size; i++) {
+            state[i] = buffer.getDouble();
+        }
+        return state;
+    }
+
+    private static int stateBytes(int size) {
+        return 1 + size * 8;
+    }
+}
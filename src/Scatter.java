@@ -0,0 +1,243 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Scatters level objects so that they keep a minimum spacing from each other
+ * and stay out of exclusion zones, giving an even, blue-noise spread instead
+ * of clumps. Each kind of object has its own spacing, checked only against
+ * objects of the same kind, so a coin may hang over a spike but two coins
+ * never overlap. Zones, such as the ground an enemy patrols or the area
+ * around the flag, keep out the kinds of objects they are set up for.
+ * Placing an object throws a few random candidates and keeps the first that
+ * fits, starting near the object's share of the area so a run of objects is
+ * laid out from left to right. Objects of a kind are kept in a grid with
+ * cells as wide as their spacing, so a candidate is only checked against the
+ * nine cells around it, and zones are kept in buckets along x. Each placement
+ * therefore costs the same however many objects there are, and a level is
+ * scattered in time linear in its number of objects.
+ * When a level is too crowded for the spacing, candidates are thrown over the
+ * whole area, then the spacing is halved for another round, and if that
+ * fails too the last candidate is used anyway, so a level always gets as many
+ * objects as it asks for.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class Scatter {
+    /** Collectible coins */
+    public static final int COIN = 0;
+    /** Spikes on the ground */
+    public static final int SPIKE = 1;
+    /** Cacti, rocks and dunes */
+    public static final int ELEMENT = 2;
+    /** Number of kinds of objects */
+    public static final int KINDS = 3;
+    /** Mask of every kind, for zones that keep everything out */
+    public static final int ALL = (1 << KINDS) - 1;
+
+    // Candidates thrown per round before the spacing is relaxed
+    private static final int ATTEMPTS = 12;
+    private static final double HEIGHT = GameView.WORLD_HEIGHT;
+    private static final double ZONE_BUCKET = 256;
+
+    private final Random random;
+    private final double[] spacing;
+    private final int[] columns;
+    private final int[] rows;
+    private final int[][] cellHeads;
+    private final double[][] xs;
+    private final double[][] ys;
+    private final int[][] nexts;
+    private final int[] counts = new int[KINDS];
+
+    private double[] zones = new double[5 * 16];
+    private int zoneCount = 0;
+    private final int[] bucketHeads;
+    private int[] entryZones = new int[32];
+    private int[] entryNexts = new int[32];
+    private int entryCount = 0;
+
+    private int relaxed = 0;
+    private int forced = 0;
+
+    /**
+     * Constructs a scatter for a level.
+     *
+     * @param width The width of the level.
+     * @param random The random numbers to place objects with.
+     * @param spacing The minimum distance between two objects of each kind,
+     *                indexed by kind.
+     */
+    public Scatter(double width, Random random, double[] spacing) {
+        this.random = random;
+        this.spacing = spacing.clone();
+        columns = new int[KINDS];
+        rows = new int[KINDS];
+        cellHeads = new int[KINDS][];
+        xs = new double[KINDS][16];
+        ys = new double[KINDS][16];
+        nexts = new int[KINDS][16];
+        for (int kind = 0; kind < KINDS; kind++) {
+            double cell = Math.max(1, this.spacing[kind]);
+            columns[kind] = (int) Math.ceil(width / cell) + 1;
+            rows[kind] = (int) Math.ceil(HEIGHT / cell) + 1;
+            cellHeads[kind] = new int[columns[kind] * rows[kind]];
+            Arrays.fill(cellHeads[kind], -1);
+        }
+        bucketHeads = new int[(int) Math.ceil(width / ZONE_BUCKET) + 1];
+        Arrays.fill(bucketHeads, -1);
+    }
+
+    /**
+     * Keeps some kinds of objects out of a rectangle.
+     *
+     * @param x The left edge of the zone.
+     * @param y The top edge of the zone.
+     * @param width The width of the zone.
+     * @param height The height of the zone.
+     * @param kinds The mask of kinds kept out, such as 1 << SPIKE, or ALL.
+     */
+    public void exclude(double x, double y, double width, double height, int kinds) {
+        if (zoneCount * 5 == zones.length) zones = Arrays.copyOf(zones, zones.length * 2);
+        int zone = zoneCount++;
+        zones[zone * 5] = x;
+        zones[zone * 5 + 1] = y;
+        zones[zone * 5 + 2] = x + width;
+        zones[zone * 5 + 3] = y + height;
+        zones[zone * 5 + 4] = kinds;
+        for (int bucket = bucketOf(x); bucket <= bucketOf(x + width); bucket++) {
+            if (entryCount == entryZones.length) {
+                entryZones = Arrays.copyOf(entryZones, entryCount * 2);
+                entryNexts = Arrays.copyOf(entryNexts, entryCount * 2);
+            }
+            entryZones[entryCount] = zone;
+            entryNexts[entryCount] = bucketHeads[bucket];
+            bucketHeads[bucket] = entryCount++;
+        }
+    }
+
+    /**
+     * Places one of a number of objects of a kind at a random spot in an
+     * area that keeps its spacing and is outside the zones for its kind.
+     * The objects are spread along the area in the order they are placed:
+     * each is first tried near its own share of the area, then anywhere in
+     * it, so they come out evenly spread and the grid cells checked are
+     * mostly ones just used.
+     *
+     * @param kind The kind of object, such as COIN.
+     * @param index Which of the objects this is, from 0.
+     * @param count How many objects of the kind are spread over the area.
+     * @param minX The leftmost x-coordinate of the spot.
+     * @param maxX The rightmost x-coordinate of the spot.
+     * @param minY The highest y-coordinate of the spot.
+     * @param maxY The lowest y-coordinate of the spot.
+     * @param spot Receives the x- and y-coordinates of the spot.
+     */
+    public void place(int kind, int index, int count, double minX, double maxX,
+                      double minY, double maxY, double[] spot) {
+        double share = (maxX - minX) / Math.max(1, count);
+        double x = 0;
+        double y = 0;
+        for (int round = 0; round < 3; round++) {
+            // Near the object's own share first, then anywhere, then anywhere at half the spacing
+            double left = round == 0 ? Math.max(minX, minX + (index - 1) * share) : minX;
+            double right = round == 0 ? Math.min(maxX, minX + (index + 2) * share) : maxX;
+            double distance = round < 2 ? spacing[kind] : spacing[kind] / 2;
+            for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+                x = left + random.nextDouble() * (right - left);
+                y = minY + random.nextDouble() * (maxY - minY);
+                if (!isExcluded(kind, x, y) && isClear(kind, x, y, distance)) {
+                    if (round == 2) relaxed++;
+                    add(kind, x, y, spot);
+                    return;
+                }
+            }
+        }
+        forced++;
+        add(kind, x, y, spot);
+    }
+
+    private boolean isExcluded(int kind, double x, double y) {
+        int bit = 1 << kind;
+        for (int entry = bucketHeads[bucketOf(x)]; entry >= 0; entry = entryNexts[entry]) {
+            int zone = entryZones[entry] * 5;
+            if (((int) zones[zone + 4] & bit) != 0
+                    && x >= zones[zone] && x <= zones[zone + 2]
+                    && y >= zones[zone + 1] && y <= zones[zone + 3]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isClear(int kind, double x, double y, double distance) {
+        int column = columnOf(kind, x);
+        int row = rowOf(kind, y);
+        int[] heads = cellHeads[kind];
+        double[] kindXs = xs[kind];
+        double[] kindYs = ys[kind];
+        int[] kindNexts = nexts[kind];
+        double limit = distance * distance;
+        // The distance is at most the cell size, so only the neighbouring cells can hold a conflict
+        for (int c = Math.max(0, column - 1); c <= Math.min(columns[kind] - 1, column + 1); c++) {
+            for (int r = Math.max(0, row - 1); r <= Math.min(rows[kind] - 1, row + 1); r++) {
+                for (int i = heads[c * rows[kind] + r]; i >= 0; i = kindNexts[i]) {
+                    double dx = kindXs[i] - x;
+                    double dy = kindYs[i] - y;
+                    if (dx * dx + dy * dy < limit) return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void add(int kind, double x, double y, double[] spot) {
+        int i = counts[kind]++;
+        if (i == xs[kind].length) {
+            xs[kind] = Arrays.copyOf(xs[kind], i * 2);
+            ys[kind] = Arrays.copyOf(ys[kind], i * 2);
+            nexts[kind] = Arrays.copyOf(nexts[kind], i * 2);
+        }
+        xs[kind][i] = x;
+        ys[kind][i] = y;
+        int cell = columnOf(kind, x) * rows[kind] + rowOf(kind, y);
+        nexts[kind][i] = cellHeads[kind][cell];
+        cellHeads[kind][cell] = i;
+        spot[0] = x;
+        spot[1] = y;
+    }
+
+    private int columnOf(int kind, double x) {
+        int column = (int) (x / Math.max(1, spacing[kind]));
+        return Math.max(0, Math.min(columns[kind] - 1, column));
+    }
+
+    private int rowOf(int kind, double y) {
+        int row = (int) (y / Math.max(1, spacing[kind]));
+        return Math.max(0, Math.min(rows[kind] - 1, row));
+    }
+
+    private int bucketOf(double x) {
+        return Math.max(0, Math.min(bucketHeads.length - 1, (int) (x / ZONE_BUCKET)));
+    }
+
+    /**
+     * Gets how many objects were placed at half their spacing because the
+     * level was too crowded.
+     *
+     * @return The number of relaxed placements.
+     */
+    public int getRelaxed() {
+        return relaxed;
+    }
+
+    /**
+     * Gets how many objects were placed without keeping their spacing or
+     * staying out of the zones, because no spot was found.
+     *
+     * @return The number of forced placements.
+     */
+    public int getForced() {
+        return forced;
+    }
+}
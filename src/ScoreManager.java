@@ -1,3 +1,6 @@
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Score Manager class that handles all scoring functionality in the game.
  * Tracks current level score, total score, and calculates time-based bonuses.
@@ -8,13 +11,26 @@
 public class ScoreManager {
     private int totalScore;
     private int currentScore;
-    private long levelStartTime;
+    private double levelStartTime;
     private boolean isDarkMode = false;
+    private GameClock clock;
+    private List<Float> levelTimes = new ArrayList<>();
 
     /**
      * Constructs a new ScoreManager with initial scores set to zero.
+     * Uses its own game clock, which must be advanced by the caller.
      */
     public ScoreManager() {
+        this(new GameClock());
+    }
+
+    /**
+     * Constructs a new ScoreManager that measures level time with the given clock.
+     * 
+     * @param clock The game clock advanced by the engine each tick.
+     */
+    public ScoreManager(GameClock clock) {
+        this.clock = clock;
         totalScore = 0;
         currentScore = 0;
     }
@@ -23,7 +39,16 @@ public class ScoreManager {
      * Starts the level timer for calculating time-based bonuses.
      */
     public void startLevelTimer() {
-        levelStartTime = System.currentTimeMillis();
+        levelStartTime = clock.getElapsedSeconds();
+    }
+    
+    /**
+     * Gets the simulated time spent in the current level.
+     * 
+     * @return The elapsed level time in seconds.
+     */
+    public double getLevelElapsedSeconds() {
+        return clock.getElapsedSeconds() - levelStartTime;
     }
 
     /**
@@ -33,7 +58,9 @@ public class ScoreManager {
      * @return The final score for the current level.
      */
     public int calculateLevelScore() {
-        long timeSpent = (System.currentTimeMillis() - levelStartTime) / 1000;
+        double elapsed = getLevelElapsedSeconds();
+        levelTimes.add((float) elapsed);
+        long timeSpent = (long) elapsed;
         int timeBonus = Math.max(0, 500 - (int)(timeSpent * 10)); 
         
         int levelScore = currentScore + timeBonus;
@@ -112,6 +139,79 @@ public class ScoreManager {
     public void resetScore() {
         totalScore = 0;
         currentScore = 0;
+        levelTimes.clear();
+    }
+    
+    /**
+     * Gets the completion times of every level finished in this run.
+     * 
+     * @return The level times in seconds, in the order the levels were completed.
+     */
+    public float[] getLevelTimes() {
+        float[] times = new float[levelTimes.size()];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = levelTimes.get(i);
+        }
+        return times;
+    }
+    
+    /**
+     * Replaces the completion times of the levels finished in this run,
+     * for example when a saved run is resumed.
+     * 
+     * @param times The level times in seconds, in the order the levels were completed.
+     */
+    public void setLevelTimes(float[] times) {
+        levelTimes.clear();
+        for (float time : times) {
+            levelTimes.add(time);
+        }
+    }
+    
+    /**
+     * Gets the number of values written when the score state is captured.
+     * 
+     * @return The number of state values.
+     */
+    public int getStateSize() {
+        return 3;
+    }
+    
+    /**
+     * Writes the score state into a flat array.
+     * 
+     * @param state The array to write into.
+     * @param offset The index of the first value to write.
+     * @return The index after the last value written.
+     */
+    public int writeState(double[] state, int offset) {
+        state[offset] = totalScore;
+        state[offset + 1] = currentScore;
+        state[offset + 2] = levelStartTime;
+        return offset + 3;
+    }
+    
+    /**
+     * Restores the score state from a flat array.
+     * 
+     * @param state The array to read from.
+     * @param offset The index of the first value to read.
+     * @return The index after the last value read.
+     */
+    public int readState(double[] state, int offset) {
+        totalScore = (int) state[offset];
+        currentScore = (int) state[offset + 1];
+        levelStartTime = state[offset + 2];
+        return offset + 3;
+    }
+    
+    /**
+     * Gets the game clock used for level timing.
+     * 
+     * @return The game clock.
+     */
+    public GameClock getClock() {
+        return clock;
     }
     
     /**
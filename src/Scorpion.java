@@ -1,5 +1,4 @@
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.paint.Color;
 
 /**
  * Scorpion enemy that patrols horizontally and damages the player on contact.
@@ -8,8 +7,9 @@ import javafx.scene.paint.Color;
  * @version 1.0
  */
 public class Scorpion extends Enemy {
-    private double patrolDistance = 50.0;
-    private double initialX;
+    private static final double SPEED = 50.0;
+    private static final double PATROL_DISTANCE = 50.0;
+
     private boolean movingRight = true;
 
     /**
@@ -19,14 +19,12 @@ public class Scorpion extends Enemy {
      * @param y The y-coordinate of the scorpion
      */
     public Scorpion(double x, double y) {
-        super(x, y, 40, 20);
-        this.speed = 50.0;
-        this.damage = 1.0f;
-        this.initialX = x;
+        super(x, y, 40, 20, 1.0f);
     }
 
     /**
      * Updates the scorpion's position based on patrol pattern.
+     * The scorpion follows the ground as it patrols.
      * 
      * @param deltaTime Time elapsed since the last update in seconds
      */
@@ -34,13 +32,35 @@ public class Scorpion extends Enemy {
     public void update(double deltaTime) {
         if (!isActive) return;
 
+        double oldX = x;
         if (movingRight) {
-            x += speed * deltaTime;
-            if (x > initialX + patrolDistance) movingRight = false;
+            x += SPEED * deltaTime;
+            if (x > initialX + PATROL_DISTANCE) movingRight = false;
         } else {
-            x -= speed * deltaTime;
-            if (x < initialX - patrolDistance) movingRight = true;
+            x -= SPEED * deltaTime;
+            if (x < initialX - PATROL_DISTANCE) movingRight = true;
         }
+        // Walk up and down the dunes
+        y += terrain.groundAt(x) - terrain.groundAt(oldX);
+    }
+
+    @Override
+    public int getStateSize() {
+        return super.getStateSize() + 1;
+    }
+
+    @Override
+    public int writeState(double[] state, int offset) {
+        offset = super.writeState(state, offset);
+        state[offset] = movingRight ? 1 : 0;
+        return offset + 1;
+    }
+
+    @Override
+    public int readState(double[] state, int offset) {
+        offset = super.readState(state, offset);
+        movingRight = state[offset] != 0;
+        return offset + 1;
     }
 
     /**
@@ -51,10 +71,29 @@ public class Scorpion extends Enemy {
     @Override
     public void render(GraphicsContext gc) {
         if (!isActive) return;
+        draw(new PaintState(gc), x, y, getWidth(), getHeight());
+    }
 
-        gc.setFill(Color.web("#D22F27")); 
+    @Override
+    protected RenderCommand.Kind getRenderKind() {
+        return RenderCommand.Kind.SCORPION;
+    }
+
+    /**
+     * Draws a scorpion with the given bounds.
+     * 
+     * @param paint The paint state to draw with
+     * @param x The x-coordinate of the scorpion
+     * @param y The y-coordinate of the scorpion
+     * @param width The width of the scorpion
+     * @param height The height of the scorpion
+     */
+    public static void draw(PaintState paint, double x, double y, double width, double height) {
+        GraphicsContext gc = paint.getContext();
+        paint.setFill(Palette.color(Palette.DANGER)); 
         gc.fillOval(x, y, width, height);
-        gc.setStroke(Color.web("#D22F27"));
+        if (paint.getDetail() < RenderQuality.FULL) return;
+        paint.setStroke(Palette.color(Palette.DANGER));
         gc.strokeLine(x + width / 2, y, x + width / 2, y - 15); 
     }
 
@@ -66,7 +105,7 @@ public class Scorpion extends Enemy {
     @Override
     public void attack(Player player) {
         if (collidesWith(player)) {
-            player.takeDamage(damage);
+            player.takeDamage(getDamage());
             AnimationManager.createEnemyAttackAnimation(this);
         }
     }
@@ -1,5 +1,4 @@
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.paint.Color;
 
 /**
  * Snake enemy that lunges forward to attack the player.
@@ -8,8 +7,10 @@ import javafx.scene.paint.Color;
  * @version 1.0
  */
 public class Snake extends Enemy {
-    private double lungeDistance = 80.0;
-    private double lungeCooldown = 2.0;
+    private static final double SPEED = 100.0;
+    private static final double LUNGE_DISTANCE = 80.0;
+    private static final double LUNGE_COOLDOWN = 2.0;
+
     private double lungeTimer = 0;
     private boolean isLunging = false;
 
@@ -20,14 +21,12 @@ public class Snake extends Enemy {
      * @param y The y-coordinate of the snake
      */
     public Snake(double x, double y) {
-        super(x, y, 60, 15);
-        this.speed = 100.0;
-        this.damage = 1.0f;
-        this.initialX = x;
+        super(x, y, 60, 15, 1.0f);
     }
 
     /**
      * Updates the snake's position and lunge attack behavior.
+     * The snake follows the ground as it moves.
      * 
      * @param deltaTime Time elapsed since the last update in seconds
      */
@@ -35,17 +34,42 @@ public class Snake extends Enemy {
     public void update(double deltaTime) {
         if (!isActive) return;
 
+        double oldX = x;
         lungeTimer -= deltaTime;
         if (lungeTimer <= 0 && !isLunging) {
             isLunging = true;
-            x += lungeDistance;
+            if (particles != null) particles.emitDust(x, y + getHeight(), 1);
+            x += LUNGE_DISTANCE;
         } else if (isLunging) {
-            x -= speed * deltaTime;
+            x -= SPEED * deltaTime;
             if (x <= initialX) {
                 isLunging = false;
-                lungeTimer = lungeCooldown;
+                lungeTimer = LUNGE_COOLDOWN;
             }
         }
+        // Slither up and down the dunes
+        y += terrain.groundAt(x) - terrain.groundAt(oldX);
+    }
+
+    @Override
+    public int getStateSize() {
+        return super.getStateSize() + 2;
+    }
+
+    @Override
+    public int writeState(double[] state, int offset) {
+        offset = super.writeState(state, offset);
+        state[offset] = lungeTimer;
+        state[offset + 1] = isLunging ? 1 : 0;
+        return offset + 2;
+    }
+
+    @Override
+    public int readState(double[] state, int offset) {
+        offset = super.readState(state, offset);
+        lungeTimer = state[offset];
+        isLunging = state[offset + 1] != 0;
+        return offset + 2;
     }
 
     /**
@@ -56,10 +80,28 @@ public class Snake extends Enemy {
     @Override
     public void render(GraphicsContext gc) {
         if (!isActive) return;
+        draw(new PaintState(gc), x, y, getWidth(), getHeight());
+    }
 
-        gc.setFill(Color.web("#4F7942"));
+    @Override
+    protected RenderCommand.Kind getRenderKind() {
+        return RenderCommand.Kind.SNAKE;
+    }
+
+    /**
+     * Draws a snake with the given bounds.
+     * 
+     * @param paint The paint state to draw with
+     * @param x The x-coordinate of the snake
+     * @param y The y-coordinate of the snake
+     * @param width The width of the snake
+     * @param height The height of the snake
+     */
+    public static void draw(PaintState paint, double x, double y, double width, double height) {
+        GraphicsContext gc = paint.getContext();
+        paint.setFill(Palette.color(Palette.SNAKE));
         gc.fillRect(x, y, width, height);
-        gc.setFill(Color.web("#2E8B57"));
+        paint.setFill(Palette.color(Palette.SNAKE_PATTERN));
         gc.fillOval(x + width - 10, y - 5, 15, 15);
     }
 
@@ -71,7 +113,7 @@ public class Snake extends Enemy {
     @Override
     public void attack(Player player) {
         if (isLunging && collidesWith(player)) {
-            player.takeDamage(damage);
+            player.takeDamage(getDamage());
             AnimationManager.createEnemyAttackAnimation(this);
         }
     }
@@ -0,0 +1,340 @@
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Ring buffer of recent world states used for rewinding the simulation.
+ * Each tick the full state of the player, every level object, the score and the
+ * game clock is flattened into a value array and stored off-heap. Most ticks are
+ * stored as a delta against the previous tick (a change mask plus the changed
+ * values only), with a full key frame at a fixed interval so that any tick still
+ * in the buffer can be rebuilt from the nearest key frame before it.
+ * Ticks are packed one after another into a ring of at most MAX_BUFFER_BYTES,
+ * each taking only the bytes it needs, so a delta costs its changes rather than
+ * a whole key frame. When the ring is full the oldest ticks are overwritten;
+ * on very large levels this keeps less history than the tick capacity.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class SnapshotBuffer {
+    private static final int SLOT_HEADER_BYTES = 8 + 8 + 4 + 4; // tick, elapsed, key flag, changed count
+    /** Largest amount of off-heap memory the buffer takes */
+    public static final long MAX_BUFFER_BYTES = 128L << 20;
+
+    private final int capacity;
+    private final int keyFrameInterval;
+
+    private ByteBuffer slots;
+    private final int[] slotOffsets;
+    private final int[] slotLengths;
+    private int writeOffset;
+    private int slotBytes;
+    private int maskWords;
+    private boolean recording;
+
+    private Player player;
+    private List<GameObject> levelObjects;
+    private ScoreManager scoreManager;
+    private GameClock clock;
+
+    private double[] current = new double[0];
+    private double[] previous = new double[0];
+    private double[] decoded = new double[0];
+    private long[] mask = new long[0];
+    private int stateSize;
+
+    private long firstTick = -1;
+    private long lastTick = -1;
+    private int ticksSinceKeyFrame;
+
+    /**
+     * Constructs a snapshot buffer.
+     *
+     * @param capacity The number of ticks kept before the oldest ones are overwritten.
+     * @param keyFrameInterval The number of ticks between full key frames.
+     */
+    public SnapshotBuffer(int capacity, int keyFrameInterval) {
+        this.capacity = capacity;
+        this.keyFrameInterval = keyFrameInterval;
+        this.slotOffsets = new int[capacity];
+        this.slotLengths = new int[capacity];
+    }
+
+    /**
+     * Starts recording a new level. Sizes the value arrays for the level's objects
+     * and discards any history from the previous level. The off-heap storage is
+     * only reallocated when the new level needs more of it. A level whose key
+     * frame alone is larger than MAX_BUFFER_BYTES is not recorded.
+     *
+     * @param level The level being played.
+     * @param player The current player.
+     * @param scoreManager The score manager of the game.
+     * @param clock The game clock.
+     */
+    public void begin(Level level, Player player, ScoreManager scoreManager, GameClock clock) {
+        this.player = player;
+        this.levelObjects = level.getAllObjects();
+        this.scoreManager = scoreManager;
+        this.clock = clock;
+
+        stateSize = 2 + scoreManager.getStateSize() + player.getStateSize();
+        for (GameObject obj : levelObjects) {
+            stateSize += obj.getStateSize();
+        }
+
+        maskWords = (stateSize + 63) / 64;
+        long largestSlot = SLOT_HEADER_BYTES + maskWords * 8L + stateSize * 8L;
+        long neededBytes = Math.min(largestSlot * capacity, MAX_BUFFER_BYTES);
+        recording = largestSlot <= neededBytes;
+        if (!recording) {
+            System.err.println("Level too large to record for rewinding: "
+                + largestSlot + " bytes per tick");
+            clear();
+            return;
+        }
+        slotBytes = (int) largestSlot;
+        if (slots == null || neededBytes > slots.capacity()) {
+            slots = ByteBuffer.allocateDirect((int) neededBytes);
+        }
+        if (current.length < stateSize) {
+            current = new double[stateSize];
+            previous = new double[stateSize];
+            decoded = new double[stateSize];
+        }
+        if (mask.length < maskWords) {
+            mask = new long[maskWords];
+        }
+        clear();
+    }
+
+    /**
+     * Discards all recorded ticks.
+     */
+    public void clear() {
+        firstTick = -1;
+        lastTick = -1;
+        ticksSinceKeyFrame = 0;
+        writeOffset = 0;
+    }
+
+    /**
+     * Captures the state at the current clock tick.
+     * Ticks must be captured in order, one per simulation update.
+     */
+    public void capture() {
+        if (player == null || !recording) return;
+
+        long tick = clock.getTick();
+        if (lastTick >= 0 && tick != lastTick + 1) {
+            clear();
+        }
+        gatherState(current);
+
+        boolean keyFrame = lastTick < 0 || ticksSinceKeyFrame >= keyFrameInterval - 1;
+        int base = makeRoom(tick);
+        slots.putLong(base, tick);
+        slots.putDouble(base + 8, clock.getElapsedSeconds());
+        slots.putInt(base + 16, keyFrame ? 1 : 0);
+
+        int valuesBase = base + SLOT_HEADER_BYTES + maskWords * 8;
+        int changed = 0;
+        if (keyFrame) {
+            for (int i = 0; i < stateSize; i++) {
+                slots.putDouble(valuesBase + i * 8, current[i]);
+            }
+            changed = stateSize;
+            ticksSinceKeyFrame = 0;
+        } else {
+            for (int w = 0; w < maskWords; w++) {
+                mask[w] = 0;
+            }
+            for (int i = 0; i < stateSize; i++) {
+                if (current[i] != previous[i]) {
+                    mask[i >> 6] |= 1L << (i & 63);
+                    slots.putDouble(valuesBase + changed * 8, current[i]);
+                    changed++;
+                }
+            }
+            for (int w = 0; w < maskWords; w++) {
+                slots.putLong(base + SLOT_HEADER_BYTES + w * 8, mask[w]);
+            }
+            ticksSinceKeyFrame++;
+        }
+        slots.putInt(base + 20, changed);
+
+        int length = SLOT_HEADER_BYTES + (keyFrame ? 0 : maskWords * 8) + changed * 8;
+        int index = (int) (tick % capacity);
+        slotOffsets[index] = base;
+        slotLengths[index] = length;
+        writeOffset = base + length;
+
+        double[] swap = previous;
+        previous = current;
+        current = swap;
+
+        lastTick = tick;
+        if (firstTick < 0) {
+            firstTick = tick;
+        }
+    }
+
+    /**
+     * Finds where the next tick goes and drops the oldest ticks that are in
+     * the way. The next tick is given room for a full slot, since how much of
+     * it changed is only known once it is written.
+     *
+     * @param tick The tick about to be written.
+     * @return The byte offset to write the tick at.
+     */
+    private int makeRoom(long tick) {
+        int start = writeOffset;
+        if (start + slotBytes > slots.capacity()) {
+            // Wrap around; the ticks left at the end are the oldest ones
+            while (firstTick >= 0 && firstTick <= lastTick && slotOffset(firstTick) >= start) {
+                firstTick++;
+            }
+            start = 0;
+        }
+        int end = start + slotBytes;
+        while (firstTick >= 0 && firstTick <= lastTick
+                && (tick - firstTick >= capacity
+                    || (slotOffset(firstTick) < end && slotOffset(firstTick) + slotLength(firstTick) > start))) {
+            firstTick++;
+        }
+        if (firstTick > lastTick) {
+            firstTick = -1;
+        }
+        return start;
+    }
+
+    /**
+     * Gets the oldest tick that can still be restored.
+     * This is the first key frame left in the buffer.
+     *
+     * @return The oldest restorable tick, or -1 if nothing is recorded.
+     */
+    public long getOldestRestorableTick() {
+        if (lastTick < 0) return -1;
+        for (long tick = firstTick; tick <= lastTick; tick++) {
+            if (slots.getInt(slotOffset(tick) + 16) == 1) {
+                return tick;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the newest recorded tick.
+     *
+     * @return The last captured tick, or -1 if nothing is recorded.
+     */
+    public long getNewestTick() {
+        return lastTick;
+    }
+
+    /**
+     * Finds the latest recorded tick at or before a point in simulated time.
+     *
+     * @param elapsedSeconds The simulated time to look for.
+     * @return The matching tick, or the oldest restorable tick if the time is older than the buffer.
+     */
+    public long findTick(double elapsedSeconds) {
+        long oldest = getOldestRestorableTick();
+        if (oldest < 0) return -1;
+        for (long tick = lastTick; tick > oldest; tick--) {
+            if (slots.getDouble(slotOffset(tick) + 8) <= elapsedSeconds) {
+                return tick;
+            }
+        }
+        return oldest;
+    }
+
+    /**
+     * Restores the world to a recorded tick and drops every tick after it,
+     * so recording continues from the restored state.
+     *
+     * @param tick The tick to restore.
+     * @return True if the tick was restored, false if it is no longer in the buffer.
+     */
+    public boolean restore(long tick) {
+        long oldest = getOldestRestorableTick();
+        if (oldest < 0 || tick < oldest || tick > lastTick) return false;
+
+        long keyTick = tick;
+        while (slots.getInt(slotOffset(keyTick) + 16) != 1) {
+            keyTick--;
+        }
+        for (long t = keyTick; t <= tick; t++) {
+            decodeSlot(slotOffset(t));
+        }
+
+        applyState(decoded);
+        System.arraycopy(decoded, 0, previous, 0, stateSize);
+        lastTick = tick;
+        writeOffset = slotOffset(tick) + slotLength(tick);
+        ticksSinceKeyFrame = (int) (tick - keyTick);
+        return true;
+    }
+
+    /**
+     * Applies one stored slot on top of the decoded state.
+     *
+     * @param base The byte offset of the slot.
+     */
+    private void decodeSlot(int base) {
+        int valuesBase = base + SLOT_HEADER_BYTES + maskWords * 8;
+        if (slots.getInt(base + 16) == 1) {
+            for (int i = 0; i < stateSize; i++) {
+                decoded[i] = slots.getDouble(valuesBase + i * 8);
+            }
+            return;
+        }
+        int next = 0;
+        for (int w = 0; w < maskWords; w++) {
+            long bits = slots.getLong(base + SLOT_HEADER_BYTES + w * 8);
+            while (bits != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+                decoded[i] = slots.getDouble(valuesBase + next * 8);
+                next++;
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /**
+     * Flattens the current world state into a value array.
+     *
+     * @param state The array to fill.
+     */
+    private void gatherState(double[] state) {
+        state[0] = clock.getTick();
+        state[1] = clock.getElapsedSeconds();
+        int offset = scoreManager.writeState(state, 2);
+        offset = player.writeState(state, offset);
+        for (int i = 0; i < levelObjects.size(); i++) {
+            offset = levelObjects.get(i).writeState(state, offset);
+        }
+    }
+
+    /**
+     * Pushes a value array back into the world objects.
+     *
+     * @param state The array to read from.
+     */
+    private void applyState(double[] state) {
+        clock.setTime((long) state[0], state[1]);
+        int offset = scoreManager.readState(state, 2);
+        offset = player.readState(state, offset);
+        for (int i = 0; i < levelObjects.size(); i++) {
+            offset = levelObjects.get(i).readState(state, offset);
+        }
+    }
+
+    private int slotOffset(long tick) {
+        return slotOffsets[(int) (tick % capacity)];
+    }
+
+    private int slotLength(long tick) {
+        return slotLengths[(int) (tick % capacity)];
+    }
+}
@@ -0,0 +1,167 @@
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * The game's sound effects, decoded once into PCM samples at startup.
+ * Each effect is read from a WAV file named after it, such as jump.wav, in
+ * the sounds folder. Effects without a file, or whose file cannot be
+ * converted to the mixer's format, are synthesized instead, so the game
+ * has sound without shipping any audio files.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class SoundBank {
+    /** The player jumps */
+    public static final int JUMP = 0;
+    /** The player picks up a coin */
+    public static final int COIN = 1;
+    /** The player is hurt */
+    public static final int HIT = 2;
+    /** The player reaches the flag */
+    public static final int FLAG = 3;
+    /** Number of sound effects */
+    public static final int SOUNDS = 4;
+
+    /** Format of every effect: 44.1 kHz, 16-bit signed, mono, little-endian */
+    public static final AudioFormat FORMAT = new AudioFormat(44100f, 16, 1, true, false);
+
+    private static final String[] NAMES = {"jump", "coin", "hit", "flag"};
+    private static final int RATE = (int) FORMAT.getSampleRate();
+
+    private final short[][] samples = new short[SOUNDS][];
+
+    /**
+     * Decodes or synthesizes every effect.
+     *
+     * @param directory The folder to look for WAV files in.
+     */
+    public SoundBank(Path directory) {
+        for (int sound = 0; sound < SOUNDS; sound++) {
+            Path file = directory.resolve(NAMES[sound] + ".wav");
+            if (Files.isRegularFile(file)) {
+                try {
+                    samples[sound] = decode(file);
+                } catch (IOException | UnsupportedAudioFileException | IllegalArgumentException e) {
+                    System.err.println("Could not decode " + file + ": " + e.getMessage());
+                }
+            }
+            if (samples[sound] == null) {
+                samples[sound] = synthesize(sound);
+            }
+        }
+    }
+
+    /**
+     * Gets the samples of an effect.
+     *
+     * @param sound One of JUMP, COIN, HIT or FLAG.
+     * @return The effect's samples in the mixer's format. Must not be changed.
+     */
+    public short[] get(int sound) {
+        return samples[sound];
+    }
+
+    /**
+     * Reads a sound file and converts it to the mixer's format.
+     */
+    private static short[] decode(Path file) throws IOException, UnsupportedAudioFileException {
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(file.toFile());
+             AudioInputStream pcm = AudioSystem.getAudioInputStream(FORMAT, in)) {
+            byte[] bytes = pcm.readAllBytes();
+            short[] decoded = new short[bytes.length / 2];
+            for (int i = 0; i < decoded.length; i++) {
+                decoded[i] = (short) ((bytes[i * 2] & 0xFF) | (bytes[i * 2 + 1] << 8));
+            }
+            return decoded;
+        }
+    }
+
+    /**
+     * Synthesizes an effect.
+     */
+    private static short[] synthesize(int sound) {
+        switch (sound) {
+            case JUMP: {
+                short[] out = new short[RATE * 15 / 100];
+                tone(out, 0, out.length, 300, 700, 0.25, true);
+                return out;
+            }
+            case COIN: {
+                short[] out = new short[RATE * 30 / 100];
+                int split = RATE * 8 / 100;
+                tone(out, 0, split, 988, 988, 0.35, false);
+                tone(out, split, out.length - split, 1319, 1319, 0.35, false);
+                return out;
+            }
+            case HIT: {
+                short[] out = new short[RATE / 4];
+                tone(out, 0, out.length, 110, 60, 0.4, false);
+                noise(out, 0.3);
+                return out;
+            }
+            default: {
+                double[] notes = {523.25, 659.25, 783.99, 1046.5};
+                int step = RATE * 12 / 100;
+                short[] out = new short[step * 3 + RATE * 3 / 10];
+                for (int i = 0; i < notes.length; i++) {
+                    int start = step * i;
+                    int length = i < notes.length - 1 ? step : out.length - start;
+                    tone(out, start, length, notes[i], notes[i], 0.3, true);
+                }
+                return out;
+            }
+        }
+    }
+
+    /**
+     * Writes a tone gliding from one frequency to another, with a short attack
+     * and a decay to silence.
+     */
+    private static void tone(short[] out, int start, int length, double fromHz, double toHz,
+                             double volume, boolean square) {
+        int attack = Math.min(length, RATE / 500);
+        double phase = 0;
+        for (int i = 0; i < length; i++) {
+            double t = i / (double) length;
+            phase += (fromHz + (toHz - fromHz) * t) / RATE;
+            double wave = Math.sin(2 * Math.PI * phase);
+            if (square) wave = wave >= 0 ? 0.6 : -0.6;
+            double envelope = i < attack ? i / (double) attack : Math.pow(1 - t, 2);
+            out[start + i] = clamp(out[start + i] + wave * envelope * volume * Short.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Adds low-passed noise that dies away over the whole effect.
+     */
+    private static void noise(short[] out, double volume) {
+        Random random = new Random(7);
+        double filtered = 0;
+        for (int i = 0; i < out.length; i++) {
+            filtered += (random.nextDouble() * 2 - 1 - filtered) * 0.3;
+            double envelope = Math.pow(1 - i / (double) out.length, 3);
+            out[i] = clamp(out[i] + filtered * envelope * volume * Short.MAX_VALUE);
+        }
+    }
+
+    private static short clamp(double sample) {
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, sample));
+    }
+
+    /**
+     * Gets the name of an effect, which is also the name of its file.
+     *
+     * @param sound One of JUMP, COIN, HIT or FLAG.
+     * @return The name of the effect.
+     */
+    public static String getName(int sound) {
+        return NAMES[sound];
+    }
+}
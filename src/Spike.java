@@ -1,5 +1,4 @@
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.paint.Color;
 
 /**
  * Spike obstacle that damages the player on contact.
@@ -36,7 +35,26 @@ public class Spike extends Obstacle {
     @Override
     public void render(GraphicsContext gc) {
         if (!isActive) return;
-        gc.setFill(Color.web("#D22F27")); 
+        draw(new PaintState(gc), x, y, getWidth(), getHeight());
+    }
+
+    @Override
+    protected RenderCommand.Kind getRenderKind() {
+        return RenderCommand.Kind.SPIKE;
+    }
+
+    /**
+     * Draws a spike with the given bounds.
+     * 
+     * @param paint The paint state to draw with
+     * @param x The x-coordinate of the spike
+     * @param y The y-coordinate of the spike
+     * @param width The width of the spike
+     * @param height The height of the spike
+     */
+    public static void draw(PaintState paint, double x, double y, double width, double height) {
+        GraphicsContext gc = paint.getContext();
+        paint.setFill(Palette.color(Palette.DANGER)); 
         gc.fillPolygon(
             new double[]{x, x + width / 2, x + width},
             new double[]{y + height, y, y + height},
@@ -0,0 +1,120 @@
+/**
+ * The height of the ground along a level, so the desert floor rises and falls
+ * with its dunes. The ground is generated once per level from a few octaves
+ * of smooth value noise and stored as heights sampled every STEP pixels.
+ * Looking up the ground under a point reads two samples and blends them, so
+ * it costs the same however wide the level is. The player lands on it,
+ * walking enemies follow it and the view draws it, all from the same samples.
+ * The ground starts flat where the player spawns and never dips below the
+ * flat floor line, so the floor only ever rises into dunes.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class Terrain {
+    /** The y-coordinate of the flat floor */
+    public static final double BASE = 620;
+    /** Distance between two height samples */
+    public static final double STEP = 8;
+    /** Seed of the flat ground */
+    public static final long FLAT_SEED = 0;
+    /** Ground without dunes, for levels made without terrain */
+    public static final Terrain FLAT = new Terrain(FLAT_SEED, new float[] {(float) BASE});
+
+    // Wavelength and height of each octave of noise, from the broadest dunes to ripples
+    private static final double[] WAVELENGTHS = {720, 270, 110};
+    private static final double[] AMPLITUDES = {34, 12, 4};
+    // The ground rises from flat between these distances from the start
+    private static final double FLAT_START = 250;
+    private static final double RAMP = 300;
+
+    private final long seed;
+    private final float[] heights;
+
+    private Terrain(long seed, float[] heights) {
+        this.seed = seed;
+        this.heights = heights;
+    }
+
+    /**
+     * Generates the ground of a level.
+     *
+     * @param seed The seed the dunes are generated from, or FLAT_SEED for flat ground.
+     * @param width The width of the level.
+     * @return The ground of the level.
+     */
+    public static Terrain generate(long seed, double width) {
+        if (seed == FLAT_SEED) return FLAT;
+        float[] heights = new float[(int) Math.ceil(width / STEP) + 2];
+        for (int i = 0; i < heights.length; i++) {
+            double x = i * STEP;
+            double rise = 0;
+            for (int octave = 0; octave < WAVELENGTHS.length; octave++) {
+                rise += AMPLITUDES[octave] * valueNoise(seed + octave * 0x9E3779B97F4A7C15L, x / WAVELENGTHS[octave]);
+            }
+            double ramp = Math.max(0, Math.min(1, (x - FLAT_START) / RAMP));
+            heights[i] = (float) (BASE - rise * ramp * ramp * (3 - 2 * ramp));
+        }
+        return new Terrain(seed, heights);
+    }
+
+    /**
+     * Smooth noise between 0 and 1, blending random values at whole numbers.
+     */
+    private static double valueNoise(long seed, double t) {
+        long cell = (long) Math.floor(t);
+        double f = t - cell;
+        double blend = f * f * (3 - 2 * f);
+        double a = lattice(seed, cell);
+        return a + (lattice(seed, cell + 1) - a) * blend;
+    }
+
+    /**
+     * A random value between 0 and 1 for a whole number, the same every time.
+     */
+    private static double lattice(long seed, long cell) {
+        long h = seed ^ (cell * 0xBF58476D1CE4E5B9L);
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        h ^= h >>> 31;
+        return (h >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Gets the y-coordinate of the ground at a point.
+     *
+     * @param x The x-coordinate of the point.
+     * @return The height of the ground, blended between the nearest samples.
+     */
+    public double groundAt(double x) {
+        double position = x / STEP;
+        int i = (int) position;
+        if (i < 0 || position < 0) return heights[0];
+        if (i >= heights.length - 1) return heights[heights.length - 1];
+        float a = heights[i];
+        return a + (heights[i + 1] - a) * (position - i);
+    }
+
+    /**
+     * Gets how far the ground at a point is above the flat floor.
+     * Objects placed for the flat floor are moved up by this much.
+     *
+     * @param x The x-coordinate of the point.
+     * @return The rise of the ground, 0 on flat ground.
+     */
+    public double riseAt(double x) {
+        return BASE - groundAt(x);
+    }
+
+    /**
+     * Gets the seed the ground was generated from.
+     *
+     * @return The seed, FLAT_SEED for flat ground.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getSampleCount() { return heights.length; }
+    public float getSample(int index) { return heights[index]; }
+}
@@ -0,0 +1,149 @@
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+/**
+ * A complete set of colours and fonts for the game world.
+ * Colours are parsed when the theme is created. Fonts need the JavaFX
+ * toolkit, so each is looked up the first time it is asked for and kept
+ * from then on.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class Theme {
+    /** The daytime desert */
+    public static final Theme DAY = new Theme("Day", new String[] {
+        "#87CEEB",      // SKY
+        "#E9C893",      // SAND
+        "#A69185",      // GROUND_LINE
+        "#D4B483@0.7", // DUNE
+        "#E9C893@0.6", // DUNE_LIGHT
+        "#C19A6B@0.5", // DUNE_SHADOW
+        "#F5DEB3@0.3", // DUNE_HIGHLIGHT
+        "#D4B483",      // DUNE_OUTLINE
+        "#2D8633",      // CACTUS
+        "#1A5E20",      // CACTUS_OUTLINE
+        "#808080",      // ROCK
+        "#A0A0A0",      // ROCK_OUTLINE
+        "#8B4513",      // WOOD
+        "gold",         // FLAG
+        "#FFD700@0.7", // FLAG_DETAIL
+        "black",        // OUTLINE
+        "#C19A6B",      // NINJA
+        "#000000",      // NINJA_MASK
+        "#D22F27",      // DANGER
+        "red",          // DEAD
+        "#4F7942",      // SNAKE
+        "#2E8B57",      // SNAKE_PATTERN
+        "gold",         // GOLD_COIN
+        "darkgoldenrod", // GOLD_COIN_EDGE
+        "silver",       // SILVER_COIN
+        "darkgray",     // SILVER_COIN_EDGE
+        "black"         // HUD_TEXT
+    });
+
+    /** The desert at night, used in dark mode */
+    public static final Theme NIGHT = new Theme("Night", new String[] {
+        "#1B2A49",      // SKY
+        "#9C8763",      // SAND
+        "#5E5247",      // GROUND_LINE
+        "#6B5B45@0.7", // DUNE
+        "#8C7A5B@0.6", // DUNE_LIGHT
+        "#4E4030@0.5", // DUNE_SHADOW
+        "#C8B99A@0.2", // DUNE_HIGHLIGHT
+        "#7A6A50",      // DUNE_OUTLINE
+        "#1E5A24",      // CACTUS
+        "#0F3A14",      // CACTUS_OUTLINE
+        "#5A5A5A",      // ROCK
+        "#707070",      // ROCK_OUTLINE
+        "#5C2E0C",      // WOOD
+        "gold",         // FLAG
+        "#FFD700@0.7", // FLAG_DETAIL
+        "black",        // OUTLINE
+        "#C19A6B",      // NINJA
+        "#000000",      // NINJA_MASK
+        "#E0443C",      // DANGER
+        "red",          // DEAD
+        "#5E8F4F",      // SNAKE
+        "#3AA36A",      // SNAKE_PATTERN
+        "gold",         // GOLD_COIN
+        "darkgoldenrod", // GOLD_COIN_EDGE
+        "silver",       // SILVER_COIN
+        "darkgray",     // SILVER_COIN_EDGE
+        "#F0E6D2"       // HUD_TEXT
+    });
+
+    private final String name;
+    private final Color[] colors;
+    private final Font[] fonts = new Font[Palette.FONTS];
+
+    /**
+     * Constructs a theme from colour strings.
+     *
+     * @param name The name of the theme.
+     * @param webColors One colour per swatch in the order of the Palette constants,
+     *                  in any format Color.web accepts, optionally followed by
+     *                  {@code @} and an opacity, such as {@code "#D4B483@0.7"}.
+     */
+    public Theme(String name, String[] webColors) {
+        if (webColors.length != Palette.SWATCHES) {
+            throw new IllegalArgumentException("Theme " + name + " has " + webColors.length
+                + " colours, expected " + Palette.SWATCHES);
+        }
+        this.name = name;
+        this.colors = new Color[webColors.length];
+        for (int i = 0; i < webColors.length; i++) {
+            colors[i] = parseColor(webColors[i]);
+        }
+    }
+
+    /**
+     * Gets a colour of this theme.
+     *
+     * @param swatch One of the Palette swatch constants.
+     * @return The colour.
+     */
+    public Color getColor(int swatch) {
+        return colors[swatch];
+    }
+
+    /**
+     * Gets a font of this theme, looking it up on first use.
+     *
+     * @param font One of the Palette font constants.
+     * @return The font.
+     */
+    public Font getFont(int font) {
+        Font resolved = fonts[font];
+        if (resolved == null) {
+            resolved = createFont(font);
+            fonts[font] = resolved;
+        }
+        return resolved;
+    }
+
+    /**
+     * Gets the name of this theme.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    private static Color parseColor(String value) {
+        int at = value.indexOf('@');
+        if (at < 0) {
+            return Color.web(value);
+        }
+        return Color.web(value.substring(0, at), Double.parseDouble(value.substring(at + 1)));
+    }
+
+    private static Font createFont(int font) {
+        switch (font) {
+            case Palette.COIN_FONT:
+            default:
+                return Font.font(12);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The numbers the game is balanced with: player physics, and how wide each
+ * level is and how many things it holds. How enemies move is set by the
+ * enemy behaviour file instead; see {@link BehaviourLibrary}.
+ * Values are read from a plain text file, by default {@code tuning.txt}, with
+ * one setting per line and {@code #} starting a comment:
+ * <pre>
+ * player.gravity = 500
+ * level.enemies = 2 3 4 6 7 8 9 13 14
+ * level.spikes = 7: 0 1 2 3 3
+ * </pre>
+ * Single values are looked up with {@link #get}. Per-level tables list a value
+ * for each level, starting at level 1 or at the level written before a colon;
+ * levels before the first have none, and levels after the last keep growing
+ * by the difference between the last two values. Settings left out of the
+ * file keep their built-in values, which are the ones the game shipped with.
+ * A tuning is never changed once built. The game swaps in a new one between
+ * two ticks, so a tick never sees half of an edit.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class Tuning {
+    /** Top running speed of the player */
+    public static final int PLAYER_SPEED = 0;
+    /** Downward acceleration of the player */
+    public static final int PLAYER_GRAVITY = 1;
+    /** How quickly the player speeds up */
+    public static final int PLAYER_ACCELERATION = 2;
+    /** How quickly the player slows down */
+    public static final int PLAYER_DECELERATION = 3;
+    /** Upward speed of a jump */
+    public static final int PLAYER_JUMP_SPEED = 4;
+    /** Least distance between two coins */
+    public static final int COIN_SPACING = 5;
+    /** Least distance between two spikes */
+    public static final int SPIKE_SPACING = 6;
+    /** Least distance between two desert elements */
+    public static final int ELEMENT_SPACING = 7;
+    /** Number of single values */
+    public static final int VALUES = 8;
+
+    /** Width of each level */
+    public static final int LEVEL_WIDTH = 0;
+    /** Desert elements in each level */
+    public static final int LEVEL_ELEMENTS = 1;
+    /** Enemies in each level */
+    public static final int LEVEL_ENEMIES = 2;
+    /** Moving platforms in each level */
+    public static final int LEVEL_PLATFORMS = 3;
+    /** Spikes in each level, before a random extra of up to level.spikeVariation - 1 */
+    public static final int LEVEL_SPIKES = 4;
+    /** Silver coins in each level */
+    public static final int LEVEL_SILVER_COINS = 5;
+    /** Gold coins in each level */
+    public static final int LEVEL_GOLD_COINS = 6;
+    /** Number of per-level tables */
+    public static final int TABLES = 7;
+
+    private static final String[] VALUE_KEYS = {
+        "player.speed", "player.gravity", "player.acceleration", "player.deceleration", "player.jumpSpeed",
+        "scatter.coinSpacing", "scatter.spikeSpacing", "scatter.elementSpacing"
+    };
+    private static final double[] DEFAULT_VALUES = {
+        200, 500, 1500, 2000, 375,
+        40, 120, 110
+    };
+    private static final String[] TABLE_KEYS = {
+        "level.width", "level.elements", "level.enemies", "level.platforms", "level.spikes",
+        "level.silverCoins", "level.goldCoins"
+    };
+    private static final int[] DEFAULT_FIRST_LEVELS = {1, 1, 1, 4, 7, 1, 1};
+    private static final int[][] DEFAULT_TABLES = {
+        {2000, 2000, 2000, 2500, 2500, 2500, 2500, 3000, 3000},
+        {6, 7},
+        {2, 3, 4, 6, 7, 8, 9, 13, 14},
+        {1, 2, 3, 3},
+        {0, 1, 2, 3, 3},
+        {13, 16, 19, 18, 21, 24, 27, 33, 36},
+        {4, 5, 6, 8, 10, 12, 14, 16, 18}
+    };
+    private static final String SPIKE_VARIATION_KEY = "level.spikeVariation";
+    private static final int DEFAULT_SPIKE_VARIATION = 3;
+
+    private static volatile Tuning defaultTuning = new Tuning(DEFAULT_VALUES, DEFAULT_FIRST_LEVELS,
+        DEFAULT_TABLES, DEFAULT_SPIKE_VARIATION);
+
+    private final double[] values;
+    private final int[] firstLevels;
+    private final int[][] tables;
+    private final int spikeVariation;
+
+    private Tuning(double[] values, int[] firstLevels, int[][] tables, int spikeVariation) {
+        this.values = values;
+        this.firstLevels = firstLevels;
+        this.tables = tables;
+        this.spikeVariation = spikeVariation;
+    }
+
+    /**
+     * Gets the tuning the game is played with.
+     * Built-in values until another tuning is set.
+     *
+     * @return The current tuning.
+     */
+    public static Tuning getDefault() {
+        return defaultTuning;
+    }
+
+    /**
+     * Replaces the tuning the game is played with. The player uses it
+     * from its next update, levels created afterwards from the start.
+     * Must be called between ticks, as the game engine does.
+     *
+     * @param tuning The new tuning.
+     */
+    public static void setDefault(Tuning tuning) {
+        defaultTuning = tuning;
+    }
+
+    /**
+     * Reads a tuning file.
+     *
+     * @param file The file to read.
+     * @return The tuning defined by the file.
+     * @throws IOException If the file cannot be read or is malformed.
+     */
+    public static Tuning load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    /**
+     * Parses tuning settings.
+     *
+     * @param input The text to parse.
+     * @return The tuning defined by the text.
+     * @throws IOException If the text cannot be read or is malformed.
+     */
+    public static Tuning parse(Reader input) throws IOException {
+        BufferedReader reader = new BufferedReader(input);
+        double[] values = DEFAULT_VALUES.clone();
+        int[] firstLevels = DEFAULT_FIRST_LEVELS.clone();
+        int[][] tables = DEFAULT_TABLES.clone();
+        int spikeVariation = DEFAULT_SPIKE_VARIATION;
+        String line;
+        int lineNumber = 0;
+
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            if (comment >= 0) line = line.substring(0, comment);
+            line = line.trim();
+            if (line.isEmpty()) continue;
+
+            int equals = line.indexOf('=');
+            if (equals < 0) throw new IOException("Line " + lineNumber + ": expected key = value");
+            String key = line.substring(0, equals).trim();
+            String value = line.substring(equals + 1).trim();
+            try {
+                int index = indexOf(VALUE_KEYS, key);
+                if (index >= 0) {
+                    values[index] = Double.parseDouble(value);
+                    continue;
+                }
+                index = indexOf(TABLE_KEYS, key);
+                if (index >= 0) {
+                    int colon = value.indexOf(':');
+                    firstLevels[index] = colon < 0 ? 1 : Integer.parseInt(value.substring(0, colon).trim());
+                    String[] tokens = value.substring(colon + 1).trim().split("\\s+");
+                    int[] table = new int[tokens.length];
+                    for (int i = 0; i < tokens.length; i++) {
+                        table[i] = Integer.parseInt(tokens[i]);
+                        if (table[i] < 0) throw new IOException("Line " + lineNumber + ": negative count");
+                    }
+                    if (firstLevels[index] < 1) throw new IOException("Line " + lineNumber + ": levels start at 1");
+                    tables[index] = table;
+                    continue;
+                }
+                if (key.equals(SPIKE_VARIATION_KEY)) {
+                    spikeVariation = Integer.parseInt(value);
+                    if (spikeVariation < 1) throw new IOException("Line " + lineNumber + ": variation must be at least 1");
+                    continue;
+                }
+            } catch (NumberFormatException e) {
+                throw new IOException("Line " + lineNumber + ": bad number in " + key);
+            }
+            throw new IOException("Line " + lineNumber + ": unknown setting " + key);
+        }
+        return new Tuning(values, firstLevels, tables, spikeVariation);
+    }
+
+    private static int indexOf(String[] keys, String key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Gets a single value.
+     *
+     * @param value One of the value constants, such as PLAYER_GRAVITY.
+     * @return The value.
+     */
+    public double get(int value) {
+        return values[value];
+    }
+
+    /**
+     * Gets a per-level value.
+     *
+     * @param table One of the table constants, such as LEVEL_ENEMIES.
+     * @param levelNumber The level number, from 1.
+     * @return The value for the level, or 0 before the table's first level.
+     */
+    public int getForLevel(int table, int levelNumber) {
+        int[] entries = tables[table];
+        int index = levelNumber - firstLevels[table];
+        if (index < 0) return 0;
+        if (index < entries.length) return entries[index];
+        int last = entries[entries.length - 1];
+        int step = entries.length > 1 ? last - entries[entries.length - 2] : 0;
+        return Math.max(0, last + step * (index - entries.length + 1));
+    }
+
+    /**
+     * Checks whether a level is covered by a per-level table.
+     *
+     * @param table One of the table constants, such as LEVEL_SPIKES.
+     * @param levelNumber The level number, from 1.
+     * @return True from the table's first level on.
+     */
+    public boolean hasLevel(int table, int levelNumber) {
+        return levelNumber >= firstLevels[table];
+    }
+
+    /**
+     * Gets how many random extra spikes a level may have, exclusive.
+     *
+     * @return The spike variation.
+     */
+    public int getSpikeVariation() {
+        return spikeVariation;
+    }
+
+    /**
+     * Gets the name a single value has in the file.
+     *
+     * @param value One of the value constants.
+     * @return The setting's name.
+     */
+    public static String getName(int value) {
+        return VALUE_KEYS[value];
+    }
+}
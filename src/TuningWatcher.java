@@ -0,0 +1,168 @@
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reloads the tuning file and the enemy behaviour file while the game runs.
+ * A thread of its own watches the folder the files are in. When one of them
+ * changes, it waits until the editor has finished writing, parses the file
+ * and leaves the result for the game engine, which swaps it in between two
+ * ticks with {@link #applyPending()}. The running level is kept: the player
+ * picks up the new tuning on its next update, while new enemy
+ * behaviours and level sizes and counts apply from the next level created.
+ * A file that does not parse is reported and the game keeps what it had.
+ *
+ * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
+ * @version 1.0
+ */
+public class TuningWatcher {
+    /** Name of the tuning file */
+    public static final String TUNING_FILE = "tuning.txt";
+    /** Name of the enemy behaviour file */
+    public static final String BEHAVIOURS_FILE = "enemy-behaviours.txt";
+
+    // Quiet time after the last change before a file is read, as editors save in several writes
+    private static final long SETTLE_MILLIS = 50;
+
+    private final Path directory;
+    private final AtomicReference<Tuning> pendingTuning = new AtomicReference<>();
+    private final AtomicReference<BehaviourLibrary> pendingBehaviours = new AtomicReference<>();
+    private WatchService watchService;
+    private Thread thread;
+    private volatile int reloads = 0;
+
+    /**
+     * Constructs a watcher for the files in a folder.
+     *
+     * @param directory The folder holding the tuning and behaviour files.
+     */
+    public TuningWatcher(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Reads the files as they are now and leaves them to be applied.
+     * Files that do not exist are skipped.
+     */
+    public void loadNow() {
+        reload(TUNING_FILE);
+        reload(BEHAVIOURS_FILE);
+    }
+
+    /**
+     * Starts watching the folder. Does nothing if it cannot be watched.
+     */
+    public void start() {
+        if (thread != null) return;
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | UnsupportedOperationException e) {
+            System.err.println("Could not watch " + directory + " for tuning changes: " + e.getMessage());
+            return;
+        }
+        thread = new Thread(this::watchLoop, "Tuning watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching the folder.
+     */
+    public void stop() {
+        if (watchService != null) {
+            try {
+                // Wakes the watching thread, which then ends
+                watchService.close();
+            } catch (IOException e) {
+                System.err.println("Could not stop watching for tuning changes: " + e.getMessage());
+            }
+            watchService = null;
+        }
+        thread = null;
+    }
+
+    private void watchLoop() {
+        WatchService service = watchService;
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean tuningChanged = false;
+                boolean behavioursChanged = false;
+                // Collect the changes until the files have been quiet for a moment
+                while (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        Object name = event.context();
+                        if (name == null) continue;
+                        tuningChanged |= name.toString().equals(TUNING_FILE);
+                        behavioursChanged |= name.toString().equals(BEHAVIOURS_FILE);
+                    }
+                    if (!key.reset()) return;
+                    key = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                if (tuningChanged) reload(TUNING_FILE);
+                if (behavioursChanged) reload(BEHAVIOURS_FILE);
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Stopped
+        }
+    }
+
+    /**
+     * Parses one of the files and leaves the result to be applied.
+     */
+    private void reload(String name) {
+        Path file = directory.resolve(name);
+        if (!Files.isRegularFile(file)) return;
+        try {
+            if (name.equals(TUNING_FILE)) {
+                pendingTuning.set(Tuning.load(file));
+            } else {
+                pendingBehaviours.set(BehaviourLibrary.load(file));
+            }
+            reloads++;
+        } catch (IOException e) {
+            System.err.println("Could not reload " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Swaps in the files read since the last call. Called by the game
+     * engine between two ticks, so every object sees the same values for a
+     * whole tick.
+     *
+     * @return True if anything was swapped in.
+     */
+    public boolean applyPending() {
+        boolean applied = false;
+        Tuning tuning = pendingTuning.getAndSet(null);
+        if (tuning != null) {
+            Tuning.setDefault(tuning);
+            applied = true;
+        }
+        BehaviourLibrary behaviours = pendingBehaviours.getAndSet(null);
+        if (behaviours != null) {
+            BehaviourLibrary.setDefault(behaviours);
+            applied = true;
+        }
+        return applied;
+    }
+
+    /**
+     * Gets how many times a file has been read successfully.
+     *
+     * @return The number of reloads.
+     */
+    public int getReloads() {
+        return reloads;
+    }
+}
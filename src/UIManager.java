@@ -5,6 +5,7 @@
  * @author Abdalla Alhajeri, Mohamed Alketbi, Ali Alharmoodi, Abdelrahman Almatrooshi, Hussain Albeshri
  * @version 1.0
  */
+import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
@@ -16,6 +17,7 @@ import javafx.geometry.Pos;
 import javafx.geometry.Insets;
 import javafx.stage.Stage;
 import javafx.application.Platform;
+import javafx.animation.AnimationTimer;
 import javafx.event.ActionEvent;
 import javafx.scene.effect.DropShadow;
 
@@ -27,9 +29,21 @@ public class UIManager {
     private Stage primaryStage;
     private javafx.event.EventHandler<ActionEvent> resetGameHandler;
     private javafx.event.EventHandler<ActionEvent> continueHandler;
-    private boolean darkMode = true;
+    private boolean darkMode = false;
     private VBox hudContainer;
     private Runnable applicationShutdownHandler;
+    private java.util.function.DoubleConsumer renderScaleHandler;
+    private Runnable saveRunHandler;
+    private Runnable loadRunHandler;
+    private double renderScale = 1.0;
+    private HighScoreStore highScoreStore;
+    private final HudModel hudModel = new HudModel();
+    private AnimationTimer hudTimer;
+    private long hudRefreshNanos = 0;
+    private long lastHudFlush = 0;
+    private int displayedScore = -1;
+    private int displayedHearts = -1;
+    private int displayedLevel = -1;
 
     /**
      * Constructs a new UIManager with the specified score manager.
@@ -38,6 +52,21 @@ public class UIManager {
      */
     public UIManager(ScoreManager scoreManager) {
         this.scoreManager = scoreManager;
+        hudModel.addListener((hud, changed) -> {
+            if ((changed & HudModel.SCORE) != 0) updateScore(hud.getScore());
+            if ((changed & HudModel.HEARTS) != 0) updateHearts(hud.getHearts());
+            if ((changed & HudModel.LEVEL) != 0) updateLevel(hud.getLevel());
+        });
+    }
+
+    /**
+     * Gets the HUD model the game writes its score, hearts and level to.
+     * Changes are applied to the HUD once per frame.
+     * 
+     * @return The HUD model.
+     */
+    public HudModel getHudModel() {
+        return hudModel;
     }
 
     /**
@@ -67,13 +96,39 @@ public class UIManager {
         this.continueHandler = handler;
     }
 
+    /**
+     * Sets the handler for render scale changes from the View menu.
+     * 
+     * @param handler The handler receiving the chosen render scale.
+     * @param currentScale The render scale the game starts with.
+     */
+    public void setRenderScaleHandler(java.util.function.DoubleConsumer handler, double currentScale) {
+        this.renderScaleHandler = handler;
+        this.renderScale = currentScale;
+    }
+
+    /**
+     * Sets the handlers for saving the run in progress and resuming a saved one
+     * from the File menu.
+     * 
+     * @param saveHandler The handler that saves the run.
+     * @param loadHandler The handler that resumes the saved run.
+     */
+    public void setRunSaveHandlers(Runnable saveHandler, Runnable loadHandler) {
+        this.saveRunHandler = saveHandler;
+        this.loadRunHandler = loadHandler;
+    }
+
     /**
      * Sets dark mode display setting.
+     * Switches the game world to the night theme while dark mode is on.
      * 
      * @param darkMode True to enable dark mode, false otherwise.
      */
     public void setDarkMode(boolean darkMode) {
         this.darkMode = darkMode;
+        scoreManager.setDarkMode(darkMode);
+        Palette.setTheme(darkMode ? Theme.NIGHT : Theme.DAY);
         Platform.runLater(() -> updateUIColors());
     }
 
@@ -101,17 +156,46 @@ public class UIManager {
                     if (resetGameHandler != null) resetGameHandler.handle(e);
             });
 
+        MenuItem saveRunItem = new MenuItem("Save Run");
+        saveRunItem.setOnAction(e -> {
+                    if (saveRunHandler != null) saveRunHandler.run();
+            });
+        MenuItem loadRunItem = new MenuItem("Resume Saved Run");
+        loadRunItem.setOnAction(e -> {
+                    if (loadRunHandler != null) loadRunHandler.run();
+            });
+
         MenuItem quitItem = new MenuItem("Quit");
         quitItem.setOnAction(e -> applicationShutdownHandler.run());
 
-        fileMenu.getItems().addAll(newGameItem, new SeparatorMenuItem(), quitItem);
+        fileMenu.getItems().addAll(newGameItem, saveRunItem, loadRunItem, new SeparatorMenuItem(), quitItem);
+
+        Menu viewMenu = new Menu("View");
+        CheckMenuItem darkModeItem = new CheckMenuItem("Dark Mode");
+        darkModeItem.setSelected(darkMode);
+        darkModeItem.setOnAction(e -> setDarkMode(darkModeItem.isSelected()));
+
+        Menu renderScaleMenu = new Menu("Render Scale");
+        ToggleGroup renderScaleGroup = new ToggleGroup();
+        for (double scale : new double[] {0.5, 0.75, 1.0, 1.5, 2.0}) {
+            RadioMenuItem scaleItem = new RadioMenuItem(Math.round(scale * 100) + "%");
+            scaleItem.setToggleGroup(renderScaleGroup);
+            scaleItem.setSelected(scale == renderScale);
+            scaleItem.setOnAction(e -> {
+                renderScale = scale;
+                if (renderScaleHandler != null) renderScaleHandler.accept(scale);
+            });
+            renderScaleMenu.getItems().add(scaleItem);
+        }
+
+        viewMenu.getItems().addAll(darkModeItem, renderScaleMenu);
 
         Menu helpMenu = new Menu("Help");
         MenuItem aboutItem = new MenuItem("About");
         aboutItem.setOnAction(e -> showAboutDialog());
 
         helpMenu.getItems().add(aboutItem);
-        menuBar.getMenus().addAll(fileMenu, helpMenu);
+        menuBar.getMenus().addAll(fileMenu, viewMenu, helpMenu);
         return menuBar;
     }
 
@@ -144,29 +228,79 @@ public class UIManager {
         statsRow.getChildren().addAll(heartContainer, scoreText);
         hudContainer.getChildren().addAll(levelPane, statsRow);
         updateUIColors();
+        startHudUpdates();
         return hudContainer;
     }
 
+    /**
+     * Creates a HUD that is drawn into the game canvas instead of the scene graph.
+     * Used in place of {@link #createHUD(int)} when the game should run with a single canvas node.
+     * 
+     * @param canvasWidth The width of the game canvas.
+     * @return The created canvas HUD.
+     */
+    public CanvasHud createCanvasHud(double canvasWidth) {
+        CanvasHud hud = new CanvasHud(hudModel, canvasWidth);
+        startHudUpdates();
+        return hud;
+    }
+
+    /**
+     * Limits how often HUD changes are applied.
+     * 
+     * @param timesPerSecond The most HUD refreshes per second, 0 to refresh every pulse.
+     */
+    public void setHudRefreshRate(int timesPerSecond) {
+        hudRefreshNanos = timesPerSecond > 0 ? 1_000_000_000L / timesPerSecond : 0;
+    }
+
+    /**
+     * Starts applying batched HUD changes once per pulse, or less often
+     * when a HUD refresh rate is set.
+     */
+    private void startHudUpdates() {
+        if (hudTimer != null) return;
+        hudTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (now - lastHudFlush < hudRefreshNanos) return;
+                lastHudFlush = now;
+                hudModel.flush();
+            }
+        };
+        hudTimer.start();
+    }
+
     /**
      * Updates the score display.
      * 
      * @param score The score to display.
      */
     public void updateScore(int score) {
-        if (scoreText != null) scoreText.setText("SCORE: " + score);
+        if (scoreText != null && score != displayedScore) {
+            displayedScore = score;
+            scoreText.setText("SCORE: " + score);
+        }
     }
 
     /**
      * Updates the heart display based on player health.
+     * Heart shapes are created once and then only shown or hidden.
      * 
      * @param health The number of hearts to display.
      */
     public void updateHearts(int health) {
-        if (heartContainer != null) {
-            heartContainer.getChildren().clear();
-            for (int i = 0; i < health; i++) {
+        if (heartContainer != null && health != displayedHearts) {
+            displayedHearts = health;
+            while (heartContainer.getChildren().size() < health) {
                 heartContainer.getChildren().add(createHeart());
             }
+            for (int i = 0; i < heartContainer.getChildren().size(); i++) {
+                // Hidden hearts must also leave the layout, or the row keeps their gaps
+                Node heart = heartContainer.getChildren().get(i);
+                heart.setVisible(i < health);
+                heart.setManaged(i < health);
+            }
         }
     }
 
@@ -201,7 +335,10 @@ public class UIManager {
      * @param level The level number to display.
      */
     public void updateLevel(int level) {
-        if (levelText != null) levelText.setText("LEVEL " + level);
+        if (levelText != null && level != displayedLevel) {
+            displayedLevel = level;
+            levelText.setText("LEVEL " + level);
+        }
     }
 
     /**
@@ -285,7 +422,7 @@ public class UIManager {
 
         DialogPane dialogPane = dialog.getDialogPane();
         dialogPane.setPrefWidth(400);
-        dialogPane.setPrefHeight(300);
+        dialogPane.setPrefHeight(highScoreStore != null ? 450 : 300);
 
         VBox content = new VBox(20);
         content.setAlignment(Pos.CENTER);
@@ -310,6 +447,11 @@ public class UIManager {
         levelText.setFont(Font.font("Arial", 18));
         levelText.setFill(Color.WHITE);
 
+        content.getChildren().addAll(headerText, scoreText, levelText);
+        if (highScoreStore != null) {
+            content.getChildren().add(createLeaderboardView(finalScore));
+        }
+
         HBox buttonBox = new HBox(30);
         buttonBox.setAlignment(Pos.CENTER);
         buttonBox.setPadding(new Insets(15, 0, 0, 0));
@@ -331,7 +473,7 @@ public class UIManager {
         buttonBox.getChildren().addAll(playAgainButton, quitButton);
 
         // Simple layout
-        content.getChildren().addAll(headerText, scoreText, levelText, buttonBox);
+        content.getChildren().add(buttonBox);
 
         dialogPane.getButtonTypes().clear();
         dialogPane.setContent(content);
@@ -341,6 +483,33 @@ public class UIManager {
         dialog.showAndWait();
     }
 
+    /**
+     * Creates the leaderboard section of the game over dialog.
+     * 
+     * @param finalScore The score of the run that just ended.
+     * @return A box listing the best recorded runs.
+     */
+    private VBox createLeaderboardView(int finalScore) {
+        VBox board = new VBox(4);
+        board.setAlignment(Pos.CENTER);
+
+        Text title = new Text(finalScore > 0 && finalScore >= highScoreStore.getHighScore()
+            ? "NEW HIGH SCORE!" : "HIGH SCORES");
+        title.setFont(Font.font("Arial", FontWeight.BOLD, 18));
+        title.setFill(Color.WHITE);
+        board.getChildren().add(title);
+
+        int rank = 1;
+        for (RunRecord run : highScoreStore.getTopRuns(5)) {
+            Text entry = new Text(rank + ".  " + run.getScore() + "  (level " + run.getLevelReached() + ")");
+            entry.setFont(Font.font("Arial", 14));
+            entry.setFill(Color.WHITE);
+            board.getChildren().add(entry);
+            rank++;
+        }
+        return board;
+    }
+
     /**
      * Shows a game over dialog with the final score.
      * Overloaded method that doesn't include level information.
@@ -385,6 +554,15 @@ public class UIManager {
         dialog.showAndWait();
     }
     
+    /**
+     * Sets the persistent leaderboard shown in the game over dialog.
+     * 
+     * @param store The high score store, or null to hide the leaderboard.
+     */
+    public void setHighScoreStore(HighScoreStore store) {
+        this.highScoreStore = store;
+    }
+    
     public void setApplicationShutdownHandler(Runnable handler) {
         this.applicationShutdownHandler = handler;
     }
@@ -1,5 +1,4 @@
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.paint.Color;
 
 /**
  * Vulture enemy that swoops vertically to attack the player.
@@ -8,9 +7,10 @@ import javafx.scene.paint.Color;
  * @version 1.0
  */
 public class Vulture extends Enemy {
-    private double swoopHeight = 150.0;
+    private static final double SPEED = 150.0;
+    private static final double SWOOP_HEIGHT = 150.0;
+
     private boolean isSwooping = false;
-    private double initialY;
 
     /**
      * Creates a new vulture enemy at the specified position.
@@ -19,10 +19,7 @@ public class Vulture extends Enemy {
      * @param y The y-coordinate of the vulture
      */
     public Vulture(double x, double y) {
-        super(x, y, 50, 30);
-        this.speed = 150.0;
-        this.damage = 1.0f;
-        this.initialY = y;
+        super(x, y, 50, 30, 1.0f);
     }
 
     /**
@@ -35,14 +32,33 @@ public class Vulture extends Enemy {
         if (!isActive) return;
 
         if (isSwooping) {
-            y += speed * deltaTime;
-            if (y > initialY + swoopHeight) isSwooping = false;
+            y += SPEED * deltaTime;
+            if (y > initialY + SWOOP_HEIGHT) isSwooping = false;
         } else {
-            y -= speed * deltaTime;
+            y -= SPEED * deltaTime;
             if (y < initialY) isSwooping = true;
         }
     }
 
+    @Override
+    public int getStateSize() {
+        return super.getStateSize() + 1;
+    }
+
+    @Override
+    public int writeState(double[] state, int offset) {
+        offset = super.writeState(state, offset);
+        state[offset] = isSwooping ? 1 : 0;
+        return offset + 1;
+    }
+
+    @Override
+    public int readState(double[] state, int offset) {
+        offset = super.readState(state, offset);
+        isSwooping = state[offset] != 0;
+        return offset + 1;
+    }
+
     /**
      * Renders the vulture as a triangular shape.
      * 
@@ -51,8 +67,26 @@ public class Vulture extends Enemy {
     @Override
     public void render(GraphicsContext gc) {
         if (!isActive) return;
+        draw(new PaintState(gc), x, y, getWidth(), getHeight());
+    }
 
-        gc.setFill(Color.web("#8B4513"));
+    @Override
+    protected RenderCommand.Kind getRenderKind() {
+        return RenderCommand.Kind.VULTURE;
+    }
+
+    /**
+     * Draws a vulture with the given bounds.
+     * 
+     * @param paint The paint state to draw with
+     * @param x The x-coordinate of the vulture
+     * @param y The y-coordinate of the vulture
+     * @param width The width of the vulture
+     * @param height The height of the vulture
+     */
+    public static void draw(PaintState paint, double x, double y, double width, double height) {
+        GraphicsContext gc = paint.getContext();
+        paint.setFill(Palette.color(Palette.WOOD));
         gc.fillPolygon(
             new double[]{x, x + width / 2, x + width},
             new double[]{y + height, y, y + height},
@@ -68,7 +102,7 @@ public class Vulture extends Enemy {
     @Override
     public void attack(Player player) {
         if (collidesWith(player) && player.isActive() && !player.isInvincible()) {
-            player.takeDamage(damage);
+            player.takeDamage(getDamage());
             AnimationManager.createEnemyAttackAnimation(this);
         }
     }